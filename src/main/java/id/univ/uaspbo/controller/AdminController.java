@@ -1,18 +1,37 @@
 package id.univ.uaspbo.controller;
 
+import id.univ.uaspbo.model.BulkResult;
+import id.univ.uaspbo.model.ProductEdit;
+import id.univ.uaspbo.query.TransactionQuery;
+import id.univ.uaspbo.query.TransactionQueryEngine;
+import id.univ.uaspbo.service.AdmissionLimiter;
+import id.univ.uaspbo.service.Outlet;
+import id.univ.uaspbo.service.OutletService;
 import id.univ.uaspbo.service.ProductService;
 import id.univ.uaspbo.service.TransactionService;
 import id.univ.uaspbo.service.UserService;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.servlet.http.HttpSession;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * Kelas controller yang mengelola semua operasi terkait admin,
  * seperti manajemen produk, transaksi, pengguna, dan laporan dalam sistem.
  * Kelas ini bertindak sebagai penghubung antara view (template) dan service
  * yang memproses data bisnis pada bagian admin aplikasi.
+ * Produk, transaksi, dan laporan per outlet memakai outlet yang dipilih pada sesi (atribut "outlet");
+ * pengguna dipakai bersama oleh semua outlet, dan halaman /admin/outlets merangkum seluruh outlet.
  * Semua method di kelas ini memerlukan autentikasi sebagai admin agar dapat diakses.
  *
  * Konsep Object Oriented Programming (OOP) yang dipakai:
@@ -24,18 +43,20 @@ import jakarta.servlet.http.HttpSession;
 @RequestMapping("/admin")
 public class AdminController {
 
-    private final ProductService productService;
-    private final TransactionService transactionService;
+    private final OutletService outletService;
     private final UserService userService;
+    private final AdmissionLimiter admission;
 
     /**
      * Konstruktor utama kelas AdminController.
-     * Menginisialisasi service produk, transaksi, dan pengguna yang akan digunakan oleh controller.
+     * Menginisialisasi service outlet (produk, transaksi, dan event dashboard setiap outlet) dan
+     * service pengguna yang akan digunakan oleh controller, serta kontrol beban untuk halaman
+     * laporan dan transaksi.
      */
-    public AdminController(ProductService productService, TransactionService transactionService, UserService userService) {
-        this.productService = productService;
-        this.transactionService = transactionService;
+    public AdminController(OutletService outletService, UserService userService, AdmissionLimiter admission) {
+        this.outletService = outletService;
         this.userService = userService;
+        this.admission = admission;
     }
 
     /**
@@ -46,21 +67,58 @@ public class AdminController {
         return u != null && ((id.univ.uaspbo.model.User)u).getRole().equalsIgnoreCase("ADMIN");
     }
 
+    /**
+     * Mendapatkan outlet yang dipilih pada sesi, atau outlet utama jika belum memilih.
+     */
+    private Outlet outlet(HttpSession s) {
+        return outletService.get((String) s.getAttribute("outlet"));
+    }
+
+    /**
+     * Menjawab permintaan yang ditolak kontrol beban dengan status 503 dan halaman "sibuk".
+     */
+    private String busy(HttpServletResponse res, Model m, String retryUrl) {
+        res.setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+        res.setHeader("Retry-After", "1");
+        m.addAttribute("retryUrl", retryUrl);
+        return "busy";
+    }
+
     /**
      * Menampilkan halaman dashboard admin yang berisi ringkasan
      * data produk, transaksi, dan pengguna.
+     * Jumlah produk, pengguna, dan transaksi serta total pendapatan diambil dari penghitung di memori,
+     * dan 5 transaksi terbaru dari buffer transaksi terbaru, sehingga riwayat transaksi tidak pernah
+     * dibaca; perubahan berikutnya dikirim langsung ke halaman lewat /admin/events.
      * Halaman ini hanya dapat diakses oleh admin yang sudah login,
      * jika bukan admin maka akan diarahkan ke halaman login.
      */
     @GetMapping
     public String dashboard(HttpSession s, Model m) {
         if (!isAdmin(s)) return "redirect:/login";
-        m.addAttribute("products", productService.getAll());
-        m.addAttribute("transactions", transactionService.getAll());
-        m.addAttribute("users", userService.getAll());
+        Outlet outlet = outlet(s);
+        ProductService productService = outlet.getProducts();
+        TransactionService transactionService = outlet.getTransactions();
+        m.addAttribute("products", productService.getFirst(5));
+        m.addAttribute("productCount", productService.count());
+        m.addAttribute("transactionCount", transactionService.getOrderCount());
+        m.addAttribute("totalRevenue", transactionService.getRevenueTotal());
+        m.addAttribute("transactions", transactionService.getLatest(5));
+        m.addAttribute("userCount", userService.count());
         return "admin/dashboard";
     }
 
+    /**
+     * Membuka aliran Server-Sent Events untuk dashboard admin: transaksi baru, perubahan stok,
+     * dan selisih penghitung dikirim begitu terjadi sehingga halaman tidak perlu dimuat ulang.
+     * Jika bukan admin, permintaan ditolak dengan status 403.
+     */
+    @GetMapping(path = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> events(HttpSession s) {
+        if (!isAdmin(s)) return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        return ResponseEntity.ok(outlet(s).getEvents().subscribe());
+    }
+
     /**
      * Menampilkan halaman manajemen produk yang berisi daftar produk.
      * Hanya dapat diakses oleh admin yang sudah login.
@@ -69,13 +127,15 @@ public class AdminController {
     @GetMapping("/products")
     public String products(HttpSession s, Model m) {
         if (!isAdmin(s)) return "redirect:/login";
+        ProductService productService = outlet(s).getProducts();
         m.addAttribute("products", productService.getAll());
         return "admin/products";
     }
 
     /**
      * Menampilkan halaman manajemen pengguna yang meliputi daftar pengguna
-     * dan riwayat transaksi mereka.
+     * dan ringkasan belanja mereka (jumlah pesanan, total belanja, pesanan terakhir).
+     * Ringkasan diambil dari agregat per pengguna sehingga tidak perlu memuat seluruh transaksi.
      * Hanya dapat diakses oleh admin yang sudah login.
      * Jika bukan admin, pengguna diarahkan ke halaman login.
      */
@@ -83,7 +143,7 @@ public class AdminController {
     public String users(HttpSession s, Model m) {
         if (!isAdmin(s)) return "redirect:/login";
         m.addAttribute("users", userService.getAll());
-        m.addAttribute("transactions", transactionService.getAll());
+        m.addAttribute("userSpending", outletService.getUserSpending());
         return "admin/users";
     }
 
@@ -91,34 +151,173 @@ public class AdminController {
      * Menampilkan halaman laporan yang berisi ringkasan
      * statistik transaksi seperti total pendapatan, jumlah pesanan,
      * rata-rata nilai pesanan, dan nilai pesanan tertinggi.
+     * Jika parameter from/to diisi, ditampilkan juga ringkasan periode tersebut
+     * yang dihitung hanya dari segmen bulan yang beririsan.
+     * Halaman ini juga memuat daftar produk terlaris (top) pada periode yang sama,
+     * diurutkan berdasarkan kriteria sortBy, statistik konflik pembaruan dan kontrol beban,
+     * serta laporan integritas data dari pemulihan saat startup.
+     * Saat server sibuk, halaman ini termasuk yang pertama ditolak (prioritas ADMIN).
      * Hanya dapat diakses oleh admin yang sudah login.
      * Jika bukan admin, pengguna diarahkan ke halaman login.
      */
     @GetMapping("/reports")
-    public String reports(HttpSession s, Model m) {
+    public String reports(HttpSession s, Model m,
+                          @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                          @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                          @RequestParam(defaultValue = "10") int top,
+                          @RequestParam(defaultValue = "quantity") String sortBy,
+                          HttpServletResponse res) {
         if (!isAdmin(s)) return "redirect:/login";
-        int totalRevenue = transactionService.getTotalRevenue();
-        int totalOrders = transactionService.getTotalOrders();
-        double averageOrder = transactionService.getAverageOrder();
-        int highestOrder = transactionService.getHighestOrder();
+        Outlet outlet = outlet(s);
+        ProductService productService = outlet.getProducts();
+        TransactionService transactionService = outlet.getTransactions();
+        try (AdmissionLimiter.Permit permit = admission.tryAcquire(AdmissionLimiter.Priority.ADMIN)) {
+            if (permit == null) return busy(res, m, "/admin/reports");
+            long totalRevenue = transactionService.getTotalRevenue();
+            int totalOrders = transactionService.getTotalOrders();
+            double averageOrder = transactionService.getAverageOrder();
+            int highestOrder = transactionService.getHighestOrder();
+
+            m.addAttribute("totalRevenue", totalRevenue);
+            m.addAttribute("totalOrders", totalOrders);
+            m.addAttribute("averageOrder", averageOrder);
+            m.addAttribute("highestOrder", highestOrder);
 
-        m.addAttribute("totalRevenue", totalRevenue);
-        m.addAttribute("totalOrders", totalOrders);
-        m.addAttribute("averageOrder", averageOrder);
-        m.addAttribute("highestOrder", highestOrder);
-        return "admin/reports";
+            LocalDateTime start = from != null ? from.atStartOfDay() : null;
+            LocalDateTime end = to != null ? to.plusDays(1).atStartOfDay() : null;
+            if (from != null || to != null) {
+                m.addAttribute("periodRevenue", transactionService.getRevenueBetween(start, end));
+                m.addAttribute("periodOrders", transactionService.getOrdersBetween(start, end));
+            }
+            m.addAttribute("bestSellers", transactionService.getBestSellers(start, end, top, sortBy));
+            m.addAttribute("from", from);
+            m.addAttribute("to", to);
+            m.addAttribute("top", top);
+            m.addAttribute("sortBy", sortBy);
+            m.addAttribute("segments", transactionService.getSegments());
+            m.addAttribute("updateStats", List.of(productService.getUpdateStats(), userService.getUpdateStats()));
+            m.addAttribute("admissionStats", admission.getStats());
+            m.addAttribute("recoveryReport", transactionService.getRecoveryReport());
+            return "admin/reports";
+        }
+    }
+
+    /**
+     * Menampilkan laporan kantor pusat lintas outlet: ringkasan setiap outlet (produk, stok,
+     * pesanan, dan pendapatan sepanjang waktu serta pada periode from/to) beserta totalnya,
+     * dan produk terlaris gabungan seluruh outlet yang digabung berdasarkan nama produk.
+     * Saat server sibuk, halaman ini ditolak lebih dulu daripada checkout dan login (prioritas ADMIN).
+     * Hanya dapat diakses oleh admin yang sudah login.
+     * Jika bukan admin, pengguna diarahkan ke halaman login.
+     */
+    @GetMapping("/outlets")
+    public String outlets(HttpSession s, Model m,
+                          @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                          @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                          @RequestParam(defaultValue = "10") int top,
+                          @RequestParam(defaultValue = "quantity") String sortBy,
+                          HttpServletResponse res) {
+        if (!isAdmin(s)) return "redirect:/login";
+        try (AdmissionLimiter.Permit permit = admission.tryAcquire(AdmissionLimiter.Priority.ADMIN)) {
+            if (permit == null) return busy(res, m, "/admin/outlets");
+            LocalDateTime start = from != null ? from.atStartOfDay() : null;
+            LocalDateTime end = to != null ? to.plusDays(1).atStartOfDay() : null;
+            m.addAttribute("summaries", outletService.getSummaries(start, end));
+            m.addAttribute("bestSellers", outletService.getBestSellers(start, end, top, sortBy));
+            m.addAttribute("current", outlet(s).getId());
+            m.addAttribute("from", from);
+            m.addAttribute("to", to);
+            m.addAttribute("top", top);
+            m.addAttribute("sortBy", sortBy);
+            return "admin/outlets";
+        }
+    }
+
+    /**
+     * Menampilkan halaman riwayat penjualan satu produk: ringkasan dan rincian harian penjualan,
+     * produk yang sering dibeli bersamanya, dan pesanan terbaru yang memuatnya pada periode from/to.
+     * Riwayat dibaca dari indeks produk sehingga biayanya sebanding dengan penjualan produk itu.
+     * Saat server sibuk, halaman ini ditolak lebih dulu daripada checkout dan login (prioritas ADMIN).
+     * Hanya dapat diakses oleh admin yang sudah login.
+     * Jika bukan admin, pengguna diarahkan ke halaman login.
+     */
+    @GetMapping("/reports/product")
+    public String productSales(HttpSession s, Model m,
+                               @RequestParam String productId,
+                               @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                               @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                               HttpServletResponse res) {
+        if (!isAdmin(s)) return "redirect:/login";
+        Outlet outlet = outlet(s);
+        ProductService productService = outlet.getProducts();
+        TransactionService transactionService = outlet.getTransactions();
+        try (AdmissionLimiter.Permit permit = admission.tryAcquire(AdmissionLimiter.Priority.ADMIN)) {
+            if (permit == null) return busy(res, m, "/admin/reports");
+            LocalDateTime start = from != null ? from.atStartOfDay() : null;
+            LocalDateTime end = to != null ? to.plusDays(1).atStartOfDay() : null;
+            m.addAttribute("history", transactionService.getProductSales(productId, start, end, 20, 5));
+            m.addAttribute("products", productService.getAll());
+            m.addAttribute("from", from);
+            m.addAttribute("to", to);
+            return "admin/product-sales";
+        }
     }
 
     /**
      * Menampilkan halaman daftar transaksi.
+     * Daftar dapat difilter berdasarkan rentang waktu (from/to), pengguna, produk, dan total minimum,
+     * dibatasi jumlahnya (limit), dan diurutkan dari yang terlama, terbaru, atau berdasarkan total (order).
+     * Query dijalankan TransactionQueryEngine dan rencana eksekusinya (explain) ditampilkan di halaman.
+     * Saat server sibuk, halaman ini ditolak lebih dulu daripada checkout dan login (prioritas ADMIN).
      * Hanya dapat diakses oleh admin yang sudah login.
      * Jika bukan admin, pengguna diarahkan ke halaman login.
      */
     @GetMapping("/transactions")
-    public String transactions(HttpSession s, Model m) {
+    public String transactions(HttpSession s, Model m,
+                               @RequestParam(required = false) @DateTimeFormat(pattern = "yyyy-MM-dd'T'HH:mm") LocalDateTime from,
+                               @RequestParam(required = false) @DateTimeFormat(pattern = "yyyy-MM-dd'T'HH:mm") LocalDateTime to,
+                               @RequestParam(required = false) String userId,
+                               @RequestParam(required = false) String productId,
+                               @RequestParam(required = false) Integer minTotal,
+                               @RequestParam(defaultValue = "0") int limit,
+                               @RequestParam(defaultValue = "asc") String order,
+                               HttpServletResponse res) {
         if (!isAdmin(s)) return "redirect:/login";
-        m.addAttribute("transactions", transactionService.getAll());
-        return "admin/transactions";
+        Outlet outlet = outlet(s);
+        ProductService productService = outlet.getProducts();
+        TransactionService transactionService = outlet.getTransactions();
+        try (AdmissionLimiter.Permit permit = admission.tryAcquire(AdmissionLimiter.Priority.ADMIN)) {
+            if (permit == null) return busy(res, m, "/admin/transactions");
+            TransactionQuery.Order sort = switch (order.toLowerCase()) {
+                case "desc" -> TransactionQuery.Order.NEWEST;
+                case "total-desc" -> TransactionQuery.Order.TOTAL_DESC;
+                case "total-asc" -> TransactionQuery.Order.TOTAL_ASC;
+                default -> TransactionQuery.Order.OLDEST;
+            };
+            String user = userId != null && !userId.isBlank() ? userId : null;
+            String product = productId != null && !productId.isBlank() ? productId : null;
+            TransactionQueryEngine.Result result = transactionService.query(TransactionQuery.all()
+                    .user(user).product(product).between(from, to).minTotal(minTotal).orderBy(sort).limit(limit));
+            m.addAttribute("transactions", result.transactions());
+            m.addAttribute("explain", result.explain());
+            m.addAttribute("users", userService.getAll());
+            m.addAttribute("products", productService.getAll());
+            m.addAttribute("from", from);
+            m.addAttribute("to", to);
+            m.addAttribute("userId", user);
+            m.addAttribute("productId", product);
+            m.addAttribute("minTotal", minTotal);
+            m.addAttribute("limit", limit);
+            m.addAttribute("order", switch (sort) {
+                case NEWEST -> "desc";
+                case TOTAL_DESC -> "total-desc";
+                case TOTAL_ASC -> "total-asc";
+                case OLDEST -> "asc";
+            });
+            // baris baru dari event langsung hanya benar jika tidak ada filter selain batas bawah waktu
+            m.addAttribute("live", to == null && user == null && product == null && minTotal == null && sort.byTime());
+            return "admin/transactions";
+        }
     }
 
     /**
@@ -139,6 +338,7 @@ public class AdminController {
 
     /**
      * Memperbarui peran (role) pengguna berdasarkan email pengguna yang sudah ada.
+     * Perubahan diterapkan ulang pada versi terkini jika pengguna diubah bersamaan (updateWithRetry).
      * Hanya admin yang sudah login dapat mengakses fungsi ini.
      * Jika bukan admin, pengguna diarahkan ke halaman login.
      */
@@ -147,8 +347,10 @@ public class AdminController {
         if (!isAdmin(s)) return "redirect:/login";
         id.univ.uaspbo.model.User u = userService.findByEmail(email);
         if (u != null) {
-            u.setRole(role.toUpperCase());
-            userService.update(u);
+            userService.updateWithRetry(u.getId(), x -> {
+                x.setRole(role.toUpperCase());
+                return x;
+            });
         }
         return "redirect:/admin/users";
     }
@@ -166,16 +368,20 @@ public class AdminController {
     }
 
     /**
-     * Melakukan penyimpanan data secara manual.
-     * Walaupun data sudah otomatis tersimpan melalui FileRepository,
-     * method ini dapat digunakan untuk memaksa penyimpanan saat dibutuhkan.
+     * Melakukan penyimpanan data secara manual ("flush now").
+     * Perubahan stok dan perubahan yang masih antre di write-behind ditulis ke file saat itu juga,
+     * sehingga setelah method ini selesai semua perubahan sebelumnya sudah tersimpan di disk.
      * Hanya admin yang sudah login dapat menggunakan fitur ini.
      * Jika bukan admin, pengguna diarahkan ke halaman login.
      */
     @PostMapping("/save")
     public String saveData(HttpSession s) {
         if (!isAdmin(s)) return "redirect:/login";
-        // Data sudah otomatis tersimpan oleh FileRepository, method ini hanya untuk force save
+        userService.flush();
+        for (Outlet o : outletService.getAll()) {
+            o.getProducts().flush();
+            o.getTransactions().flush();
+        }
         return "redirect:/admin";
     }
     
@@ -190,6 +396,7 @@ public class AdminController {
                              @RequestParam int price,
                              @RequestParam int stock) {
         if (!isAdmin(s)) return "redirect:/login";
+        ProductService productService = outlet(s).getProducts();
         id.univ.uaspbo.model.Product p = new id.univ.uaspbo.model.Product();
         p.setName(name);
         p.setPrice(price);
@@ -200,26 +407,111 @@ public class AdminController {
 
     /**
      * Menangani pembaruan data produk yang sudah ada berdasarkan form input.
+     * Nama dan harga diperbarui dengan compare-and-set terhadap versi produk saat form ditampilkan;
+     * jika produk sudah diubah admin lain, halaman ditampilkan ulang dengan pesan error.
+     * Perubahan stok diterapkan sebagai selisih terhadap stok yang terlihat di form (stockSeen),
+     * sehingga pengurangan stok oleh checkout di antaranya tidak tertimpa. Pengurangan stok hanya
+     * diterapkan jika stok saat ini mencukupi; jika tidak, halaman ditampilkan ulang dengan pesan error.
      * Hanya admin yang sudah login dapat melakukan pembaruan data produk.
      * Jika bukan admin, pengguna diarahkan ke halaman login.
      */
     @PostMapping("/products/update")
-    public String updateProduct(HttpSession s,
+    public String updateProduct(HttpSession s, Model m,
                                 @RequestParam String id,
                                 @RequestParam String name,
                                 @RequestParam int price,
-                                @RequestParam int stock) {
+                                @RequestParam int stock,
+                                @RequestParam(defaultValue = "0") long version,
+                                @RequestParam(required = false) Integer stockSeen) {
         if (!isAdmin(s)) return "redirect:/login";
+        ProductService productService = outlet(s).getProducts();
         id.univ.uaspbo.model.Product p = productService.findById(id);
         if (p != null) {
             p.setName(name);
             p.setPrice(price);
-            p.setStock(stock);
-            productService.update(p);
+            p.setVersion(version);
+            if (!productService.update(p)) {
+                m.addAttribute("products", productService.getAll());
+                m.addAttribute("error", "Produk " + name + " telah diubah oleh admin lain. Periksa data terbaru lalu ulangi.");
+                return "admin/products";
+            }
+            int delta = stock - (stockSeen != null ? stockSeen : p.getStock());
+            if (delta != 0 && !productService.addStock(id, delta)) {
+                m.addAttribute("products", productService.getAll());
+                m.addAttribute("error", "Nama dan harga " + name + " disimpan, tetapi stok tidak mencukupi untuk dikurangi "
+                        + (-delta) + " (stok saat ini " + productService.getStock(id) + ").");
+                return "admin/products";
+            }
         }
         return "redirect:/admin/products";
     }
 
+    /**
+     * Menangani edit massal harga dan stok dari tabel edit massal di halaman produk.
+     * Setiap baris dikirim sebagai elemen ke-i dari parameter id, price, stock, stockSeen, dan version;
+     * perubahan stok diterapkan sebagai selisih terhadap stok yang terlihat di form.
+     * Semua baris diterapkan sebagai satu batch dan hasil per produk ditampilkan di halaman produk.
+     * Hanya admin yang sudah login dapat melakukan edit massal.
+     */
+    @PostMapping("/products/bulk-update")
+    public String bulkUpdateProducts(HttpSession s, Model m,
+                                     @RequestParam List<String> id,
+                                     @RequestParam List<Integer> price,
+                                     @RequestParam List<Integer> stock,
+                                     @RequestParam List<Integer> stockSeen,
+                                     @RequestParam List<Long> version) {
+        if (!isAdmin(s)) return "redirect:/login";
+        ProductService productService = outlet(s).getProducts();
+        int n = id.size();
+        if (price.size() != n || stock.size() != n || stockSeen.size() != n || version.size() != n) {
+            m.addAttribute("products", productService.getAll());
+            m.addAttribute("error", "Data edit massal tidak lengkap. Muat ulang halaman lalu ulangi.");
+            return "admin/products";
+        }
+        List<ProductEdit> edits = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            edits.add(ProductEdit.of(id.get(i), price.get(i), stock.get(i) - stockSeen.get(i), version.get(i)));
+        }
+        return bulkResults(productService, m, productService.applyBulk(edits));
+    }
+
+    /**
+     * Menangani perubahan harga dalam persen untuk produk yang dipilih, atau semua produk
+     * jika tidak ada yang dipilih, sebagai satu batch.
+     * Hanya admin yang sudah login dapat mengubah harga.
+     */
+    @PostMapping("/products/bulk-price")
+    public String bulkPrice(HttpSession s, Model m,
+                            @RequestParam double percent,
+                            @RequestParam(required = false) List<String> ids) {
+        if (!isAdmin(s)) return "redirect:/login";
+        ProductService productService = outlet(s).getProducts();
+        return bulkResults(productService, m, productService.changePrices(ids, percent));
+    }
+
+    /**
+     * Menangani restock dari daftar teks, satu baris "nama produk, jumlah" per produk,
+     * sebagai satu batch.
+     * Hanya admin yang sudah login dapat melakukan restock.
+     */
+    @PostMapping("/products/restock")
+    public String restock(HttpSession s, Model m, @RequestParam String items) {
+        if (!isAdmin(s)) return "redirect:/login";
+        ProductService productService = outlet(s).getProducts();
+        return bulkResults(productService, m, productService.restockFromList(items));
+    }
+
+    /**
+     * Menampilkan halaman produk beserta hasil per item dari operasi massal.
+     */
+    private String bulkResults(ProductService productService, Model m, List<BulkResult> results) {
+        m.addAttribute("products", productService.getAll());
+        m.addAttribute("bulkResults", results);
+        long failed = results.stream().filter(r -> !r.isSuccess()).count();
+        if (failed > 0) m.addAttribute("error", failed + " dari " + results.size() + " item gagal diterapkan. Lihat hasil di bawah.");
+        return "admin/products";
+    }
+
     /**
      * Menangani penghapusan produk berdasarkan ID produk.
      * Hanya admin yang sudah login dapat menghapus produk.
@@ -229,6 +521,7 @@ public class AdminController {
     public String deleteProduct(HttpSession s,
                                 @RequestParam String id) {
         if (!isAdmin(s)) return "redirect:/login";
+        ProductService productService = outlet(s).getProducts();
         productService.delete(id);
         return "redirect:/admin/products";
     }
@@ -1,12 +1,17 @@
 package id.univ.uaspbo.controller;
 
 import id.univ.uaspbo.model.User;
+import id.univ.uaspbo.replication.ReplicationService;
+import id.univ.uaspbo.service.AdmissionLimiter;
+import id.univ.uaspbo.service.Outlet;
+import id.univ.uaspbo.service.OutletService;
 import id.univ.uaspbo.service.UserService;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestParam;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.servlet.http.HttpSession;
 
 /**
@@ -22,12 +27,23 @@ import jakarta.servlet.http.HttpSession;
 public class AuthController {
 
     private final UserService userService;
+    private final AdmissionLimiter admission;
+    private final OutletService outletService;
+    private final ReplicationService replication;
 
     /**
      * Konstruktor utama AuthController yang menerima service pengguna
-     * untuk melakukan autentikasi dan registrasi.
+     * untuk melakukan autentikasi dan registrasi, kontrol beban untuk login,
+     * serta service outlet untuk memilih outlet awal dan melepas keranjang saat logout,
+     * dan service replikasi untuk menandai peran instance di sesi.
      */
-    public AuthController(UserService userService) { this.userService = userService; }
+    public AuthController(UserService userService, AdmissionLimiter admission, OutletService outletService,
+                          ReplicationService replication) {
+        this.userService = userService;
+        this.admission = admission;
+        this.outletService = outletService;
+        this.replication = replication;
+    }
 
     /**
      * Menampilkan halaman login kepada pengguna.
@@ -40,25 +56,46 @@ public class AuthController {
      * Melakukan autentikasi berdasarkan email dan password.
      * Jika gagal, menampilkan halaman login dengan pesan error.
      * Jika berhasil, menyimpan data pengguna di sesi dan mengalihkan
-     * ke dashboard sesuai dengan peran pengguna.
+     * ke dashboard sesuai dengan peran pengguna. Jika ada lebih dari satu outlet,
+     * outlet utama dipilih lebih dulu dan dapat diganti lewat halaman /outlets. Jika replikasi aktif,
+     * peran instance (primary atau follower) disimpan di sesi untuk tautan status replikasi.
+     * Jika server sedang sibuk, permintaan langsung ditolak dengan status 503 dan halaman "sibuk".
      */
     @PostMapping("/login")
-    public String doLogin(@RequestParam String email, @RequestParam String password, HttpSession session, Model m) {
-        User u = userService.authenticate(email, password);
+    public String doLogin(@RequestParam String email, @RequestParam String password, HttpSession session, Model m,
+                          HttpServletResponse res) {
+        User u;
+        try (AdmissionLimiter.Permit permit = admission.tryAcquire(AdmissionLimiter.Priority.LOGIN)) {
+            if (permit == null) {
+                res.setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+                res.setHeader("Retry-After", "1");
+                m.addAttribute("retryUrl", "/login");
+                return "busy";
+            }
+            u = userService.authenticate(email, password);
+        }
         if (u == null) {
             m.addAttribute("error", "Login gagal: email atau password salah");
             return "login";
         }
         session.setAttribute("user", u);
+        if (outletService.isMultiOutlet()) {
+            Outlet outlet = outletService.get(null);
+            session.setAttribute("outlet", outlet.getId());
+            session.setAttribute("outletName", outlet.getName());
+        }
+        if (replication.isEnabled()) session.setAttribute("replication", replication.getRole());
         if ("ADMIN".equalsIgnoreCase(u.getRole())) return "redirect:/admin";
         return "redirect:/user";
     }
 
     /**
-     * Melakukan logout pengguna dengan menghapus sesi yang aktif.
+     * Melakukan logout pengguna dengan melepas stok yang ditahan keranjangnya di semua outlet
+     * lalu menghapus sesi yang aktif.
      */
     @PostMapping("/logout")
     public String logout(HttpSession s) {
+        for (Outlet o : outletService.getAll()) o.getReservations().releaseAll(s.getId());
         s.invalidate();
         return "redirect:/login";
     }
@@ -0,0 +1,66 @@
+package id.univ.uaspbo.controller;
+
+import id.univ.uaspbo.model.User;
+import id.univ.uaspbo.service.Outlet;
+import id.univ.uaspbo.service.OutletService;
+import org.springframework.stereotype.Controller;
+import org.springframework.ui.Model;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import jakarta.servlet.http.HttpSession;
+
+/**
+ * Kelas controller untuk memilih outlet yang dilayani sesi saat ini.
+ * Outlet terpilih disimpan di sesi (atribut "outlet" dan "outletName") dan dipakai
+ * UserController serta AdminController untuk produk, keranjang, checkout, dan laporan.
+ * Dapat diakses oleh semua pengguna yang sudah login.
+ *
+ * Konsep OOP yang digunakan:
+ * - Enkapsulasi: privatisasi OutletService dan pengaksesan melalui konstruktor.
+ */
+@Controller
+@RequestMapping("/outlets")
+public class OutletController {
+
+    private final OutletService outletService;
+
+    /**
+     * Konstruktor OutletController yang menerima service outlet.
+     */
+    public OutletController(OutletService outletService) {
+        this.outletService = outletService;
+    }
+
+    /**
+     * Menampilkan daftar outlet yang dapat dipilih beserta outlet yang sedang dipakai.
+     * Jika pengguna belum login, diarahkan ke halaman login.
+     */
+    @GetMapping
+    public String outlets(HttpSession s, Model m) {
+        if (s.getAttribute("user") == null) return "redirect:/login";
+        m.addAttribute("outlets", outletService.getAll());
+        m.addAttribute("current", outletService.get((String) s.getAttribute("outlet")).getId());
+        return "outlets";
+    }
+
+    /**
+     * Mengganti outlet sesi. Stok yang ditahan keranjang sesi di outlet sebelumnya dilepas,
+     * karena keranjang berlaku untuk satu outlet. Setelah itu pengguna diarahkan ke dashboard
+     * sesuai perannya. ID outlet yang tidak dikenal diabaikan.
+     */
+    @PostMapping("/select")
+    public String select(HttpSession s, @RequestParam String id) {
+        var u = (User) s.getAttribute("user");
+        if (u == null) return "redirect:/login";
+        if (outletService.exists(id)) {
+            Outlet previous = outletService.get((String) s.getAttribute("outlet"));
+            if (!previous.getId().equals(id)) previous.getReservations().releaseAll(s.getId());
+            Outlet outlet = outletService.get(id);
+            s.setAttribute("outlet", outlet.getId());
+            s.setAttribute("outletName", outlet.getName());
+        }
+        return "ADMIN".equalsIgnoreCase(u.getRole()) ? "redirect:/admin" : "redirect:/user";
+    }
+}
@@ -0,0 +1,54 @@
+package id.univ.uaspbo.controller;
+
+import id.univ.uaspbo.model.User;
+import id.univ.uaspbo.replication.ReplicationService;
+import org.springframework.stereotype.Controller;
+import org.springframework.ui.Model;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import jakarta.servlet.http.HttpSession;
+
+/**
+ * Kelas controller untuk halaman replikasi: status replikasi di panel admin dan halaman
+ * penolakan perubahan data pada instance follower baca-saja.
+ *
+ * Konsep OOP yang digunakan:
+ * - Enkapsulasi: privatisasi ReplicationService dan pengaksesan melalui konstruktor.
+ */
+@Controller
+public class ReplicationController {
+
+    private final ReplicationService replication;
+
+    /**
+     * Konstruktor ReplicationController yang menerima service replikasi.
+     */
+    public ReplicationController(ReplicationService replication) {
+        this.replication = replication;
+    }
+
+    /**
+     * Menampilkan status replikasi: pada primary log dan follower yang tersambung beserta
+     * ketertinggalannya, pada follower posisi LSN dan ketertinggalan terhadap primary.
+     * Hanya dapat diakses oleh admin; jika bukan admin, diarahkan ke halaman login.
+     */
+    @GetMapping("/admin/replication")
+    public String status(HttpSession s, Model m) {
+        var u = (User) s.getAttribute("user");
+        if (u == null || !"ADMIN".equalsIgnoreCase(u.getRole())) return "redirect:/login";
+        m.addAttribute("status", replication.getStatus());
+        return "admin/replication";
+    }
+
+    /**
+     * Menampilkan halaman penolakan perubahan data pada follower. Permintaan diteruskan ke sini
+     * oleh ReadOnlyGuard, yang sudah mengatur status 403.
+     */
+    @RequestMapping("/read-only")
+    public String readOnly(HttpSession s, Model m) {
+        var u = (User) s.getAttribute("user");
+        m.addAttribute("primary", replication.getPrimaryAddress());
+        m.addAttribute("backUrl", u != null && "ADMIN".equalsIgnoreCase(u.getRole()) ? "/admin" : "/user");
+        return "read-only";
+    }
+}
@@ -3,12 +3,17 @@ package id.univ.uaspbo.controller;
 import id.univ.uaspbo.model.Product;
 import id.univ.uaspbo.model.Transaction;
 import id.univ.uaspbo.model.User;
-import id.univ.uaspbo.service.ProductService;
-import id.univ.uaspbo.service.TransactionService;
+import id.univ.uaspbo.service.AdmissionLimiter;
+import id.univ.uaspbo.service.Outlet;
+import id.univ.uaspbo.service.OutletService;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.servlet.http.HttpSession;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -16,22 +21,32 @@ import java.util.List;
  * Kelas controller yang mengelola operasi pengguna,
  * termasuk penjelajahan produk, pemrosesan checkout,
  * dan peninjauan riwayat transaksi.
+ * Produk, keranjang, dan checkout memakai outlet yang dipilih pada sesi (atribut "outlet"),
+ * sedangkan riwayat transaksi mencakup semua outlet.
  * Semua method dalam kelas ini memerlukan autentikasi pengguna.
  */
 @Controller
 @RequestMapping("/user")
 public class UserController {
 
-    private final ProductService productService;
-    private final TransactionService transactionService;
+    private final OutletService outletService;
+    private final AdmissionLimiter admission;
 
     /**
-     * Konstruktor utama UserController yang menerima service produk
-     * dan transaksi untuk melayani permintaan pengguna.
+     * Konstruktor utama UserController yang menerima service outlet (produk, transaksi,
+     * dan penahanan stok keranjang setiap outlet) untuk melayani permintaan pengguna
+     * serta kontrol beban untuk checkout.
      */
-    public UserController(ProductService productService, TransactionService transactionService) {
-        this.productService = productService;
-        this.transactionService = transactionService;
+    public UserController(OutletService outletService, AdmissionLimiter admission) {
+        this.outletService = outletService;
+        this.admission = admission;
+    }
+
+    /**
+     * Mendapatkan outlet yang dipilih pada sesi, atau outlet utama jika belum memilih.
+     */
+    private Outlet outlet(HttpSession s) {
+        return outletService.get((String) s.getAttribute("outlet"));
     }
 
     /**
@@ -44,7 +59,7 @@ public class UserController {
 
     /**
      * Menampilkan halaman dashboard pengguna dengan daftar produk
-     * yang dapat dicari dan diurutkan sesuai kriteria.
+     * yang dapat dicari dan diurutkan sesuai kriteria, beserta isi keranjang yang stoknya sedang ditahan.
      * Jika pengguna belum login, diarahkan ke halaman login.
      */
     @GetMapping
@@ -52,11 +67,40 @@ public class UserController {
                             @RequestParam(required = false) String search,
                             @RequestParam(required = false) String sort) {
         if (s.getAttribute("user") == null) return "redirect:/login";
-        List<Product> products = productService.searchProducts(search);
-        products = productService.sortProducts(products, sort);
+        Outlet outlet = outlet(s);
+        List<Product> products = outlet.getProducts().searchProducts(search);
+        products = outlet.getProducts().sortProducts(products, sort);
         m.addAttribute("products", products);
         m.addAttribute("search", search);
         m.addAttribute("sort", sort);
+        addCart(outlet, s, m);
+        return "user/dashboard";
+    }
+
+    /**
+     * Menyimpan keranjang: stok setiap produk dengan jumlah yang dipilih ditahan untuk sesi ini
+     * selama uas.reservation.hold-seconds, dan jumlah 0 melepas penahanan produk tersebut.
+     * Produk yang stoknya tidak mencukupi tetap memakai penahanan sebelumnya dan dilaporkan sebagai error.
+     * Jika sesi pengguna tidak valid, diarahkan ke login.
+     */
+    @PostMapping("/cart")
+    public String saveCart(HttpSession s,
+                           @RequestParam(name = "productId") String[] productIds,
+                           @RequestParam(name = "qty") int[] qtys,
+                           Model m) {
+        if (s.getAttribute("user") == null) return "redirect:/login";
+        Outlet outlet = outlet(s);
+        List<String> failed = new ArrayList<>();
+        for (int i = 0; i < productIds.length; i++) {
+            int q = Math.max(0, qtys[i]);
+            Product p = outlet.getProducts().findById(productIds[i]);
+            if (p == null) continue;
+            if (!outlet.getReservations().hold(s.getId(), p.getId(), q)) failed.add(p.getName());
+        }
+        if (failed.isEmpty()) return "redirect:/user";
+        m.addAttribute("error", "Stok tidak mencukupi untuk ditahan: " + String.join(", ", failed));
+        m.addAttribute("products", outlet.getProducts().getAll());
+        addCart(outlet, s, m);
         return "user/dashboard";
     }
 
@@ -64,24 +108,36 @@ public class UserController {
      * Memproses checkout produk yang dipilih oleh pengguna.
      * Membuat daftar item transaksi berdasarkan produk dan jumlah yang dipilih,
      * menghitung total pembayaran, dan mencatat transaksi.
-     * Jika tidak ada item yang dipilih, menampilkan pesan error pada dashboard.
+     * Jika tidak ada item yang dipilih atau stok tidak mencukupi, menampilkan pesan error pada dashboard.
      * Jika sesi pengguna tidak valid, diarahkan ke login.
+     * Jika server sedang sibuk, permintaan langsung ditolak dengan status 503 dan halaman "sibuk".
      */
     @PostMapping("/checkout")
     public String checkout(HttpSession s,
                            @RequestParam(name = "productId") String[] productIds,
                            @RequestParam(name = "qty") int[] qtys,
-                           Model m) {
+                           Model m, HttpServletResponse res) {
         var u = (User) s.getAttribute("user");
         if (u == null) return "redirect:/login";
 
+        try (AdmissionLimiter.Permit permit = admission.tryAcquire(AdmissionLimiter.Priority.CHECKOUT)) {
+            if (permit == null) return busy(res, m, "/user");
+            return placeOrder(outlet(s), s, u, productIds, qtys, m);
+        }
+    }
+
+    /**
+     * Membuat dan mencatat transaksi di outlet sesi dari produk dan jumlah yang dipilih.
+     * Stok yang ditahan sesi ini dipakai lebih dulu; penahanan yang tersisa dilepas setelah checkout berhasil.
+     */
+    private String placeOrder(Outlet outlet, HttpSession s, User u, String[] productIds, int[] qtys, Model m) {
         List<Transaction.TransactionItem> items = new ArrayList<>();
         int total = 0;
         for (int i = 0; i < productIds.length; i++) {
             String pid = productIds[i];
             int q = qtys[i];
             if (q <= 0) continue;
-            Product p = productService.findById(pid);
+            Product p = outlet.getProducts().findById(pid);
             if (p == null) continue;
             Transaction.TransactionItem it = new Transaction.TransactionItem(p.getId(), p.getName(), q, p.getPrice());
             items.add(it);
@@ -89,7 +145,8 @@ public class UserController {
         }
         if (items.isEmpty()) {
             m.addAttribute("error", "Tidak ada item yang dipilih");
-            m.addAttribute("products", productService.getAll());
+            m.addAttribute("products", outlet.getProducts().getAll());
+            addCart(outlet, s, m);
             return "user/dashboard";
         }
 
@@ -97,14 +154,41 @@ public class UserController {
         t.setUserId(u.getId());
         t.setItems(items);
         t.setTotal(total);
-        transactionService.createTransaction(t);
+        if (!outlet.getTransactions().createTransaction(t, s.getId())) {
+            m.addAttribute("error", "Stok tidak mencukupi untuk sebagian item, silakan periksa kembali pesanan Anda");
+            m.addAttribute("products", outlet.getProducts().getAll());
+            addCart(outlet, s, m);
+            return "user/dashboard";
+        }
+        outlet.getReservations().releaseAll(s.getId());
 
         return "redirect:/user/history";
     }
 
+    /**
+     * Menambahkan isi keranjang sesi di outlet (jumlah yang ditahan per produk) dan waktu kedaluwarsanya ke model.
+     */
+    private void addCart(Outlet outlet, HttpSession s, Model m) {
+        m.addAttribute("holds", outlet.getReservations().getHolds(s.getId()));
+        long expiry = outlet.getReservations().getEarliestExpiry(s.getId());
+        if (expiry > 0) {
+            m.addAttribute("holdExpiry", LocalDateTime.ofInstant(Instant.ofEpochMilli(expiry), ZoneId.systemDefault()));
+        }
+    }
+
+    /**
+     * Menjawab permintaan yang ditolak kontrol beban dengan status 503 dan halaman "sibuk".
+     */
+    private String busy(HttpServletResponse res, Model m, String retryUrl) {
+        res.setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+        res.setHeader("Retry-After", "1");
+        m.addAttribute("retryUrl", retryUrl);
+        return "busy";
+    }
+
 
     /**
-     * Menampilkan riwayat transaksi dari pengguna saat ini.
+     * Menampilkan riwayat transaksi dari pengguna saat ini di semua outlet.
      * Jika sesi tidak valid, diarahkan ke halaman login.
      */
     
@@ -112,7 +196,7 @@ public class UserController {
     public String history(HttpSession s, Model m) {
         var u = (User) s.getAttribute("user");
         if (u == null) return "redirect:/login";
-        m.addAttribute("transactions", transactionService.getByUserId(u.getId()));
+        m.addAttribute("transactions", outletService.getByUserId(u.getId()));
         return "user/history";
     }
  }
@@ -0,0 +1,258 @@
+package id.univ.uaspbo.index;
+
+import id.univ.uaspbo.model.Transaction;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.AbstractList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Representasi transaksi yang ringkas untuk disimpan lama di memori.
+ * ID UUID disimpan sebagai dua long, pengguna dan produk sebagai ordinal int pada
+ * TransactionDictionaries, timestamp sebagai satu long (nanodetik sejak epoch),
+ * dan seluruh item dikemas ke dalam satu array int (ITEM_WIDTH int per item).
+ *
+ * Untuk kode yang membutuhkan objek Transaction, view() menghasilkan tampilan ringan
+ * yang membaca langsung dari data ringkas ini tanpa menyalin String.
+ */
+public final class CompactTransaction {
+    static final int ITEM_WIDTH = 4;           // productOrd, nameOrd, qty, price
+    static final long NO_TIME = Long.MIN_VALUE; // Penanda timestamp kosong
+
+    final long idHi;        // 64 bit atas UUID
+    final long idLo;        // 64 bit bawah UUID
+    final String rawId;     // ID asli jika bukan UUID (biasanya null)
+    final int userOrd;      // Ordinal pengguna, -1 jika kosong
+    final long timeNanos;   // Timestamp dalam nanodetik sejak epoch (UTC)
+    final int total;        // Total harga transaksi
+    final int[] items;      // Item terkemas, ITEM_WIDTH int per item
+
+    CompactTransaction(long idHi, long idLo, String rawId, int userOrd, long timeNanos, int total, int[] items) {
+        this.idHi = idHi;
+        this.idLo = idLo;
+        this.rawId = rawId;
+        this.userOrd = userOrd;
+        this.timeNanos = timeNanos;
+        this.total = total;
+        this.items = items;
+    }
+
+    /**
+     * Mengubah transaksi biasa menjadi representasi ringkas.
+     */
+    public static CompactTransaction of(Transaction t, TransactionDictionaries dict) {
+        long hi = 0, lo = 0;
+        String raw = null;
+        try {
+            UUID uuid = UUID.fromString(t.getId());
+            if (!uuid.toString().equals(t.getId())) throw new IllegalArgumentException();
+            hi = uuid.getMostSignificantBits();
+            lo = uuid.getLeastSignificantBits();
+        } catch (RuntimeException e) {
+            raw = t.getId();
+        }
+        List<Transaction.TransactionItem> src = t.getItems();
+        int n = src != null ? src.size() : 0;
+        int[] packed = new int[n * ITEM_WIDTH];
+        for (int i = 0; i < n; i++) {
+            Transaction.TransactionItem it = src.get(i);
+            packed[i * ITEM_WIDTH] = ordinal(dict.products(), it.getProductId());
+            packed[i * ITEM_WIDTH + 1] = ordinal(dict.names(), it.getProductName());
+            packed[i * ITEM_WIDTH + 2] = it.getQty();
+            packed[i * ITEM_WIDTH + 3] = it.getPrice();
+        }
+        return new CompactTransaction(hi, lo, raw, ordinal(dict.users(), t.getUserId()),
+                toNanos(t.getTimestamp()), t.getTotal(), packed);
+    }
+
+    /**
+     * Membuat kunci pencarian dengan timestamp tertentu dan ID terkecil,
+     * dipakai sebagai batas rentang pada indeks terurut.
+     */
+    static CompactTransaction probe(LocalDateTime ts) {
+        return new CompactTransaction(0, 0, "", -1, toNanos(ts), 0, new int[0]);
+    }
+
+    /**
+     * Membandingkan dua transaksi ringkas berdasarkan timestamp lalu ID.
+     * Urutan ID sama dengan urutan leksikografis string UUID kanonik.
+     */
+    static int compare(CompactTransaction a, CompactTransaction b) {
+        int c = Long.compare(a.timeNanos, b.timeNanos);
+        if (c != 0) return c;
+        if (a.rawId != null || b.rawId != null) {
+            String x = a.rawId != null ? a.rawId : a.uuidString();
+            String y = b.rawId != null ? b.rawId : b.uuidString();
+            return x.compareTo(y);
+        }
+        c = Long.compareUnsigned(a.idHi, b.idHi);
+        return c != 0 ? c : Long.compareUnsigned(a.idLo, b.idLo);
+    }
+
+    /**
+     * Mendapatkan jumlah item dalam transaksi.
+     */
+    public int itemCount() { return items.length / ITEM_WIDTH; }
+
+    /**
+     * Mendapatkan ordinal produk item ke-i.
+     */
+    public int productOrdinal(int i) { return items[i * ITEM_WIDTH]; }
+
+    /**
+     * Mendapatkan ordinal nama produk item ke-i.
+     */
+    public int nameOrdinal(int i) { return items[i * ITEM_WIDTH + 1]; }
+
+    /**
+     * Mendapatkan jumlah unit item ke-i.
+     */
+    public int qty(int i) { return items[i * ITEM_WIDTH + 2]; }
+
+    /**
+     * Mendapatkan harga satuan item ke-i.
+     */
+    public int price(int i) { return items[i * ITEM_WIDTH + 3]; }
+
+    /**
+     * Menjumlahkan unit produk dengan ordinal tertentu pada seluruh item transaksi.
+     *
+     * @return Jumlah unit, 0 jika produk tidak ada di transaksi
+     */
+    public int quantityOf(int productOrdinal) {
+        int qty = 0;
+        for (int i = 0; i < itemCount(); i++) {
+            if (productOrdinal(i) == productOrdinal) qty += qty(i);
+        }
+        return qty;
+    }
+
+    /**
+     * Menjumlahkan nilai (qty x harga) produk dengan ordinal tertentu pada seluruh item transaksi.
+     */
+    public long amountOf(int productOrdinal) {
+        long amount = 0;
+        for (int i = 0; i < itemCount(); i++) {
+            if (productOrdinal(i) == productOrdinal) amount += (long) qty(i) * price(i);
+        }
+        return amount;
+    }
+
+    /**
+     * Mendapatkan ordinal pengguna pemilik transaksi.
+     */
+    public int userOrdinal() { return userOrd; }
+
+    /**
+     * Mendapatkan total harga transaksi.
+     */
+    public int total() { return total; }
+
+    /**
+     * Mendapatkan timestamp transaksi dalam nanodetik sejak epoch.
+     */
+    public long timeNanos() { return timeNanos; }
+
+    /**
+     * Mendapatkan ID transaksi sebagai String (dibuat saat dipanggil).
+     */
+    public String id() { return rawId != null ? rawId : uuidString(); }
+
+    /**
+     * Mendapatkan timestamp transaksi sebagai LocalDateTime.
+     */
+    public LocalDateTime timestamp() { return fromNanos(timeNanos); }
+
+    /**
+     * Membuat tampilan Transaction ringan yang membaca dari data ringkas ini.
+     */
+    public Transaction view(TransactionDictionaries dict) {
+        return new View(this, dict);
+    }
+
+    private String uuidString() {
+        return new UUID(idHi, idLo).toString();
+    }
+
+    private static int ordinal(OrdinalDictionary d, String key) {
+        return key != null ? d.ordinal(key) : -1;
+    }
+
+    private static String key(OrdinalDictionary d, int ord) {
+        return ord >= 0 ? d.key(ord) : null;
+    }
+
+    /**
+     * Mengubah timestamp menjadi nanodetik sejak epoch (UTC), satuan yang dipakai timeNanos().
+     */
+    public static long toNanos(LocalDateTime ts) {
+        if (ts == null) return NO_TIME;
+        return ts.toEpochSecond(ZoneOffset.UTC) * 1_000_000_000L + ts.getNano();
+    }
+
+    static LocalDateTime fromNanos(long nanos) {
+        if (nanos == NO_TIME) return null;
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(nanos, 1_000_000_000L),
+                (int) Math.floorMod(nanos, 1_000_000_000L), ZoneOffset.UTC);
+    }
+
+    /**
+     * Tampilan Transaction hanya-baca di atas CompactTransaction.
+     * Getter membaca dari data ringkas; setter tidak didukung.
+     */
+    static final class View extends Transaction {
+        private final CompactTransaction c;
+        private final TransactionDictionaries dict;
+
+        View(CompactTransaction c, TransactionDictionaries dict) {
+            this.c = c;
+            this.dict = dict;
+        }
+
+        @Override public String getId() { return c.id(); }
+        @Override public String getUserId() { return key(dict.users(), c.userOrd); }
+        @Override public LocalDateTime getTimestamp() { return c.timestamp(); }
+        @Override public int getTotal() { return c.total; }
+
+        @Override
+        public List<TransactionItem> getItems() {
+            return new AbstractList<>() {
+                @Override public TransactionItem get(int i) { return new ItemView(c, i, dict); }
+                @Override public int size() { return c.itemCount(); }
+            };
+        }
+
+        @Override public void setId(String id) { throw new UnsupportedOperationException("Transaksi hanya-baca"); }
+        @Override public void setUserId(String userId) { throw new UnsupportedOperationException("Transaksi hanya-baca"); }
+        @Override public void setItems(List<TransactionItem> items) { throw new UnsupportedOperationException("Transaksi hanya-baca"); }
+        @Override public void setTimestamp(LocalDateTime timestamp) { throw new UnsupportedOperationException("Transaksi hanya-baca"); }
+        @Override public void setTotal(int total) { throw new UnsupportedOperationException("Transaksi hanya-baca"); }
+    }
+
+    /**
+     * Tampilan TransactionItem hanya-baca untuk item ke-i dari CompactTransaction.
+     */
+    static final class ItemView extends Transaction.TransactionItem {
+        private final CompactTransaction c;
+        private final int i;
+        private final TransactionDictionaries dict;
+
+        ItemView(CompactTransaction c, int i, TransactionDictionaries dict) {
+            this.c = c;
+            this.i = i;
+            this.dict = dict;
+        }
+
+        @Override public String getProductId() { return key(dict.products(), c.productOrdinal(i)); }
+        @Override public String getProductName() { return key(dict.names(), c.nameOrdinal(i)); }
+        @Override public int getQty() { return c.qty(i); }
+        @Override public int getPrice() { return c.price(i); }
+
+        @Override public void setProductId(String productId) { throw new UnsupportedOperationException("Item hanya-baca"); }
+        @Override public void setProductName(String productName) { throw new UnsupportedOperationException("Item hanya-baca"); }
+        @Override public void setQty(int qty) { throw new UnsupportedOperationException("Item hanya-baca"); }
+        @Override public void setPrice(int price) { throw new UnsupportedOperationException("Item hanya-baca"); }
+    }
+}
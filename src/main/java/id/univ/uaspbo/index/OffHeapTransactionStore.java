@@ -0,0 +1,382 @@
+package id.univ.uaspbo.index;
+
+import id.univ.uaspbo.model.Transaction;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.IntSummaryStatistics;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * Penyimpanan transaksi di luar heap Java (off-heap) menggunakan slab ByteBuffer direct.
+ * Setiap transaksi disimpan sebagai record berukuran tetap pada slab record, sedangkan
+ * itemnya disimpan berurutan pada slab item. Karena data berada di luar heap, GC tidak
+ * perlu menelusuri jutaan objek transaksi yang tinggal lama sehingga jeda GC tetap kecil.
+ *
+ * Tata letak record (RECORD_BYTES byte):
+ *   0 idHi (long), 8 idLo (long), 16 timeNanos (long),
+ *   24 itemStart (int), 28 itemCount (int), 32 userOrd (int), 36 total (int)
+ * Tata letak item (ITEM_BYTES byte): productOrd, nameOrd, qty, price (masing-masing int).
+ *
+ * Record ditambahkan sesuai urutan waktu sehingga query rentang memakai binary search.
+ * Jika ada transaksi yang masuk tidak berurutan, query beralih ke pemindaian penuh.
+ * Indeks ID ke nomor record memakai tabel hash open addressing dengan array long primitif.
+ *
+ * Penulisan dilakukan secara synchronized; pembacaan tidak memakai penguncian dan hanya
+ * melihat record sampai batas jumlah record (volatile) yang sudah selesai ditulis.
+ *
+ * Konsep OOP yang digunakan:
+ * - Implementasi Interface: Mengimplementasikan TransactionIndex untuk penyimpanan off-heap.
+ * - Enkapsulasi: Slab dan tabel hash hanya diakses melalui method publik dan Cursor.
+ */
+public class OffHeapTransactionStore implements TransactionIndex {
+    static final int RECORD_BYTES = 40;
+    static final int ITEM_BYTES = 16;
+    private static final int SLAB_BITS = 16;
+    private static final int SLAB_ENTRIES = 1 << SLAB_BITS;  // 65536 record/item per slab
+    private static final int SLAB_MASK = SLAB_ENTRIES - 1;
+
+    private final TransactionDictionaries dict;               // Kamus ordinal pengguna dan produk
+    private volatile ByteBuffer[] recordSlabs = new ByteBuffer[0];
+    private volatile ByteBuffer[] itemSlabs = new ByteBuffer[0];
+    private volatile int count;                               // Jumlah record yang sudah selesai ditulis
+    private int itemCount;                                    // Jumlah item yang sudah ditulis
+    private volatile boolean sorted = true;                   // false jika ada record yang tidak berurutan waktu
+    private final Map<Integer, String> rawIds = new HashMap<>();  // ID non-UUID per nomor record (jarang)
+    private final Map<String, Integer> rawIdIndex = new HashMap<>();
+
+    private long[] hashHi = new long[1024];                   // Tabel hash ID: 64 bit atas UUID
+    private long[] hashLo = new long[1024];                   // Tabel hash ID: 64 bit bawah UUID
+    private int[] hashRecord = new int[1024];                 // Tabel hash ID: nomor record + 1 (0 = kosong)
+    private volatile IdTable idTable = new IdTable(hashHi, hashLo, hashRecord);
+
+    /**
+     * Konstruktor OffHeapTransactionStore.
+     *
+     * @param dict Kamus ordinal yang dipakai bersama dengan representasi transaksi ringkas
+     */
+    public OffHeapTransactionStore(TransactionDictionaries dict) {
+        this.dict = dict;
+    }
+
+    /**
+     * Menyalin transaksi ke slab off-heap.
+     *
+     * @return Representasi ringkas transaksi yang disimpan
+     */
+    @Override
+    public CompactTransaction add(Transaction t) {
+        CompactTransaction c = CompactTransaction.of(t, dict);
+        append(c);
+        return c;
+    }
+
+    /**
+     * Menambahkan banyak transaksi: pengemasan dilakukan paralel, lalu record
+     * ditulis ke slab berurutan sesuai urutan daftar.
+     */
+    @Override
+    public void addAll(List<Transaction> transactions) {
+        List<CompactTransaction> compact = transactions.parallelStream()
+                .map(t -> CompactTransaction.of(t, dict))
+                .toList();
+        synchronized (this) {
+            for (CompactTransaction c : compact) append(c);
+        }
+    }
+
+    private synchronized void append(CompactTransaction c) {
+        int rec = count;
+        int items = c.itemCount();
+        ensureRecordCapacity(rec + 1);
+        ensureItemCapacity(itemCount + items);
+        if (rec > 0 && c.timeNanos < timeAt(rec - 1)) sorted = false;
+
+        ByteBuffer b = recordSlabs[rec >>> SLAB_BITS];
+        int off = (rec & SLAB_MASK) * RECORD_BYTES;
+        b.putLong(off, c.idHi);
+        b.putLong(off + 8, c.idLo);
+        b.putLong(off + 16, c.timeNanos);
+        b.putInt(off + 24, itemCount);
+        b.putInt(off + 28, items);
+        b.putInt(off + 32, c.userOrd);
+        b.putInt(off + 36, c.total);
+        for (int i = 0; i < items; i++) {
+            int item = itemCount + i;
+            ByteBuffer ib = itemSlabs[item >>> SLAB_BITS];
+            int ioff = (item & SLAB_MASK) * ITEM_BYTES;
+            ib.putInt(ioff, c.productOrdinal(i));
+            ib.putInt(ioff + 4, c.nameOrdinal(i));
+            ib.putInt(ioff + 8, c.qty(i));
+            ib.putInt(ioff + 12, c.price(i));
+        }
+        itemCount += items;
+        if (c.rawId != null) {
+            rawIds.put(rec, c.rawId);
+            rawIdIndex.put(c.rawId, rec);
+        } else {
+            putId(c.idHi, c.idLo, rec);
+        }
+        count = rec + 1;
+    }
+
+    @Override
+    public int size() {
+        return count;
+    }
+
+    /**
+     * Mencari transaksi berdasarkan ID melalui indeks ID ke nomor record.
+     *
+     * @return Tampilan transaksi, atau null jika tidak ditemukan
+     */
+    public Transaction find(String id) {
+        int rec = recordOf(id);
+        return rec < 0 ? null : materialize(rec).view(dict);
+    }
+
+    @Override
+    public List<Transaction> range(LocalDateTime from, LocalDateTime to, int limit, boolean descending) {
+        List<Transaction> result = new ArrayList<>();
+        if (!sorted) {
+            List<CompactTransaction> list = compactRange(from, to);
+            for (int k = 0; k < list.size(); k++) {
+                if (limit > 0 && result.size() >= limit) break;
+                result.add(list.get(descending ? list.size() - 1 - k : k).view(dict));
+            }
+            return result;
+        }
+        int n = count;
+        int lo = lowerBound(from, n);
+        int hi = to == null ? n : lowerBound(to, n);
+        for (int k = 0; k < hi - lo; k++) {
+            if (limit > 0 && result.size() >= limit) break;
+            result.add(materialize(descending ? hi - 1 - k : lo + k).view(dict));
+        }
+        return result;
+    }
+
+    @Override
+    public List<CompactTransaction> compactRange(LocalDateTime from, LocalDateTime to) {
+        List<CompactTransaction> result = new ArrayList<>();
+        scan(from, to, cur -> result.add(materialize(cur.rec)));
+        if (!sorted) result.sort(CompactTransaction::compare);
+        return result;
+    }
+
+    /**
+     * Mengalirkan record pada rentang [from, to) sesuai urutan waktu; setiap record baru
+     * disalin ke CompactTransaction ketika diminta. Jika record tidak berurutan, rentang
+     * disalin dan diurutkan lebih dulu.
+     */
+    @Override
+    public Stream<CompactTransaction> compactStream(LocalDateTime from, LocalDateTime to, boolean descending) {
+        if (!sorted) return TransactionIndex.super.compactStream(from, to, descending);
+        int n = count;
+        int lo = lowerBound(from, n);
+        int hi = to == null ? n : lowerBound(to, n);
+        return IntStream.range(0, Math.max(0, hi - lo)).mapToObj(k -> materialize(descending ? hi - 1 - k : lo + k));
+    }
+
+    @Override
+    public IntSummaryStatistics totals(LocalDateTime from, LocalDateTime to) {
+        IntSummaryStatistics stats = new IntSummaryStatistics();
+        scan(from, to, cur -> stats.accept(cur.total()));
+        return stats;
+    }
+
+    /**
+     * Memindai record pada rentang [from, to) tanpa membuat objek per record.
+     * Visitor menerima Cursor yang sama untuk setiap record (flyweight), sehingga Cursor
+     * tidak boleh disimpan di luar pemanggilan visitor. Jika record tidak berurutan,
+     * urutan kunjungan mengikuti urutan penulisan.
+     */
+    public void scan(LocalDateTime from, LocalDateTime to, Consumer<Cursor> visitor) {
+        int n = count;
+        Cursor cur = new Cursor();
+        if (sorted) {
+            int hi = to == null ? n : lowerBound(to, n);
+            for (int rec = lowerBound(from, n); rec < hi; rec++) visitor.accept(cur.at(rec));
+            return;
+        }
+        long fromNanos = from == null ? Long.MIN_VALUE : CompactTransaction.toNanos(from);
+        long toNanos = to == null ? Long.MAX_VALUE : CompactTransaction.toNanos(to);
+        for (int rec = 0; rec < n; rec++) {
+            long ts = timeAt(rec);
+            if (ts >= fromNanos && ts < toNanos) visitor.accept(cur.at(rec));
+        }
+    }
+
+    /**
+     * Mendapatkan jumlah byte off-heap yang sudah dialokasikan untuk slab.
+     */
+    public long allocatedBytes() {
+        return (long) recordSlabs.length * SLAB_ENTRIES * RECORD_BYTES
+                + (long) itemSlabs.length * SLAB_ENTRIES * ITEM_BYTES;
+    }
+
+    /**
+     * Membaca ulang satu record menjadi CompactTransaction di heap.
+     */
+    private CompactTransaction materialize(int rec) {
+        ByteBuffer b = recordSlabs[rec >>> SLAB_BITS];
+        int off = (rec & SLAB_MASK) * RECORD_BYTES;
+        int start = b.getInt(off + 24);
+        int n = b.getInt(off + 28);
+        int[] items = new int[n * CompactTransaction.ITEM_WIDTH];
+        for (int i = 0; i < n; i++) {
+            int item = start + i;
+            ByteBuffer ib = itemSlabs[item >>> SLAB_BITS];
+            int ioff = (item & SLAB_MASK) * ITEM_BYTES;
+            for (int f = 0; f < CompactTransaction.ITEM_WIDTH; f++) {
+                items[i * CompactTransaction.ITEM_WIDTH + f] = ib.getInt(ioff + f * 4);
+            }
+        }
+        String raw;
+        synchronized (this) {
+            raw = rawIds.get(rec);
+        }
+        return new CompactTransaction(b.getLong(off), b.getLong(off + 8), raw, b.getInt(off + 32),
+                b.getLong(off + 16), b.getInt(off + 36), items);
+    }
+
+    private long timeAt(int rec) {
+        return recordSlabs[rec >>> SLAB_BITS].getLong((rec & SLAB_MASK) * RECORD_BYTES + 16);
+    }
+
+    /**
+     * Mencari nomor record pertama dengan timestamp >= ts (binary search, hanya untuk data terurut).
+     */
+    private int lowerBound(LocalDateTime ts, int n) {
+        if (ts == null) return 0;
+        long key = CompactTransaction.toNanos(ts);
+        int lo = 0, hi = n;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (timeAt(mid) < key) lo = mid + 1;
+            else hi = mid;
+        }
+        return lo;
+    }
+
+    private void ensureRecordCapacity(int needed) {
+        recordSlabs = grow(recordSlabs, needed, RECORD_BYTES);
+    }
+
+    private void ensureItemCapacity(int needed) {
+        itemSlabs = grow(itemSlabs, needed, ITEM_BYTES);
+    }
+
+    private static ByteBuffer[] grow(ByteBuffer[] slabs, int needed, int width) {
+        int slabsNeeded = (needed + SLAB_MASK) >>> SLAB_BITS;
+        if (slabsNeeded <= slabs.length) return slabs;
+        ByteBuffer[] grown = Arrays.copyOf(slabs, slabsNeeded);
+        for (int i = slabs.length; i < slabsNeeded; i++) {
+            grown[i] = ByteBuffer.allocateDirect(SLAB_ENTRIES * width).order(ByteOrder.nativeOrder());
+        }
+        return grown;
+    }
+
+    // ===== Indeks ID ke nomor record (open addressing, linear probing) =====
+
+    private int recordOf(String id) {
+        if (id == null) return -1;
+        long hi, lo;
+        try {
+            UUID uuid = UUID.fromString(id);
+            if (!uuid.toString().equals(id)) throw new IllegalArgumentException();
+            hi = uuid.getMostSignificantBits();
+            lo = uuid.getLeastSignificantBits();
+        } catch (RuntimeException e) {
+            synchronized (this) {
+                Integer rec = rawIdIndex.get(id);
+                return rec != null ? rec : -1;
+            }
+        }
+        int n = count;
+        IdTable t = idTable;
+        int mask = t.record.length - 1;
+        for (int slot = slot(hi, lo, mask); ; slot = (slot + 1) & mask) {
+            int r = t.record[slot];
+            if (r == 0) return -1;
+            if (t.hi[slot] == hi && t.lo[slot] == lo) return r - 1 < n ? r - 1 : -1;
+        }
+    }
+
+    private void putId(long hi, long lo, int rec) {
+        if ((count + 1) * 2 > hashRecord.length) rehash(hashRecord.length * 2);
+        insert(hashHi, hashLo, hashRecord, hi, lo, rec);
+    }
+
+    private void rehash(int capacity) {
+        long[] hi = new long[capacity];
+        long[] lo = new long[capacity];
+        int[] record = new int[capacity];
+        for (int i = 0; i < hashRecord.length; i++) {
+            if (hashRecord[i] != 0) insert(hi, lo, record, hashHi[i], hashLo[i], hashRecord[i] - 1);
+        }
+        hashHi = hi;
+        hashLo = lo;
+        hashRecord = record;
+        idTable = new IdTable(hi, lo, record);
+    }
+
+    private static void insert(long[] hiArr, long[] loArr, int[] recArr, long hi, long lo, int rec) {
+        int mask = recArr.length - 1;
+        int slot = slot(hi, lo, mask);
+        while (recArr[slot] != 0 && !(hiArr[slot] == hi && loArr[slot] == lo)) slot = (slot + 1) & mask;
+        hiArr[slot] = hi;
+        loArr[slot] = lo;
+        recArr[slot] = rec + 1;
+    }
+
+    private static int slot(long hi, long lo, int mask) {
+        long h = hi * 0x9E3779B97F4A7C15L ^ lo;
+        return (int) (h ^ (h >>> 32)) & mask;
+    }
+
+    /**
+     * Snapshot array tabel hash yang dipublikasikan lewat field volatile untuk pembaca.
+     */
+    private record IdTable(long[] hi, long[] lo, int[] record) {}
+
+    /**
+     * Penunjuk ke satu record off-heap yang dipakai ulang selama pemindaian.
+     * Semua getter membaca langsung dari slab tanpa membuat objek.
+     */
+    public final class Cursor {
+        private int rec;
+        private ByteBuffer b;
+        private int off;
+
+        private Cursor at(int rec) {
+            this.rec = rec;
+            this.b = recordSlabs[rec >>> SLAB_BITS];
+            this.off = (rec & SLAB_MASK) * RECORD_BYTES;
+            return this;
+        }
+
+        public long timeNanos() { return b.getLong(off + 16); }
+        public int userOrdinal() { return b.getInt(off + 32); }
+        public int total() { return b.getInt(off + 36); }
+        public int itemCount() { return b.getInt(off + 28); }
+        public int productOrdinal(int i) { return item(i, 0); }
+        public int nameOrdinal(int i) { return item(i, 4); }
+        public int qty(int i) { return item(i, 8); }
+        public int price(int i) { return item(i, 12); }
+
+        private int item(int i, int field) {
+            int item = b.getInt(off + 24) + i;
+            return itemSlabs[item >>> SLAB_BITS].getInt((item & SLAB_MASK) * ITEM_BYTES + field);
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package id.univ.uaspbo.index;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Kamus yang memetakan kunci String (misalnya ID produk atau ID pengguna) ke nomor urut
+ * (ordinal) int yang padat, dimulai dari 0. Ordinal ini dipakai sebagai indeks array
+ * primitif sehingga penghitung dan tabel tidak perlu memakai Map dengan kunci String.
+ *
+ * Pencarian ordinal bebas kunci (lock-free) melalui ConcurrentHashMap, sedangkan
+ * penambahan kunci baru disinkronkan agar ordinal tetap padat dan unik.
+ *
+ * Konsep OOP yang digunakan:
+ * - Enkapsulasi: Pemetaan dua arah (kunci ke ordinal dan sebaliknya) disembunyikan di dalam kelas.
+ */
+public class OrdinalDictionary {
+    private final ConcurrentHashMap<String, Integer> ordinals = new ConcurrentHashMap<>();
+    private volatile String[] keys = new String[16];  // Kunci berdasarkan ordinal
+    private volatile int size;                         // Jumlah kunci yang sudah terdaftar
+
+    /**
+     * Mendapatkan ordinal untuk kunci, mendaftarkannya terlebih dahulu jika belum ada.
+     */
+    public int ordinal(String key) {
+        Integer ord = ordinals.get(key);
+        if (ord != null) return ord;
+        synchronized (this) {
+            ord = ordinals.get(key);
+            if (ord != null) return ord;
+            int next = size;
+            if (next == keys.length) keys = Arrays.copyOf(keys, next * 2);
+            keys[next] = key;
+            size = next + 1;
+            ordinals.put(key, next);
+            return next;
+        }
+    }
+
+    /**
+     * Mencari ordinal kunci tanpa mendaftarkannya.
+     *
+     * @return Ordinal kunci, atau -1 jika kunci belum terdaftar
+     */
+    public int find(String key) {
+        Integer ord = ordinals.get(key);
+        return ord != null ? ord : -1;
+    }
+
+    /**
+     * Mendapatkan kunci untuk ordinal tertentu.
+     */
+    public String key(int ordinal) {
+        return keys[ordinal];
+    }
+
+    /**
+     * Mendapatkan jumlah kunci yang terdaftar.
+     */
+    public int size() {
+        return size;
+    }
+}
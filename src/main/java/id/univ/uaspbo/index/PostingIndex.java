@@ -0,0 +1,148 @@
+package id.univ.uaspbo.index;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.ObjIntConsumer;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * Indeks terbalik (inverted index) dari ordinal kunci, misalnya ordinal pengguna atau produk, ke
+ * daftar transaksi ringkas yang memuat kunci tersebut. Setiap daftar (posting list) terurut
+ * berdasarkan timestamp sehingga rentang waktu pada satu kunci dicari dengan binary search, dan biaya
+ * query sebanding dengan jumlah transaksi milik kunci itu, bukan jumlah seluruh transaksi.
+ *
+ * Posting list menyimpan referensi ke CompactTransaction yang sama dengan yang disimpan
+ * TimestampIndex (ID dan timestamp dibaca dari sana) ditambah satu nilai int per posting,
+ * misalnya jumlah unit produk pada transaksi itu, sehingga tambahan memorinya hanya satu
+ * referensi dan satu int per posting.
+ *
+ * Penambahan disinkronkan per posting list. Pembaca tidak memakai penguncian: setiap daftar
+ * diterbitkan sebagai pasangan (array, jumlah) yang tidak berubah setelah terlihat pembaca.
+ * Transaksi baru yang waktunya paling akhir cukup ditambahkan di ujung array; transaksi yang
+ * datang tidak berurutan (misalnya dari instance lain) disisipkan pada salinan array baru.
+ *
+ * Konsep OOP yang digunakan:
+ * - Enkapsulasi: Posting list hanya diubah melalui add dan dibaca melalui count, forEach, dan stream.
+ * - Inner Class: Postings mewakili satu posting list beserta snapshot terbitannya.
+ */
+public class PostingIndex {
+    private static final int INITIAL_CAPACITY = 4;
+
+    private final Map<Integer, Postings> lists = new ConcurrentHashMap<>();  // Ordinal kunci -> posting list
+
+    /**
+     * Menambahkan transaksi ke posting list kunci tanpa nilai posting.
+     * Ordinal negatif (kunci kosong) diabaikan.
+     */
+    public void add(int key, CompactTransaction c) {
+        add(key, c, 0);
+    }
+
+    /**
+     * Menambahkan transaksi beserta nilai postingnya (misalnya qty) ke posting list kunci.
+     * Ordinal negatif (kunci kosong) diabaikan.
+     */
+    public void add(int key, CompactTransaction c, int value) {
+        if (key < 0) return;
+        lists.computeIfAbsent(key, k -> new Postings()).add(c, value);
+    }
+
+    /**
+     * Menghitung jumlah transaksi kunci pada rentang waktu [fromNanos, toNanos).
+     */
+    public int count(int key, long fromNanos, long toNanos) {
+        Postings p = lists.get(key);
+        if (p == null) return 0;
+        Snapshot s = p.snapshot;
+        return Math.max(0, s.lowerBound(toNanos) - s.lowerBound(fromNanos));
+    }
+
+    /**
+     * Mengalirkan transaksi kunci pada rentang waktu [fromNanos, toNanos) sesuai urutan waktu.
+     *
+     * @param descending true untuk urutan dari yang terbaru
+     */
+    public Stream<CompactTransaction> stream(int key, long fromNanos, long toNanos, boolean descending) {
+        Postings p = lists.get(key);
+        if (p == null) return Stream.empty();
+        Snapshot s = p.snapshot;
+        int lo = s.lowerBound(fromNanos);
+        int hi = s.lowerBound(toNanos);
+        if (hi <= lo) return Stream.empty();
+        if (!descending) return Arrays.stream(s.items, lo, hi);
+        return IntStream.range(0, hi - lo).mapToObj(k -> s.items[hi - 1 - k]);
+    }
+
+    /**
+     * Menjalankan action untuk setiap posting kunci pada rentang waktu [fromNanos, toNanos),
+     * terurut dari yang paling awal, dengan transaksi dan nilai postingnya.
+     */
+    public void forEach(int key, long fromNanos, long toNanos, ObjIntConsumer<CompactTransaction> action) {
+        Postings p = lists.get(key);
+        if (p == null) return;
+        Snapshot s = p.snapshot;
+        int hi = s.lowerBound(toNanos);
+        for (int i = s.lowerBound(fromNanos); i < hi; i++) action.accept(s.items[i], s.values[i]);
+    }
+
+    /**
+     * Mendapatkan jumlah kunci yang memiliki posting list.
+     */
+    public int keys() {
+        return lists.size();
+    }
+
+    /**
+     * Isi posting list yang sudah diterbitkan: hanya size elemen pertama dari items dan values yang berlaku.
+     */
+    private record Snapshot(CompactTransaction[] items, int[] values, int size) {
+        int lowerBound(long nanos) {
+            int lo = 0, hi = size;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (items[mid].timeNanos() < nanos) lo = mid + 1;
+                else hi = mid;
+            }
+            return lo;
+        }
+    }
+
+    /**
+     * Satu posting list terurut waktu.
+     */
+    private static final class Postings {
+        private volatile Snapshot snapshot = new Snapshot(new CompactTransaction[INITIAL_CAPACITY], new int[INITIAL_CAPACITY], 0);
+
+        private synchronized void add(CompactTransaction c, int value) {
+            Snapshot s = snapshot;
+            CompactTransaction[] items = s.items;
+            int[] values = s.values;
+            int n = s.size;
+            if (n == 0 || CompactTransaction.compare(items[n - 1], c) <= 0) {
+                // penambahan di ujung: slot setelah size belum pernah terlihat pembaca
+                if (n == items.length) {
+                    items = Arrays.copyOf(items, n * 2);
+                    values = Arrays.copyOf(values, n * 2);
+                }
+                items[n] = c;
+                values[n] = value;
+                snapshot = new Snapshot(items, values, n + 1);
+                return;
+            }
+            int at = s.lowerBound(c.timeNanos());
+            while (at < n && CompactTransaction.compare(items[at], c) < 0) at++;
+            int capacity = Math.max(items.length, n + 1);
+            CompactTransaction[] copy = new CompactTransaction[capacity];
+            int[] valuesCopy = new int[capacity];
+            System.arraycopy(items, 0, copy, 0, at);
+            System.arraycopy(values, 0, valuesCopy, 0, at);
+            copy[at] = c;
+            valuesCopy[at] = value;
+            System.arraycopy(items, at, copy, at + 1, n - at);
+            System.arraycopy(values, at, valuesCopy, at + 1, n - at);
+            snapshot = new Snapshot(copy, valuesCopy, n + 1);
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package id.univ.uaspbo.index;
+
+import id.univ.uaspbo.model.ProductPopularity;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Supplier;
+
+/**
+ * Indeks popularitas produk (produk terlaris) yang dihitung dari item-item transaksi.
+ * Perhitungan awal dilakukan secara paralel dengan fork/join: daftar transaksi dibagi
+ * menjadi potongan, setiap potongan dihitung ke SalesCounters sendiri, lalu digabungkan.
+ * Penghitung memakai array primitif berindeks ordinal produk, bukan Map dengan kunci String.
+ *
+ * Setelah dihitung sekali, agregat sepanjang waktu dijaga tetap mutakhir secara inkremental
+ * setiap kali transaksi baru dicatat, sehingga tidak perlu menghitung ulang seluruh riwayat.
+ */
+public class ProductPopularityIndex {
+    private static final int SPLIT_THRESHOLD = 2048;  // Ukuran potongan minimum untuk dibagi lagi
+
+    private final TransactionDictionaries dict;        // Kamus ordinal produk dan nama produk
+    private final ForkJoinPool pool = ForkJoinPool.commonPool();
+    private SalesCounters allTime;                     // Agregat sepanjang waktu, null sebelum dihitung
+
+    /**
+     * Konstruktor ProductPopularityIndex.
+     *
+     * @param dict Kamus ordinal yang dipakai bersama dengan representasi transaksi ringkas
+     */
+    public ProductPopularityIndex(TransactionDictionaries dict) {
+        this.dict = dict;
+    }
+
+    /**
+     * Mencatat transaksi baru ke agregat sepanjang waktu jika agregat sudah pernah dihitung.
+     */
+    public synchronized void record(CompactTransaction t) {
+        if (allTime != null) allTime.add(t, dict);
+    }
+
+    /**
+     * Memakai penghitung yang sudah dihitung di luar (misalnya saat pemulihan startup) sebagai
+     * agregat sepanjang waktu, sehingga tidak perlu dihitung ulang pada permintaan pertama.
+     */
+    public synchronized void seed(SalesCounters counters) {
+        allTime = counters;
+    }
+
+    /**
+     * Mendapatkan N produk terlaris sepanjang waktu.
+     * Agregat dihitung secara paralel pada pemanggilan pertama, lalu dipakai ulang.
+     *
+     * @param source Pemasok seluruh transaksi untuk perhitungan awal
+     * @param limit Jumlah produk yang diambil, 0 berarti semua
+     * @param sortBy Kriteria urutan ("quantity", "revenue", atau "orders")
+     */
+    public synchronized List<ProductPopularity> topAllTime(Supplier<List<CompactTransaction>> source, int limit, String sortBy) {
+        if (allTime == null) allTime = compute(source.get());
+        return top(allTime, limit, sortBy);
+    }
+
+    /**
+     * Mendapatkan N produk terlaris dari sekumpulan transaksi tertentu (misalnya satu jendela waktu).
+     */
+    public List<ProductPopularity> top(List<CompactTransaction> window, int limit, String sortBy) {
+        return top(compute(window), limit, sortBy);
+    }
+
+    /**
+     * Menghitung penghitung penjualan dari daftar transaksi secara paralel.
+     */
+    public SalesCounters compute(List<CompactTransaction> transactions) {
+        return pool.invoke(new AggregateTask(transactions, 0, transactions.size()));
+    }
+
+    private List<ProductPopularity> top(SalesCounters c, int limit, String sortBy) {
+        List<ProductPopularity> result = new ArrayList<>();
+        int n = Math.min(c.capacity(), dict.products().size());
+        for (int ord = 0; ord < n; ord++) {
+            if (c.quantity(ord) == 0 && c.orders(ord) == 0) continue;
+            result.add(new ProductPopularity(dict.products().key(ord), c.name(ord), c.quantity(ord), c.revenue(ord), c.orders(ord)));
+        }
+        Comparator<ProductPopularity> cmp = switch (sortBy == null ? "" : sortBy) {
+            case "revenue" -> Comparator.comparingLong(ProductPopularity::getRevenue);
+            case "orders" -> Comparator.comparingInt(ProductPopularity::getOrders);
+            default -> Comparator.comparingLong(ProductPopularity::getQuantity);
+        };
+        result.sort(cmp.reversed());
+        return limit > 0 && result.size() > limit ? new ArrayList<>(result.subList(0, limit)) : result;
+    }
+
+    /**
+     * Tugas fork/join yang menghitung penjualan untuk potongan [lo, hi) dari daftar transaksi.
+     */
+    private class AggregateTask extends RecursiveTask<SalesCounters> {
+        private static final long serialVersionUID = 1L;
+        private final List<CompactTransaction> list;
+        private final int lo;
+        private final int hi;
+
+        AggregateTask(List<CompactTransaction> list, int lo, int hi) {
+            this.list = list;
+            this.lo = lo;
+            this.hi = hi;
+        }
+
+        @Override
+        protected SalesCounters compute() {
+            if (hi - lo <= SPLIT_THRESHOLD) {
+                SalesCounters c = new SalesCounters();
+                for (int i = lo; i < hi; i++) c.add(list.get(i), dict);
+                return c;
+            }
+            int mid = (lo + hi) >>> 1;
+            AggregateTask left = new AggregateTask(list, lo, mid);
+            left.fork();
+            SalesCounters right = new AggregateTask(list, mid, hi).compute();
+            SalesCounters result = left.join();
+            result.merge(right);
+            return result;
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package id.univ.uaspbo.index;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Ring buffer berukuran tetap berisi N objek yang paling akhir ditambahkan, tanpa kunci.
+ * Setiap penambahan mengambil nomor urut dari satu AtomicLong lalu menulis ke slot
+ * (nomor urut mod kapasitas) dengan compare-and-set; objek yang lebih lama otomatis tertimpa.
+ *
+ * Pembaca tidak pernah menunggu penulis: slot yang nomor urutnya tidak sesuai (belum selesai
+ * ditulis atau sudah tertimpa) dilewati, sehingga latest() dapat mengembalikan lebih sedikit
+ * objek selama penambahan bersamaan sedang berlangsung, tetapi tidak pernah objek yang salah urutan.
+ *
+ * @param <T> Tipe objek yang disimpan
+ */
+public class RecentBuffer<T> {
+    private final AtomicReferenceArray<Entry<T>> slots;
+    private final AtomicLong next = new AtomicLong();  // Nomor urut penambahan berikutnya
+    private final int mask;
+
+    /**
+     * Konstruktor RecentBuffer.
+     *
+     * @param capacity Jumlah objek terbaru yang disimpan, dibulatkan ke atas menjadi pangkat dua
+     */
+    public RecentBuffer(int capacity) {
+        if (capacity <= 0) throw new IllegalArgumentException("capacity harus positif");
+        int size = Integer.highestOneBit(capacity);
+        if (size < capacity) size <<= 1;
+        this.slots = new AtomicReferenceArray<>(size);
+        this.mask = size - 1;
+    }
+
+    /**
+     * Menambahkan objek sebagai objek terbaru.
+     */
+    public void add(T item) {
+        long seq = next.getAndIncrement();
+        int i = (int) seq & mask;
+        Entry<T> entry = new Entry<>(seq, item);
+        while (true) {
+            Entry<T> current = slots.get(i);
+            // penulis yang lebih lambat tidak boleh menimpa objek yang lebih baru pada slot yang sama
+            if (current != null && current.seq > seq) return;
+            if (slots.compareAndSet(i, current, entry)) return;
+        }
+    }
+
+    /**
+     * Mendapatkan paling banyak limit objek terbaru.
+     *
+     * @param limit Jumlah objek yang diambil, dibatasi kapasitas
+     * @return Daftar objek dimulai dari yang paling akhir ditambahkan
+     */
+    public List<T> latest(int limit) {
+        long end = next.get();
+        long start = Math.max(0, end - Math.min(limit, capacity()));
+        List<T> result = new ArrayList<>((int) (end - start));
+        for (long seq = end - 1; seq >= start; seq--) {
+            Entry<T> e = slots.get((int) seq & mask);
+            if (e != null && e.seq == seq) result.add(e.item);
+        }
+        return result;
+    }
+
+    /**
+     * Mendapatkan jumlah objek yang dapat disimpan.
+     */
+    public int capacity() {
+        return mask + 1;
+    }
+
+    /**
+     * Mendapatkan jumlah objek yang pernah ditambahkan.
+     */
+    public long added() {
+        return next.get();
+    }
+
+    private record Entry<T>(long seq, T item) {}
+}
@@ -0,0 +1,73 @@
+package id.univ.uaspbo.index;
+
+import java.util.Arrays;
+
+/**
+ * Penghitung penjualan per produk yang disimpan dalam array primitif berindeks ordinal
+ * produk dari TransactionDictionaries. Setiap ordinal memiliki jumlah unit terjual,
+ * pendapatan, jumlah pesanan yang memuat produk tersebut, serta nama produk terakhir.
+ *
+ * Kelas ini tidak thread-safe; setiap tugas paralel memiliki instance sendiri
+ * yang kemudian digabungkan melalui merge().
+ */
+public class SalesCounters {
+    private long[] quantity = new long[16];  // Jumlah unit terjual per ordinal
+    private long[] revenue = new long[16];   // Pendapatan per ordinal
+    private int[] orders = new int[16];      // Jumlah pesanan per ordinal
+    private String[] names = new String[16]; // Nama produk per ordinal
+    private int[] lastOrder = new int[16];   // Penanda pesanan terakhir agar satu pesanan dihitung sekali
+    private int orderSeq;                    // Nomor urut pesanan yang sedang dihitung
+
+    /**
+     * Menambahkan seluruh item dari satu transaksi ringkas ke penghitung.
+     * Ordinal produk pada item langsung dipakai sebagai indeks array.
+     */
+    public void add(CompactTransaction t, TransactionDictionaries dict) {
+        int seq = ++orderSeq;
+        for (int i = 0, n = t.itemCount(); i < n; i++) {
+            int ord = t.productOrdinal(i);
+            if (ord < 0) continue;
+            ensureCapacity(ord + 1);
+            quantity[ord] += t.qty(i);
+            revenue[ord] += (long) t.qty(i) * t.price(i);
+            if (t.nameOrdinal(i) >= 0) names[ord] = dict.names().key(t.nameOrdinal(i));
+            if (lastOrder[ord] != seq) {
+                lastOrder[ord] = seq;
+                orders[ord]++;
+            }
+        }
+    }
+
+    /**
+     * Menggabungkan penghitung lain ke penghitung ini.
+     */
+    public void merge(SalesCounters other) {
+        ensureCapacity(other.quantity.length);
+        for (int i = 0; i < other.quantity.length; i++) {
+            quantity[i] += other.quantity[i];
+            revenue[i] += other.revenue[i];
+            orders[i] += other.orders[i];
+            if (other.names[i] != null) names[i] = other.names[i];
+        }
+    }
+
+    /**
+     * Mendapatkan panjang array penghitung (batas atas ordinal yang mungkin terisi).
+     */
+    public int capacity() { return quantity.length; }
+
+    public long quantity(int ord) { return ord < quantity.length ? quantity[ord] : 0; }
+    public long revenue(int ord) { return ord < revenue.length ? revenue[ord] : 0; }
+    public int orders(int ord) { return ord < orders.length ? orders[ord] : 0; }
+    public String name(int ord) { return ord < names.length ? names[ord] : null; }
+
+    private void ensureCapacity(int needed) {
+        if (needed <= quantity.length) return;
+        int cap = Math.max(needed, quantity.length * 2);
+        quantity = Arrays.copyOf(quantity, cap);
+        revenue = Arrays.copyOf(revenue, cap);
+        orders = Arrays.copyOf(orders, cap);
+        names = Arrays.copyOf(names, cap);
+        lastOrder = Arrays.copyOf(lastOrder, cap);
+    }
+}
@@ -0,0 +1,115 @@
+package id.univ.uaspbo.index;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Tabel stok produk berbasis array primitif. Setiap produk mendapat ordinal padat dari
+ * OrdinalDictionary dan stoknya disimpan pada AtomicIntegerArray, sehingga pembacaan dan
+ * pengurangan stok tidak memerlukan objek Product maupun penguncian.
+ *
+ * Array dibagi menjadi potongan (chunk) berukuran tetap. Saat produk baru ditambahkan,
+ * hanya daftar potongan yang disalin; potongan lama tetap dipakai sehingga operasi
+ * compare-and-set yang sedang berjalan tidak pernah kehilangan pembaruan.
+ */
+public class StockTable {
+    private static final int CHUNK_BITS = 10;
+    private static final int CHUNK_SIZE = 1 << CHUNK_BITS;  // 1024 produk per potongan
+    private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+
+    private final OrdinalDictionary products = new OrdinalDictionary();  // Kamus ID produk ke ordinal
+    private volatile AtomicIntegerArray[] chunks = new AtomicIntegerArray[0];
+
+    /**
+     * Mendaftarkan produk (jika belum ada) dan mengatur stoknya.
+     */
+    public void set(String productId, int stock) {
+        int ord = register(productId);
+        chunk(ord).set(ord & CHUNK_MASK, stock);
+    }
+
+    /**
+     * Mendapatkan stok produk.
+     *
+     * @return Stok produk, atau 0 jika produk tidak terdaftar
+     */
+    public int get(String productId) {
+        int ord = products.find(productId);
+        return ord < 0 ? 0 : chunk(ord).get(ord & CHUNK_MASK);
+    }
+
+    /**
+     * Mengecek apakah produk terdaftar di tabel stok.
+     */
+    public boolean contains(String productId) {
+        return products.find(productId) >= 0;
+    }
+
+    /**
+     * Mengurangi stok hanya jika stok mencukupi, tanpa penguncian (compare-and-set).
+     *
+     * @param productId ID produk
+     * @param qty Jumlah yang akan dikurangi
+     * @return true jika stok berhasil dikurangi, false jika produk tidak ada atau stok kurang
+     */
+    public boolean tryDecrement(String productId, int qty) {
+        int ord = products.find(productId);
+        if (ord < 0) return false;
+        AtomicIntegerArray arr = chunk(ord);
+        int idx = ord & CHUNK_MASK;
+        while (true) {
+            int current = arr.get(idx);
+            if (current < qty) return false;
+            if (arr.compareAndSet(idx, current, current - qty)) return true;
+        }
+    }
+
+    /**
+     * Menambahkan stok satu produk (misalnya untuk mengembalikan stok atau restock).
+     *
+     * @return Stok setelah ditambahkan, atau -1 jika produk tidak terdaftar
+     */
+    public int add(String productId, int delta) {
+        int ord = products.find(productId);
+        if (ord < 0) return -1;
+        return chunk(ord).addAndGet(ord & CHUNK_MASK, delta);
+    }
+
+    /**
+     * Menambahkan stok banyak produk sekaligus. Produk yang tidak terdaftar dilewati.
+     *
+     * @param deltas Map ID produk ke jumlah tambahan stok
+     * @return Jumlah produk yang berhasil di-restock
+     */
+    public int restock(Map<String, Integer> deltas) {
+        int updated = 0;
+        for (Map.Entry<String, Integer> e : deltas.entrySet()) {
+            if (add(e.getKey(), e.getValue()) >= 0) updated++;
+        }
+        return updated;
+    }
+
+    private AtomicIntegerArray chunk(int ord) {
+        return chunks[ord >>> CHUNK_BITS];
+    }
+
+    /**
+     * Mendaftarkan produk dan memastikan potongan array untuk ordinalnya sudah tersedia
+     * sebelum ordinal tersebut dapat ditemukan oleh thread lain.
+     */
+    private int register(String productId) {
+        int ord = products.find(productId);
+        if (ord >= 0) return ord;
+        synchronized (this) {
+            int next = products.size();
+            int needed = (next >>> CHUNK_BITS) + 1;
+            if (needed > chunks.length) {
+                AtomicIntegerArray[] grown = Arrays.copyOf(chunks, needed);
+                for (int i = chunks.length; i < needed; i++) grown[i] = new AtomicIntegerArray(CHUNK_SIZE);
+                chunks = grown;
+            }
+            return products.ordinal(productId);
+        }
+    }
+}
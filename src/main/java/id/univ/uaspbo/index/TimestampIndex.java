@@ -0,0 +1,131 @@
+package id.univ.uaspbo.index;
+
+import id.univ.uaspbo.model.Transaction;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.IntSummaryStatistics;
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.stream.Stream;
+
+/**
+ * Indeks terurut transaksi berdasarkan timestamp, dengan ID transaksi sebagai
+ * pemecah seri (tie-breaker) jika dua transaksi memiliki waktu yang sama.
+ * Indeks ini memungkinkan query rentang waktu seperti "pesanan antara pukul 11:00
+ * dan 14:00 hari ini" tanpa memindai seluruh transaksi.
+ *
+ * Transaksi disimpan dalam bentuk CompactTransaction agar riwayat yang tinggal di memori
+ * tetap hemat heap; hasil query dikembalikan sebagai tampilan Transaction yang ringan.
+ * Struktur data yang dipakai adalah ConcurrentSkipListSet sehingga pembacaan dapat
+ * dilakukan bersamaan dengan penambahan transaksi baru tanpa penguncian global.
+ *
+ * Konsep OOP yang digunakan:
+ * - Enkapsulasi: Struktur set internal hanya dapat diakses melalui method publik.
+ * - Implementasi Interface: Mengimplementasikan TransactionIndex untuk penyimpanan di heap.
+ */
+public class TimestampIndex implements TransactionIndex {
+    private final ConcurrentSkipListSet<CompactTransaction> set =
+            new ConcurrentSkipListSet<>(CompactTransaction::compare);
+    private final TransactionDictionaries dict;  // Kamus untuk mengemas dan membaca transaksi
+
+    /**
+     * Konstruktor TimestampIndex.
+     *
+     * @param dict Kamus ordinal yang dipakai untuk representasi ringkas
+     */
+    public TimestampIndex(TransactionDictionaries dict) {
+        this.dict = dict;
+    }
+
+    /**
+     * Menambahkan transaksi ke indeks.
+     *
+     * @return Representasi ringkas transaksi yang disimpan
+     */
+    @Override
+    public CompactTransaction add(Transaction t) {
+        CompactTransaction c = CompactTransaction.of(t, dict);
+        set.add(c);
+        return c;
+    }
+
+    /**
+     * Menambahkan banyak transaksi secara paralel; ConcurrentSkipListSet aman
+     * untuk penambahan bersamaan sehingga tidak diperlukan penguncian.
+     */
+    @Override
+    public void addAll(List<Transaction> transactions) {
+        transactions.parallelStream().forEach(t -> set.add(CompactTransaction.of(t, dict)));
+    }
+
+    /**
+     * Menghapus transaksi dari indeks.
+     */
+    public void remove(Transaction t) {
+        set.remove(CompactTransaction.of(t, dict));
+    }
+
+    /**
+     * Mendapatkan jumlah transaksi dalam indeks.
+     */
+    @Override
+    public int size() {
+        return set.size();
+    }
+
+    /**
+     * Mendapatkan transaksi dengan timestamp pada rentang [from, to).
+     *
+     * @param from Batas bawah inklusif, null berarti tanpa batas
+     * @param to Batas atas eksklusif, null berarti tanpa batas
+     * @param limit Jumlah maksimum hasil, 0 atau negatif berarti tanpa batas
+     * @param descending true untuk urutan dari yang terbaru
+     * @return Daftar transaksi dalam rentang sesuai urutan yang diminta
+     */
+    @Override
+    public List<Transaction> range(LocalDateTime from, LocalDateTime to, int limit, boolean descending) {
+        List<Transaction> result = new ArrayList<>();
+        for (CompactTransaction c : view(from, to, descending)) {
+            if (limit > 0 && result.size() >= limit) break;
+            result.add(c.view(dict));
+        }
+        return result;
+    }
+
+    /**
+     * Mendapatkan transaksi ringkas pada rentang [from, to) terurut dari yang paling awal,
+     * untuk perhitungan agregat yang tidak membutuhkan objek Transaction.
+     */
+    @Override
+    public List<CompactTransaction> compactRange(LocalDateTime from, LocalDateTime to) {
+        return new ArrayList<>(view(from, to, false));
+    }
+
+    /**
+     * Mengalirkan transaksi ringkas pada rentang [from, to) langsung dari skip list,
+     * tanpa menyalin rentang lebih dulu.
+     */
+    @Override
+    public Stream<CompactTransaction> compactStream(LocalDateTime from, LocalDateTime to, boolean descending) {
+        return view(from, to, descending).stream();
+    }
+
+    /**
+     * Menghitung statistik total transaksi pada rentang [from, to).
+     */
+    @Override
+    public IntSummaryStatistics totals(LocalDateTime from, LocalDateTime to) {
+        IntSummaryStatistics stats = new IntSummaryStatistics();
+        for (CompactTransaction c : view(from, to, false)) stats.accept(c.total());
+        return stats;
+    }
+
+    private NavigableSet<CompactTransaction> view(LocalDateTime from, LocalDateTime to, boolean descending) {
+        NavigableSet<CompactTransaction> view = set;
+        if (from != null) view = view.tailSet(CompactTransaction.probe(from), true);
+        if (to != null) view = view.headSet(CompactTransaction.probe(to), false);
+        return descending ? view.descendingSet() : view;
+    }
+}
@@ -0,0 +1,218 @@
+package id.univ.uaspbo.index;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Timing wheel hierarkis untuk menjadwalkan kedaluwarsa banyak objek tanpa thread atau
+ * tugas terjadwal per objek. Waktu dibagi menjadi tick berukuran tickMs; setiap level roda
+ * memiliki 64 slot, dan satu slot pada level L mencakup 64^L tick. Jadwal diletakkan pada
+ * level terendah yang dapat menampungnya; saat digit tick berjalan pada level L kembali ke nol,
+ * isi slot level yang lebih tinggi diturunkan (cascade) ke level di bawahnya.
+ *
+ * Menjadwalkan dan membatalkan bernilai O(1) (slot berupa daftar berantai ganda), dan memajukan
+ * roda bernilai O(1) per tick ditambah jumlah jadwal yang diturunkan atau kedaluwarsa.
+ * Roda tidak menjalankan thread sendiri: pemilik memanggil advance() secara berkala.
+ *
+ * @param <T> Tipe objek yang dijadwalkan
+ */
+public class TimingWheel<T> {
+    private static final int BITS = 6;
+    private static final int WHEEL_SIZE = 1 << BITS;  // 64 slot per level
+    private static final int MASK = WHEEL_SIZE - 1;
+    private static final int MAX_LEVELS = (Long.SIZE + BITS - 1) / BITS;
+
+    private final long tickMs;                                   // Lebar satu tick (milidetik)
+    @SuppressWarnings("unchecked")
+    private final Slot<T>[][] levels = (Slot<T>[][]) new Slot<?>[MAX_LEVELS][];  // Slot per level, dibuat saat dibutuhkan
+    private final Slot<T> due = new Slot<>();                    // Jadwal yang sudah jatuh tempo saat dijadwalkan
+    private long currentTick;                                    // Tick terakhir yang sudah diproses
+    private int size;                                            // Jumlah jadwal aktif
+
+    /**
+     * Konstruktor TimingWheel.
+     *
+     * @param tickMs Lebar satu tick dalam milidetik (resolusi kedaluwarsa)
+     * @param startMs Waktu awal roda, misalnya System.currentTimeMillis()
+     */
+    public TimingWheel(long tickMs, long startMs) {
+        if (tickMs <= 0) throw new IllegalArgumentException("tickMs harus positif");
+        this.tickMs = tickMs;
+        this.currentTick = Math.floorDiv(startMs, tickMs);
+    }
+
+    /**
+     * Menjadwalkan objek untuk kedaluwarsa pada waktu tertentu. Objek dikembalikan oleh
+     * advance() paling cepat pada deadlineMs dan paling lambat satu tick setelahnya.
+     *
+     * @param item Objek yang dijadwalkan
+     * @param deadlineMs Waktu kedaluwarsa (milidetik epoch)
+     * @return Penanda jadwal yang dapat dibatalkan
+     */
+    public synchronized Timeout<T> schedule(T item, long deadlineMs) {
+        Timeout<T> timeout = new Timeout<>(this, item, deadlineMs, -Math.floorDiv(-deadlineMs, tickMs));
+        insert(timeout);
+        size++;
+        return timeout;
+    }
+
+    /**
+     * Memajukan roda sampai waktu nowMs dan mengembalikan objek yang kedaluwarsa.
+     *
+     * @param nowMs Waktu sekarang (milidetik epoch)
+     * @return Objek yang kedaluwarsa, terurut berdasarkan tick kedaluwarsanya
+     */
+    public synchronized List<T> advance(long nowMs) {
+        List<T> expired = new ArrayList<>();
+        drain(due, expired);
+        long target = Math.floorDiv(nowMs, tickMs);
+        if (size == 0) {
+            currentTick = Math.max(currentTick, target);
+            return expired;
+        }
+        while (currentTick < target) {
+            currentTick++;
+            for (int level = highestRollover(currentTick); level >= 1; level--) {
+                Slot<T>[] slots = levels[level];
+                if (slots == null) continue;
+                Slot<T> slot = slots[(int) (currentTick >>> (BITS * level)) & MASK];
+                for (Timeout<T> t = slot.detachAll(); t != null; ) {
+                    Timeout<T> next = t.next;
+                    t.next = null;
+                    insert(t);
+                    t = next;
+                }
+            }
+            if (levels[0] != null) drain(levels[0][(int) currentTick & MASK], expired);
+            drain(due, expired);
+            if (size == 0) currentTick = target;
+        }
+        return expired;
+    }
+
+    /**
+     * Mendapatkan jumlah jadwal yang masih aktif.
+     */
+    public synchronized int size() {
+        return size;
+    }
+
+    /**
+     * Meletakkan jadwal pada level terendah yang digit tick-nya di atas level itu sama dengan
+     * tick berjalan, atau pada daftar jatuh tempo jika tick-nya sudah lewat.
+     */
+    private void insert(Timeout<T> t) {
+        if (t.tick <= currentTick) {
+            due.add(t);
+            return;
+        }
+        int level = 0;
+        while (level < MAX_LEVELS - 1 && (t.tick >>> (BITS * (level + 1))) != (currentTick >>> (BITS * (level + 1)))) level++;
+        if (levels[level] == null) {
+            @SuppressWarnings("unchecked")
+            Slot<T>[] slots = (Slot<T>[]) new Slot<?>[WHEEL_SIZE];
+            for (int i = 0; i < WHEEL_SIZE; i++) slots[i] = new Slot<>();
+            levels[level] = slots;
+        }
+        levels[level][(int) (t.tick >>> (BITS * level)) & MASK].add(t);
+    }
+
+    private void drain(Slot<T> slot, List<T> into) {
+        for (Timeout<T> t = slot.detachAll(); t != null; ) {
+            Timeout<T> next = t.next;
+            t.next = null;
+            t.expired = true;
+            size--;
+            into.add(t.item);
+            t = next;
+        }
+    }
+
+    /**
+     * Mendapatkan level tertinggi yang semua digit di bawahnya bernilai nol pada tick ini,
+     * yaitu level-level yang slotnya perlu diturunkan.
+     */
+    private static int highestRollover(long tick) {
+        if (tick == 0) return MAX_LEVELS - 1;
+        return Math.min(MAX_LEVELS - 1, Long.numberOfTrailingZeros(tick) / BITS);
+    }
+
+    private synchronized boolean cancel(Timeout<T> t) {
+        if (t.slot == null || t.expired) return false;
+        t.slot.remove(t);
+        size--;
+        return true;
+    }
+
+    /**
+     * Penanda satu jadwal pada timing wheel.
+     *
+     * @param <T> Tipe objek yang dijadwalkan
+     */
+    public static final class Timeout<T> {
+        private final TimingWheel<T> wheel;
+        private final T item;
+        private final long deadlineMs;
+        private final long tick;        // Tick kedaluwarsa (pembulatan ke atas)
+        private Slot<T> slot;           // Slot tempat jadwal berada, null jika tidak terpasang
+        private Timeout<T> prev;
+        private Timeout<T> next;
+        private boolean expired;
+
+        private Timeout(TimingWheel<T> wheel, T item, long deadlineMs, long tick) {
+            this.wheel = wheel;
+            this.item = item;
+            this.deadlineMs = deadlineMs;
+            this.tick = tick;
+        }
+
+        public T getItem() { return item; }
+        public long getDeadlineMs() { return deadlineMs; }
+
+        /**
+         * Membatalkan jadwal.
+         *
+         * @return true jika jadwal dibatalkan, false jika sudah kedaluwarsa atau sudah dibatalkan
+         */
+        public boolean cancel() {
+            return wheel.cancel(this);
+        }
+    }
+
+    /**
+     * Satu slot roda berupa daftar berantai ganda sehingga pembatalan bernilai O(1).
+     */
+    private static final class Slot<T> {
+        private Timeout<T> head;
+
+        void add(Timeout<T> t) {
+            t.slot = this;
+            t.prev = null;
+            t.next = head;
+            if (head != null) head.prev = t;
+            head = t;
+        }
+
+        void remove(Timeout<T> t) {
+            if (t.prev != null) t.prev.next = t.next;
+            else head = t.next;
+            if (t.next != null) t.next.prev = t.prev;
+            t.slot = null;
+            t.prev = null;
+            t.next = null;
+        }
+
+        /**
+         * Melepas seluruh isi slot dan mengembalikan kepala daftarnya (disambung lewat next).
+         */
+        Timeout<T> detachAll() {
+            Timeout<T> first = head;
+            head = null;
+            for (Timeout<T> t = first; t != null; t = t.next) {
+                t.slot = null;
+                t.prev = null;
+            }
+            return first;
+        }
+    }
+}
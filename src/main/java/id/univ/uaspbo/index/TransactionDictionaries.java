@@ -0,0 +1,38 @@
+package id.univ.uaspbo.index;
+
+/**
+ * Kumpulan kamus ordinal yang dipakai bersama oleh representasi transaksi ringkas
+ * (CompactTransaction): kamus pengguna, kamus produk, dan kamus nama produk.
+ * Dengan kamus ini, setiap String ID atau nama cukup disimpan sekali di memori
+ * dan transaksi hanya menyimpan ordinal int-nya.
+ */
+public class TransactionDictionaries {
+    private final OrdinalDictionary users;      // Kamus ID pengguna
+    private final OrdinalDictionary products;   // Kamus ID produk
+    private final OrdinalDictionary names;      // Kamus nama produk
+
+    /**
+     * Konstruktor dengan kamus produk yang dipakai bersama komponen lain
+     * (misalnya indeks popularitas produk).
+     */
+    public TransactionDictionaries(OrdinalDictionary products) {
+        this.users = new OrdinalDictionary();
+        this.products = products;
+        this.names = new OrdinalDictionary();
+    }
+
+    /**
+     * Mengambil kamus ID pengguna.
+     */
+    public OrdinalDictionary users() { return users; }
+
+    /**
+     * Mengambil kamus ID produk.
+     */
+    public OrdinalDictionary products() { return products; }
+
+    /**
+     * Mengambil kamus nama produk.
+     */
+    public OrdinalDictionary names() { return names; }
+}
@@ -0,0 +1,82 @@
+package id.univ.uaspbo.index;
+
+import id.univ.uaspbo.model.Transaction;
+
+import java.time.LocalDateTime;
+import java.util.IntSummaryStatistics;
+import java.util.List;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * Kontrak indeks transaksi yang tinggal di memori dan terurut berdasarkan timestamp.
+ * Implementasinya dapat menyimpan data di heap (TimestampIndex) atau di luar heap
+ * (OffHeapTransactionStore); service cukup bergantung pada interface ini.
+ *
+ * Konsep OOP yang digunakan:
+ * - Abstraksi: Mendefinisikan operasi indeks tanpa mengikat cara penyimpanannya.
+ * - Polimorfisme: TransactionService dapat memakai implementasi mana pun sesuai konfigurasi.
+ */
+public interface TransactionIndex {
+
+    /**
+     * Menambahkan transaksi ke indeks.
+     *
+     * @return Representasi ringkas transaksi yang disimpan
+     */
+    CompactTransaction add(Transaction t);
+
+    /**
+     * Menambahkan banyak transaksi sekaligus, misalnya saat memuat riwayat ketika startup.
+     * Implementasi dapat mengemas transaksi secara paralel.
+     */
+    default void addAll(List<Transaction> transactions) {
+        for (Transaction t : transactions) add(t);
+    }
+
+    /**
+     * Mendapatkan jumlah transaksi dalam indeks.
+     */
+    int size();
+
+    /**
+     * Mendapatkan semua transaksi terurut dari yang paling awal.
+     */
+    default List<Transaction> all() {
+        return range(null, null, 0, false);
+    }
+
+    /**
+     * Mendapatkan transaksi dengan timestamp pada rentang [from, to).
+     *
+     * @param from Batas bawah inklusif, null berarti tanpa batas
+     * @param to Batas atas eksklusif, null berarti tanpa batas
+     * @param limit Jumlah maksimum hasil, 0 atau negatif berarti tanpa batas
+     * @param descending true untuk urutan dari yang terbaru
+     */
+    List<Transaction> range(LocalDateTime from, LocalDateTime to, int limit, boolean descending);
+
+    /**
+     * Mendapatkan transaksi ringkas pada rentang [from, to) terurut dari yang paling awal.
+     */
+    List<CompactTransaction> compactRange(LocalDateTime from, LocalDateTime to);
+
+    /**
+     * Mengalirkan transaksi ringkas pada rentang [from, to) sesuai urutan waktu, misalnya untuk
+     * query yang berhenti setelah N hasil. Implementasi bawaan menyalin compactRange lebih dulu;
+     * implementasi dapat menimpanya agar transaksi dibaca hanya ketika diminta.
+     *
+     * @param descending true untuk urutan dari yang terbaru
+     */
+    default Stream<CompactTransaction> compactStream(LocalDateTime from, LocalDateTime to, boolean descending) {
+        List<CompactTransaction> list = compactRange(from, to);
+        if (!descending) return list.stream();
+        return IntStream.range(0, list.size()).mapToObj(i -> list.get(list.size() - 1 - i));
+    }
+
+    /**
+     * Menghitung statistik total transaksi (jumlah, total, minimum, maksimum, rata-rata)
+     * pada rentang [from, to) tanpa membuat objek Transaction.
+     */
+    IntSummaryStatistics totals(LocalDateTime from, LocalDateTime to);
+}
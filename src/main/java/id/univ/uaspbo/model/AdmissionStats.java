@@ -0,0 +1,45 @@
+package id.univ.uaspbo.model;
+
+/**
+ * Model statistik kontrol beban (admission control) untuk satu prioritas permintaan:
+ * batas konkurensi efektif, jumlah permintaan yang sedang diproses, yang diterima, dan
+ * yang ditolak karena server sibuk. Objek ini immutable dan merupakan potret saat dibuat.
+ *
+ * Konsep Object Oriented Programming (OOP) yang dipakai:
+ * - Enkapsulasi: Atribut bersifat private final dan hanya dapat dibaca melalui getter.
+ */
+public class AdmissionStats {
+    private final String priority;      // Nama prioritas, misalnya "CHECKOUT"
+    private final int limit;            // Batas konkurensi efektif untuk prioritas ini
+    private final int inFlight;         // Permintaan yang sedang diproses (semua prioritas)
+    private final long admitted;        // Permintaan yang diterima
+    private final long rejected;        // Permintaan yang ditolak karena sibuk
+    private final double latencyMs;     // Rata-rata bergerak latensi permintaan (milidetik)
+
+    /**
+     * Konstruktor dengan parameter lengkap.
+     */
+    public AdmissionStats(String priority, int limit, int inFlight, long admitted, long rejected, double latencyMs) {
+        this.priority = priority;
+        this.limit = limit;
+        this.inFlight = inFlight;
+        this.admitted = admitted;
+        this.rejected = rejected;
+        this.latencyMs = latencyMs;
+    }
+
+    public String getPriority() { return priority; }
+    public int getLimit() { return limit; }
+    public int getInFlight() { return inFlight; }
+    public long getAdmitted() { return admitted; }
+    public long getRejected() { return rejected; }
+    public double getLatencyMs() { return latencyMs; }
+
+    /**
+     * Mendapatkan persentase permintaan yang ditolak terhadap seluruh permintaan.
+     */
+    public double getRejectionRate() {
+        long total = admitted + rejected;
+        return total == 0 ? 0 : 100.0 * rejected / total;
+    }
+}
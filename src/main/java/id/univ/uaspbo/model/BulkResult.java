@@ -0,0 +1,28 @@
+package id.univ.uaspbo.model;
+
+/**
+ * Model hasil satu item pada operasi massal produk: produk yang dimaksud, apakah perubahan
+ * diterapkan, dan keterangannya (misalnya harga lama dan baru, atau alasan penolakan).
+ * Objek ini immutable.
+ *
+ * Konsep Object Oriented Programming (OOP) yang dipakai:
+ * - Enkapsulasi: Atribut bersifat private final dan hanya dapat dibaca melalui getter.
+ */
+public class BulkResult {
+    private final String item;       // Nama produk, atau teks baris masukan jika produk tidak dikenali
+    private final boolean success;   // true jika perubahan diterapkan
+    private final String message;    // Keterangan hasil
+
+    /**
+     * Konstruktor dengan parameter lengkap.
+     */
+    public BulkResult(String item, boolean success, String message) {
+        this.item = item;
+        this.success = success;
+        this.message = message;
+    }
+
+    public String getItem() { return item; }
+    public boolean isSuccess() { return success; }
+    public String getMessage() { return message; }
+}
@@ -0,0 +1,36 @@
+package id.univ.uaspbo.model;
+
+/**
+ * Model satu record rusak yang ditemukan saat membaca atau memeriksa file data: file asalnya,
+ * posisi byte record di file (atau posisi blok untuk arsip), urutan record di file, dan alasannya.
+ * Objek ini immutable.
+ *
+ * Konsep Object Oriented Programming (OOP) yang dipakai:
+ * - Enkapsulasi: Atribut bersifat private final dan hanya dapat dibaca melalui getter.
+ */
+public class CorruptRecord {
+    private final String file;    // Path file data
+    private final long offset;    // Posisi byte awal record atau blok, -1 jika tidak diketahui
+    private final int index;      // Urutan record di file (mulai 0), -1 jika tidak diketahui
+    private final String reason;  // Alasan record dianggap rusak
+
+    /**
+     * Konstruktor dengan parameter lengkap.
+     */
+    public CorruptRecord(String file, long offset, int index, String reason) {
+        this.file = file;
+        this.offset = offset;
+        this.index = index;
+        this.reason = reason;
+    }
+
+    public String getFile() { return file; }
+    public long getOffset() { return offset; }
+    public int getIndex() { return index; }
+    public String getReason() { return reason; }
+
+    @Override
+    public String toString() {
+        return file + " @" + offset + (index >= 0 ? " #" + index : "") + ": " + reason;
+    }
+}
@@ -1,5 +1,7 @@
 package id.univ.uaspbo.model;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+
 /**
  * Kelas dasar abstrak untuk semua entitas dalam sistem.
  * Berfungsi sebagai superclass yang menyediakan atribut dan metode
@@ -12,6 +14,9 @@ package id.univ.uaspbo.model;
  * 
  * Kelas ini menyederhanakan pengelolaan identifier unik pada semua entitas di sistem,
  * sehingga kelas-kelas turunan dapat fokus pada atribut dan perilaku khusus mereka saja.
+ *
+ * Setiap entitas juga memiliki nomor versi untuk optimistic concurrency: pembaruan hanya
+ * diterima jika versi entitas sama dengan versi tersimpan, lalu versinya dinaikkan satu.
  */
 
 public abstract class Entity {
@@ -20,6 +25,12 @@ public abstract class Entity {
      * Biasanya digunakan sebagai primary key pada database.
      */
     protected String id;           
+
+    /**
+     * Nomor versi entitas, naik setiap kali entitas berhasil diperbarui.
+     * Data lama yang belum memiliki versi dianggap versi 0.
+     */
+    protected long version;
     
     /**
      * Konstruktor default tanpa parameter.
@@ -44,4 +55,15 @@ public abstract class Entity {
      * Mengatur nilai identifier entitas.
      */
     public void setId(String id) { this.id = id; }
+
+    /**
+     * Mengambil nomor versi entitas. Versi 0 tidak ditulis ke JSON agar data lama tidak berubah.
+     */
+    @JsonInclude(JsonInclude.Include.NON_DEFAULT)
+    public long getVersion() { return version; }
+
+    /**
+     * Mengatur nomor versi entitas.
+     */
+    public void setVersion(long version) { this.version = version; }
 }
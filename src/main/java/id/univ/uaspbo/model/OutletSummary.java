@@ -0,0 +1,66 @@
+package id.univ.uaspbo.model;
+
+/**
+ * Model ringkasan satu outlet untuk laporan kantor pusat: jumlah produk, unit stok, produk
+ * dengan stok menipis, serta jumlah pesanan dan pendapatan sepanjang waktu dan pada periode
+ * laporan. Ringkasan seluruh outlet dibentuk dengan menjumlahkan ringkasan per outlet (plus()).
+ * Objek ini immutable.
+ *
+ * Konsep Object Oriented Programming (OOP) yang dipakai:
+ * - Enkapsulasi: Atribut bersifat private final dan hanya dapat dibaca melalui getter.
+ */
+public class OutletSummary {
+    private final String outletId;     // ID outlet, null untuk ringkasan seluruh outlet
+    private final String outletName;   // Nama outlet
+    private final int products;        // Jumlah produk
+    private final long stockUnits;     // Jumlah unit stok seluruh produk
+    private final int lowStock;        // Jumlah produk dengan stok menipis (10 atau kurang)
+    private final long orders;         // Jumlah pesanan sepanjang waktu
+    private final long revenue;        // Pendapatan sepanjang waktu
+    private final long periodOrders;   // Jumlah pesanan pada periode laporan
+    private final long periodRevenue;  // Pendapatan pada periode laporan
+
+    /**
+     * Konstruktor dengan parameter lengkap.
+     */
+    public OutletSummary(String outletId, String outletName, int products, long stockUnits, int lowStock,
+                         long orders, long revenue, long periodOrders, long periodRevenue) {
+        this.outletId = outletId;
+        this.outletName = outletName;
+        this.products = products;
+        this.stockUnits = stockUnits;
+        this.lowStock = lowStock;
+        this.orders = orders;
+        this.revenue = revenue;
+        this.periodOrders = periodOrders;
+        this.periodRevenue = periodRevenue;
+    }
+
+    /**
+     * Menjumlahkan ringkasan ini dengan ringkasan outlet lain menjadi ringkasan gabungan.
+     *
+     * @param name Nama ringkasan gabungan
+     */
+    public OutletSummary plus(OutletSummary other, String name) {
+        return new OutletSummary(null, name, products + other.products, stockUnits + other.stockUnits,
+                lowStock + other.lowStock, orders + other.orders, revenue + other.revenue,
+                periodOrders + other.periodOrders, periodRevenue + other.periodRevenue);
+    }
+
+    public String getOutletId() { return outletId; }
+    public String getOutletName() { return outletName; }
+    public int getProducts() { return products; }
+    public long getStockUnits() { return stockUnits; }
+    public int getLowStock() { return lowStock; }
+    public long getOrders() { return orders; }
+    public long getRevenue() { return revenue; }
+    public long getPeriodOrders() { return periodOrders; }
+    public long getPeriodRevenue() { return periodRevenue; }
+
+    /**
+     * Menghitung rata-rata nilai pesanan sepanjang waktu.
+     */
+    public double getAverageOrder() {
+        return orders > 0 ? (double) revenue / orders : 0;
+    }
+}
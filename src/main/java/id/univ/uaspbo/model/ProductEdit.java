@@ -0,0 +1,65 @@
+package id.univ.uaspbo.model;
+
+/**
+ * Model satu perubahan produk dalam operasi massal admin: harga baru atau perubahan harga
+ * dalam persen, selisih stok, dan (opsional) versi produk saat perubahan disiapkan.
+ * Perubahan dengan versi hanya diterapkan jika versi produk belum berubah (compare-and-set),
+ * sama seperti pembaruan satu produk. Objek ini immutable dan dibuat melalui method factory.
+ *
+ * Konsep Object Oriented Programming (OOP) yang dipakai:
+ * - Enkapsulasi: Atribut bersifat private final dan hanya dapat dibaca melalui getter.
+ */
+public class ProductEdit {
+    private final String productId;     // ID produk yang diubah
+    private final Integer price;        // Harga baru, null jika harga tidak diubah
+    private final Double pricePercent;  // Perubahan harga dalam persen, null jika tidak dipakai
+    private final int stockDelta;       // Selisih stok (positif untuk restock)
+    private final Long version;         // Versi produk yang terlihat, null untuk tanpa pemeriksaan versi
+
+    private ProductEdit(String productId, Integer price, Double pricePercent, int stockDelta, Long version) {
+        this.productId = productId;
+        this.price = price;
+        this.pricePercent = pricePercent;
+        this.stockDelta = stockDelta;
+        this.version = version;
+    }
+
+    /**
+     * Membuat perubahan harga dan selisih stok dari form edit, dengan pemeriksaan versi.
+     */
+    public static ProductEdit of(String productId, int price, int stockDelta, long version) {
+        return new ProductEdit(productId, price, null, stockDelta, version);
+    }
+
+    /**
+     * Membuat perubahan harga dalam persen, misalnya 10 untuk naik 10% atau -5 untuk turun 5%.
+     */
+    public static ProductEdit percent(String productId, double percent) {
+        return new ProductEdit(productId, null, percent, 0, null);
+    }
+
+    /**
+     * Membuat penambahan stok.
+     */
+    public static ProductEdit restock(String productId, int qty) {
+        return new ProductEdit(productId, null, null, qty, null);
+    }
+
+    public String getProductId() { return productId; }
+    public Integer getPrice() { return price; }
+    public Double getPricePercent() { return pricePercent; }
+    public int getStockDelta() { return stockDelta; }
+    public Long getVersion() { return version; }
+
+    /**
+     * Menghitung harga baru dari harga saat ini sesuai perubahan ini.
+     *
+     * @param current Harga produk saat ini
+     * @return Harga baru; harga persen dibulatkan ke rupiah terdekat
+     */
+    public int newPrice(int current) {
+        if (price != null) return price;
+        if (pricePercent != null) return (int) Math.round(current * (100 + pricePercent) / 100);
+        return current;
+    }
+}
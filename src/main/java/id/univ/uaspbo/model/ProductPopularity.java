@@ -0,0 +1,52 @@
+package id.univ.uaspbo.model;
+
+/**
+ * Model ringkasan popularitas satu produk untuk laporan produk terlaris.
+ * Menyimpan jumlah unit terjual, pendapatan, dan jumlah pesanan yang memuat produk tersebut.
+ *
+ * Konsep Object Oriented Programming (OOP) yang dipakai:
+ * - Enkapsulasi: Atribut bersifat private dan hanya dapat dibaca melalui getter.
+ */
+public class ProductPopularity {
+    private final String productId;     // ID produk
+    private final String productName;   // Nama produk
+    private final long quantity;        // Jumlah unit terjual
+    private final long revenue;         // Total pendapatan dari produk
+    private final int orders;           // Jumlah pesanan yang memuat produk
+
+    /**
+     * Konstruktor dengan parameter lengkap.
+     */
+    public ProductPopularity(String productId, String productName, long quantity, long revenue, int orders) {
+        this.productId = productId;
+        this.productName = productName;
+        this.quantity = quantity;
+        this.revenue = revenue;
+        this.orders = orders;
+    }
+
+    /**
+     * Mengambil ID produk.
+     */
+    public String getProductId() { return productId; }
+
+    /**
+     * Mengambil nama produk.
+     */
+    public String getProductName() { return productName; }
+
+    /**
+     * Mengambil jumlah unit terjual.
+     */
+    public long getQuantity() { return quantity; }
+
+    /**
+     * Mengambil total pendapatan dari produk.
+     */
+    public long getRevenue() { return revenue; }
+
+    /**
+     * Mengambil jumlah pesanan yang memuat produk.
+     */
+    public int getOrders() { return orders; }
+}
@@ -0,0 +1,81 @@
+package id.univ.uaspbo.model;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Model riwayat penjualan satu produk pada suatu periode: jumlah pesanan, unit terjual, dan
+ * pendapatan, rincian per hari, produk yang paling sering dibeli bersamanya, serta pesanan
+ * terbaru yang memuat produk tersebut. Dihitung hanya dari posting list produk, sehingga
+ * biayanya sebanding dengan jumlah penjualan produk itu. Objek ini immutable.
+ *
+ * Konsep Object Oriented Programming (OOP) yang dipakai:
+ * - Enkapsulasi: Atribut bersifat private final dan hanya dapat dibaca melalui getter.
+ * - Nested Class: Kelas statis DailySales mendeskripsikan penjualan satu hari.
+ */
+public class ProductSalesHistory {
+    private final String productId;                 // ID produk
+    private final String productName;               // Nama produk
+    private final int orders;                       // Jumlah pesanan yang memuat produk
+    private final long quantity;                    // Jumlah unit terjual
+    private final long revenue;                     // Pendapatan dari produk (qty x harga item)
+    private final List<DailySales> daily;           // Penjualan per hari, terurut dari yang paling awal
+    private final List<ProductPopularity> boughtWith;  // Produk lain pada pesanan yang sama
+    private final List<Transaction> recent;         // Pesanan terbaru yang memuat produk
+    private final boolean indexed;                  // true jika dihitung dari indeks produk
+    private final long examined;                    // Jumlah transaksi yang dibaca
+
+    /**
+     * Konstruktor dengan parameter lengkap.
+     */
+    public ProductSalesHistory(String productId, String productName, int orders, long quantity, long revenue,
+                               List<DailySales> daily, List<ProductPopularity> boughtWith, List<Transaction> recent,
+                               boolean indexed, long examined) {
+        this.productId = productId;
+        this.productName = productName;
+        this.orders = orders;
+        this.quantity = quantity;
+        this.revenue = revenue;
+        this.daily = List.copyOf(daily);
+        this.boughtWith = List.copyOf(boughtWith);
+        this.recent = List.copyOf(recent);
+        this.indexed = indexed;
+        this.examined = examined;
+    }
+
+    public String getProductId() { return productId; }
+    public String getProductName() { return productName; }
+    public int getOrders() { return orders; }
+    public long getQuantity() { return quantity; }
+    public long getRevenue() { return revenue; }
+    public List<DailySales> getDaily() { return daily; }
+    public List<ProductPopularity> getBoughtWith() { return boughtWith; }
+    public List<Transaction> getRecent() { return recent; }
+    public boolean isIndexed() { return indexed; }
+    public long getExamined() { return examined; }
+
+    /**
+     * Penjualan produk pada satu hari.
+     */
+    public static class DailySales {
+        private final LocalDate date;   // Tanggal
+        private final int orders;       // Jumlah pesanan yang memuat produk
+        private final long quantity;    // Jumlah unit terjual
+        private final long revenue;     // Pendapatan dari produk
+
+        /**
+         * Konstruktor dengan parameter lengkap.
+         */
+        public DailySales(LocalDate date, int orders, long quantity, long revenue) {
+            this.date = date;
+            this.orders = orders;
+            this.quantity = quantity;
+            this.revenue = revenue;
+        }
+
+        public LocalDate getDate() { return date; }
+        public int getOrders() { return orders; }
+        public long getQuantity() { return quantity; }
+        public long getRevenue() { return revenue; }
+    }
+}
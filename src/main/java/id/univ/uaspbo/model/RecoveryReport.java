@@ -0,0 +1,43 @@
+package id.univ.uaspbo.model;
+
+import java.util.List;
+
+/**
+ * Model laporan pemulihan data transaksi saat startup: sumber data (snapshot atau segmen),
+ * jumlah potongan yang diproses paralel, jumlah transaksi yang dimuat, record rusak yang
+ * ditemukan, lama pemulihan, dan jumlah thread yang dipakai. Objek ini immutable.
+ *
+ * Konsep Object Oriented Programming (OOP) yang dipakai:
+ * - Enkapsulasi: Atribut bersifat private final dan hanya dapat dibaca melalui getter.
+ */
+public class RecoveryReport {
+    private final String source;               // "snapshot", "segments", atau "repository"
+    private final int ranges;                  // Jumlah potongan data yang diproses
+    private final long records;                // Jumlah transaksi yang dimuat
+    private final List<CorruptRecord> corrupt; // Record rusak (paling banyak MAX_LISTED pertama)
+    private final long corruptCount;           // Jumlah seluruh record rusak
+    private final long elapsedMs;              // Lama pemulihan dalam milidetik
+    private final int parallelism;             // Jumlah thread pemulihan
+
+    /**
+     * Konstruktor dengan parameter lengkap.
+     */
+    public RecoveryReport(String source, int ranges, long records, List<CorruptRecord> corrupt,
+                          long corruptCount, long elapsedMs, int parallelism) {
+        this.source = source;
+        this.ranges = ranges;
+        this.records = records;
+        this.corrupt = List.copyOf(corrupt);
+        this.corruptCount = corruptCount;
+        this.elapsedMs = elapsedMs;
+        this.parallelism = parallelism;
+    }
+
+    public String getSource() { return source; }
+    public int getRanges() { return ranges; }
+    public long getRecords() { return records; }
+    public List<CorruptRecord> getCorrupt() { return corrupt; }
+    public long getCorruptCount() { return corruptCount; }
+    public long getElapsedMs() { return elapsedMs; }
+    public int getParallelism() { return parallelism; }
+}
@@ -0,0 +1,100 @@
+package id.univ.uaspbo.model;
+
+import java.util.List;
+
+/**
+ * Model keadaan replikasi satu instance untuk halaman admin.
+ * Pada primary berisi rentang LSN log di memori dan daftar follower yang tersambung beserta
+ * ketertinggalannya; pada follower berisi alamat primary, LSN yang sudah diterapkan, LSN terakhir
+ * primary yang diketahui, dan ketertinggalan replikasi dalam entri dan milidetik.
+ * Objek ini immutable.
+ *
+ * Konsep Object Oriented Programming (OOP) yang dipakai:
+ * - Enkapsulasi: Atribut bersifat private final dan hanya dapat dibaca melalui getter.
+ * - Nested Class: Kelas statis Follower mendeskripsikan satu follower yang tersambung ke primary.
+ */
+public class ReplicationStatus {
+    private final String role;            // "standalone", "primary", atau "follower"
+    private final String address;         // Alamat listen (primary) atau alamat primary (follower)
+    private final String epoch;           // ID log primary
+    private final boolean connected;      // Follower sedang tersambung ke primary
+    private final long firstLsn;          // LSN entri tertua di log (primary)
+    private final long lastLsn;           // LSN terbaru di log (primary) atau yang sudah diterapkan (follower)
+    private final long primaryLsn;        // LSN terbaru primary yang diketahui follower
+    private final long lagEntries;        // Jumlah entri yang belum diterapkan follower
+    private final long lagMs;             // Umur entri terlama yang belum diterapkan (perkiraan), 0 jika tidak tertinggal
+    private final long applyDelayMs;      // Selisih waktu diterapkan dan dicatat entri terakhir
+    private final long lastContactMs;     // Milidetik sejak pesan terakhir dari primary, -1 jika belum pernah
+    private final long applied;           // Jumlah entri yang sudah diterapkan sejak aplikasi dijalankan
+    private final long snapshots;         // Jumlah snapshot yang dikirim (primary) atau diterima (follower)
+    private final String lastError;       // Pesan kesalahan koneksi terakhir, null jika tidak ada
+    private final List<Follower> followers;  // Follower yang tersambung (primary)
+
+    /**
+     * Konstruktor dengan parameter lengkap.
+     */
+    public ReplicationStatus(String role, String address, String epoch, boolean connected, long firstLsn, long lastLsn,
+                             long primaryLsn, long lagEntries, long lagMs, long applyDelayMs, long lastContactMs,
+                             long applied, long snapshots, String lastError, List<Follower> followers) {
+        this.role = role;
+        this.address = address;
+        this.epoch = epoch;
+        this.connected = connected;
+        this.firstLsn = firstLsn;
+        this.lastLsn = lastLsn;
+        this.primaryLsn = primaryLsn;
+        this.lagEntries = lagEntries;
+        this.lagMs = lagMs;
+        this.applyDelayMs = applyDelayMs;
+        this.lastContactMs = lastContactMs;
+        this.applied = applied;
+        this.snapshots = snapshots;
+        this.lastError = lastError;
+        this.followers = followers;
+    }
+
+    public String getRole() { return role; }
+    public String getAddress() { return address; }
+    public String getEpoch() { return epoch; }
+    public boolean isConnected() { return connected; }
+    public long getFirstLsn() { return firstLsn; }
+    public long getLastLsn() { return lastLsn; }
+    public long getPrimaryLsn() { return primaryLsn; }
+    public long getLagEntries() { return lagEntries; }
+    public long getLagMs() { return lagMs; }
+    public long getApplyDelayMs() { return applyDelayMs; }
+    public long getLastContactMs() { return lastContactMs; }
+    public long getApplied() { return applied; }
+    public long getSnapshots() { return snapshots; }
+    public String getLastError() { return lastError; }
+    public List<Follower> getFollowers() { return followers; }
+
+    /**
+     * Satu follower yang tersambung ke primary: alamat, LSN yang sudah dikirim dan yang sudah
+     * dikonfirmasi (ACK), serta ketertinggalannya terhadap log primary.
+     */
+    public static class Follower {
+        private final String address;      // Alamat follower
+        private final long connectedMs;    // Lama tersambung (milidetik)
+        private final long sentLsn;        // LSN terakhir yang dikirim
+        private final long ackedLsn;       // LSN terakhir yang dikonfirmasi sudah diterapkan
+        private final long lagEntries;     // Entri log yang belum dikonfirmasi
+        private final long lastAckMs;      // Milidetik sejak ACK terakhir, -1 jika belum pernah
+
+        public Follower(String address, long connectedMs, long sentLsn, long ackedLsn, long lagEntries, long lastAckMs) {
+            this.address = address;
+            this.connectedMs = connectedMs;
+            this.sentLsn = sentLsn;
+            this.ackedLsn = ackedLsn;
+            this.lagEntries = lagEntries;
+            this.lastAckMs = lastAckMs;
+        }
+
+        public String getAddress() { return address; }
+        public long getConnectedMs() { return connectedMs; }
+        public long getSentLsn() { return sentLsn; }
+        public long getAckedLsn() { return ackedLsn; }
+        public long getLagEntries() { return lagEntries; }
+        public long getLastAckMs() { return lastAckMs; }
+    }
+}
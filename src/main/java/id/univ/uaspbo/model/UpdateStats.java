@@ -0,0 +1,39 @@
+package id.univ.uaspbo.model;
+
+/**
+ * Model statistik pembaruan entitas pada satu service: jumlah pembaruan yang berhasil,
+ * jumlah pembaruan yang ditolak karena versinya sudah berubah (konflik), dan jumlah
+ * percobaan ulang oleh updateWithRetry. Objek ini immutable dan merupakan potret saat dibuat.
+ *
+ * Konsep Object Oriented Programming (OOP) yang dipakai:
+ * - Enkapsulasi: Atribut bersifat private final dan hanya dapat dibaca melalui getter.
+ */
+public class UpdateStats {
+    private final String entity;      // Nama entitas, misalnya "products"
+    private final long updates;       // Pembaruan yang berhasil
+    private final long conflicts;     // Pembaruan yang ditolak karena konflik versi
+    private final long retries;       // Percobaan ulang setelah konflik
+
+    /**
+     * Konstruktor dengan parameter lengkap.
+     */
+    public UpdateStats(String entity, long updates, long conflicts, long retries) {
+        this.entity = entity;
+        this.updates = updates;
+        this.conflicts = conflicts;
+        this.retries = retries;
+    }
+
+    public String getEntity() { return entity; }
+    public long getUpdates() { return updates; }
+    public long getConflicts() { return conflicts; }
+    public long getRetries() { return retries; }
+
+    /**
+     * Mendapatkan persentase konflik terhadap seluruh percobaan pembaruan.
+     */
+    public double getConflictRate() {
+        long attempts = updates + conflicts;
+        return attempts == 0 ? 0 : 100.0 * conflicts / attempts;
+    }
+}
@@ -0,0 +1,64 @@
+package id.univ.uaspbo.model;
+
+import java.time.LocalDateTime;
+
+/**
+ * Model ringkasan belanja satu pengguna: jumlah pesanan, total belanja sepanjang waktu,
+ * dan waktu pesanan terakhir. Objek ini immutable; setiap transaksi baru menghasilkan
+ * objek ringkasan baru melalui method plus().
+ *
+ * Konsep Object Oriented Programming (OOP) yang dipakai:
+ * - Enkapsulasi: Atribut bersifat private final dan hanya dapat dibaca melalui getter.
+ */
+public class UserSpending {
+    private final String userId;                // ID pengguna
+    private final int orderCount;               // Jumlah pesanan
+    private final long totalSpent;              // Total belanja sepanjang waktu
+    private final LocalDateTime lastOrderAt;    // Waktu pesanan terakhir
+
+    /**
+     * Konstruktor dengan parameter lengkap.
+     */
+    public UserSpending(String userId, int orderCount, long totalSpent, LocalDateTime lastOrderAt) {
+        this.userId = userId;
+        this.orderCount = orderCount;
+        this.totalSpent = totalSpent;
+        this.lastOrderAt = lastOrderAt;
+    }
+
+    /**
+     * Membuat ringkasan dari satu transaksi.
+     */
+    public static UserSpending of(Transaction t) {
+        return new UserSpending(t.getUserId(), 1, t.getTotal(), t.getTimestamp());
+    }
+
+    /**
+     * Menggabungkan dua ringkasan milik pengguna yang sama.
+     */
+    public UserSpending plus(UserSpending other) {
+        LocalDateTime last = lastOrderAt;
+        if (last == null || (other.lastOrderAt != null && other.lastOrderAt.isAfter(last))) last = other.lastOrderAt;
+        return new UserSpending(userId, orderCount + other.orderCount, totalSpent + other.totalSpent, last);
+    }
+
+    /**
+     * Mengambil ID pengguna.
+     */
+    public String getUserId() { return userId; }
+
+    /**
+     * Mengambil jumlah pesanan.
+     */
+    public int getOrderCount() { return orderCount; }
+
+    /**
+     * Mengambil total belanja sepanjang waktu.
+     */
+    public long getTotalSpent() { return totalSpent; }
+
+    /**
+     * Mengambil waktu pesanan terakhir.
+     */
+    public LocalDateTime getLastOrderAt() { return lastOrderAt; }
+}
@@ -0,0 +1,61 @@
+package id.univ.uaspbo.monitoring;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Period;
+import jdk.jfr.StackTrace;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Event Java Flight Recorder berkala berisi jumlah hit dan miss kumulatif setiap cache yang
+ * terdaftar. Akses cache terlalu sering untuk direkam satu per satu, sehingga yang direkam
+ * adalah penghitungnya; selisih antar event menunjukkan laju hit dan miss pada rentang waktu itu.
+ *
+ * Konsep OOP yang digunakan:
+ * - Inheritance: Mewarisi jdk.jfr.Event.
+ * - Static Member: Daftar cache dan hook perekaman berlaku untuk seluruh aplikasi.
+ */
+@Name("id.univ.uaspbo.CacheStatistics")
+@Label("Cache Statistics")
+@Category({"UAS PBO", "Cache"})
+@Description("Jumlah hit dan miss kumulatif satu cache")
+@Period("60 s")
+@StackTrace(false)
+public class CacheStatisticsEvent extends jdk.jfr.Event {
+    private static final List<CacheStats> CACHES = new CopyOnWriteArrayList<>();  // Cache yang direkam
+
+    static {
+        FlightRecorder.addPeriodicEvent(CacheStatisticsEvent.class, CacheStatisticsEvent::emit);
+    }
+
+    @Label("Cache")
+    public String cache;
+
+    @Label("Hits")
+    public long hits;
+
+    @Label("Misses")
+    public long misses;
+
+    /**
+     * Mendaftarkan penghitung cache untuk direkam secara berkala.
+     */
+    static void register(CacheStats stats) {
+        CACHES.add(stats);
+    }
+
+    private static void emit() {
+        for (CacheStats s : CACHES) {
+            CacheStatisticsEvent e = new CacheStatisticsEvent();
+            e.cache = s.getName();
+            e.hits = s.getHits();
+            e.misses = s.getMisses();
+            e.commit();
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package id.univ.uaspbo.monitoring;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Penghitung hit dan miss satu cache. Penghitung didaftarkan ke CacheStatisticsEvent saat dibuat
+ * sehingga nilainya ikut direkam secara berkala oleh Java Flight Recorder tanpa event per akses.
+ *
+ * Konsep OOP yang digunakan:
+ * - Enkapsulasi: Penghitung hanya dapat dinaikkan melalui hit dan miss.
+ */
+public class CacheStats {
+    private final String name;                          // Nama cache, misalnya "products"
+    private final LongAdder hits = new LongAdder();     // Akses yang dilayani dari memori
+    private final LongAdder misses = new LongAdder();   // Akses yang harus membaca penyimpanan
+
+    /**
+     * Konstruktor CacheStats. Penghitung langsung didaftarkan untuk perekaman berkala.
+     *
+     * @param name Nama cache yang tampil pada rekaman
+     */
+    public CacheStats(String name) {
+        this.name = name;
+        CacheStatisticsEvent.register(this);
+    }
+
+    /**
+     * Mencatat satu akses yang dilayani dari cache.
+     */
+    public void hit() {
+        hits.increment();
+    }
+
+    /**
+     * Mencatat satu akses yang harus membaca penyimpanan.
+     */
+    public void miss() {
+        misses.increment();
+    }
+
+    public String getName() { return name; }
+    public long getHits() { return hits.sum(); }
+    public long getMisses() { return misses.sum(); }
+}
@@ -0,0 +1,37 @@
+package id.univ.uaspbo.monitoring;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Event Java Flight Recorder untuk seluruh pembuatan transaksi (checkout), termasuk waktu
+ * menunggu kunci TransactionService. Selisih durasinya dengan jumlah durasi CheckoutPhaseEvent
+ * pada thread yang sama menunjukkan waktu antre.
+ *
+ * Konsep OOP yang digunakan:
+ * - Inheritance: Mewarisi jdk.jfr.Event yang menyediakan begin, end, commit, dan shouldCommit.
+ */
+@Name("id.univ.uaspbo.Checkout")
+@Label("Checkout")
+@Category({"UAS PBO", "Checkout"})
+@Description("Satu pemanggilan TransactionService.createTransaction")
+public class CheckoutEvent extends jdk.jfr.Event {
+
+    @Label("Transaction ID")
+    public String transactionId;
+
+    @Label("Items")
+    public int items;
+
+    @Label("Total")
+    public long total;
+
+    @Label("From Hold")
+    @Description("true jika checkout memakai stok yang ditahan sesi")
+    public boolean fromHold;
+
+    @Label("Success")
+    public boolean success;
+}
@@ -0,0 +1,33 @@
+package id.univ.uaspbo.monitoring;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Event Java Flight Recorder untuk satu fase pembuatan transaksi (checkout):
+ * "stock" (mengambil penahanan dan mengurangi stok), "write" (menulis transaksi ke repository),
+ * "index" (memperbarui indeks, agregat, dan penghitung), dan "publish" (mengirim event dashboard).
+ * Fase stok yang gagal karena stok tidak mencukupi dicatat dengan success bernilai false.
+ *
+ * Konsep OOP yang digunakan:
+ * - Inheritance: Mewarisi jdk.jfr.Event yang menyediakan begin, end, commit, dan shouldCommit.
+ */
+@Name("id.univ.uaspbo.CheckoutPhase")
+@Label("Checkout Phase")
+@Category({"UAS PBO", "Checkout"})
+@Description("Satu fase TransactionService.createTransaction")
+public class CheckoutPhaseEvent extends jdk.jfr.Event {
+
+    @Label("Phase")
+    @Description("stock, write, index, atau publish")
+    public String phase;
+
+    @Label("Items")
+    @Description("Jumlah item pada transaksi")
+    public int items;
+
+    @Label("Success")
+    public boolean success;
+}
@@ -0,0 +1,103 @@
+package id.univ.uaspbo.monitoring;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.text.ParseException;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Rekaman Java Flight Recorder yang terus menyala selama aplikasi berjalan, jika properti
+ * uas.jfr.enabled bernilai true. Pengaturan event JDK diambil dari profil bawaan "default",
+ * lalu digabung dengan profil event aplikasi jfr/uaspbo.jfc di classpath.
+ *
+ * Rekaman disimpan sebagai buffer melingkar di disk yang dibatasi umur (uas.jfr.max-age-hours)
+ * dan ukuran (uas.jfr.max-size-mb), lalu ditulis ke uas.jfr.destination saat aplikasi berhenti.
+ * Isi rekaman kapan pun dapat diambil dengan: jcmd &lt;pid&gt; JFR.dump name=uaspbo filename=...
+ *
+ * Konsep OOP yang digunakan:
+ * - Enkapsulasi: Objek Recording hanya dikelola di dalam komponen ini.
+ * - Exception Handling: Profil yang gagal dibaca tidak menghentikan aplikasi.
+ */
+@Component
+public class FlightRecording {
+    private static final String SETTINGS = "/jfr/uaspbo.jfc";  // Profil event aplikasi di classpath
+
+    @Value("${uas.jfr.enabled:false}")
+    private boolean enabled;        // Memulai rekaman saat aplikasi berjalan
+
+    @Value("${uas.jfr.max-age-hours:6}")
+    private long maxAgeHours;       // Umur maksimum data rekaman yang disimpan
+
+    @Value("${uas.jfr.max-size-mb:250}")
+    private long maxSizeMb;         // Ukuran maksimum data rekaman yang disimpan
+
+    @Value("${uas.jfr.destination:data/recordings/uaspbo.jfr}")
+    private String destination;     // File tujuan rekaman saat aplikasi berhenti
+
+    private Recording recording;
+
+    /**
+     * Memulai rekaman jika diaktifkan.
+     */
+    @PostConstruct
+    private void start() {
+        if (!enabled) return;
+        try {
+            Map<String, String> settings = new HashMap<>(Configuration.getConfiguration("default").getSettings());
+            settings.putAll(applicationSettings().getSettings());
+            recording = new Recording(settings);
+            recording.setName("uaspbo");
+            recording.setToDisk(true);
+            recording.setMaxAge(Duration.ofHours(maxAgeHours));
+            recording.setMaxSize(maxSizeMb * 1024 * 1024);
+            File dest = new File(destination);
+            File dir = dest.getAbsoluteFile().getParentFile();
+            if (dir != null && !dir.exists()) dir.mkdirs();
+            recording.setDestination(dest.toPath());
+            recording.setDumpOnExit(true);
+            recording.start();
+            System.out.println("Flight recording started, dumped to " + dest + " on exit");
+        } catch (IOException | ParseException | IllegalStateException | SecurityException e) {
+            System.err.println("Rekaman Java Flight Recorder tidak dapat dimulai: " + e.getMessage());
+            recording = null;
+        }
+    }
+
+    /**
+     * Menghentikan rekaman; isinya ditulis ke file tujuan.
+     */
+    @PreDestroy
+    private void stop() {
+        if (recording == null) return;
+        try {
+            recording.stop();
+        } catch (IllegalStateException e) {
+            // rekaman sudah dihentikan, misalnya oleh jcmd JFR.stop
+        }
+        recording.close();
+    }
+
+    /**
+     * Membaca profil event aplikasi dari classpath.
+     */
+    private static Configuration applicationSettings() throws IOException, ParseException {
+        InputStream in = FlightRecording.class.getResourceAsStream(SETTINGS);
+        if (in == null) throw new IOException("Profil " + SETTINGS + " tidak ditemukan di classpath");
+        try (Reader reader = new InputStreamReader(in, StandardCharsets.UTF_8)) {
+            return Configuration.create(reader);
+        }
+    }
+}
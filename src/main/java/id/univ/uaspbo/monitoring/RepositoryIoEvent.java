@@ -0,0 +1,40 @@
+package id.univ.uaspbo.monitoring;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Event Java Flight Recorder untuk satu pembacaan atau penulisan file repository:
+ * file, jumlah byte, dan jumlah entitas. Durasinya mencakup parsing atau serialisasi JSON
+ * sehingga waktu yang habis untuk I/O file dapat dibedakan dari fase checkout lainnya.
+ *
+ * Konsep OOP yang digunakan:
+ * - Inheritance: Mewarisi jdk.jfr.Event yang menyediakan begin, end, commit, dan shouldCommit.
+ */
+@Name("id.univ.uaspbo.RepositoryIO")
+@Label("Repository I/O")
+@Category({"UAS PBO", "Repository"})
+@Description("Pembacaan atau penulisan seluruh isi file repository")
+public class RepositoryIoEvent extends jdk.jfr.Event {
+
+    @Label("Operation")
+    @Description("read atau write")
+    public String operation;
+
+    @Label("File")
+    public String file;
+
+    @Label("Bytes")
+    @DataAmount
+    public long bytes;
+
+    @Label("Entities")
+    public int entities;
+
+    @Label("Corrupt Records")
+    @Description("Jumlah record rusak yang dilewati saat membaca")
+    public int corrupt;
+}
@@ -0,0 +1,103 @@
+package id.univ.uaspbo.query;
+
+import id.univ.uaspbo.index.CompactTransaction;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+
+/**
+ * Rencana eksekusi satu TransactionQuery yang dibuat oleh TransactionQueryEngine: jalur akses
+ * yang dipilih beserta perkiraan jumlah barisnya, perkiraan jalur lain yang dipertimbangkan,
+ * predikat yang masih harus diperiksa per baris (filter sisa), dan cara pengurutannya.
+ * explain() menuliskan rencana ini dalam bentuk baris-baris teks yang dapat dibaca manusia.
+ *
+ * Konsep OOP yang digunakan:
+ * - Enkapsulasi: Nilai hasil perencanaan hanya dapat dibaca; detail eksekusinya package-private.
+ */
+public class QueryPlan {
+
+    /**
+     * Jalur akses yang dapat dipilih planner, dari yang paling spesifik.
+     */
+    public enum AccessPath {
+        USER_INDEX("indeks pengguna"),
+        PRODUCT_INDEX("indeks produk"),
+        TIME_RANGE("rentang waktu (indeks timestamp)"),
+        FULL_SCAN("pemindaian penuh");
+
+        private final String label;
+
+        AccessPath(String label) {
+            this.label = label;
+        }
+
+        public String getLabel() { return label; }
+    }
+
+    private final TransactionQuery query;
+    private final AccessPath path;                   // Jalur akses yang dipilih
+    private final Map<AccessPath, Long> candidates;  // Perkiraan jumlah baris setiap jalur yang dipertimbangkan
+    private final List<String> residual;             // Deskripsi filter sisa
+    private final boolean indexOrder;                // true jika urutan jalur akses sudah sesuai urutan query
+    private final String emptyReason;                // Alasan query pasti kosong, null jika tidak
+
+    // detail eksekusi yang disiapkan planner
+    final int keyOrdinal;                                   // Ordinal kunci untuk jalur indeks
+    final long fromNanos;                                   // Batas bawah waktu (nanodetik)
+    final long toNanos;                                     // Batas atas waktu (nanodetik)
+    final Predicate<CompactTransaction> compactFilter;      // Filter sisa pada data ringkas, null jika tidak ada
+
+    QueryPlan(TransactionQuery query, AccessPath path, Map<AccessPath, Long> candidates, List<String> residual,
+              boolean indexOrder, String emptyReason, int keyOrdinal, long fromNanos, long toNanos,
+              Predicate<CompactTransaction> compactFilter) {
+        this.query = query;
+        this.path = path;
+        this.candidates = Collections.unmodifiableMap(candidates);
+        this.residual = List.copyOf(residual);
+        this.indexOrder = indexOrder;
+        this.emptyReason = emptyReason;
+        this.keyOrdinal = keyOrdinal;
+        this.fromNanos = fromNanos;
+        this.toNanos = toNanos;
+        this.compactFilter = compactFilter;
+    }
+
+    public TransactionQuery getQuery() { return query; }
+    public AccessPath getPath() { return path; }
+    public Map<AccessPath, Long> getCandidates() { return candidates; }
+    public List<String> getResidual() { return residual; }
+    public boolean isIndexOrder() { return indexOrder; }
+    public String getEmptyReason() { return emptyReason; }
+
+    /**
+     * Mendapatkan perkiraan jumlah baris yang dibaca jalur akses terpilih.
+     */
+    public long getEstimate() {
+        return candidates.getOrDefault(path, 0L);
+    }
+
+    /**
+     * Menuliskan rencana eksekusi sebagai baris-baris teks.
+     */
+    public List<String> explain() {
+        List<String> lines = new ArrayList<>();
+        lines.add("Jalur akses: " + path.getLabel() + ", perkiraan " + getEstimate() + " baris");
+        StringBuilder considered = new StringBuilder("Dipertimbangkan:");
+        candidates.forEach((p, rows) -> considered.append(' ').append(p.getLabel()).append(" ~").append(rows).append(';'));
+        lines.add(considered.substring(0, considered.length() - 1));
+        lines.add("Filter sisa: " + (residual.isEmpty() ? "tidak ada" : String.join(", ", residual)));
+        TransactionQuery.Order order = query.getOrder();
+        int limit = query.getLimit();
+        if (indexOrder) {
+            lines.add("Urutan: " + order.getLabel() + " mengikuti urutan jalur akses tanpa sort"
+                    + (limit > 0 ? ", berhenti setelah " + limit + " hasil" : ""));
+        } else {
+            lines.add("Urutan: " + order.getLabel() + (limit > 0 ? ", top-" + limit + " dengan heap" : ", sort seluruh hasil"));
+        }
+        if (emptyReason != null) lines.add("Hasil pasti kosong: " + emptyReason);
+        return lines;
+    }
+}
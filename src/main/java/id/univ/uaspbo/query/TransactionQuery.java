@@ -0,0 +1,145 @@
+package id.univ.uaspbo.query;
+
+import id.univ.uaspbo.model.Transaction;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Predicate;
+
+/**
+ * Query transaksi yang disusun dari predikat (pengguna, rentang waktu, produk, total minimum,
+ * dan predikat bebas), urutan, serta batas jumlah hasil. Objek ini immutable: setiap method
+ * penyusun mengembalikan query baru, sehingga query dasar dapat dipakai ulang, misalnya
+ * TransactionQuery.all().user(id).between(from, to).orderBy(Order.NEWEST).limit(20).
+ *
+ * Query tidak menentukan cara pencariannya; TransactionQueryEngine memilih jalur akses
+ * (indeks pengguna, indeks produk, rentang waktu, atau pemindaian penuh) yang paling selektif.
+ *
+ * Konsep OOP yang digunakan:
+ * - Enkapsulasi: Atribut private final yang hanya dapat dibaca melalui getter.
+ * - Immutability: Method penyusun membuat salinan, bukan mengubah objek.
+ */
+public final class TransactionQuery {
+
+    /**
+     * Urutan hasil query.
+     */
+    public enum Order {
+        OLDEST("terlama lebih dulu"),
+        NEWEST("terbaru lebih dulu"),
+        TOTAL_DESC("total terbesar lebih dulu"),
+        TOTAL_ASC("total terkecil lebih dulu");
+
+        private final String label;
+
+        Order(String label) {
+            this.label = label;
+        }
+
+        public String getLabel() { return label; }
+
+        /**
+         * Mengecek apakah urutan ini mengikuti timestamp transaksi.
+         */
+        public boolean byTime() {
+            return this == OLDEST || this == NEWEST;
+        }
+    }
+
+    /**
+     * Predikat bebas beserta deskripsinya untuk keluaran explain.
+     */
+    public record Filter(String description, Predicate<Transaction> predicate) {}
+
+    private final String userId;          // ID pengguna, null berarti semua pengguna
+    private final String productId;       // ID produk yang harus ada di item, null berarti semua
+    private final LocalDateTime from;     // Batas bawah timestamp inklusif, null berarti tanpa batas
+    private final LocalDateTime to;       // Batas atas timestamp eksklusif, null berarti tanpa batas
+    private final Integer minTotal;       // Total minimum, null berarti tanpa batas
+    private final List<Filter> filters;   // Predikat bebas tambahan
+    private final Order order;            // Urutan hasil
+    private final int limit;              // Jumlah maksimum hasil, 0 berarti tanpa batas
+
+    private TransactionQuery(String userId, String productId, LocalDateTime from, LocalDateTime to,
+                             Integer minTotal, List<Filter> filters, Order order, int limit) {
+        this.userId = userId;
+        this.productId = productId;
+        this.from = from;
+        this.to = to;
+        this.minTotal = minTotal;
+        this.filters = List.copyOf(filters);
+        this.order = order;
+        this.limit = limit;
+    }
+
+    /**
+     * Membuat query yang cocok dengan semua transaksi, terurut dari yang terlama, tanpa batas.
+     */
+    public static TransactionQuery all() {
+        return new TransactionQuery(null, null, null, null, null, List.of(), Order.OLDEST, 0);
+    }
+
+    /**
+     * Hanya transaksi milik pengguna tertentu.
+     */
+    public TransactionQuery user(String userId) {
+        return new TransactionQuery(userId, productId, from, to, minTotal, filters, order, limit);
+    }
+
+    /**
+     * Hanya transaksi yang memuat produk tertentu pada itemnya.
+     */
+    public TransactionQuery product(String productId) {
+        return new TransactionQuery(userId, productId, from, to, minTotal, filters, order, limit);
+    }
+
+    /**
+     * Hanya transaksi dengan timestamp pada rentang [from, to); null berarti tanpa batas.
+     */
+    public TransactionQuery between(LocalDateTime from, LocalDateTime to) {
+        return new TransactionQuery(userId, productId, from, to, minTotal, filters, order, limit);
+    }
+
+    /**
+     * Hanya transaksi dengan total minimal sejumlah tertentu; null berarti tanpa batas.
+     */
+    public TransactionQuery minTotal(Integer minTotal) {
+        return new TransactionQuery(userId, productId, from, to, minTotal, filters, order, limit);
+    }
+
+    /**
+     * Menambahkan predikat bebas yang diperiksa pada setiap transaksi kandidat.
+     *
+     * @param description Deskripsi predikat untuk keluaran explain
+     * @param predicate Predikat yang harus bernilai true
+     */
+    public TransactionQuery where(String description, Predicate<Transaction> predicate) {
+        List<Filter> more = new ArrayList<>(filters);
+        more.add(new Filter(description, predicate));
+        return new TransactionQuery(userId, productId, from, to, minTotal, more, order, limit);
+    }
+
+    /**
+     * Mengatur urutan hasil.
+     */
+    public TransactionQuery orderBy(Order order) {
+        return new TransactionQuery(userId, productId, from, to, minTotal, filters, order, limit);
+    }
+
+    /**
+     * Mengatur jumlah maksimum hasil; 0 berarti tanpa batas.
+     */
+    public TransactionQuery limit(int limit) {
+        return new TransactionQuery(userId, productId, from, to, minTotal, filters, order, Math.max(0, limit));
+    }
+
+    public String getUserId() { return userId; }
+    public String getProductId() { return productId; }
+    public LocalDateTime getFrom() { return from; }
+    public LocalDateTime getTo() { return to; }
+    public Integer getMinTotal() { return minTotal; }
+    public List<Filter> getFilters() { return filters; }
+    public Order getOrder() { return order; }
+    public int getLimit() { return limit; }
+}
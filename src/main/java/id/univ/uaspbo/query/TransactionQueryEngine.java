@@ -0,0 +1,218 @@
+package id.univ.uaspbo.query;
+
+import id.univ.uaspbo.index.CompactTransaction;
+import id.univ.uaspbo.index.PostingIndex;
+import id.univ.uaspbo.index.TransactionDictionaries;
+import id.univ.uaspbo.index.TransactionIndex;
+import id.univ.uaspbo.model.Transaction;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+/**
+ * Mesin query transaksi di atas indeks yang tinggal di memori. Untuk setiap TransactionQuery,
+ * planner memperkirakan jumlah baris yang harus dibaca setiap jalur akses yang tersedia lalu
+ * memilih yang paling sedikit:
+ * - indeks pengguna atau indeks produk: jumlah posting kunci pada rentang waktu (tepat, binary search),
+ * - rentang waktu: proporsi rentang terhadap rentang waktu seluruh transaksi (asumsi sebaran merata),
+ * - pemindaian penuh: jumlah seluruh transaksi.
+ * Predikat yang tidak dilayani jalur akses diperiksa per baris pada data ringkas (CompactTransaction),
+ * sehingga objek Transaction hanya dibuat untuk baris yang lolos.
+ *
+ * Hasil dialirkan (Stream): untuk urutan waktu, jalur akses sudah terurut sehingga pembacaan berhenti
+ * begitu batas hasil tercapai; untuk urutan total, baris disaring lalu diambil top-N dengan heap.
+ * Indeks yang tidak tersedia (null), misalnya pada mode off-heap, tidak dipertimbangkan planner.
+ *
+ * Konsep OOP yang digunakan:
+ * - Komposisi: Memakai TransactionIndex dan PostingIndex sebagai jalur akses.
+ * - Polimorfisme: Indeks timestamp dapat berupa implementasi di heap maupun off-heap.
+ */
+public class TransactionQueryEngine {
+    private final TransactionIndex index;          // Indeks timestamp seluruh transaksi
+    private final TransactionDictionaries dict;    // Kamus ordinal pengguna dan produk
+    private final PostingIndex byUser;             // Indeks pengguna, null jika tidak tersedia
+    private final PostingIndex byProduct;          // Indeks produk, null jika tidak tersedia
+
+    /**
+     * Konstruktor TransactionQueryEngine.
+     *
+     * @param index Indeks timestamp seluruh transaksi
+     * @param dict Kamus ordinal yang dipakai indeks
+     * @param byUser Indeks ordinal pengguna ke transaksi, boleh null
+     * @param byProduct Indeks ordinal produk ke transaksi, boleh null
+     */
+    public TransactionQueryEngine(TransactionIndex index, TransactionDictionaries dict, PostingIndex byUser, PostingIndex byProduct) {
+        this.index = index;
+        this.dict = dict;
+        this.byUser = byUser;
+        this.byProduct = byProduct;
+    }
+
+    /**
+     * Hasil eksekusi query beserta rencana dan jumlah baris yang dibaca.
+     */
+    public record Result(List<Transaction> transactions, QueryPlan plan, long examined, long elapsedMicros) {
+
+        /**
+         * Menuliskan rencana eksekusi dan statistik eksekusinya sebagai baris-baris teks.
+         */
+        public List<String> explain() {
+            List<String> lines = new ArrayList<>(plan.explain());
+            lines.add("Dieksekusi: " + examined + " baris dibaca, " + transactions.size() + " hasil, "
+                    + String.format("%.2f", elapsedMicros / 1000.0) + " ms");
+            return lines;
+        }
+    }
+
+    /**
+     * Membuat rencana eksekusi query.
+     */
+    public QueryPlan plan(TransactionQuery q) {
+        long from = q.getFrom() != null ? CompactTransaction.toNanos(q.getFrom()) : Long.MIN_VALUE;
+        long to = q.getTo() != null ? CompactTransaction.toNanos(q.getTo()) : Long.MAX_VALUE;
+        int user = q.getUserId() != null ? dict.users().find(q.getUserId()) : -1;
+        int product = q.getProductId() != null ? dict.products().find(q.getProductId()) : -1;
+        String empty = q.getUserId() != null && user < 0 ? "pengguna " + q.getUserId() + " belum pernah bertransaksi"
+                : q.getProductId() != null && product < 0 ? "produk " + q.getProductId() + " belum pernah terjual"
+                : from >= to ? "rentang waktu kosong" : null;
+
+        // EnumMap berurutan sesuai deklarasi, sehingga jika perkiraannya sama jalur yang lebih spesifik menang
+        Map<QueryPlan.AccessPath, Long> candidates = new EnumMap<>(QueryPlan.AccessPath.class);
+        if (q.getUserId() != null && byUser != null) {
+            candidates.put(QueryPlan.AccessPath.USER_INDEX, user < 0 ? 0L : byUser.count(user, from, to));
+        }
+        if (q.getProductId() != null && byProduct != null) {
+            candidates.put(QueryPlan.AccessPath.PRODUCT_INDEX, product < 0 ? 0L : byProduct.count(product, from, to));
+        }
+        if (q.getFrom() != null || q.getTo() != null) candidates.put(QueryPlan.AccessPath.TIME_RANGE, estimateRange(from, to));
+        candidates.put(QueryPlan.AccessPath.FULL_SCAN, (long) index.size());
+        QueryPlan.AccessPath path = QueryPlan.AccessPath.FULL_SCAN;
+        long best = Long.MAX_VALUE;
+        for (Map.Entry<QueryPlan.AccessPath, Long> e : candidates.entrySet()) {
+            if (e.getValue() < best) {
+                best = e.getValue();
+                path = e.getKey();
+            }
+        }
+
+        List<String> residual = new ArrayList<>();
+        Predicate<CompactTransaction> filter = null;
+        if (q.getUserId() != null && path != QueryPlan.AccessPath.USER_INDEX) {
+            residual.add("pengguna = " + q.getUserId());
+            filter = and(filter, c -> c.userOrdinal() == user);
+        }
+        if (q.getProductId() != null && path != QueryPlan.AccessPath.PRODUCT_INDEX) {
+            residual.add("memuat produk " + q.getProductId());
+            filter = and(filter, c -> contains(c, product));
+        }
+        if (q.getMinTotal() != null) {
+            int min = q.getMinTotal();
+            residual.add("total >= " + min);
+            filter = and(filter, c -> c.total() >= min);
+        }
+        for (TransactionQuery.Filter f : q.getFilters()) residual.add(f.description());
+
+        int key = path == QueryPlan.AccessPath.USER_INDEX ? user : path == QueryPlan.AccessPath.PRODUCT_INDEX ? product : -1;
+        return new QueryPlan(q, path, candidates, residual, q.getOrder().byTime(), empty, key, from, to, filter);
+    }
+
+    /**
+     * Menjalankan query dan mengumpulkan seluruh hasilnya.
+     */
+    public Result execute(TransactionQuery q) {
+        long start = System.nanoTime();
+        QueryPlan plan = plan(q);
+        LongAdder examined = new LongAdder();
+        List<Transaction> result;
+        try (Stream<Transaction> s = stream(plan, examined)) {
+            result = s.toList();
+        }
+        return new Result(result, plan, examined.sum(), (System.nanoTime() - start) / 1000);
+    }
+
+    /**
+     * Mengalirkan hasil query sesuai rencana; baris dibaca dari jalur akses hanya ketika diminta.
+     */
+    public Stream<Transaction> stream(QueryPlan plan) {
+        return stream(plan, null);
+    }
+
+    private Stream<Transaction> stream(QueryPlan plan, LongAdder examined) {
+        if (plan.getEmptyReason() != null) return Stream.empty();
+        TransactionQuery q = plan.getQuery();
+        boolean descending = q.getOrder() == TransactionQuery.Order.NEWEST;
+        Stream<CompactTransaction> rows = switch (plan.getPath()) {
+            case USER_INDEX -> byUser.stream(plan.keyOrdinal, plan.fromNanos, plan.toNanos, descending);
+            case PRODUCT_INDEX -> byProduct.stream(plan.keyOrdinal, plan.fromNanos, plan.toNanos, descending);
+            case TIME_RANGE -> index.compactStream(q.getFrom(), q.getTo(), descending);
+            case FULL_SCAN -> index.compactStream(null, null, descending);
+        };
+        if (examined != null) rows = rows.peek(c -> examined.increment());
+        if (plan.compactFilter != null) rows = rows.filter(plan.compactFilter);
+        for (TransactionQuery.Filter f : q.getFilters()) rows = rows.filter(c -> f.predicate().test(c.view(dict)));
+        if (!q.getOrder().byTime()) rows = sortByTotal(rows, q.getOrder(), q.getLimit());
+        if (q.getLimit() > 0) rows = rows.limit(q.getLimit());
+        return rows.map(c -> c.view(dict));
+    }
+
+    /**
+     * Memperkirakan jumlah transaksi pada rentang [from, to) dari proporsinya terhadap
+     * rentang waktu transaksi pertama sampai terakhir.
+     */
+    private long estimateRange(long from, long to) {
+        int n = index.size();
+        if (n == 0) return 0;
+        LocalDateTime first = index.range(null, null, 1, false).get(0).getTimestamp();
+        LocalDateTime last = index.range(null, null, 1, true).get(0).getTimestamp();
+        if (first == null || last == null) return n;
+        long min = CompactTransaction.toNanos(first);
+        long max = CompactTransaction.toNanos(last);
+        long lo = Math.max(from, min);
+        long hi = Math.min(to, max + 1);
+        if (hi <= lo) return 0;
+        double fraction = (double) (hi - lo) / ((double) max - min + 1);
+        return Math.max(1, Math.min(n, Math.round(n * fraction)));
+    }
+
+    /**
+     * Mengurutkan baris berdasarkan total. Dengan batas hasil, hanya N baris terbaik yang disimpan
+     * (heap berukuran N); pengurutan baru dijalankan ketika stream hasil dikonsumsi.
+     */
+    private static Stream<CompactTransaction> sortByTotal(Stream<CompactTransaction> rows, TransactionQuery.Order order, int limit) {
+        Comparator<CompactTransaction> byTotal = Comparator.comparingInt(CompactTransaction::total)
+                .thenComparingLong(CompactTransaction::timeNanos);
+        Comparator<CompactTransaction> cmp = order == TransactionQuery.Order.TOTAL_DESC ? byTotal.reversed() : byTotal;
+        if (limit <= 0) return rows.sorted(cmp);
+        return Stream.of(rows).flatMap(s -> top(s, cmp, limit).stream());
+    }
+
+    private static List<CompactTransaction> top(Stream<CompactTransaction> rows, Comparator<CompactTransaction> cmp, int limit) {
+        PriorityQueue<CompactTransaction> heap = new PriorityQueue<>(limit + 1, cmp.reversed());  // kepala = baris terburuk
+        rows.forEachOrdered(c -> {
+            heap.add(c);
+            if (heap.size() > limit) heap.poll();
+        });
+        List<CompactTransaction> result = new ArrayList<>(heap);
+        result.sort(cmp);
+        return result;
+    }
+
+    private static boolean contains(CompactTransaction c, int productOrdinal) {
+        for (int i = 0; i < c.itemCount(); i++) {
+            if (c.productOrdinal(i) == productOrdinal) return true;
+        }
+        return false;
+    }
+
+    private static Predicate<CompactTransaction> and(Predicate<CompactTransaction> a, Predicate<CompactTransaction> b) {
+        return a == null ? b : a.and(b);
+    }
+}
@@ -0,0 +1,55 @@
+package id.univ.uaspbo.replication;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Penjaga mode baca-saja pada instance follower. Permintaan selain GET ke keranjang, checkout,
+ * perubahan produk, dan penyimpanan manual ditolak dengan status 403 dan halaman "read-only",
+ * karena produk dan transaksi follower hanya berasal dari primary. Data pengguna tidak
+ * direplikasi, sehingga login dan pengelolaan pengguna tetap berjalan di follower.
+ * Pada primary dan standalone penjaga ini tidak didaftarkan. Peran dibaca langsung dari properti,
+ * bukan dari ReplicationService, karena konfigurasi MVC ikut dibuat ketika OutletService menyiapkan
+ * context outlet tambahan, sebelum OutletService sendiri selesai dibuat.
+ *
+ * Konsep OOP yang digunakan:
+ * - Implementasi Interface: Mengimplementasikan WebMvcConfigurer untuk mendaftarkan diri dan
+ *   HandlerInterceptor untuk memeriksa permintaan sebelum sampai ke controller.
+ */
+@Component
+public class ReadOnlyGuard implements WebMvcConfigurer, HandlerInterceptor {
+
+    private final boolean follower;
+
+    /**
+     * Konstruktor ReadOnlyGuard yang menerima peran replikasi instance.
+     */
+    public ReadOnlyGuard(@Value("${uas.replication.role:standalone}") String role) {
+        this.follower = ReplicationService.FOLLOWER.equalsIgnoreCase(role.trim());
+    }
+
+    /**
+     * Mendaftarkan penjaga untuk path yang mengubah produk atau transaksi, hanya pada follower.
+     */
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        if (!follower) return;
+        registry.addInterceptor(this).addPathPatterns("/user/cart", "/user/checkout", "/admin/products/**", "/admin/save");
+    }
+
+    /**
+     * Meneruskan permintaan yang mengubah data ke halaman "read-only" dengan status 403.
+     */
+    @Override
+    public boolean preHandle(HttpServletRequest req, HttpServletResponse res, Object handler) throws Exception {
+        if ("GET".equalsIgnoreCase(req.getMethod())) return true;
+        res.setStatus(HttpServletResponse.SC_FORBIDDEN);
+        req.getRequestDispatcher("/read-only").forward(req, res);
+        return false;
+    }
+}
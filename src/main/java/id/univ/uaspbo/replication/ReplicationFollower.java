@@ -0,0 +1,261 @@
+package id.univ.uaspbo.replication;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import id.univ.uaspbo.model.ReplicationStatus;
+import id.univ.uaspbo.model.Transaction;
+import id.univ.uaspbo.query.TransactionQuery;
+import id.univ.uaspbo.service.Outlet;
+import id.univ.uaspbo.service.OutletService;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+
+/**
+ * Sisi follower replikasi. Satu thread latar belakang menyambung ke primary, mengirim HELLO berisi
+ * epoch dan LSN terakhir yang sudah diterapkan, lalu menerapkan setiap pesan ke service outlet yang
+ * bersesuaian di memori: transaksi lewat TransactionService.replicate, produk lewat
+ * ProductService.replicate, replicateDelete, dan replicateAll. Tidak ada yang ditulis ke file data.
+ * Jika koneksi putus, follower menyambung ulang setiap detik dan melanjutkan dari LSN terakhirnya.
+ *
+ * Selama snapshot, ID transaksi yang sudah ada di memori (dimuat dari data lokal atau dari
+ * sambungan sebelumnya) dan yang sudah diterima dicatat per outlet, sehingga transaksi yang
+ * terkirim dua kali (di snapshot dan di ekor log sampai LSN akhir snapshot) hanya dimasukkan sekali.
+ * Catatan itu dibuang begitu LSN akhir snapshot terlewati.
+ *
+ * Ketertinggalan (lag) dihitung dari LSN terbaru primary yang diketahui lewat entri dan HEARTBEAT
+ * terhadap LSN yang sudah diterapkan, dan dalam milidetik dari waktu pencatatan entri terakhir yang
+ * diterapkan. ACK dikirim ke primary paling banyak dua kali per detik.
+ *
+ * Konsep OOP yang digunakan:
+ * - Enkapsulasi: Keadaan koneksi dan posisi replikasi hanya diubah oleh thread follower.
+ */
+class ReplicationFollower {
+    private static final int CONNECT_TIMEOUT_MS = 5_000;  // Batas waktu membuka koneksi
+    private static final int READ_TIMEOUT_MS = 5_000;     // Primary dianggap mati jika tidak ada pesan selama ini
+    private static final long RETRY_MS = 1_000;           // Jeda sebelum menyambung ulang
+    private static final long ACK_INTERVAL_MS = 500;      // Jeda minimum antar-ACK
+
+    private final OutletService outlets;
+    private final ObjectMapper mapper;
+    private final String host;
+    private final int port;
+    private final LongAdder applied = new LongAdder();    // Entri log yang sudah diterapkan
+    private final LongAdder snapshots = new LongAdder();  // Snapshot yang sudah diterapkan
+    private volatile boolean running;
+    private volatile boolean connected;
+    private volatile Socket socket;
+    private volatile String epoch;         // Epoch log primary yang diikuti, null sebelum snapshot pertama
+    private volatile long appliedLsn;      // LSN terakhir yang sudah diterapkan
+    private volatile long primaryLsn;      // LSN terbaru primary yang diketahui
+    private volatile long lastEntryTime;   // Waktu pencatatan entri terakhir yang diterapkan
+    private volatile long applyDelayMs;    // Selisih waktu diterapkan dan dicatat entri terakhir
+    private volatile long lastContact;     // Waktu pesan terakhir dari primary
+    private volatile String lastError;
+    private Thread thread;
+
+    // Keadaan snapshot, hanya dipakai thread follower
+    private String snapshotEpoch;             // Epoch snapshot yang sedang diterima
+    private long snapshotStart;               // LSN log primary pada awal snapshot
+    private long snapshotEnd = -1;            // LSN log primary pada akhir snapshot
+    private long snapshotBegan;               // Waktu mulai menerima snapshot (nanodetik)
+    private Map<String, Set<String>> seen;    // ID outlet -> ID transaksi yang sudah dimasukkan, null di luar snapshot
+
+    /**
+     * Konstruktor ReplicationFollower.
+     *
+     * @param outlets Outlet-outlet yang menerima perubahan; ID outlet harus sama dengan di primary
+     * @param mapper ObjectMapper JSON satu baris
+     * @param host Alamat primary
+     * @param port Port replikasi primary
+     */
+    ReplicationFollower(OutletService outlets, ObjectMapper mapper, String host, int port) {
+        this.outlets = outlets;
+        this.mapper = mapper;
+        this.host = host;
+        this.port = port;
+    }
+
+    /**
+     * Menjalankan thread follower.
+     */
+    void start() {
+        running = true;
+        thread = new Thread(this::run, "replication-follower");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Menghentikan thread follower dan menutup koneksinya.
+     */
+    void stop() {
+        running = false;
+        Socket s = socket;
+        try {
+            if (s != null) s.close();
+        } catch (IOException ignored) {
+        }
+        if (thread != null) thread.interrupt();
+    }
+
+    private void run() {
+        while (running) {
+            try (Socket s = new Socket()) {
+                socket = s;
+                s.connect(new InetSocketAddress(host, port), CONNECT_TIMEOUT_MS);
+                s.setSoTimeout(READ_TIMEOUT_MS);
+                s.setTcpNoDelay(true);
+                BufferedReader in = new BufferedReader(new InputStreamReader(s.getInputStream(), StandardCharsets.UTF_8), 64 * 1024);
+                Writer out = new BufferedWriter(new OutputStreamWriter(s.getOutputStream(), StandardCharsets.UTF_8));
+                send(out, ReplicationMessage.hello(epoch, appliedLsn));
+                connected = true;
+                lastError = null;
+                System.out.println("Replication follower connected to " + host + ":" + port + " at LSN " + appliedLsn);
+                long lastAck = 0;
+                String line;
+                while (running && (line = in.readLine()) != null) {
+                    apply(mapper.readValue(line, ReplicationMessage.class));
+                    long now = System.currentTimeMillis();
+                    if (now - lastAck >= ACK_INTERVAL_MS) {
+                        send(out, ReplicationMessage.ack(appliedLsn));
+                        lastAck = now;
+                    }
+                }
+                if (running) throw new IOException("connection closed by primary");
+            } catch (IOException | RuntimeException e) {
+                if (running) {
+                    lastError = e.getMessage() != null ? e.getMessage() : e.toString();
+                    if (connected) System.out.println("Replication follower disconnected: " + lastError);
+                }
+            } finally {
+                connected = false;
+                socket = null;
+                if (seen != null && snapshotEnd < 0) {
+                    // Snapshot terputus: sebagian sudah diterapkan, jadi sambungan berikutnya harus meminta snapshot baru
+                    epoch = null;
+                    seen = null;
+                }
+            }
+            try {
+                Thread.sleep(RETRY_MS);
+            } catch (InterruptedException e) {
+                return;
+            }
+        }
+    }
+
+    private void send(Writer out, ReplicationMessage message) throws IOException {
+        out.write(mapper.writeValueAsString(message));
+        out.write('\n');
+        out.flush();
+    }
+
+    /**
+     * Menerapkan satu pesan dari primary.
+     */
+    private void apply(ReplicationMessage m) {
+        lastContact = System.currentTimeMillis();
+        switch (m.type()) {
+            case ReplicationMessage.SNAPSHOT -> beginSnapshot(m);
+            case ReplicationMessage.PRODUCTS -> {
+                Outlet o = outlet(m.outlet());
+                if (o != null) o.getProducts().replicateAll(m.products());
+            }
+            case ReplicationMessage.SNAPSHOT_END -> endSnapshot(m);
+            case ReplicationMessage.HEARTBEAT -> primaryLsn = Math.max(primaryLsn, m.lsn());
+            case ReplicationMessage.TRANSACTION, ReplicationMessage.PRODUCT, ReplicationMessage.PRODUCT_DELETE -> applyChange(m);
+            default -> { }
+        }
+    }
+
+    /**
+     * Memulai snapshot: mencatat ID transaksi yang sudah ada di memori setiap outlet.
+     * Epoch dan LSN yang diterapkan baru diganti setelah SNAPSHOT_END, sehingga snapshot yang
+     * terputus di tengah jalan diulang dari awal pada sambungan berikutnya.
+     */
+    private void beginSnapshot(ReplicationMessage m) {
+        snapshotBegan = System.nanoTime();
+        snapshotEpoch = m.epoch();
+        snapshotStart = m.lsn();
+        snapshotEnd = -1;
+        primaryLsn = m.lsn();
+        seen = new HashMap<>();
+        for (Outlet o : outlets.getAll()) {
+            Set<String> ids = new HashSet<>();
+            try (Stream<Transaction> all = o.getTransactions().stream(TransactionQuery.all())) {
+                all.forEach(t -> ids.add(t.getId()));
+            }
+            seen.put(o.getId(), ids);
+        }
+    }
+
+    private void endSnapshot(ReplicationMessage m) {
+        epoch = snapshotEpoch;
+        appliedLsn = snapshotStart;
+        snapshotEnd = m.lsn();
+        primaryLsn = Math.max(primaryLsn, m.lsn());
+        if (snapshotEnd <= appliedLsn) seen = null;
+        snapshots.increment();
+        System.out.println("Replication snapshot applied at LSN " + snapshotStart + " (epoch " + epoch + ") in "
+                + (System.nanoTime() - snapshotBegan) / 1_000_000 + " ms");
+    }
+
+    /**
+     * Menerapkan satu perubahan; LSN 0 berarti bagian snapshot.
+     */
+    private void applyChange(ReplicationMessage m) {
+        Outlet o = outlet(m.outlet());
+        if (o != null) {
+            switch (m.type()) {
+                case ReplicationMessage.TRANSACTION -> {
+                    Transaction t = m.transaction();
+                    Set<String> ids = seen != null ? seen.get(o.getId()) : null;
+                    if (ids == null || ids.add(t.getId())) o.getTransactions().replicate(t);
+                }
+                case ReplicationMessage.PRODUCT -> o.getProducts().replicate(m.product());
+                default -> o.getProducts().replicateDelete(m.productId());
+            }
+        }
+        if (m.lsn() == 0) return;
+        long now = System.currentTimeMillis();
+        appliedLsn = m.lsn();
+        primaryLsn = Math.max(primaryLsn, m.lsn());
+        lastEntryTime = m.time();
+        applyDelayMs = Math.max(0, now - m.time());
+        applied.increment();
+        if (seen != null && snapshotEnd >= 0 && appliedLsn >= snapshotEnd) seen = null;
+    }
+
+    /**
+     * Mendapatkan outlet dengan ID dari primary, atau null jika outlet itu tidak ada di instance ini.
+     */
+    private Outlet outlet(String id) {
+        return outlets.exists(id) ? outlets.get(id) : null;
+    }
+
+    /**
+     * Mendapatkan posisi dan ketertinggalan replikasi follower.
+     */
+    ReplicationStatus status() {
+        long now = System.currentTimeMillis();
+        long applied = appliedLsn;
+        long lag = Math.max(0, primaryLsn - applied);
+        long lagMs = lag == 0 ? 0 : lastEntryTime > 0 ? Math.max(0, now - lastEntryTime) : -1;
+        return new ReplicationStatus("follower", host + ":" + port, epoch, connected, 0, applied, primaryLsn, lag, lagMs,
+                applyDelayMs, lastContact > 0 ? now - lastContact : -1, this.applied.sum(), snapshots.sum(), lastError, List.of());
+    }
+}
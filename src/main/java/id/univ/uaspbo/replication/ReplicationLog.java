@@ -0,0 +1,82 @@
+package id.univ.uaspbo.replication;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.LongFunction;
+
+/**
+ * Log replikasi di memori milik instance primary: entri perubahan bernomor urut (LSN) yang
+ * disimpan dalam ring buffer berkapasitas tetap. Follower yang LSN-nya masih berada di dalam
+ * buffer cukup menerima ekor log (log tail); follower yang tertinggal lebih jauh dari kapasitas
+ * buffer harus mengejar lewat snapshot.
+ *
+ * Pengirim ke follower menunggu entri baru dengan wait/notify pada monitor log, sehingga entri
+ * terkirim begitu dicatat tanpa polling.
+ *
+ * Konsep OOP yang digunakan:
+ * - Enkapsulasi: Ring buffer dan batas LSN hanya diakses melalui append dan read yang tersinkronisasi.
+ */
+class ReplicationLog {
+    private final ReplicationMessage[] ring;  // Entri log, posisi = LSN modulo kapasitas
+    private long first = 1;                    // LSN entri tertua yang masih disimpan
+    private long last;                         // LSN entri terbaru, 0 jika log kosong
+
+    /**
+     * Konstruktor ReplicationLog.
+     *
+     * @param capacity Jumlah entri terbaru yang disimpan
+     */
+    ReplicationLog(int capacity) {
+        this.ring = new ReplicationMessage[Math.max(1, capacity)];
+    }
+
+    /**
+     * Mencatat satu entri baru. Entri dibuat di bawah kunci log dengan LSN berikutnya, sehingga
+     * keadaan yang dibaca pembuat entri (misalnya stok produk) selalu sesuai urutan LSN.
+     *
+     * @param entry Pembuat entri dari LSN yang diberikan
+     * @return LSN entri
+     */
+    synchronized long append(LongFunction<ReplicationMessage> entry) {
+        long lsn = last + 1;
+        ring[(int) (lsn % ring.length)] = entry.apply(lsn);
+        last = lsn;
+        if (last - first + 1 > ring.length) first++;
+        notifyAll();
+        return lsn;
+    }
+
+    /**
+     * Membaca entri setelah LSN tertentu, menunggu sampai waitMs jika belum ada entri baru.
+     *
+     * @param after LSN terakhir yang sudah dimiliki pembaca
+     * @param max Jumlah entri maksimum yang dibaca
+     * @param waitMs Lama menunggu entri baru
+     * @return Entri berurutan LSN (kosong jika tidak ada entri baru), atau null jika entri setelah
+     *         after sudah tidak ada di buffer sehingga pembaca harus memakai snapshot
+     */
+    synchronized List<ReplicationMessage> read(long after, int max, long waitMs) throws InterruptedException {
+        if (after >= last && waitMs > 0) wait(waitMs);
+        if (after < first - 1 || after > last) return null;
+        List<ReplicationMessage> entries = new ArrayList<>();
+        for (long lsn = after + 1; lsn <= last && entries.size() < max; lsn++) {
+            entries.add(ring[(int) (lsn % ring.length)]);
+        }
+        return entries;
+    }
+
+    /**
+     * Mengecek apakah pembaca dengan LSN tertentu masih dapat dilayani dari buffer.
+     */
+    synchronized boolean covers(long after) {
+        return after >= first - 1 && after <= last;
+    }
+
+    synchronized long firstLsn() {
+        return first;
+    }
+
+    synchronized long lastLsn() {
+        return last;
+    }
+}
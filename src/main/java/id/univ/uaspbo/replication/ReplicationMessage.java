@@ -0,0 +1,80 @@
+package id.univ.uaspbo.replication;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import id.univ.uaspbo.model.Product;
+import id.univ.uaspbo.model.Transaction;
+
+import java.util.List;
+
+/**
+ * Satu pesan protokol replikasi, dikirim sebagai satu baris JSON lewat socket TCP.
+ * Jenis pesan (type):
+ * - HELLO (follower ke primary): epoch dan LSN terakhir yang sudah diterapkan follower.
+ * - ACK (follower ke primary): LSN terakhir yang sudah diterapkan, untuk pemantauan di primary.
+ * - SNAPSHOT dan SNAPSHOT_END (primary): awal dan akhir snapshot beserta LSN log saat itu.
+ * - PRODUCTS (bagian snapshot): seluruh produk satu outlet beserta stoknya.
+ * - TRANSACTION, PRODUCT, PRODUCT_DELETE: perubahan satu outlet; LSN 0 berarti bagian snapshot.
+ * - HEARTBEAT (primary): LSN terakhir di log ketika tidak ada perubahan untuk dikirim.
+ *
+ * Field yang tidak dipakai suatu jenis pesan bernilai null dan tidak ikut diserialisasi.
+ *
+ * @param type Jenis pesan
+ * @param epoch ID log primary; LSN hanya bermakna di dalam epoch yang sama
+ * @param lsn Nomor urut entri log (log sequence number)
+ * @param time Waktu entri dicatat di primary (milidetik epoch)
+ * @param outlet ID outlet pemilik perubahan
+ * @param transaction Transaksi yang tercatat
+ * @param product Keadaan terkini produk yang berubah
+ * @param productId ID produk yang dihapus
+ * @param products Seluruh produk satu outlet pada snapshot
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record ReplicationMessage(String type, String epoch, long lsn, long time, String outlet,
+                                 Transaction transaction, Product product, String productId, List<Product> products) {
+
+    public static final String HELLO = "HELLO";
+    public static final String ACK = "ACK";
+    public static final String SNAPSHOT = "SNAPSHOT";
+    public static final String SNAPSHOT_END = "SNAPSHOT_END";
+    public static final String PRODUCTS = "PRODUCTS";
+    public static final String TRANSACTION = "TRANSACTION";
+    public static final String PRODUCT = "PRODUCT";
+    public static final String PRODUCT_DELETE = "PRODUCT_DELETE";
+    public static final String HEARTBEAT = "HEARTBEAT";
+
+    static ReplicationMessage hello(String epoch, long lsn) {
+        return new ReplicationMessage(HELLO, epoch, lsn, System.currentTimeMillis(), null, null, null, null, null);
+    }
+
+    static ReplicationMessage ack(long lsn) {
+        return new ReplicationMessage(ACK, null, lsn, System.currentTimeMillis(), null, null, null, null, null);
+    }
+
+    static ReplicationMessage snapshot(String epoch, long lsn) {
+        return new ReplicationMessage(SNAPSHOT, epoch, lsn, System.currentTimeMillis(), null, null, null, null, null);
+    }
+
+    static ReplicationMessage snapshotEnd(long lsn) {
+        return new ReplicationMessage(SNAPSHOT_END, null, lsn, System.currentTimeMillis(), null, null, null, null, null);
+    }
+
+    static ReplicationMessage products(String outlet, List<Product> products) {
+        return new ReplicationMessage(PRODUCTS, null, 0, System.currentTimeMillis(), outlet, null, null, null, products);
+    }
+
+    static ReplicationMessage transaction(long lsn, String outlet, Transaction t) {
+        return new ReplicationMessage(TRANSACTION, null, lsn, System.currentTimeMillis(), outlet, t, null, null, null);
+    }
+
+    static ReplicationMessage product(long lsn, String outlet, Product p) {
+        return new ReplicationMessage(PRODUCT, null, lsn, System.currentTimeMillis(), outlet, null, p, null, null);
+    }
+
+    static ReplicationMessage productDeleted(long lsn, String outlet, String productId) {
+        return new ReplicationMessage(PRODUCT_DELETE, null, lsn, System.currentTimeMillis(), outlet, null, null, productId, null);
+    }
+
+    static ReplicationMessage heartbeat(long lsn) {
+        return new ReplicationMessage(HEARTBEAT, null, lsn, System.currentTimeMillis(), null, null, null, null, null);
+    }
+}
@@ -0,0 +1,275 @@
+package id.univ.uaspbo.replication;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import id.univ.uaspbo.model.Product;
+import id.univ.uaspbo.model.ReplicationStatus;
+import id.univ.uaspbo.model.Transaction;
+import id.univ.uaspbo.query.TransactionQuery;
+import id.univ.uaspbo.service.Outlet;
+import id.univ.uaspbo.service.OutletService;
+import id.univ.uaspbo.service.ProductService;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+
+/**
+ * Sisi primary replikasi. Setiap transaksi yang tercatat dan setiap perubahan produk di semua
+ * outlet dicatat ke ReplicationLog, lalu dialirkan ke follower yang tersambung lewat socket TCP
+ * sebagai baris-baris JSON (ReplicationMessage).
+ *
+ * Follower membuka koneksi dengan HELLO berisi epoch dan LSN terakhir yang sudah diterapkannya.
+ * Jika epoch sama dan LSN tersebut masih ada di log, primary langsung mengirim ekor log; jika
+ * tidak (follower baru, primary baru dijalankan ulang, atau follower tertinggal lebih jauh dari
+ * kapasitas log), primary mengirim snapshot berupa seluruh produk dan transaksi setiap outlet,
+ * diapit LSN log pada awal dan akhir snapshot, lalu melanjutkan dengan ekor log sejak awal snapshot.
+ * Ketika tidak ada perubahan, HEARTBEAT dikirim setiap detik berisi LSN terakhir log, sehingga
+ * follower dapat menghitung ketertinggalannya dan mendeteksi koneksi yang putus.
+ *
+ * Perubahan produk dicatat sebagai keadaan terkini produk (bukan selisih) yang dibaca di bawah
+ * kunci log, sehingga entri terakhir sebuah produk selalu memuat keadaan terbarunya.
+ *
+ * Konsep OOP yang digunakan:
+ * - Komposisi: Memakai ReplicationLog dan service setiap outlet.
+ * - Inner Class: Session mewakili satu koneksi follower beserta posisi kirim dan ACK-nya.
+ */
+class ReplicationPrimary {
+    private static final int BATCH = 512;                  // Entri log maksimum per pembacaan
+    private static final long HEARTBEAT_MS = 1_000;        // Jeda HEARTBEAT ketika tidak ada perubahan
+    private static final int HELLO_TIMEOUT_MS = 10_000;    // Batas menunggu HELLO dari follower baru
+
+    private final OutletService outlets;
+    private final ObjectMapper mapper;
+    private final ReplicationLog log;
+    private final String bindAddress;
+    private final int port;
+    private final String epoch = UUID.randomUUID().toString();  // ID log ini, berganti setiap primary dijalankan
+    private final Set<Session> sessions = ConcurrentHashMap.newKeySet();
+    private final LongAdder snapshots = new LongAdder();
+    private volatile boolean running;
+    private ServerSocket server;
+    private ExecutorService threads;
+
+    /**
+     * Konstruktor ReplicationPrimary.
+     *
+     * @param outlets Outlet-outlet yang perubahannya direplikasi
+     * @param mapper ObjectMapper JSON satu baris
+     * @param bindAddress Alamat listen socket replikasi
+     * @param port Port listen socket replikasi
+     * @param logCapacity Jumlah entri terbaru yang disimpan di log
+     */
+    ReplicationPrimary(OutletService outlets, ObjectMapper mapper, String bindAddress, int port, int logCapacity) {
+        this.outlets = outlets;
+        this.mapper = mapper;
+        this.bindAddress = bindAddress;
+        this.port = port;
+        this.log = new ReplicationLog(logCapacity);
+    }
+
+    /**
+     * Mendaftarkan pencatatan transaksi dan perubahan produk setiap outlet ke log.
+     */
+    void capture() {
+        for (Outlet o : outlets.getAll()) {
+            String outlet = o.getId();
+            ProductService products = o.getProducts();
+            o.getTransactions().onCommit(t -> log.append(lsn -> ReplicationMessage.transaction(lsn, outlet, t)));
+            products.onChange(id -> log.append(lsn -> {
+                Product p = products.findById(id);
+                return p != null ? ReplicationMessage.product(lsn, outlet, p) : ReplicationMessage.productDeleted(lsn, outlet, id);
+            }));
+        }
+    }
+
+    /**
+     * Membuka socket replikasi dan mulai menerima follower.
+     */
+    void start() throws IOException {
+        server = new ServerSocket();
+        server.setReuseAddress(true);
+        server.bind(new InetSocketAddress(bindAddress, port));
+        threads = Executors.newCachedThreadPool(r -> {
+            Thread t = new Thread(r, "replication-primary");
+            t.setDaemon(true);
+            return t;
+        });
+        running = true;
+        threads.execute(this::accept);
+        System.out.println("Replication primary listening on " + bindAddress + ":" + port + " (epoch " + epoch + ")");
+    }
+
+    /**
+     * Menutup socket replikasi dan semua koneksi follower.
+     */
+    void stop() {
+        running = false;
+        try {
+            if (server != null) server.close();
+        } catch (IOException ignored) {
+        }
+        for (Session s : sessions) s.close();
+        if (threads != null) threads.shutdownNow();
+    }
+
+    private void accept() {
+        while (running) {
+            try {
+                Session s = new Session(server.accept());
+                sessions.add(s);
+                threads.execute(s::run);
+            } catch (IOException e) {
+                if (running) System.out.println("Replication accept failed: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Mendapatkan keadaan log dan follower yang tersambung.
+     */
+    ReplicationStatus status() {
+        long now = System.currentTimeMillis();
+        long last = log.lastLsn();
+        List<ReplicationStatus.Follower> followers = new ArrayList<>();
+        for (Session s : sessions) {
+            followers.add(new ReplicationStatus.Follower(s.address, now - s.connectedAt, s.sentLsn, s.ackedLsn,
+                    Math.max(0, last - s.ackedLsn), s.lastAck > 0 ? now - s.lastAck : -1));
+        }
+        return new ReplicationStatus("primary", bindAddress + ":" + port, epoch, !sessions.isEmpty(), log.firstLsn(), last,
+                last, 0, 0, 0, -1, last, snapshots.sum(), null, followers);
+    }
+
+    /**
+     * Satu koneksi follower: menerima HELLO, mengirim snapshot jika perlu, lalu mengalirkan ekor
+     * log dan membaca ACK follower di sela pengiriman.
+     */
+    private final class Session {
+        private final Socket socket;
+        private final String address;
+        private final long connectedAt = System.currentTimeMillis();
+        private volatile long sentLsn;   // LSN terakhir yang dikirim
+        private volatile long ackedLsn;  // LSN terakhir yang dikonfirmasi follower
+        private volatile long lastAck;   // Waktu ACK terakhir, 0 jika belum pernah
+        private BufferedReader in;
+        private Writer out;
+
+        private Session(Socket socket) {
+            this.socket = socket;
+            this.address = socket.getRemoteSocketAddress().toString();
+        }
+
+        private void run() {
+            try (socket) {
+                socket.setTcpNoDelay(true);
+                socket.setSoTimeout(HELLO_TIMEOUT_MS);
+                in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+                out = new BufferedWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8), 64 * 1024);
+                String line = in.readLine();
+                if (line == null) return;
+                ReplicationMessage hello = mapper.readValue(line, ReplicationMessage.class);
+                if (!ReplicationMessage.HELLO.equals(hello.type())) return;
+                long from = hello.lsn();
+                boolean tail = epoch.equals(hello.epoch()) && log.covers(from);
+                ackedLsn = tail ? from : 0;
+                System.out.println("Replication follower " + address + " connected at LSN " + from
+                        + (tail ? ", sending log tail" : ", sending snapshot"));
+                if (!tail) from = sendSnapshot();
+                while (running) {
+                    List<ReplicationMessage> entries = log.read(from, BATCH, HEARTBEAT_MS);
+                    if (entries == null) {
+                        System.out.println("Replication follower " + address + " fell behind the log, sending snapshot");
+                        from = sendSnapshot();
+                        continue;
+                    }
+                    if (entries.isEmpty()) send(ReplicationMessage.heartbeat(log.lastLsn()));
+                    for (ReplicationMessage e : entries) send(e);
+                    if (!entries.isEmpty()) from = entries.get(entries.size() - 1).lsn();
+                    out.flush();
+                    sentLsn = from;
+                    readAcks();
+                }
+            } catch (IOException e) {
+                if (running) System.out.println("Replication follower " + address + " disconnected: " + e.getMessage());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                sessions.remove(this);
+            }
+        }
+
+        /**
+         * Mengirim snapshot seluruh outlet: SNAPSHOT, lalu per outlet PRODUCTS dan semua
+         * transaksinya, lalu SNAPSHOT_END. Transaksi yang tercatat selama snapshot dapat terkirim
+         * dua kali (di snapshot dan di ekor log hingga LSN akhir snapshot); follower melewatinya.
+         *
+         * @return LSN awal snapshot, posisi ekor log yang dikirim berikutnya
+         */
+        private long sendSnapshot() throws IOException {
+            long began = System.nanoTime();
+            long start = log.lastLsn();
+            send(ReplicationMessage.snapshot(epoch, start));
+            long count = 0;
+            for (Outlet o : outlets.getAll()) {
+                send(ReplicationMessage.products(o.getId(), o.getProducts().getAll()));
+                try (Stream<Transaction> all = o.getTransactions().stream(TransactionQuery.all())) {
+                    Iterator<Transaction> it = all.iterator();
+                    while (it.hasNext()) {
+                        send(ReplicationMessage.transaction(0, o.getId(), it.next()));
+                        count++;
+                    }
+                }
+            }
+            send(ReplicationMessage.snapshotEnd(log.lastLsn()));
+            out.flush();
+            snapshots.increment();
+            sentLsn = start;
+            System.out.println("Replication snapshot of " + count + " transactions sent to " + address + " at LSN " + start
+                    + " in " + (System.nanoTime() - began) / 1_000_000 + " ms");
+            return start;
+        }
+
+        private void send(ReplicationMessage message) throws IOException {
+            out.write(mapper.writeValueAsString(message));
+            out.write('\n');
+        }
+
+        /**
+         * Membaca ACK yang sudah tiba tanpa menunggu.
+         */
+        private void readAcks() throws IOException {
+            while (in.ready()) {
+                String line = in.readLine();
+                if (line == null) throw new IOException("connection closed");
+                ReplicationMessage m = mapper.readValue(line, ReplicationMessage.class);
+                if (ReplicationMessage.ACK.equals(m.type())) {
+                    ackedLsn = m.lsn();
+                    lastAck = System.currentTimeMillis();
+                }
+            }
+        }
+
+        private void close() {
+            try {
+                socket.close();
+            } catch (IOException ignored) {
+            }
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package id.univ.uaspbo.replication;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import id.univ.uaspbo.model.ReplicationStatus;
+import id.univ.uaspbo.repository.StorageFormat;
+import id.univ.uaspbo.service.OutletService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+
+/**
+ * Service replikasi transaksi dan produk ke instance follower untuk membagi beban baca.
+ * Peran instance diatur lewat uas.replication.role:
+ * - standalone (bawaan): tidak ada replikasi.
+ * - primary: semua transaksi yang tercatat dan perubahan produk setiap outlet dicatat ke log
+ *   replikasi dan dialirkan ke follower lewat socket TCP pada uas.replication.port.
+ * - follower: menyambung ke uas.replication.primary-host:uas.replication.port dan menerapkan
+ *   perubahan dari primary ke memorinya sendiri. Follower melayani halaman admin, laporan, dan
+ *   riwayat transaksi, tetapi menolak checkout, keranjang, dan perubahan produk (ReadOnlyGuard).
+ *
+ * Pencatatan ke log dipasang saat service dibuat, sebelum data default dibuat, sedangkan socket
+ * baru dibuka setelah semua data dimuat (ApplicationReadyEvent).
+ *
+ * Konsep OOP yang digunakan:
+ * - Komposisi: Memakai ReplicationPrimary atau ReplicationFollower sesuai peran instance.
+ * - Enkapsulasi: Kedua sisi replikasi hanya dapat diakses lewat status dan peran service ini.
+ */
+@Service
+public class ReplicationService {
+    public static final String STANDALONE = "standalone";
+    public static final String PRIMARY = "primary";
+    public static final String FOLLOWER = "follower";
+
+    @Value("${uas.replication.role:standalone}")
+    private String role;             // Peran instance: standalone, primary, atau follower
+
+    @Value("${uas.replication.port:7070}")
+    private int port;                // Port socket replikasi primary
+
+    @Value("${uas.replication.bind-address:127.0.0.1}")
+    private String bindAddress;      // Alamat listen socket replikasi (primary)
+
+    @Value("${uas.replication.primary-host:127.0.0.1}")
+    private String primaryHost;      // Alamat primary (follower)
+
+    @Value("${uas.replication.log-capacity:100000}")
+    private int logCapacity;         // Jumlah entri terbaru yang disimpan di log replikasi (primary)
+
+    private final OutletService outlets;
+    private final ObjectMapper mapper = StorageFormat.COMPACT_JSON.newMapper();
+    private ReplicationPrimary primary;
+    private ReplicationFollower follower;
+
+    /**
+     * Konstruktor ReplicationService.
+     *
+     * @param outlets Outlet-outlet yang direplikasi
+     */
+    public ReplicationService(OutletService outlets) {
+        this.outlets = outlets;
+    }
+
+    /**
+     * Menyiapkan sisi replikasi sesuai peran; pada primary, pencatatan ke log langsung dipasang.
+     */
+    @PostConstruct
+    private void init() {
+        role = role.trim().toLowerCase();
+        switch (role) {
+            case PRIMARY -> {
+                primary = new ReplicationPrimary(outlets, mapper, bindAddress, port, logCapacity);
+                primary.capture();
+            }
+            case FOLLOWER -> follower = new ReplicationFollower(outlets, mapper, primaryHost, port);
+            case STANDALONE -> { }
+            default -> throw new IllegalStateException("Unknown uas.replication.role: " + role);
+        }
+    }
+
+    /**
+     * Membuka socket replikasi (primary) atau mulai menyambung ke primary (follower) setelah
+     * semua data selesai dimuat.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        try {
+            if (primary != null) primary.start();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open replication port " + port, e);
+        }
+        if (follower != null) follower.start();
+    }
+
+    /**
+     * Menutup socket dan koneksi replikasi saat aplikasi dihentikan.
+     */
+    @PreDestroy
+    private void stop() {
+        if (primary != null) primary.stop();
+        if (follower != null) follower.stop();
+    }
+
+    /**
+     * Mendapatkan peran instance ini ("standalone", "primary", atau "follower").
+     */
+    public String getRole() {
+        return role;
+    }
+
+    /**
+     * Mengecek apakah instance ini follower baca-saja.
+     */
+    public boolean isFollower() {
+        return follower != null;
+    }
+
+    /**
+     * Mengecek apakah replikasi aktif (primary atau follower).
+     */
+    public boolean isEnabled() {
+        return primary != null || follower != null;
+    }
+
+    /**
+     * Mendapatkan keadaan replikasi: log dan follower yang tersambung pada primary, atau posisi
+     * dan ketertinggalan pada follower.
+     */
+    public ReplicationStatus getStatus() {
+        if (primary != null) return primary.status();
+        if (follower != null) return follower.status();
+        return new ReplicationStatus(STANDALONE, null, null, false, 0, 0, 0, 0, 0, 0, -1, 0, 0, null, List.of());
+    }
+
+    /**
+     * Mendapatkan alamat replikasi primary yang diikuti follower, untuk pesan baca-saja.
+     */
+    public String getPrimaryAddress() {
+        return primaryHost + ":" + port;
+    }
+}
@@ -0,0 +1,243 @@
+package id.univ.uaspbo.repository;
+
+import id.univ.uaspbo.model.CorruptRecord;
+import id.univ.uaspbo.model.Transaction;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Segmen arsip transaksi terkompresi untuk bulan-bulan lama yang jarang dibaca.
+ * Transaksi dibagi menjadi blok berisi BLOCK_SIZE transaksi dengan urutan asli segmen tetap
+ * dipertahankan; setiap blok dikodekan dengan SnapshotCodecs.TRANSACTION dan dikompresi dengan Deflater.
+ *
+ * Format file: MAGIC, VERSION, jumlah transaksi, jumlah blok, lalu indeks blok
+ * (offset, panjang terkompresi, panjang asli, jumlah transaksi, timestamp awal dan akhir),
+ * kemudian isi blok-blok. Indeks di bagian awal file kecil sehingga query rentang waktu
+ * cukup membaca indeks lalu mendekompresi hanya blok yang beririsan dengan rentang tersebut.
+ * Karena blok didekompresi terpisah, blok yang rusak dapat dilewati (scan) tanpa kehilangan blok lain.
+ */
+public final class ArchiveSegment {
+    private static final int MAGIC = 0x55415243;  // "UARC"
+    private static final int VERSION = 1;
+    private static final int BLOCK_SIZE = 4096;   // Jumlah transaksi per blok
+    private static final int INDEX_ENTRY_BYTES = 8 + 4 + 4 + 4 + 12 + 12;
+
+    private ArchiveSegment() {}
+
+    /**
+     * Menulis transaksi ke file arsip (lewat file sementara lalu dipindahkan secara atomik).
+     */
+    public static void write(File file, List<Transaction> transactions) {
+        List<byte[]> blocks = new ArrayList<>();
+        List<int[]> sizes = new ArrayList<>();  // {panjang asli, jumlah transaksi}
+        List<LocalDateTime[]> ranges = new ArrayList<>();
+        Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+        try {
+            for (int from = 0; from < transactions.size(); from += BLOCK_SIZE) {
+                List<Transaction> chunk = transactions.subList(from, Math.min(transactions.size(), from + BLOCK_SIZE));
+                byte[] raw = encode(chunk);
+                blocks.add(deflate(deflater, raw));
+                sizes.add(new int[]{raw.length, chunk.size()});
+                ranges.add(timeRange(chunk));
+            }
+        } finally {
+            deflater.end();
+        }
+        File tmp = new File(file.getPath() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tmp)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(transactions.size());
+            out.writeInt(blocks.size());
+            long offset = 16L + (long) blocks.size() * INDEX_ENTRY_BYTES;
+            for (int i = 0; i < blocks.size(); i++) {
+                out.writeLong(offset);
+                out.writeInt(blocks.get(i).length);
+                out.writeInt(sizes.get(i)[0]);
+                out.writeInt(sizes.get(i)[1]);
+                writeTime(out, ranges.get(i)[0]);
+                writeTime(out, ranges.get(i)[1]);
+                offset += blocks.get(i).length;
+            }
+            for (byte[] block : blocks) out.write(block);
+        } catch (IOException e) {
+            tmp.delete();
+            throw new UncheckedIOException(e);
+        }
+        try {
+            Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Membaca seluruh transaksi dari file arsip.
+     */
+    public static List<Transaction> read(File file) {
+        return read(file, null, null);
+    }
+
+    /**
+     * Membaca transaksi dari blok-blok yang beririsan dengan rentang [from, to).
+     * Hasil dapat memuat transaksi di luar rentang pada blok tepi; pemanggil tetap menyaringnya.
+     *
+     * @param from Batas bawah inklusif, null berarti tanpa batas
+     * @param to Batas atas eksklusif, null berarti tanpa batas
+     */
+    public static List<Transaction> read(File file, LocalDateTime from, LocalDateTime to) {
+        return readBlocks(file, from, to, null);
+    }
+
+    /**
+     * Membaca seluruh transaksi dari file arsip sambil memeriksa setiap blok. Blok yang gagal
+     * didekompresi atau didekode dilewati dan dicatat beserta offset-nya; urutan record pada
+     * catatan adalah urutan transaksi pertama blok tersebut.
+     *
+     * @param corrupt Daftar tempat blok rusak ditambahkan
+     * @return Transaksi dari blok-blok yang utuh
+     */
+    public static List<Transaction> scan(File file, List<CorruptRecord> corrupt) {
+        return readBlocks(file, null, null, corrupt);
+    }
+
+    /**
+     * Membaca blok-blok yang beririsan dengan rentang. Jika corrupt null, kerusakan apa pun
+     * menggagalkan pembacaan; jika tidak, blok rusak dilewati dan dicatat.
+     */
+    private static List<Transaction> readBlocks(File file, LocalDateTime from, LocalDateTime to, List<CorruptRecord> corrupt) {
+        try (FileChannel ch = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            ByteBuffer head = readFully(ch, 0, 16);
+            if (head.getInt() != MAGIC || head.getInt() != VERSION) throw new IOException("Bukan file arsip transaksi: " + file);
+            int total = head.getInt();
+            int blockCount = head.getInt();
+            ByteBuffer index = readFully(ch, 16, blockCount * INDEX_ENTRY_BYTES);
+            List<Transaction> result = new ArrayList<>(from == null && to == null ? total : 0);
+            Inflater inflater = new Inflater();
+            try {
+                for (int i = 0, first = 0; i < blockCount; i++) {
+                    long offset = index.getLong();
+                    int compressed = index.getInt();
+                    int rawLength = index.getInt();
+                    int count = index.getInt();  // jumlah transaksi dalam blok
+                    LocalDateTime min = readTime(index);
+                    LocalDateTime max = readTime(index);
+                    first += count;
+                    if (from != null && max != null && max.isBefore(from)) continue;
+                    if (to != null && min != null && !min.isBefore(to)) continue;
+                    int before = result.size();
+                    try {
+                        byte[] raw = inflate(inflater, readFully(ch, offset, compressed), rawLength);
+                        decode(raw, result);
+                        if (result.size() - before != count) throw new IOException("jumlah transaksi " + (result.size() - before) + ", indeks " + count);
+                    } catch (IOException | DataFormatException | RuntimeException e) {
+                        if (corrupt == null) throw new IllegalStateException("Gagal membaca arsip " + file + ": " + e.getMessage(), e);
+                        result.subList(before, result.size()).clear();
+                        corrupt.add(new CorruptRecord(file.getPath(), offset, first - count, "Blok " + i + " (" + count + " transaksi) rusak: " + e.getMessage()));
+                    }
+                }
+            } finally {
+                inflater.end();
+            }
+            return result;
+        } catch (IOException | RuntimeException e) {
+            if (corrupt == null && e instanceof IllegalStateException failed) throw failed;
+            if (corrupt == null) throw new IllegalStateException("Gagal membaca arsip " + file + ": " + e.getMessage(), e);
+            corrupt.add(new CorruptRecord(file.getPath(), 0, -1, "Header atau indeks arsip rusak: " + e.getMessage()));
+            return new ArrayList<>();
+        }
+    }
+
+    private static LocalDateTime[] timeRange(List<Transaction> chunk) {
+        LocalDateTime min = null;
+        LocalDateTime max = null;
+        for (Transaction t : chunk) {
+            LocalDateTime ts = t.getTimestamp();
+            if (ts == null) continue;
+            if (min == null || ts.isBefore(min)) min = ts;
+            if (max == null || ts.isAfter(max)) max = ts;
+        }
+        return new LocalDateTime[]{min, max};
+    }
+
+    private static byte[] encode(List<Transaction> chunk) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(chunk.size() * 64);
+        try (SnapshotFile.Output out = new SnapshotFile.Output(bytes)) {
+            out.writeInt(chunk.size());
+            for (Transaction t : chunk) SnapshotCodecs.TRANSACTION.write(out, t);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static void decode(byte[] raw, List<Transaction> into) {
+        SnapshotFile.Input in = new SnapshotFile.Input(ByteBuffer.wrap(raw));
+        int n = in.readInt();
+        for (int i = 0; i < n; i++) into.add(SnapshotCodecs.TRANSACTION.read(in));
+    }
+
+    private static byte[] deflate(Deflater deflater, byte[] raw) {
+        deflater.reset();
+        deflater.setInput(raw);
+        deflater.finish();
+        ByteArrayOutputStream out = new ByteArrayOutputStream(raw.length / 4 + 64);
+        byte[] buf = new byte[64 * 1024];
+        while (!deflater.finished()) {
+            int n = deflater.deflate(buf);
+            out.write(buf, 0, n);
+        }
+        return out.toByteArray();
+    }
+
+    private static byte[] inflate(Inflater inflater, ByteBuffer compressed, int rawLength) throws DataFormatException {
+        inflater.reset();
+        inflater.setInput(compressed);
+        byte[] raw = new byte[rawLength];
+        int n = 0;
+        while (n < rawLength && !inflater.finished()) {
+            int read = inflater.inflate(raw, n, rawLength - n);
+            if (read == 0 && (inflater.needsInput() || inflater.needsDictionary())) throw new DataFormatException("blok terpotong");
+            n += read;
+        }
+        if (n != rawLength) throw new DataFormatException("panjang blok " + n + ", indeks " + rawLength);
+        return raw;
+    }
+
+    private static ByteBuffer readFully(FileChannel ch, long position, int length) throws IOException {
+        ByteBuffer buf = ByteBuffer.allocate(length);
+        while (buf.hasRemaining()) {
+            if (ch.read(buf, position + buf.position()) < 0) throw new IOException("File arsip terpotong");
+        }
+        return buf.flip();
+    }
+
+    private static void writeTime(DataOutputStream out, LocalDateTime ts) throws IOException {
+        out.writeLong(ts == null ? Long.MIN_VALUE : ts.toEpochSecond(ZoneOffset.UTC));
+        out.writeInt(ts == null ? 0 : ts.getNano());
+    }
+
+    private static LocalDateTime readTime(ByteBuffer buf) {
+        long seconds = buf.getLong();
+        int nanos = buf.getInt();
+        return seconds == Long.MIN_VALUE ? null : LocalDateTime.ofEpochSecond(seconds, nanos, ZoneOffset.UTC);
+    }
+}
@@ -0,0 +1,138 @@
+package id.univ.uaspbo.repository;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PreDestroy;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
+import static java.nio.file.StandardWatchEventKinds.OVERFLOW;
+
+/**
+ * Pengamat direktori data yang memberi tahu service ketika file data diubah, misalnya oleh
+ * instance aplikasi lain yang memakai direktori data yang sama. Satu WatchService dan satu
+ * thread latar dipakai untuk semua file yang didaftarkan.
+ *
+ * Penulisan file dilakukan lewat file sementara lalu dipindahkan secara atomik, sehingga
+ * yang teramati bisa berupa ENTRY_CREATE maupun ENTRY_MODIFY; keduanya ditangani sama.
+ * Event yang datang beruntun dikumpulkan sebentar (debounce) agar satu penulisan hanya
+ * memicu satu kali pemuatan ulang. Pemberitahuan juga terjadi untuk penulisan oleh proses
+ * ini sendiri; pemanggil memakai version dan hash isi untuk mengabaikannya. Jika antrean event
+ * sistem operasi meluap (OVERFLOW), semua pendengar di direktori itu dipanggil karena file yang
+ * berubah tidak lagi diketahui.
+ *
+ * Pengamatan dapat dimatikan dengan properti uas.data.watch=false.
+ */
+@Component
+public class DataWatcher {
+    private static final long DEBOUNCE_MS = 100;  // Jeda pengumpulan event beruntun
+
+    private final boolean enabled;
+    private final Map<Path, Map<String, List<Runnable>>> listeners = new ConcurrentHashMap<>();  // Direktori -> nama file -> callback
+    private WatchService watcher;  // Dibuat saat file pertama didaftarkan
+    private Thread thread;
+
+    /**
+     * Konstruktor DataWatcher.
+     *
+     * @param enabled Nilai properti uas.data.watch
+     */
+    public DataWatcher(@Value("${uas.data.watch:true}") boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * Mendaftarkan callback yang dipanggil setiap kali file berubah.
+     * Direktori induk file dibuat jika belum ada agar dapat diamati.
+     */
+    public synchronized void register(File file, Runnable onChange) {
+        if (!enabled) return;
+        try {
+            Path dir = file.getAbsoluteFile().getParentFile().toPath();
+            dir.toFile().mkdirs();
+            if (watcher == null) start();
+            Map<String, List<Runnable>> byName = listeners.get(dir);
+            if (byName == null) {
+                dir.register(watcher, ENTRY_CREATE, ENTRY_MODIFY);
+                byName = new ConcurrentHashMap<>();
+                listeners.put(dir, byName);
+            }
+            byName.computeIfAbsent(file.getName(), k -> new CopyOnWriteArrayList<>()).add(onChange);
+        } catch (IOException e) {
+            System.err.println("Gagal mengamati " + file + ": " + e.getMessage());
+        }
+    }
+
+    private void start() throws IOException {
+        watcher = FileSystems.getDefault().newWatchService();
+        thread = new Thread(this::run, "data-watcher");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Loop thread pengamat: mengumpulkan nama file yang berubah lalu memanggil callback-nya.
+     */
+    private void run() {
+        try {
+            while (true) {
+                Set<Runnable> pending = new LinkedHashSet<>();
+                collect(watcher.take(), pending);
+                Thread.sleep(DEBOUNCE_MS);
+                for (WatchKey key; (key = watcher.poll()) != null; ) collect(key, pending);
+                for (Runnable r : pending) {
+                    try {
+                        r.run();
+                    } catch (RuntimeException e) {
+                        e.printStackTrace();
+                    }
+                }
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            // aplikasi dihentikan
+        }
+    }
+
+    private void collect(WatchKey key, Set<Runnable> pending) {
+        Map<String, List<Runnable>> byName = listeners.get((Path) key.watchable());
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (byName == null) continue;
+            if (event.kind() == OVERFLOW) {
+                // Sebagian event hilang dan nama filenya tidak diketahui: periksa semua file di direktori ini
+                byName.values().forEach(pending::addAll);
+            } else if (event.context() instanceof Path name) {
+                List<Runnable> callbacks = byName.get(name.toString());
+                if (callbacks != null) pending.addAll(callbacks);
+            }
+        }
+        key.reset();
+    }
+
+    /**
+     * Menghentikan pengamatan saat aplikasi dihentikan.
+     */
+    @PreDestroy
+    public synchronized void close() {
+        if (watcher == null) return;
+        try {
+            watcher.close();
+        } catch (IOException ignored) {
+        }
+        thread.interrupt();
+    }
+}
@@ -0,0 +1,67 @@
+package id.univ.uaspbo.repository;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Penguncian file data yang berlaku di dalam satu JVM maupun antar proses.
+ * Di dalam JVM dipakai ReentrantLock per path file; antar proses dipakai FileChannel.lock
+ * pada file pendamping &lt;nama&gt;.lock, sehingga dua instance aplikasi yang berbagi direktori
+ * data tidak saling menimpa siklus baca-ubah-tulis.
+ *
+ * Kunci bersifat reentrant: pemanggilan bersarang pada file yang sama oleh thread yang sama
+ * hanya mengambil kunci file sekali.
+ */
+public final class FileLocks {
+    private static final Map<String, ReentrantLock> LOCKS = new ConcurrentHashMap<>();  // Kunci per path absolut
+
+    private FileLocks() {}
+
+    /**
+     * Menjalankan aksi sambil memegang kunci eksklusif atas file data.
+     *
+     * @param file File data yang dikunci
+     * @param action Aksi yang dijalankan
+     * @return Hasil aksi
+     */
+    public static <R> R withLock(File file, Supplier<R> action) {
+        ReentrantLock lock = LOCKS.computeIfAbsent(file.getAbsolutePath(), p -> new ReentrantLock());
+        lock.lock();
+        try {
+            if (lock.getHoldCount() > 1) return action.get();
+            File lockFile = new File(file.getAbsolutePath() + ".lock");
+            File dir = lockFile.getParentFile();
+            if (dir != null && !dir.exists()) dir.mkdirs();
+            try (FileChannel ch = FileChannel.open(lockFile.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+                FileLock fileLock = ch.lock();
+                try {
+                    return action.get();
+                } finally {
+                    fileLock.release();
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Menjalankan aksi tanpa nilai kembali sambil memegang kunci eksklusif atas file data.
+     */
+    public static void withLock(File file, Runnable action) {
+        withLock(file, () -> {
+            action.run();
+            return null;
+        });
+    }
+}
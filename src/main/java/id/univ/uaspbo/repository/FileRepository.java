@@ -1,16 +1,58 @@
 package id.univ.uaspbo.repository;
 
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonLocation;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import id.univ.uaspbo.model.CorruptRecord;
+import id.univ.uaspbo.model.Entity;
+import id.univ.uaspbo.monitoring.RepositoryIoEvent;
 
 import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
 import java.util.ArrayList;
-import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
+import java.util.stream.Collectors;
 
 /**
  * Kelas repository generik yang menangani penyimpanan data berbasis file JSON.
  * Menyediakan operasi dasar untuk membaca dan menyimpan entitas yang disimpan dalam file JSON.
+ * Setiap operasi tulis (put, delete, putAll) membaca lalu menulis ulang seluruh file,
+ * sehingga backend ini cocok untuk data kecil yang perlu mudah dibaca manusia.
+ *
+ * File ditulis dalam bentuk {"version": n, "data": [...]}; version naik setiap kali file ditulis
+ * sehingga perubahan oleh proses lain dapat dikenali tanpa membandingkan isi. File lama yang
+ * berupa array JSON biasa tetap dapat dibaca (dianggap version 0). Penulisan dilakukan ke file
+ * sementara lalu dipindahkan secara atomik di bawah kunci FileLocks, sehingga pembaca tidak
+ * pernah melihat file setengah jadi dan dua instance tidak saling menimpa.
+ *
+ * Format file dapat dipilih (StorageFormat): JSON ber-indentasi, JSON ringkas, Smile, atau CBOR.
+ * Format dikenali otomatis saat membaca, sehingga file dalam format lama tetap terbaca dan
+ * ditulis ulang dalam format yang dikonfigurasi pada penulisan berikutnya.
+ *
+ * Record yang rusak tidak membuat seluruh file terbaca kosong: record yang tidak dapat dipetakan
+ * dilewati, dan jika sintaks file rusak (misalnya file terpotong) record sebelum titik rusak tetap
+ * dikembalikan. Setiap record rusak dilaporkan beserta posisi byte-nya. Sebelum file yang memuat
+ * record rusak ditulis ulang, salinannya disimpan sebagai &lt;file&gt;.corrupt-&lt;waktu&gt;.
+ *
+ * Setiap pembacaan dan penulisan seluruh file direkam sebagai RepositoryIoEvent (Java Flight
+ * Recorder) beserta ukuran file dan jumlah entitasnya.
  *
  * @param <T> Tipe entitas yang akan disimpan atau diambil dari file
  *
@@ -18,35 +60,346 @@ import java.util.List;
  * - Generic: Menggunakan tipe parameter generik agar dapat digunakan untuk berbagai tipe entitas.
  * - Exception Handling: Menangani exception menggunakan try-catch pada operasi baca dan simpan file.
  * - Collection: Menggunakan ArrayList dan List untuk penyimpanan sementara data entitas.
+ * - Implementasi Interface: Mengimplementasikan Repository sebagai backend file JSON.
  */
-public class FileRepository<T> {
+public class FileRepository<T> implements Repository<T> {
+    private static final String VERSION_FIELD = "version";
+    private static final String DATA_FIELD = "data";
+
     private final File file;  // File penyimpanan data JSON
     private final Class<T[]> type;  // Kelas array tipe entitas untuk deserialisasi JSON
-    private final ObjectMapper mapper = new ObjectMapper();  // Mapper JSON dari Jackson
+    private final StorageFormat format;  // Format yang dipakai saat menulis
+    private final ObjectMapper mapper;   // Mapper Jackson untuk format tulis
+    private final Map<StorageFormat, ObjectMapper> readers = new EnumMap<>(StorageFormat.class);  // Mapper per format baca
+    private final Function<T, String> idOf;  // Pengambil ID entitas, null jika tipe tidak memiliki ID
+
+    private Map<String, Integer> seenHashes;  // Hash isi setiap entitas yang sudah diketahui pemanggil, null sebelum pollChanges pertama
+    private long seenVersion = -1;            // Version file saat pollChanges terakhir
 
     /**
      * Konstruktor untuk FileRepository.
+     * Jika tipe entitas turunan Entity, ID diambil dari getId().
      * @param path Path file tempat penyimpanan data
      * @param type Tipe kelas array untuk deserialisasi JSON
      */
     public FileRepository(String path, Class<T[]> type) {
+        this(path, type, Entity.class.isAssignableFrom(type.getComponentType()) ? t -> ((Entity) t).getId() : null);
+    }
+
+    /**
+     * Konstruktor untuk FileRepository dengan pengambil ID tertentu.
+     * @param path Path file tempat penyimpanan data
+     * @param type Tipe kelas array untuk deserialisasi JSON
+     * @param idOf Fungsi untuk mengambil ID entitas
+     */
+    public FileRepository(String path, Class<T[]> type, Function<T, String> idOf) {
+        this(path, type, idOf, StorageFormat.JSON);
+    }
+
+    /**
+     * Konstruktor untuk FileRepository dengan format penyimpanan tertentu.
+     * @param path Path file tempat penyimpanan data
+     * @param type Tipe kelas array untuk deserialisasi
+     * @param idOf Fungsi untuk mengambil ID entitas, boleh null
+     * @param format Format yang dipakai saat menulis file
+     */
+    public FileRepository(String path, Class<T[]> type, Function<T, String> idOf, StorageFormat format) {
         this.file = new File(path);
         this.type = type;
-        mapper.findAndRegisterModules();
-        mapper.enable(SerializationFeature.INDENT_OUTPUT);
+        this.idOf = idOf;
+        this.format = format;
+        this.mapper = format.newMapper();
+    }
+
+    /**
+     * Mencari entitas berdasarkan ID dengan membaca seluruh file.
+     */
+    @Override
+    public T get(String id) {
+        for (T entity : readAll()) {
+            if (id.equals(id(entity))) return entity;
+        }
+        return null;
+    }
+
+    /**
+     * Mendapatkan entitas pada rentang ID [fromId, toId), terurut berdasarkan ID.
+     */
+    @Override
+    public List<T> scan(String fromId, String toId) {
+        List<T> result = new ArrayList<>();
+        for (T entity : readAll()) {
+            String id = id(entity);
+            if ((fromId == null || id.compareTo(fromId) >= 0) && (toId == null || id.compareTo(toId) < 0)) result.add(entity);
+        }
+        result.sort(Comparator.comparing(this::id));
+        return result;
+    }
+
+    /**
+     * Menyimpan satu entitas, menimpa entitas lama dengan ID yang sama.
+     */
+    @Override
+    public void put(T entity) {
+        putAll(List.of(entity));
+    }
+
+    /**
+     * Menyimpan banyak entitas dengan satu kali baca dan satu kali tulis file.
+     * Entitas lain di file (termasuk yang ditulis proses lain) tetap dipertahankan.
+     */
+    @Override
+    public void putAll(List<T> entities) {
+        FileLocks.withLock(file, () -> {
+            Map<String, T> byId = entities.stream().collect(Collectors.toMap(this::id, e -> e, (a, b) -> b));
+            List<T> all = readForWrite();
+            for (int i = 0; i < all.size(); i++) {
+                T replacement = byId.remove(id(all.get(i)));
+                if (replacement != null) all.set(i, replacement);
+            }
+            for (T entity : entities) {
+                if (byId.remove(id(entity)) != null) all.add(entity);
+            }
+            write(all);
+            markSeen(entities);
+        });
+    }
+
+    /**
+     * Memperbarui entitas-entitas dengan ID tertentu berdasarkan isi file terkini,
+     * dalam satu kali baca dan tulis di bawah kunci file.
+     */
+    @Override
+    public List<T> updateAll(Collection<String> ids, UnaryOperator<T> fn) {
+        return FileLocks.withLock(file, () -> {
+            Set<String> wanted = new HashSet<>(ids);
+            List<T> all = readForWrite();
+            List<T> updated = new ArrayList<>();
+            for (int i = 0; i < all.size(); i++) {
+                if (!wanted.contains(id(all.get(i)))) continue;
+                T value = fn.apply(all.get(i));
+                all.set(i, value);
+                updated.add(value);
+            }
+            if (!updated.isEmpty()) {
+                write(all);
+                markSeen(updated);
+            }
+            return updated;
+        });
+    }
+
+    /**
+     * Menghapus entitas berdasarkan ID.
+     */
+    @Override
+    public void delete(String id) {
+        FileLocks.withLock(file, () -> {
+            List<T> all = readForWrite();
+            if (all.removeIf(entity -> id.equals(id(entity)))) write(all);
+            synchronized (this) {
+                if (seenHashes != null) seenHashes.remove(id);
+            }
+        });
+    }
+
+    /**
+     * Mendapatkan file JSON sebagai sumber validasi snapshot.
+     */
+    @Override
+    public List<File> files() {
+        return List.of(file);
+    }
+
+    /**
+     * Mencari perubahan isi file yang belum diketahui pemanggil, misalnya karena ditulis proses lain.
+     * Perubahan dikenali dari version file, lalu dibandingkan per entitas melalui hash isinya
+     * sehingga hanya entitas yang benar-benar berubah yang dikembalikan.
+     * Pada pemanggilan pertama seluruh entitas dianggap berubah.
+     */
+    @Override
+    public synchronized Changes<T> pollChanges() {
+        if (idOf == null) return null;
+        long version = readVersion();
+        if (version == seenVersion && seenHashes != null) return null;
+        try {
+            JsonNode root = file.exists() ? reader().readTree(file) : mapper.createArrayNode();
+            JsonNode data = root.isArray() ? root : root.path(DATA_FIELD);
+            Map<String, Integer> hashes = new HashMap<>();
+            List<T> changed = new ArrayList<>();
+            for (JsonNode node : data) {
+                T entity = mapper.treeToValue(node, elementType());
+                String id = id(entity);
+                int hash = node.hashCode();
+                hashes.put(id, hash);
+                Integer old = seenHashes != null ? seenHashes.get(id) : null;
+                if (old == null || old != hash) changed.add(entity);
+            }
+            List<String> removed = new ArrayList<>();
+            if (seenHashes != null) {
+                for (String id : seenHashes.keySet()) {
+                    if (!hashes.containsKey(id)) removed.add(id);
+                }
+            }
+            seenHashes = hashes;
+            seenVersion = version;
+            return changed.isEmpty() && removed.isEmpty() ? null : new Changes<>(version, changed, removed);
+        } catch (IOException e) {
+            e.printStackTrace();
+            return null;
+        }
+    }
+
+    /**
+     * Mencatat entitas yang ditulis oleh proses ini sebagai sudah diketahui,
+     * agar tidak dilaporkan ulang oleh pollChanges.
+     */
+    private synchronized void markSeen(Collection<T> entities) {
+        if (seenHashes == null) return;
+        for (T entity : entities) seenHashes.put(id(entity), mapper.valueToTree(entity).hashCode());
+    }
+
+    /**
+     * Mendapatkan mapper untuk membaca file sesuai format yang terdeteksi dari isinya.
+     */
+    private synchronized ObjectMapper reader() {
+        StorageFormat detected = StorageFormat.detect(file);
+        if (detected == null || detected == format || (detected == StorageFormat.JSON && format == StorageFormat.COMPACT_JSON)) return mapper;
+        return readers.computeIfAbsent(detected, StorageFormat::newMapper);
+    }
+
+    @SuppressWarnings("unchecked")
+    private Class<T> elementType() {
+        return (Class<T>) type.getComponentType();
+    }
+
+    private String id(T entity) {
+        if (idOf == null) throw new UnsupportedOperationException("Tipe " + type.getComponentType().getSimpleName() + " tidak memiliki ID");
+        return idOf.apply(entity);
     }
 
     /**
-     * Membaca semua entitas dari file JSON.
+     * Membaca semua entitas dari file. Record rusak dilewati dan dicetak ke log beserta posisinya.
      */
+    @Override
     public List<T> readAll() {
+        List<CorruptRecord> corrupt = new ArrayList<>();
+        List<T> result = readAll(corrupt);
+        for (CorruptRecord c : corrupt) System.out.println("Record rusak dilewati: " + c);
+        return result;
+    }
+
+    /**
+     * Membaca semua entitas yang dapat dibaca dari file dan mencatat record yang rusak.
+     * Record yang tidak dapat dipetakan ke tipe entitas dilewati lalu pembacaan dilanjutkan ke
+     * record berikutnya; jika sintaks file rusak, pembacaan berhenti di titik tersebut.
+     *
+     * @param corrupt Daftar tempat record rusak ditambahkan
+     * @return Entitas yang berhasil dibaca, sesuai urutan di file
+     */
+    public List<T> readAll(List<CorruptRecord> corrupt) {
+        List<T> result = new ArrayList<>();
+        if (!file.exists()) return result;
+        RepositoryIoEvent event = new RepositoryIoEvent();
+        event.begin();
+        int corruptBefore = corrupt.size();
+        ObjectMapper reader = reader();
+        int index = 0;
+        try (JsonParser p = reader.getFactory().createParser(file)) {
+            JsonToken token = p.nextToken();
+            if (token == null) return result;
+            if (token != JsonToken.START_ARRAY && !seekData(p)) return result;
+            int depth = p.getParsingContext().getNestingDepth();
+            while ((token = p.nextToken()) != JsonToken.END_ARRAY) {
+                if (token == null) {
+                    corrupt.add(new CorruptRecord(file.getPath(), offset(p.getCurrentLocation()), index, "File berakhir sebelum akhir daftar data (terpotong)"));
+                    break;
+                }
+                long offset = offset(p.getTokenLocation());
+                try {
+                    result.add(reader.readValue(p, elementType()));
+                } catch (JsonMappingException e) {
+                    // kesalahan sintaks di dalam record (misalnya file terpotong) menghentikan pembacaan
+                    if (e.getCause() instanceof JsonProcessingException syntax) throw syntax;
+                    corrupt.add(new CorruptRecord(file.getPath(), offset, index, e.getOriginalMessage()));
+                    // melewati sisa record yang gagal dipetakan sampai kembali ke tingkat daftar data
+                    while (p.getParsingContext().getNestingDepth() > depth && p.nextToken() != null) {}
+                }
+                index++;
+            }
+        } catch (JsonProcessingException e) {
+            corrupt.add(new CorruptRecord(file.getPath(), offset(e.getLocation()), index, "Sintaks rusak: " + e.getOriginalMessage()));
+        } catch (IOException e) {
+            corrupt.add(new CorruptRecord(file.getPath(), -1, index, "Gagal membaca file: " + e.getMessage()));
+        }
+        event.end();
+        if (event.shouldCommit()) {
+            event.operation = "read";
+            event.file = file.getPath();
+            event.bytes = file.length();
+            event.entities = result.size();
+            event.corrupt = corrupt.size() - corruptBefore;
+            event.commit();
+        }
+        return result;
+    }
+
+    /**
+     * Memajukan parser dari awal objek {"version": n, "data": [...]} sampai awal daftar data.
+     *
+     * @return true jika daftar data ditemukan
+     */
+    private static boolean seekData(JsonParser p) throws IOException {
+        if (p.currentToken() != JsonToken.START_OBJECT) throw new JsonMappingException(p, "Isi file bukan array atau objek data");
+        while (p.nextToken() == JsonToken.FIELD_NAME) {
+            String field = p.getCurrentName();
+            JsonToken value = p.nextToken();
+            if (DATA_FIELD.equals(field) && value == JsonToken.START_ARRAY) return true;
+            p.skipChildren();
+        }
+        return false;
+    }
+
+    private static long offset(JsonLocation location) {
+        if (location == null) return -1;
+        return location.getByteOffset() >= 0 ? location.getByteOffset() : location.getCharOffset();
+    }
+
+    /**
+     * Membaca isi file untuk ditulis ulang. Jika ada record rusak, salinan file disimpan lebih dulu
+     * agar record yang tidak terbaca tidak hilang begitu saja saat file ditimpa.
+     * Harus dipanggil sambil memegang kunci file.
+     */
+    private List<T> readForWrite() {
+        List<CorruptRecord> corrupt = new ArrayList<>();
+        List<T> all = readAll(corrupt);
+        if (corrupt.isEmpty()) return all;
+        File backup = new File(file.getPath() + ".corrupt-" + System.currentTimeMillis());
         try {
-            if (!file.exists()) return new ArrayList<>();
-            T[] arr = mapper.readValue(file, type);
-            return new ArrayList<>(Arrays.asList(arr));
-        } catch (Exception e) {
+            Files.copy(file.toPath(), backup.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            System.out.println(corrupt.size() + " record rusak pada " + file + ", salinan file disimpan di " + backup);
+        } catch (IOException e) {
             e.printStackTrace();
-            return new ArrayList<>();
+        }
+        return all;
+    }
+
+    /**
+     * Membaca version file tanpa membaca isi data; 0 untuk file array lama, -1 jika file tidak ada.
+     */
+    public long readVersion() {
+        if (!file.exists()) return -1;
+        try (JsonParser p = reader().getFactory().createParser(file)) {
+            if (p.nextToken() != JsonToken.START_OBJECT) return 0;
+            while (p.nextToken() == JsonToken.FIELD_NAME) {
+                String field = p.getCurrentName();
+                p.nextToken();
+                if (VERSION_FIELD.equals(field)) return p.getLongValue();
+                p.skipChildren();
+            }
+            return 0;
+        } catch (IOException e) {
+            return -1;
         }
     }
 
@@ -55,14 +408,51 @@ public class FileRepository<T> {
      *
      * @param list Daftar entitas yang akan disimpan
      */
+    @Override
     public void saveAll(List<T> list) {
+        FileLocks.withLock(file, () -> {
+            write(list);
+            synchronized (this) {
+                if (seenHashes != null) {
+                    seenHashes.clear();
+                    markSeen(list);
+                }
+            }
+        });
+    }
+
+    /**
+     * Menulis daftar entitas dengan version berikutnya ke file sementara lalu memindahkannya
+     * secara atomik. Harus dipanggil sambil memegang kunci file.
+     */
+    private void write(List<T> list) {
+        RepositoryIoEvent event = new RepositoryIoEvent();
+        event.begin();
         try {
             // memastikan direktori induk file tersedia
             File p = file.getAbsoluteFile().getParentFile();
             if (p != null && !p.exists()) p.mkdirs();
-            mapper.writeValue(file, list.toArray((T[]) java.lang.reflect.Array.newInstance(type.getComponentType(), list.size())));
+            long version = Math.max(0, readVersion()) + 1;
+            File tmp = new File(file.getPath() + ".tmp");
+            try (JsonGenerator g = mapper.getFactory().createGenerator(tmp, JsonEncoding.UTF8)) {
+                if (format.pretty()) g.useDefaultPrettyPrinter();
+                g.writeStartObject();
+                g.writeNumberField(VERSION_FIELD, version);
+                g.writeFieldName(DATA_FIELD);
+                mapper.writeValue(g, list);
+                g.writeEndObject();
+            }
+            Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
         } catch (Exception e) {
             e.printStackTrace();
         }
+        event.end();
+        if (event.shouldCommit()) {
+            event.operation = "write";
+            event.file = file.getPath();
+            event.bytes = file.length();
+            event.entities = list.size();
+            event.commit();
+        }
     }
 }
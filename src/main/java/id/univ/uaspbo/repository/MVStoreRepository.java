@@ -0,0 +1,134 @@
+package id.univ.uaspbo.repository;
+
+import org.h2.mvstore.Cursor;
+import org.h2.mvstore.MVMap;
+import org.h2.mvstore.MVStore;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Repository yang menyimpan entitas pada file MVStore (mesin key-value B-tree tertanam dari H2).
+ * Setiap entitas disimpan sebagai satu entri dengan ID sebagai kunci dan nilai biner hasil
+ * SnapshotCodec. Pencarian dan perubahan satu entitas hanya menyentuh O(log n) halaman B-tree,
+ * bukan menulis ulang seluruh file seperti FileRepository.
+ *
+ * Jika map masih kosong saat dibuka dan data lama tersedia, isinya diimpor sekali
+ * sehingga backend dapat diganti tanpa kehilangan data.
+ *
+ * Versi format codec (SnapshotFile.VERSION) dicatat pada map "meta". File yang ditulis dengan
+ * format lain tidak dapat dibaca dengan benar, sehingga pembukaan ditolak alih-alih
+ * menghasilkan data rusak.
+ *
+ * @param <T> Tipe entitas yang disimpan
+ *
+ * Konsep OOP yang digunakan:
+ * - Implementasi Interface: Mengimplementasikan Repository sebagai backend MVStore.
+ * - Komposisi: Pengodean nilai didelegasikan ke SnapshotCodec.
+ */
+public class MVStoreRepository<T> implements Repository<T> {
+    private final MVStore store;                 // File MVStore
+    private static final String FORMAT_KEY = "format";
+
+    private final MVMap<String, byte[]> map;     // Map ID ke entitas terkode
+    private final SnapshotCodec<T> codec;        // Codec biner entitas
+    private final Function<T, String> idOf;      // Pengambil ID entitas
+
+    /**
+     * Konstruktor MVStoreRepository.
+     *
+     * @param path Path file MVStore
+     * @param codec Codec biner entitas
+     * @param idOf Fungsi untuk mengambil ID entitas
+     * @param legacy Pembaca data lama yang isinya diimpor jika map masih kosong, boleh null;
+     *               hanya dipanggil saat impor diperlukan dan tidak boleh mengubah data lama
+     */
+    public MVStoreRepository(String path, SnapshotCodec<T> codec, Function<T, String> idOf, Supplier<List<T>> legacy) {
+        File parent = new File(path).getAbsoluteFile().getParentFile();
+        if (parent != null && !parent.exists()) parent.mkdirs();
+        this.store = new MVStore.Builder().fileName(path).open();
+        this.map = store.openMap("entities");
+        this.codec = codec;
+        this.idOf = idOf;
+        MVMap<String, Integer> meta = store.openMap("meta");
+        Integer format = meta.get(FORMAT_KEY);
+        if (!map.isEmpty() && (format == null || format != SnapshotFile.VERSION)) {
+            store.close();
+            throw new IllegalStateException("Format " + path + " (" + format + ") berbeda dengan format codec ("
+                    + SnapshotFile.VERSION + "); hapus file tersebut agar data diimpor ulang");
+        }
+        meta.put(FORMAT_KEY, SnapshotFile.VERSION);
+        if (map.isEmpty() && legacy != null) {
+            List<T> imported = legacy.get();
+            if (!imported.isEmpty()) {
+                putAll(imported);
+                System.out.println("Imported " + imported.size() + " records into " + path);
+            }
+        }
+    }
+
+    @Override
+    public T get(String id) {
+        byte[] value = map.get(id);
+        return value == null ? null : decode(value);
+    }
+
+    @Override
+    public List<T> scan(String fromId, String toId) {
+        List<T> result = new ArrayList<>();
+        Cursor<String, byte[]> cursor = map.cursor(fromId);
+        while (cursor.hasNext()) {
+            String key = cursor.next();
+            if (toId != null && key.compareTo(toId) >= 0) break;
+            result.add(decode(cursor.getValue()));
+        }
+        return result;
+    }
+
+    @Override
+    public List<T> readAll() {
+        return scan(null, null);
+    }
+
+    @Override
+    public void put(T entity) {
+        map.put(idOf.apply(entity), encode(entity));
+        store.commit();
+    }
+
+    /**
+     * Menyimpan banyak entitas lalu melakukan satu kali commit.
+     */
+    @Override
+    public void putAll(List<T> entities) {
+        for (T entity : entities) map.put(idOf.apply(entity), encode(entity));
+        store.commit();
+    }
+
+    @Override
+    public void delete(String id) {
+        if (map.remove(id) != null) store.commit();
+    }
+
+    @Override
+    public void saveAll(List<T> entities) {
+        map.clear();
+        putAll(entities);
+    }
+
+    @Override
+    public void close() {
+        if (!store.isClosed()) store.close();
+    }
+
+    private byte[] encode(T entity) {
+        return codec.encode(entity);
+    }
+
+    private T decode(byte[] value) {
+        return codec.decode(value);
+    }
+}
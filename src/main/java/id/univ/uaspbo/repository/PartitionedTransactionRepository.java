@@ -0,0 +1,643 @@
+package id.univ.uaspbo.repository;
+
+import id.univ.uaspbo.model.CorruptRecord;
+import id.univ.uaspbo.model.Transaction;
+import id.univ.uaspbo.monitoring.CacheStats;
+
+import java.io.File;
+import java.lang.ref.SoftReference;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Repository transaksi yang menyimpan data dalam segmen file per bulan
+ * (misalnya transactions-2025-11.json) di dalam satu direktori.
+ * Sebuah manifest (manifest.json) mencatat rentang waktu, jumlah transaksi,
+ * dan total pendapatan setiap segmen sehingga query berbatas tanggal hanya
+ * membuka segmen yang beririsan dengan rentang yang diminta (partition pruning).
+ *
+ * Segmen untuk bulan yang sudah lewat ditandai tertutup (closed): isinya tidak
+ * boleh diubah lagi sehingga aman disimpan di cache memori setelah dibaca sekali.
+ * Cache memakai SoftReference agar dapat dilepas oleh GC ketika heap mulai penuh; hit dan miss-nya
+ * direkam berkala oleh Java Flight Recorder sebagai cache "transaction-segments".
+ * Hanya segmen bulan berjalan yang ditulis ulang ketika ada transaksi baru.
+ *
+ * Segmen tertutup yang lebih tua dari archiveAfterMonths bulan dipindahkan ke arsip
+ * terkompresi (ArchiveSegment, file transactions-yyyy-MM.arc) dan file segmen aslinya dihapus.
+ * Arsip tetap dibaca secara transparan oleh readAll, readRange, dan query laporan; dekompresi
+ * dilakukan per segmen saat segmen itu dibutuhkan, dan query berbatas tanggal hanya
+ * mendekompresi blok arsip yang beririsan dengan rentangnya.
+ *
+ * Jika manifest belum ada tetapi file transaksi lama (satu file JSON) tersedia,
+ * isinya akan dipecah ke segmen-segmen bulanan secara otomatis saat pertama kali dibuka.
+ *
+ * Segmen bersifat tambah-saja (append-only): transaksi yang sudah tercatat tidak dapat
+ * diubah atau dihapus melalui repository ini.
+ *
+ * Penambahan dilakukan di bawah kunci file manifest dan selalu diawali membaca ulang manifest,
+ * sehingga beberapa instance aplikasi dapat menambah ke direktori yang sama. Untuk setiap
+ * segmen dicatat berapa transaksi yang sudah diserahkan ke pemanggil; pollChanges() membaca
+ * hanya bagian ekor segmen yang bertambah sejak itu (transaksi milik proses lain).
+ *
+ * Konsep OOP yang digunakan:
+ * - Komposisi: Setiap segmen dan manifest dikelola oleh FileRepository tersendiri.
+ * - Enkapsulasi: Struktur manifest dan cache segmen hanya diakses melalui method publik.
+ * - Implementasi Interface: Mengimplementasikan Repository sebagai backend segmen JSON bulanan.
+ */
+public class PartitionedTransactionRepository implements Repository<Transaction> {
+    private static final String MANIFEST_FILE = "manifest.json";
+    private static final CacheStats SEGMENT_CACHE = new CacheStats("transaction-segments");  // Hit dan miss cache segmen tertutup
+
+    private final File dir;                                     // Direktori penyimpanan segmen
+    private final File manifestFile;                            // File manifest, juga dipakai sebagai kunci penambahan
+    private final StorageFormat format;                         // Format file segmen (manifest selalu JSON)
+    private final int archiveAfterMonths;                       // Umur segmen (bulan) sebelum diarsipkan, 0 berarti tidak pernah
+    private final FileRepository<SegmentInfo> manifestRepo;     // Repository file manifest
+    private final TreeMap<YearMonth, SegmentInfo> manifest = new TreeMap<>();  // Manifest terurut per bulan
+    private final Map<YearMonth, SoftReference<List<Transaction>>> closedCache = new ConcurrentHashMap<>();  // Cache segmen tertutup
+    private final Map<YearMonth, Integer> delivered = new HashMap<>();  // Jumlah transaksi per segmen yang sudah diketahui pemanggil
+    private final Set<String> ownAppends = new HashSet<>();            // ID transaksi yang ditambahkan proses ini dan belum dilewati pollChanges
+
+    /**
+     * Konstruktor PartitionedTransactionRepository.
+     *
+     * @param dirPath Direktori tempat segmen dan manifest disimpan
+     * @param legacyPath Path file transaksi lama yang akan dimigrasikan jika manifest belum ada
+     */
+    public PartitionedTransactionRepository(String dirPath, String legacyPath) {
+        this(dirPath, legacyPath, StorageFormat.JSON);
+    }
+
+    /**
+     * Konstruktor PartitionedTransactionRepository dengan format file segmen tertentu.
+     * Manifest tetap ditulis sebagai JSON agar mudah diperiksa.
+     *
+     * @param dirPath Direktori tempat segmen dan manifest disimpan
+     * @param legacyPath Path file transaksi lama yang akan dimigrasikan jika manifest belum ada
+     * @param format Format penulisan file segmen
+     */
+    public PartitionedTransactionRepository(String dirPath, String legacyPath, StorageFormat format) {
+        this(dirPath, legacyPath, format, 0);
+    }
+
+    /**
+     * Konstruktor PartitionedTransactionRepository dengan format segmen dan batas umur arsip.
+     *
+     * @param dirPath Direktori tempat segmen dan manifest disimpan
+     * @param legacyPath Path file transaksi lama yang akan dimigrasikan jika manifest belum ada
+     * @param format Format penulisan file segmen
+     * @param archiveAfterMonths Segmen yang bulannya lebih tua dari jumlah bulan ini diarsipkan; 0 untuk menonaktifkan
+     */
+    public PartitionedTransactionRepository(String dirPath, String legacyPath, StorageFormat format, int archiveAfterMonths) {
+        this.dir = new File(dirPath);
+        this.format = format;
+        this.archiveAfterMonths = archiveAfterMonths;
+        this.manifestFile = new File(dir, MANIFEST_FILE);
+        this.manifestRepo = new FileRepository<>(manifestFile.getPath(), SegmentInfo[].class);
+        for (SegmentInfo s : manifestRepo.readAll()) {
+            manifest.put(YearMonth.parse(s.getMonth()), s);
+        }
+        if (manifest.isEmpty() && legacyPath != null && new File(legacyPath).exists()) {
+            File legacy = new File(legacyPath);
+            migrateLegacy(new FileRepository<>(legacyPath, Transaction[].class).readAll(), legacy.lastModified());
+        }
+        sealClosedSegments();
+        if (archiveAfterMonths > 0) {
+            FileLocks.withLock(manifestFile, () -> {
+                reloadManifest();
+                archiveColdSegments();
+            });
+        }
+        for (Map.Entry<YearMonth, SegmentInfo> e : manifest.entrySet()) delivered.put(e.getKey(), e.getValue().getCount());
+    }
+
+    /**
+     * Membaca semua transaksi yang tersimpan tanpa mengubah apa pun di disk: isi segmen menurut
+     * manifest jika ada, atau isi file transaksi lama jika belum dimigrasikan. Dipakai sebagai
+     * sumber impor backend lain, sehingga memilih backend tersebut tidak memigrasikan,
+     * menutup, atau mengarsipkan segmen JSON.
+     *
+     * @param dirPath Direktori segmen dan manifest
+     * @param legacyPath Path file transaksi lama, boleh null
+     * @return Semua transaksi, kosong jika belum ada data
+     */
+    public static List<Transaction> readExisting(String dirPath, String legacyPath) {
+        File dir = new File(dirPath);
+        List<SegmentInfo> infos = new FileRepository<>(new File(dir, MANIFEST_FILE).getPath(), SegmentInfo[].class).readAll();
+        if (infos.isEmpty()) {
+            return legacyPath != null ? new FileRepository<>(legacyPath, Transaction[].class).readAll() : List.of();
+        }
+        List<Transaction> all = new ArrayList<>();
+        for (SegmentInfo s : infos) {
+            File file = new File(dir, s.getFile());
+            all.addAll(s.isArchived() ? ArchiveSegment.read(file) : new FileRepository<>(file.getPath(), Transaction[].class).readAll());
+        }
+        return all;
+    }
+
+    /**
+     * Mendapatkan salinan daftar segmen pada manifest, terurut dari bulan terlama.
+     */
+    public synchronized List<SegmentInfo> getSegments() {
+        return new ArrayList<>(manifest.values());
+    }
+
+    /**
+     * Mendapatkan file manifest beserta file semua segmen, terurut dari bulan terlama.
+     * Dipakai untuk memvalidasi snapshot terhadap isi direktori segmen.
+     */
+    @Override
+    public synchronized List<File> files() {
+        List<File> files = new ArrayList<>();
+        files.add(manifestFile);
+        for (SegmentInfo s : manifest.values()) files.add(new File(dir, s.getFile()));
+        return files;
+    }
+
+    /**
+     * Membaca seluruh transaksi dari semua segmen, terurut per bulan.
+     * Jumlah transaksi yang terbaca menjadi titik awal pollChanges() berikutnya.
+     */
+    @Override
+    public List<Transaction> readAll() {
+        List<Transaction> result = new ArrayList<>();
+        for (SegmentInfo s : overlapping(null, null)) {
+            List<Transaction> segment = readSegment(s);
+            result.addAll(segment);
+            synchronized (this) {
+                delivered.put(YearMonth.parse(s.getMonth()), segment.size());
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Membaca satu segmen untuk pemulihan saat startup, tanpa memakai cache segmen. Record atau blok
+     * yang rusak dilewati dan dicatat, bukan menggagalkan seluruh segmen. Jumlah transaksi yang
+     * terbaca menjadi titik awal pollChanges() berikutnya untuk segmen tersebut.
+     *
+     * @param info Segmen yang dibaca
+     * @param corrupt Daftar tempat record rusak ditambahkan
+     * @return Transaksi yang terbaca, sesuai urutan di file
+     */
+    public List<Transaction> scanSegment(SegmentInfo info, List<CorruptRecord> corrupt) {
+        SegmentInfo s = current(info);
+        List<Transaction> segment = s.isArchived()
+                ? ArchiveSegment.scan(segmentFile(s), corrupt)
+                : segmentRepo(s).readAll(corrupt);
+        synchronized (this) {
+            delivered.put(YearMonth.parse(s.getMonth()), segment.size());
+        }
+        return segment;
+    }
+
+    /**
+     * Mendapatkan file data satu segmen.
+     */
+    public File segmentFile(SegmentInfo info) {
+        return new File(dir, info.getFile());
+    }
+
+    /**
+     * Mencari transaksi berdasarkan ID dengan memindai semua segmen.
+     */
+    @Override
+    public Transaction get(String id) {
+        for (SegmentInfo s : overlapping(null, null)) {
+            for (Transaction t : readSegment(s)) {
+                if (id.equals(t.getId())) return t;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Mendapatkan transaksi pada rentang ID [fromId, toId), terurut berdasarkan ID.
+     */
+    @Override
+    public List<Transaction> scan(String fromId, String toId) {
+        List<Transaction> result = new ArrayList<>();
+        for (Transaction t : readAll()) {
+            String id = t.getId();
+            if ((fromId == null || id.compareTo(fromId) >= 0) && (toId == null || id.compareTo(toId) < 0)) result.add(t);
+        }
+        result.sort(Comparator.comparing(Transaction::getId));
+        return result;
+    }
+
+    /**
+     * Menambahkan satu transaksi ke segmen bulannya.
+     */
+    @Override
+    public void put(Transaction t) {
+        append(t);
+    }
+
+    /**
+     * Menambahkan banyak transaksi: setiap segmen yang terdampak ditulis sekali,
+     * lalu manifest ditulis sekali.
+     *
+     * @throws IllegalStateException jika salah satu segmen tujuan sudah tertutup
+     */
+    @Override
+    public synchronized void putAll(List<Transaction> transactions) {
+        FileLocks.withLock(manifestFile, () -> {
+            reloadManifest();
+            appendAll(transactions);
+        });
+    }
+
+    /**
+     * Menulis transaksi ke segmen bulannya; harus dipanggil di bawah kunci manifest setelah
+     * manifest dibaca ulang. Jika pemanggil sudah mengetahui seluruh isi segmen, transaksi
+     * baru langsung dihitung sebagai sudah diserahkan; jika tidak, ID-nya dicatat agar
+     * dilewati oleh pollChanges().
+     */
+    private void appendAll(List<Transaction> transactions) {
+        TreeMap<YearMonth, List<Transaction>> byMonth = new TreeMap<>();
+        for (Transaction t : transactions) {
+            YearMonth month = YearMonth.from(t.getTimestamp());
+            SegmentInfo info = manifest.get(month);
+            if (info != null && info.isClosed()) {
+                throw new IllegalStateException("Segmen " + month + " sudah tertutup dan tidak dapat diubah");
+            }
+            byMonth.computeIfAbsent(month, m -> new ArrayList<>()).add(t);
+        }
+        for (Map.Entry<YearMonth, List<Transaction>> e : byMonth.entrySet()) {
+            SegmentInfo info = manifest.computeIfAbsent(e.getKey(), m -> new SegmentInfo(m.toString(), segmentFileName(m)));
+            FileRepository<Transaction> segRepo = segmentRepo(info);
+            List<Transaction> list = segRepo.readAll();
+            list.addAll(e.getValue());
+            segRepo.saveAll(list);
+            boolean caughtUp = delivered.getOrDefault(e.getKey(), 0) == info.getCount();
+            e.getValue().forEach(info::include);
+            if (caughtUp) delivered.put(e.getKey(), info.getCount());
+            else e.getValue().forEach(t -> ownAppends.add(t.getId()));
+        }
+        sealClosedSegments();
+        saveManifest();
+        archiveColdSegments();
+    }
+
+    /**
+     * Segmen transaksi hanya dapat ditambah; delete dan saveAll tidak didukung.
+     */
+    @Override
+    public boolean isAppendOnly() {
+        return true;
+    }
+
+    /**
+     * Tidak didukung: transaksi yang sudah tercatat tidak dapat dihapus.
+     */
+    @Override
+    public void delete(String id) {
+        throw new UnsupportedOperationException("Segmen transaksi hanya dapat ditambah");
+    }
+
+    /**
+     * Tidak didukung: isi segmen tidak dapat diganti seluruhnya.
+     */
+    @Override
+    public void saveAll(List<Transaction> transactions) {
+        throw new UnsupportedOperationException("Segmen transaksi hanya dapat ditambah");
+    }
+
+    /**
+     * Membaca transaksi dengan timestamp pada rentang [from, to).
+     * Hanya segmen yang rentang min/max-nya beririsan dengan rentang ini yang dibuka.
+     *
+     * @param from Batas bawah inklusif, null berarti tanpa batas
+     * @param to Batas atas eksklusif, null berarti tanpa batas
+     */
+    public List<Transaction> readRange(LocalDateTime from, LocalDateTime to) {
+        List<Transaction> result = new ArrayList<>();
+        for (SegmentInfo s : overlapping(from, to)) {
+            for (Transaction t : readSegment(s, from, to)) {
+                if (inRange(t.getTimestamp(), from, to)) result.add(t);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Menghitung jumlah transaksi pada rentang [from, to).
+     * Segmen yang tercakup penuh oleh rentang dihitung langsung dari manifest tanpa dibuka.
+     */
+    public int countInRange(LocalDateTime from, LocalDateTime to) {
+        int count = 0;
+        for (SegmentInfo s : overlapping(from, to)) {
+            if (covers(s, from, to)) {
+                count += s.getCount();
+                continue;
+            }
+            for (Transaction t : readSegment(s, from, to)) {
+                if (inRange(t.getTimestamp(), from, to)) count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Menghitung total pendapatan pada rentang [from, to).
+     * Segmen yang tercakup penuh oleh rentang dihitung langsung dari manifest tanpa dibuka.
+     */
+    public long revenueInRange(LocalDateTime from, LocalDateTime to) {
+        long revenue = 0;
+        for (SegmentInfo s : overlapping(from, to)) {
+            if (covers(s, from, to)) {
+                revenue += s.getRevenue();
+                continue;
+            }
+            for (Transaction t : readSegment(s, from, to)) {
+                if (inRange(t.getTimestamp(), from, to)) revenue += t.getTotal();
+            }
+        }
+        return revenue;
+    }
+
+    /**
+     * Mendapatkan segmen-segmen yang beririsan dengan rentang [from, to).
+     */
+    public synchronized List<SegmentInfo> overlapping(LocalDateTime from, LocalDateTime to) {
+        List<SegmentInfo> result = new ArrayList<>();
+        for (SegmentInfo s : manifest.values()) {
+            if (s.getCount() == 0) continue;
+            if (from != null && s.getMaxTimestamp().isBefore(from)) continue;
+            if (to != null && !s.getMinTimestamp().isBefore(to)) continue;
+            result.add(s);
+        }
+        return result;
+    }
+
+    /**
+     * Menambahkan transaksi ke segmen bulan sesuai timestamp-nya dan memperbarui manifest.
+     *
+     * @param t Transaksi yang akan disimpan, timestamp wajib sudah terisi
+     * @throws IllegalStateException jika segmen tujuan sudah tertutup
+     */
+    public synchronized void append(Transaction t) {
+        FileLocks.withLock(manifestFile, () -> {
+            reloadManifest();
+            appendAll(List.of(t));
+        });
+    }
+
+    /**
+     * Mengambil transaksi yang ditambahkan proses lain sejak pembacaan atau pemanggilan sebelumnya.
+     * Manifest dibaca ulang, lalu untuk setiap segmen yang jumlahnya bertambah hanya bagian
+     * ekornya yang dikembalikan; transaksi yang ditambahkan proses ini sendiri dilewati.
+     *
+     * @return Transaksi baru dari proses lain (tidak ada yang dihapus), atau null jika tidak ada
+     */
+    @Override
+    public synchronized Changes<Transaction> pollChanges() {
+        reloadManifest();
+        List<Transaction> added = new ArrayList<>();
+        for (Map.Entry<YearMonth, SegmentInfo> e : manifest.entrySet()) {
+            int seen = delivered.getOrDefault(e.getKey(), 0);
+            if (e.getValue().getCount() <= seen) continue;
+            List<Transaction> segment = e.getValue().isArchived()
+                    ? ArchiveSegment.read(new File(dir, e.getValue().getFile()))
+                    : segmentRepo(e.getValue()).readAll();
+            for (Transaction t : segment.subList(Math.min(seen, segment.size()), segment.size())) {
+                if (!ownAppends.remove(t.getId())) added.add(t);
+            }
+            delivered.put(e.getKey(), segment.size());
+        }
+        return added.isEmpty() ? null : new Changes<>(manifestRepo.readVersion(), added, List.of());
+    }
+
+    /**
+     * Membaca ulang manifest dari file agar mencakup segmen yang ditulis proses lain.
+     */
+    private synchronized void reloadManifest() {
+        List<SegmentInfo> infos = manifestRepo.readAll();
+        if (infos.isEmpty()) return;
+        manifest.clear();
+        for (SegmentInfo s : infos) manifest.put(YearMonth.parse(s.getMonth()), s);
+    }
+
+    /**
+     * Menandai segmen bulan yang sudah lewat sebagai tertutup.
+     */
+    private synchronized void sealClosedSegments() {
+        YearMonth current = YearMonth.now();
+        boolean changed = false;
+        for (Map.Entry<YearMonth, SegmentInfo> e : manifest.entrySet()) {
+            if (!e.getValue().isClosed() && e.getKey().isBefore(current)) {
+                e.getValue().setClosed(true);
+                changed = true;
+            }
+        }
+        if (changed) saveManifest();
+    }
+
+    /**
+     * Mengarsipkan segmen tertutup yang lebih tua dari archiveAfterMonths; harus dipanggil di
+     * bawah kunci manifest. Arsip ditulis lebih dulu, lalu manifest, baru file segmen lama dihapus,
+     * sehingga proses yang berhenti di tengah jalan paling banyak meninggalkan file yatim.
+     */
+    private synchronized void archiveColdSegments() {
+        if (archiveAfterMonths <= 0) return;
+        YearMonth cutoff = YearMonth.now().minusMonths(archiveAfterMonths);
+        List<File> obsolete = new ArrayList<>();
+        for (Map.Entry<YearMonth, SegmentInfo> e : manifest.entrySet()) {
+            SegmentInfo info = e.getValue();
+            if (info.isArchived() || !info.isClosed() || !e.getKey().isBefore(cutoff)) continue;
+            File source = new File(dir, info.getFile());
+            List<Transaction> transactions = segmentRepo(info).readAll();
+            if (transactions.size() != info.getCount()) {
+                System.err.println("Segmen " + e.getKey() + " tidak diarsipkan: berisi " + transactions.size()
+                        + " transaksi, manifest mencatat " + info.getCount());
+                continue;
+            }
+            String archiveName = archiveFileName(e.getKey());
+            ArchiveSegment.write(new File(dir, archiveName), transactions);
+            info.setFile(archiveName);
+            info.setArchived(true);
+            obsolete.add(source);
+            System.out.println("Archived " + transactions.size() + " transactions of " + e.getKey() + " into " + archiveName);
+        }
+        if (obsolete.isEmpty()) return;
+        saveManifest();
+        for (File f : obsolete) {
+            f.delete();
+            new File(f.getPath() + ".lock").delete();
+        }
+    }
+
+    /**
+     * Membaca isi satu segmen. Segmen tertutup (termasuk arsip) diambil dari cache jika sudah
+     * pernah dibaca; arsip didekompresi saat pertama kali dibaca.
+     */
+    private List<Transaction> readSegment(SegmentInfo info) {
+        if (!info.isClosed()) return segmentRepo(info).readAll();
+        YearMonth month = YearMonth.parse(info.getMonth());
+        SoftReference<List<Transaction>> ref = closedCache.get(month);
+        List<Transaction> cached = ref != null ? ref.get() : null;
+        if (cached != null) {
+            SEGMENT_CACHE.hit();
+        } else {
+            SEGMENT_CACHE.miss();
+            info = current(info);
+            cached = Collections.unmodifiableList(info.isArchived()
+                    ? ArchiveSegment.read(new File(dir, info.getFile()))
+                    : segmentRepo(info).readAll());
+            closedCache.put(month, new SoftReference<>(cached));
+        }
+        return cached;
+    }
+
+    /**
+     * Membaca transaksi satu segmen untuk rentang [from, to). Untuk arsip yang belum ada di cache,
+     * hanya blok yang beririsan dengan rentang yang didekompresi; hasilnya tetap perlu disaring.
+     */
+    private List<Transaction> readSegment(SegmentInfo info, LocalDateTime from, LocalDateTime to) {
+        if (!info.isArchived()) return readSegment(info);
+        SoftReference<List<Transaction>> ref = closedCache.get(YearMonth.parse(info.getMonth()));
+        List<Transaction> cached = ref != null ? ref.get() : null;
+        if (cached != null) SEGMENT_CACHE.hit();
+        else SEGMENT_CACHE.miss();
+        return cached != null ? cached : ArchiveSegment.read(new File(dir, current(info).getFile()), from, to);
+    }
+
+    /**
+     * Mengembalikan entri manifest terkini jika file segmen sudah tidak ada, misalnya karena
+     * segmen tersebut baru saja diarsipkan oleh proses lain.
+     */
+    private SegmentInfo current(SegmentInfo info) {
+        if (new File(dir, info.getFile()).exists()) return info;
+        reloadManifest();
+        synchronized (this) {
+            return manifest.getOrDefault(YearMonth.parse(info.getMonth()), info);
+        }
+    }
+
+    /**
+     * Memecah daftar transaksi dari file lama ke segmen bulanan lalu menulis manifest.
+     * Transaksi tanpa timestamp diberi waktu modifikasi terakhir file lama agar tetap masuk ke
+     * segmen (dan tidak dianggap rusak oleh pemindaian pemulihan); ID-nya dicatat di log.
+     * File lama tidak diubah, sehingga nilai aslinya tetap tersedia.
+     *
+     * @param legacy Transaksi dari file lama
+     * @param legacyModified Waktu modifikasi terakhir file lama (epoch milidetik)
+     */
+    private synchronized void migrateLegacy(List<Transaction> legacy, long legacyModified) {
+        LocalDateTime fallback = LocalDateTime.ofInstant(Instant.ofEpochMilli(legacyModified), ZoneId.systemDefault());
+        List<String> stamped = new ArrayList<>();
+        TreeMap<YearMonth, List<Transaction>> byMonth = new TreeMap<>();
+        for (Transaction t : legacy) {
+            if (t.getTimestamp() == null) {
+                t.setTimestamp(fallback);
+                stamped.add(t.getId());
+            }
+            byMonth.computeIfAbsent(YearMonth.from(t.getTimestamp()), m -> new ArrayList<>()).add(t);
+        }
+        for (Map.Entry<YearMonth, List<Transaction>> e : byMonth.entrySet()) {
+            SegmentInfo info = new SegmentInfo(e.getKey().toString(), segmentFileName(e.getKey()));
+            e.getValue().forEach(info::include);
+            segmentRepo(info).saveAll(e.getValue());
+            manifest.put(e.getKey(), info);
+        }
+        saveManifest();
+        int migrated = byMonth.values().stream().mapToInt(List::size).sum();
+        System.out.println("Migrated " + migrated + " transactions into " + byMonth.size() + " monthly segments");
+        if (!stamped.isEmpty()) {
+            System.out.println("Migrated " + stamped.size() + " transactions without timestamp into segment "
+                    + YearMonth.from(fallback) + " using the legacy file time " + fallback + ": " + String.join(", ", stamped));
+        }
+    }
+
+    private FileRepository<Transaction> segmentRepo(SegmentInfo info) {
+        return new FileRepository<>(new File(dir, info.getFile()).getPath(), Transaction[].class, Transaction::getId, format);
+    }
+
+    private void saveManifest() {
+        manifestRepo.saveAll(new ArrayList<>(manifest.values()));
+    }
+
+    private static String segmentFileName(YearMonth month) {
+        return "transactions-" + month + ".json";
+    }
+
+    private static String archiveFileName(YearMonth month) {
+        return "transactions-" + month + ".arc";
+    }
+
+    private static boolean covers(SegmentInfo s, LocalDateTime from, LocalDateTime to) {
+        return inRange(s.getMinTimestamp(), from, to) && inRange(s.getMaxTimestamp(), from, to);
+    }
+
+    private static boolean inRange(LocalDateTime ts, LocalDateTime from, LocalDateTime to) {
+        if (ts == null) return from == null && to == null;
+        return (from == null || !ts.isBefore(from)) && (to == null || ts.isBefore(to));
+    }
+
+    /**
+     * Entri manifest yang mendeskripsikan satu segmen bulanan.
+     */
+    public static class SegmentInfo {
+        private String month;                   // Bulan segmen dalam format yyyy-MM
+        private String file;                    // Nama file segmen relatif terhadap direktori
+        private LocalDateTime minTimestamp;     // Timestamp transaksi paling awal
+        private LocalDateTime maxTimestamp;     // Timestamp transaksi paling akhir
+        private int count;                      // Jumlah transaksi dalam segmen
+        private long revenue;                   // Total pendapatan dalam segmen
+        private boolean closed;                 // true jika segmen sudah tidak dapat diubah
+        private boolean archived;               // true jika file segmen berupa arsip terkompresi
+
+        /**
+         * Konstruktor default tanpa parameter (dibutuhkan untuk deserialisasi JSON).
+         */
+        public SegmentInfo() {}
+
+        /**
+         * Konstruktor untuk segmen baru yang masih kosong.
+         */
+        public SegmentInfo(String month, String file) {
+            this.month = month;
+            this.file = file;
+        }
+
+        /**
+         * Memperbarui statistik segmen dengan satu transaksi baru.
+         */
+        void include(Transaction t) {
+            LocalDateTime ts = t.getTimestamp();
+            if (minTimestamp == null || ts.isBefore(minTimestamp)) minTimestamp = ts;
+            if (maxTimestamp == null || ts.isAfter(maxTimestamp)) maxTimestamp = ts;
+            count++;
+            revenue += t.getTotal();
+        }
+
+        public String getMonth() { return month; }
+        public void setMonth(String month) { this.month = month; }
+        public String getFile() { return file; }
+        public void setFile(String file) { this.file = file; }
+        public LocalDateTime getMinTimestamp() { return minTimestamp; }
+        public void setMinTimestamp(LocalDateTime minTimestamp) { this.minTimestamp = minTimestamp; }
+        public LocalDateTime getMaxTimestamp() { return maxTimestamp; }
+        public void setMaxTimestamp(LocalDateTime maxTimestamp) { this.maxTimestamp = maxTimestamp; }
+        public int getCount() { return count; }
+        public void setCount(int count) { this.count = count; }
+        public long getRevenue() { return revenue; }
+        public void setRevenue(long revenue) { this.revenue = revenue; }
+        public boolean isClosed() { return closed; }
+        public void setClosed(boolean closed) { this.closed = closed; }
+        public boolean isArchived() { return archived; }
+        public void setArchived(boolean archived) { this.archived = archived; }
+    }
+}
@@ -0,0 +1,233 @@
+package id.univ.uaspbo.repository;
+
+import id.univ.uaspbo.model.CorruptRecord;
+import id.univ.uaspbo.model.RecoveryReport;
+import id.univ.uaspbo.model.Transaction;
+
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.BiConsumer;
+import java.util.function.BinaryOperator;
+import java.util.function.Supplier;
+
+/**
+ * Mesin pemulihan data transaksi saat startup. Data dibagi menjadi potongan (satu segmen bulanan,
+ * atau potongan indeks untuk daftar dari snapshot) yang di-parse, diperiksa, dan diagregasi secara
+ * paralel dengan fork/join. Setiap potongan menghasilkan akumulator sendiri (misalnya daftar
+ * transaksi, ringkasan per pengguna, penghitung per produk, dan total) yang kemudian digabungkan,
+ * sehingga agregat turunan terbentuk dalam lintasan yang sama dengan pembacaan.
+ *
+ * Pemeriksaan integritas:
+ * - Record yang tidak dapat di-parse, tanpa ID, tanpa timestamp, atau tanpa daftar item dilewati.
+ * - Record dengan total yang tidak sama dengan jumlah qty x harga item, atau yang timestamp-nya di
+ *   luar bulan segmennya, dilaporkan tetapi tetap dimuat.
+ * - Jumlah dan pendapatan segmen dibandingkan dengan catatan manifest.
+ * Semua temuan dilaporkan sebagai CorruptRecord beserta posisinya di file.
+ *
+ * @param <A> Tipe akumulator agregat
+ *
+ * Konsep OOP yang digunakan:
+ * - Generic: Mesin yang sama dipakai untuk akumulator apa pun.
+ * - Inner Class: Tugas fork/join untuk segmen dan potongan daftar.
+ */
+public class RecoveryEngine<A> {
+    private static final int SPLIT_THRESHOLD = 8192;  // Ukuran potongan daftar minimum untuk dibagi lagi
+    private static final int MAX_LISTED = 100;        // Jumlah record rusak yang disimpan di laporan
+
+    private final ForkJoinPool pool;
+    private final Supplier<A> newAccumulator;
+    private final BiConsumer<A, Transaction> accumulate;
+    private final BinaryOperator<A> combine;
+
+    /**
+     * Konstruktor RecoveryEngine.
+     *
+     * @param pool Pool fork/join tempat potongan diproses
+     * @param newAccumulator Pembuat akumulator kosong untuk satu potongan
+     * @param accumulate Penambah satu transaksi ke akumulator
+     * @param combine Penggabung dua akumulator (boleh mengubah dan mengembalikan argumen pertama)
+     */
+    public RecoveryEngine(ForkJoinPool pool, Supplier<A> newAccumulator, BiConsumer<A, Transaction> accumulate, BinaryOperator<A> combine) {
+        this.pool = pool;
+        this.newAccumulator = newAccumulator;
+        this.accumulate = accumulate;
+        this.combine = combine;
+    }
+
+    /**
+     * Hasil pemulihan: akumulator gabungan dan laporannya.
+     */
+    public record Result<A>(A value, RecoveryReport report) {}
+
+    /**
+     * Membaca, memeriksa, dan mengagregasi semua segmen secara paralel, satu segmen per potongan.
+     *
+     * @param segments Repository segmen transaksi
+     * @return Agregat seluruh transaksi yang valid beserta laporan pemulihan
+     */
+    public Result<A> recover(PartitionedTransactionRepository segments) {
+        long start = System.nanoTime();
+        List<PartitionedTransactionRepository.SegmentInfo> infos = segments.getSegments();
+        Partial<A> p = infos.isEmpty() ? new Partial<>(newAccumulator.get())
+                : pool.invoke(new SegmentTask(segments, infos, 0, infos.size()));
+        return result("segments", infos.size(), p, start);
+    }
+
+    /**
+     * Memeriksa dan mengagregasi daftar transaksi yang sudah ada di memori (misalnya dari snapshot)
+     * secara paralel per potongan indeks.
+     *
+     * @param transactions Daftar transaksi
+     * @param source Nama sumber untuk laporan
+     * @return Agregat seluruh transaksi yang valid beserta laporan pemulihan
+     */
+    public Result<A> aggregate(List<Transaction> transactions, String source) {
+        long start = System.nanoTime();
+        Partial<A> p = pool.invoke(new ListTask(transactions, source, 0, transactions.size()));
+        return result(source, Math.max(1, (transactions.size() + SPLIT_THRESHOLD - 1) / SPLIT_THRESHOLD), p, start);
+    }
+
+    private Result<A> result(String source, int ranges, Partial<A> p, long start) {
+        long elapsed = (System.nanoTime() - start) / 1_000_000;
+        return new Result<>(p.value, new RecoveryReport(source, ranges, p.records, p.corrupt, p.corruptCount, elapsed, pool.getParallelism()));
+    }
+
+    /**
+     * Memeriksa satu transaksi lalu menambahkannya ke potongan jika valid.
+     *
+     * @param month Bulan segmen asal, null jika tidak diketahui
+     */
+    private void verify(Partial<A> p, Transaction t, String file, int index, YearMonth month) {
+        String reason = t.getId() == null || t.getId().isBlank() ? "ID transaksi kosong"
+                : t.getTimestamp() == null ? "Timestamp transaksi kosong"
+                : t.getItems() == null ? "Daftar item transaksi kosong" : null;
+        if (reason != null) {
+            p.corrupt(new CorruptRecord(file, -1, index, reason + " (dilewati)"));
+            return;
+        }
+        long sum = 0;
+        for (Transaction.TransactionItem it : t.getItems()) sum += (long) it.getQty() * it.getPrice();
+        if (sum != t.getTotal()) {
+            p.corrupt(new CorruptRecord(file, -1, index, "Total " + t.getTotal() + " tidak sama dengan jumlah item " + sum + " (tetap dimuat)"));
+        }
+        if (month != null && !YearMonth.from(t.getTimestamp()).equals(month)) {
+            p.corrupt(new CorruptRecord(file, -1, index, "Timestamp " + t.getTimestamp() + " di luar bulan segmen " + month + " (tetap dimuat)"));
+        }
+        accumulate.accept(p.value, t);
+        p.records++;
+        p.revenue += t.getTotal();
+    }
+
+    /**
+     * Hasil sementara satu potongan: akumulator, jumlah record, dan record rusak.
+     */
+    private static final class Partial<A> {
+        private A value;
+        private long records;
+        private long revenue;
+        private final List<CorruptRecord> corrupt = new ArrayList<>();
+        private long corruptCount;
+
+        private Partial(A value) {
+            this.value = value;
+        }
+
+        private void corrupt(CorruptRecord c) {
+            corruptCount++;
+            if (corrupt.size() < MAX_LISTED) corrupt.add(c);
+        }
+
+        private void corrupt(List<CorruptRecord> list) {
+            for (CorruptRecord c : list) corrupt(c);
+        }
+
+        private Partial<A> merge(Partial<A> other, BinaryOperator<A> combine) {
+            value = combine.apply(value, other.value);
+            records += other.records;
+            revenue += other.revenue;
+            corruptCount += other.corruptCount;
+            for (CorruptRecord c : other.corrupt) {
+                if (corrupt.size() < MAX_LISTED) corrupt.add(c);
+            }
+            return this;
+        }
+    }
+
+    /**
+     * Tugas fork/join yang memulihkan segmen [lo, hi); setiap segmen menjadi satu potongan.
+     */
+    private class SegmentTask extends RecursiveTask<Partial<A>> {
+        private static final long serialVersionUID = 1L;
+        private final PartitionedTransactionRepository segments;
+        private final List<PartitionedTransactionRepository.SegmentInfo> infos;
+        private final int lo;
+        private final int hi;
+
+        SegmentTask(PartitionedTransactionRepository segments, List<PartitionedTransactionRepository.SegmentInfo> infos, int lo, int hi) {
+            this.segments = segments;
+            this.infos = infos;
+            this.lo = lo;
+            this.hi = hi;
+        }
+
+        @Override
+        protected Partial<A> compute() {
+            if (hi - lo == 1) return recoverSegment(infos.get(lo));
+            int mid = (lo + hi) >>> 1;
+            SegmentTask left = new SegmentTask(segments, infos, lo, mid);
+            left.fork();
+            Partial<A> right = new SegmentTask(segments, infos, mid, hi).compute();
+            return left.join().merge(right, combine);
+        }
+
+        private Partial<A> recoverSegment(PartitionedTransactionRepository.SegmentInfo info) {
+            Partial<A> p = new Partial<>(newAccumulator.get());
+            String file = segments.segmentFile(info).getPath();
+            List<CorruptRecord> unreadable = new ArrayList<>();
+            List<Transaction> list = segments.scanSegment(info, unreadable);
+            p.corrupt(unreadable);
+            YearMonth month = YearMonth.parse(info.getMonth());
+            for (int i = 0; i < list.size(); i++) verify(p, list.get(i), file, i, month);
+            if (p.records != info.getCount() || p.revenue != info.getRevenue()) {
+                p.corrupt(new CorruptRecord(file, -1, -1, "Manifest mencatat " + info.getCount() + " transaksi (Rp " + info.getRevenue()
+                        + "), terbaca " + p.records + " transaksi valid (Rp " + p.revenue + ")"));
+            }
+            return p;
+        }
+    }
+
+    /**
+     * Tugas fork/join yang memeriksa dan mengagregasi potongan [lo, hi) dari daftar transaksi.
+     */
+    private class ListTask extends RecursiveTask<Partial<A>> {
+        private static final long serialVersionUID = 1L;
+        private final List<Transaction> list;
+        private final String source;
+        private final int lo;
+        private final int hi;
+
+        ListTask(List<Transaction> list, String source, int lo, int hi) {
+            this.list = list;
+            this.source = source;
+            this.lo = lo;
+            this.hi = hi;
+        }
+
+        @Override
+        protected Partial<A> compute() {
+            if (hi - lo <= SPLIT_THRESHOLD) {
+                Partial<A> p = new Partial<>(newAccumulator.get());
+                for (int i = lo; i < hi; i++) verify(p, list.get(i), source, i, null);
+                return p;
+            }
+            int mid = (lo + hi) >>> 1;
+            ListTask left = new ListTask(list, source, lo, mid);
+            left.fork();
+            Partial<A> right = new ListTask(list, source, mid, hi).compute();
+            return left.join().merge(right, combine);
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package id.univ.uaspbo.repository;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.UnaryOperator;
+
+/**
+ * Kontrak penyimpanan entitas berbasis kunci (ID). Service hanya bergantung pada
+ * interface ini sehingga backend penyimpanan dapat dipilih per entitas melalui
+ * application.properties (misalnya file JSON atau MVStore).
+ *
+ * @param <T> Tipe entitas yang disimpan
+ *
+ * Konsep OOP yang digunakan:
+ * - Abstraksi: Menyembunyikan detail format dan lokasi penyimpanan dari service.
+ * - Polimorfisme: FileRepository, MVStoreRepository, dan PartitionedTransactionRepository
+ *   dapat saling menggantikan.
+ */
+public interface Repository<T> {
+
+    /**
+     * Mendapatkan entitas berdasarkan ID.
+     *
+     * @return Entitas, atau null jika tidak ada
+     */
+    T get(String id);
+
+    /**
+     * Mendapatkan entitas dengan ID pada rentang [fromId, toId), terurut berdasarkan ID.
+     *
+     * @param fromId Batas bawah inklusif, null berarti tanpa batas
+     * @param toId Batas atas eksklusif, null berarti tanpa batas
+     */
+    List<T> scan(String fromId, String toId);
+
+    /**
+     * Membaca semua entitas.
+     */
+    List<T> readAll();
+
+    /**
+     * Menyimpan satu entitas: menimpa entitas dengan ID yang sama atau menambahkannya.
+     */
+    void put(T entity);
+
+    /**
+     * Menyimpan banyak entitas sekaligus dalam satu operasi tulis.
+     */
+    void putAll(List<T> entities);
+
+    /**
+     * Memperbarui entitas-entitas dengan ID tertentu berdasarkan nilai tersimpan terkini
+     * (baca-ubah-tulis). Implementasi berbasis file melakukannya di bawah kunci file
+     * sehingga perubahan proses lain di antara baca dan tulis tidak hilang.
+     *
+     * @param ids ID entitas yang diperbarui; ID yang tidak ada dilewati
+     * @param fn Fungsi yang menerima nilai tersimpan dan mengembalikan nilai baru
+     * @return Daftar entitas setelah diperbarui
+     */
+    default List<T> updateAll(Collection<String> ids, UnaryOperator<T> fn) {
+        List<T> updated = new ArrayList<>();
+        for (String id : ids) {
+            T current = get(id);
+            if (current != null) updated.add(fn.apply(current));
+        }
+        if (!updated.isEmpty()) putAll(updated);
+        return updated;
+    }
+
+    /**
+     * Menghapus entitas berdasarkan ID. Tidak didukung oleh repository append-only.
+     */
+    void delete(String id);
+
+    /**
+     * Mengganti seluruh isi repository dengan daftar entitas yang diberikan.
+     * Tidak didukung oleh repository append-only.
+     */
+    void saveAll(List<T> entities);
+
+    /**
+     * Mengecek apakah repository hanya dapat ditambah (append-only), yaitu menolak delete dan
+     * saveAll dengan UnsupportedOperationException. Pembungkus seperti WriteBehindRepository
+     * memakai informasi ini untuk menolak operasi tersebut saat dipanggil, bukan saat ditulis.
+     */
+    default boolean isAppendOnly() {
+        return false;
+    }
+
+    /**
+     * Mendapatkan file sumber yang dipakai untuk memvalidasi snapshot biner.
+     * Daftar kosong berarti repository ini tidak memakai snapshot.
+     */
+    default List<File> files() {
+        return List.of();
+    }
+
+    /**
+     * Mencari perubahan yang dibuat dari luar proses ini sejak pemanggilan sebelumnya.
+     *
+     * @return Perubahan, atau null jika tidak ada perubahan atau tidak didukung
+     */
+    default Changes<T> pollChanges() {
+        return null;
+    }
+
+    /**
+     * Memastikan semua perubahan yang tertunda sudah ditulis ke penyimpanan.
+     */
+    default void flush() {}
+
+    /**
+     * Menutup sumber daya yang dipakai repository.
+     */
+    default void close() {}
+
+    /**
+     * Kumpulan perubahan dari luar proses: entitas yang baru atau berubah dan ID yang dihapus.
+     *
+     * @param version Version file setelah perubahan
+     * @param changed Entitas yang baru atau isinya berubah
+     * @param removed ID entitas yang dihapus
+     */
+    record Changes<T>(long version, List<T> changed, List<String> removed) {}
+}
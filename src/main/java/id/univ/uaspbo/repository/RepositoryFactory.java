@@ -0,0 +1,119 @@
+package id.univ.uaspbo.repository;
+
+import id.univ.uaspbo.model.Transaction;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.io.File;
+import java.util.function.Function;
+
+/**
+ * Komponen yang membuat Repository sesuai backend yang dipilih per entitas pada
+ * application.properties melalui properti uas.storage.&lt;nama&gt; (json atau mvstore).
+ * Backend mvstore menyimpan file &lt;nama&gt;.mv.db di direktori uas.storage.mvstore-dir
+ * dan mengimpor data JSON yang ada saat pertama kali dibuka, tanpa mengubah file JSON tersebut.
+ *
+ * Format file JSON dipilih per entitas lewat uas.storage.format.&lt;nama&gt;
+ * (json, compact-json, smile, atau cbor); format file yang sudah ada dikenali otomatis saat dibaca.
+ *
+ * Jika uas.storage.write-behind aktif, repository JSON dibungkus WriteBehindRepository sehingga
+ * request tidak menunggu file ditulis ulang; batas umur dan ukuran antrean diatur lewat
+ * uas.storage.write-behind.max-staleness-ms dan uas.storage.write-behind.max-pending.
+ *
+ * Segmen transaksi yang lebih tua dari uas.storage.archive-after-months bulan dipindahkan ke
+ * arsip terkompresi oleh PartitionedTransactionRepository.
+ */
+@Component
+public class RepositoryFactory {
+    public static final String JSON = "json";
+    public static final String MVSTORE = "mvstore";
+
+    private final Environment env;  // Sumber properti aplikasi
+
+    @Value("${uas.storage.mvstore-dir:data/mvstore}")
+    private String mvstoreDir;      // Direktori file MVStore
+
+    @Value("${uas.storage.write-behind:false}")
+    private boolean writeBehind;    // true untuk menunda penulisan file JSON
+
+    @Value("${uas.storage.write-behind.max-staleness-ms:250}")
+    private long maxStalenessMs;    // Batas umur perubahan yang belum ditulis
+
+    @Value("${uas.storage.write-behind.max-pending:10000}")
+    private int maxPending;         // Batas jumlah entitas di antrean write-behind
+
+    @Value("${uas.storage.archive-after-months:0}")
+    private int archiveAfterMonths; // Umur segmen transaksi (bulan) sebelum dipindahkan ke arsip terkompresi
+
+    /**
+     * Konstruktor RepositoryFactory.
+     *
+     * @param env Environment Spring untuk membaca properti backend per entitas
+     */
+    public RepositoryFactory(Environment env) {
+        this.env = env;
+    }
+
+    /**
+     * Membuka repository untuk satu jenis entitas.
+     *
+     * @param name Nama entitas, misalnya "users" atau "products"
+     * @param jsonPath Path file JSON entitas
+     * @param type Tipe kelas array untuk deserialisasi JSON
+     * @param codec Codec biner entitas untuk backend mvstore
+     * @param idOf Fungsi untuk mengambil ID entitas
+     * @throws IllegalArgumentException jika backend tidak dikenal
+     */
+    public <T> Repository<T> open(String name, String jsonPath, Class<T[]> type, SnapshotCodec<T> codec, Function<T, String> idOf) {
+        FileRepository<T> json = new FileRepository<>(jsonPath, type, idOf, format(name));
+        return switch (backend(name)) {
+            case JSON -> writeBehind(name, json, idOf);
+            case MVSTORE -> new MVStoreRepository<>(mvstorePath(name), codec, idOf, json::readAll);
+            default -> throw unknown(name);
+        };
+    }
+
+    /**
+     * Membuka repository transaksi: segmen JSON bulanan atau MVStore.
+     *
+     * @param dirPath Direktori segmen transaksi bulanan
+     * @param legacyPath Path file transaksi lama (satu file JSON)
+     * @throws IllegalArgumentException jika backend tidak dikenal
+     */
+    public Repository<Transaction> openTransactions(String dirPath, String legacyPath) {
+        return switch (backend("transactions")) {
+            case JSON -> writeBehind("transactions", new PartitionedTransactionRepository(dirPath, legacyPath,
+                    format("transactions"), archiveAfterMonths), Transaction::getId);
+            case MVSTORE -> new MVStoreRepository<>(mvstorePath("transactions"), SnapshotCodecs.TRANSACTION,
+                    Transaction::getId, () -> PartitionedTransactionRepository.readExisting(dirPath, legacyPath));
+            default -> throw unknown("transactions");
+        };
+    }
+
+    /**
+     * Membungkus repository JSON dengan WriteBehindRepository jika write-behind aktif.
+     */
+    private <T> Repository<T> writeBehind(String name, Repository<T> repo, Function<T, String> idOf) {
+        return writeBehind ? new WriteBehindRepository<>(name, repo, idOf, maxStalenessMs, maxPending) : repo;
+    }
+
+    /**
+     * Mendapatkan format file untuk satu jenis entitas dari uas.storage.format.&lt;nama&gt;.
+     */
+    public StorageFormat format(String name) {
+        return StorageFormat.parse(env.getProperty("uas.storage.format." + name, "json"));
+    }
+
+    private String backend(String name) {
+        return env.getProperty("uas.storage." + name, JSON).trim().toLowerCase();
+    }
+
+    private String mvstorePath(String name) {
+        return new File(mvstoreDir, name + ".mv.db").getPath();
+    }
+
+    private IllegalArgumentException unknown(String name) {
+        return new IllegalArgumentException("Backend penyimpanan tidak dikenal untuk " + name + ": " + backend(name));
+    }
+}
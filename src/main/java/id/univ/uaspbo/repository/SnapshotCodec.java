@@ -0,0 +1,55 @@
+package id.univ.uaspbo.repository;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+
+/**
+ * Kontrak untuk menulis dan membaca satu entitas dalam format biner snapshot.
+ *
+ * @param <T> Tipe entitas yang dikodekan
+ *
+ * Konsep OOP yang digunakan:
+ * - Abstraksi: SnapshotFile tidak perlu mengetahui struktur setiap entitas.
+ * - Generic: Satu kontrak dipakai untuk User, Product, maupun Transaction.
+ */
+public interface SnapshotCodec<T> {
+
+    /**
+     * Menulis satu entitas ke output snapshot.
+     */
+    void write(SnapshotFile.Output out, T value) throws IOException;
+
+    /**
+     * Membaca satu entitas dari input snapshot.
+     */
+    T read(SnapshotFile.Input in);
+
+    /**
+     * Mengodekan satu entitas menjadi array byte tersendiri (tanpa header snapshot).
+     */
+    default byte[] encode(T value) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(128);
+        try (SnapshotFile.Output out = new SnapshotFile.Output(bytes)) {
+            write(out, value);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Membaca satu entitas dari array byte hasil encode().
+     */
+    default T decode(byte[] value) {
+        return read(new SnapshotFile.Input(ByteBuffer.wrap(value)));
+    }
+
+    /**
+     * Membuat salinan mendalam entitas melalui encode lalu decode.
+     */
+    default T copy(T value) {
+        return decode(encode(value));
+    }
+}
@@ -0,0 +1,109 @@
+package id.univ.uaspbo.repository;
+
+import id.univ.uaspbo.model.Product;
+import id.univ.uaspbo.model.Transaction;
+import id.univ.uaspbo.model.User;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Kumpulan SnapshotCodec untuk entitas-entitas aplikasi.
+ * Field ditulis berurutan tanpa nama field sehingga jauh lebih ringkas dan cepat
+ * dibaca dibandingkan JSON. ID ditulis sebagai dua long jika berbentuk UUID, dan
+ * String yang sering berulang (ID pengguna, ID dan nama produk) ditulis sekali lalu
+ * dirujuk dengan nomor simbol. Urutan field tidak boleh diubah tanpa menaikkan
+ * SnapshotFile.VERSION.
+ */
+public final class SnapshotCodecs {
+    private static final long NO_TIME = Long.MIN_VALUE;  // Penanda timestamp kosong
+
+    private SnapshotCodecs() {}
+
+    /**
+     * Codec untuk User: id, email, password, role, version.
+     */
+    public static final SnapshotCodec<User> USER = new SnapshotCodec<>() {
+        @Override
+        public void write(SnapshotFile.Output out, User u) throws IOException {
+            out.writeId(u.getId());
+            out.writeString(u.getEmail());
+            out.writeString(u.getPassword());
+            out.writeSymbol(u.getRole());
+            out.writeLong(u.getVersion());
+        }
+
+        @Override
+        public User read(SnapshotFile.Input in) {
+            User u = new User(in.readId(), in.readString(), in.readString(), in.readSymbol());
+            u.setVersion(in.readLong());
+            return u;
+        }
+    };
+
+    /**
+     * Codec untuk Product: id, name, price, stock, version.
+     */
+    public static final SnapshotCodec<Product> PRODUCT = new SnapshotCodec<>() {
+        @Override
+        public void write(SnapshotFile.Output out, Product p) throws IOException {
+            out.writeId(p.getId());
+            out.writeString(p.getName());
+            out.writeInt(p.getPrice());
+            out.writeInt(p.getStock());
+            out.writeLong(p.getVersion());
+        }
+
+        @Override
+        public Product read(SnapshotFile.Input in) {
+            Product p = new Product(in.readId(), in.readString(), in.readInt(), in.readInt());
+            p.setVersion(in.readLong());
+            return p;
+        }
+    };
+
+    /**
+     * Codec untuk Transaction: id, userId, timestamp, total, lalu jumlah item
+     * dan setiap item (productId, productName, qty, price).
+     */
+    public static final SnapshotCodec<Transaction> TRANSACTION = new SnapshotCodec<>() {
+        @Override
+        public void write(SnapshotFile.Output out, Transaction t) throws IOException {
+            out.writeId(t.getId());
+            out.writeSymbol(t.getUserId());
+            LocalDateTime ts = t.getTimestamp();
+            out.writeLong(ts == null ? NO_TIME : ts.toEpochSecond(ZoneOffset.UTC));
+            out.writeInt(ts == null ? 0 : ts.getNano());
+            out.writeInt(t.getTotal());
+            List<Transaction.TransactionItem> items = t.getItems();
+            int n = items == null ? 0 : items.size();
+            out.writeInt(n);
+            for (int i = 0; i < n; i++) {
+                Transaction.TransactionItem it = items.get(i);
+                out.writeSymbol(it.getProductId());
+                out.writeSymbol(it.getProductName());
+                out.writeInt(it.getQty());
+                out.writeInt(it.getPrice());
+            }
+        }
+
+        @Override
+        public Transaction read(SnapshotFile.Input in) {
+            String id = in.readId();
+            String userId = in.readSymbol();
+            long seconds = in.readLong();
+            int nanos = in.readInt();
+            LocalDateTime ts = seconds == NO_TIME ? null : LocalDateTime.ofEpochSecond(seconds, nanos, ZoneOffset.UTC);
+            int total = in.readInt();
+            int n = in.readInt();
+            List<Transaction.TransactionItem> items = new ArrayList<>(n);
+            for (int i = 0; i < n; i++) {
+                items.add(new Transaction.TransactionItem(in.readSymbol(), in.readSymbol(), in.readInt(), in.readInt()));
+            }
+            return new Transaction(id, userId, items, ts, total);
+        }
+    };
+}
@@ -0,0 +1,233 @@
+package id.univ.uaspbo.repository;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * File snapshot biner berisi salinan data yang sudah dimuat dari file JSON sumber.
+ * Header snapshot mencatat ukuran dan waktu modifikasi (mtime) setiap file sumber saat
+ * snapshot ditulis. Snapshot hanya dipakai jika semua file sumber masih sama persis;
+ * jika ada yang berubah, hilang, atau snapshot rusak, pemanggil kembali membaca JSON.
+ *
+ * Format: MAGIC, VERSION, jumlah sumber, lalu (path, ukuran, mtime) per sumber,
+ * jumlah entitas, dan entitas-entitas yang dikodekan oleh SnapshotCodec.
+ * Snapshot dibaca dengan memory-mapping file sehingga decoding berjalan langsung
+ * di atas ByteBuffer tanpa salinan dan tanpa stream yang tersinkronisasi.
+ *
+ * @param <T> Tipe entitas dalam snapshot
+ *
+ * Konsep OOP yang digunakan:
+ * - Generic: Satu kelas dipakai untuk semua jenis entitas.
+ * - Komposisi: Pengodean entitas didelegasikan ke SnapshotCodec.
+ * - Exception Handling: Kegagalan baca/tulis tidak menghentikan aplikasi.
+ */
+public class SnapshotFile<T> {
+    private static final int MAGIC = 0x55415353;  // "UASS"
+    static final int VERSION = 2;
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final File file;                // File snapshot
+    private final SnapshotCodec<T> codec;   // Codec entitas
+
+    /**
+     * Konstruktor SnapshotFile.
+     *
+     * @param path Path file snapshot
+     * @param codec Codec untuk menulis dan membaca entitas
+     */
+    public SnapshotFile(String path, SnapshotCodec<T> codec) {
+        this.file = new File(path);
+        this.codec = codec;
+    }
+
+    /**
+     * Membaca snapshot jika masih valid terhadap file-file sumber.
+     *
+     * @param sources File sumber yang harus sama dengan saat snapshot ditulis
+     * @return Daftar entitas, atau null jika snapshot tidak ada, usang, atau rusak
+     */
+    public List<T> load(List<File> sources) {
+        if (!file.exists()) return null;
+        try (FileChannel ch = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            if (ch.size() > Integer.MAX_VALUE) return null;
+            Input in = new Input(ch.map(FileChannel.MapMode.READ_ONLY, 0, ch.size()));
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) return null;
+            int sourceCount = in.readInt();
+            if (sourceCount != sources.size()) return null;
+            for (File src : sources) {
+                String path = in.readString();
+                long length = in.readLong();
+                long modified = in.readLong();
+                if (!src.getPath().equals(path) || src.length() != length || src.lastModified() != modified) return null;
+            }
+            int count = in.readInt();
+            List<T> result = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) result.add(codec.read(in));
+            return result;
+        } catch (IOException | RuntimeException e) {
+            System.out.println("Snapshot " + file + " tidak dapat dibaca, memuat ulang dari JSON: " + e);
+            return null;
+        }
+    }
+
+    /**
+     * Menulis snapshot ke file sementara lalu memindahkannya secara atomik.
+     *
+     * @param sources File sumber yang menjadi dasar data
+     * @param data Daftar entitas yang akan disimpan
+     */
+    public void save(List<File> sources, List<T> data) {
+        File dir = file.getAbsoluteFile().getParentFile();
+        if (dir != null && !dir.exists()) dir.mkdirs();
+        File tmp = new File(file.getPath() + "." + ProcessHandle.current().pid() + ".tmp");  // unik per proses agar instance lain tidak menimpa
+        try (Output out = new Output(new BufferedOutputStream(new FileOutputStream(tmp), BUFFER_SIZE))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(sources.size());
+            for (File src : sources) {
+                out.writeString(src.getPath());
+                out.writeLong(src.length());
+                out.writeLong(src.lastModified());
+            }
+            out.writeInt(data.size());
+            for (T value : data) codec.write(out, value);
+        } catch (IOException e) {
+            e.printStackTrace();
+            tmp.delete();
+            return;
+        }
+        try {
+            Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Output snapshot: DataOutputStream dengan tambahan penulisan String, simbol, dan ID.
+     * Simbol adalah String yang sering berulang; kemunculan pertama ditulis lengkap,
+     * kemunculan berikutnya hanya ditulis sebagai nomor urut simbol.
+     */
+    public static final class Output extends DataOutputStream {
+        private final Map<String, Integer> symbols = new HashMap<>();  // Simbol yang sudah ditulis
+
+        Output(OutputStream out) {
+            super(out);
+        }
+
+        /**
+         * Menulis String yang boleh null sebagai panjang byte UTF-8 (-1 untuk null) diikuti isinya.
+         */
+        public void writeString(String s) throws IOException {
+            if (s == null) {
+                writeInt(-1);
+                return;
+            }
+            byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+            writeInt(bytes.length);
+            write(bytes);
+        }
+
+        /**
+         * Menulis String yang sering berulang: -1 untuk null, nomor simbol jika sudah pernah
+         * ditulis, atau -2 diikuti String lengkap untuk simbol baru.
+         */
+        public void writeSymbol(String s) throws IOException {
+            if (s == null) {
+                writeInt(-1);
+                return;
+            }
+            Integer ref = symbols.get(s);
+            if (ref != null) {
+                writeInt(ref);
+                return;
+            }
+            symbols.put(s, symbols.size());
+            writeInt(-2);
+            writeString(s);
+        }
+
+        /**
+         * Menulis ID: dua long jika berbentuk UUID kanonik, selain itu sebagai String.
+         */
+        public void writeId(String id) throws IOException {
+            if (id != null) {
+                try {
+                    UUID uuid = UUID.fromString(id);
+                    if (uuid.toString().equals(id)) {
+                        writeByte(1);
+                        writeLong(uuid.getMostSignificantBits());
+                        writeLong(uuid.getLeastSignificantBits());
+                        return;
+                    }
+                } catch (IllegalArgumentException e) {
+                    // bukan UUID, ditulis sebagai String
+                }
+            }
+            writeByte(0);
+            writeString(id);
+        }
+    }
+
+    /**
+     * Input snapshot yang membaca langsung dari ByteBuffer hasil memory-mapping.
+     * Pasangan dari Output; setiap method membaca format yang ditulis method padanannya.
+     */
+    public static final class Input {
+        private final ByteBuffer buf;                        // Isi file snapshot
+        private final List<String> symbols = new ArrayList<>();  // Simbol yang sudah dibaca
+
+        Input(ByteBuffer buf) {
+            this.buf = buf;
+        }
+
+        public int readInt() { return buf.getInt(); }
+        public long readLong() { return buf.getLong(); }
+
+        /**
+         * Membaca String yang ditulis oleh Output.writeString.
+         */
+        public String readString() {
+            int len = buf.getInt();
+            if (len < 0) return null;
+            byte[] bytes = new byte[len];
+            buf.get(bytes);
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+
+        /**
+         * Membaca simbol yang ditulis oleh Output.writeSymbol; simbol berulang memakai objek String yang sama.
+         */
+        public String readSymbol() {
+            int ref = buf.getInt();
+            if (ref == -1) return null;
+            if (ref >= 0) return symbols.get(ref);
+            String s = readString();
+            symbols.add(s);
+            return s;
+        }
+
+        /**
+         * Membaca ID yang ditulis oleh Output.writeId.
+         */
+        public String readId() {
+            if (buf.get() == 1) return new UUID(buf.getLong(), buf.getLong()).toString();
+            return readString();
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package id.univ.uaspbo.repository;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.cbor.CBORGenerator;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Format penyimpanan file data yang dipakai FileRepository.
+ * - JSON: JSON ber-indentasi (format awal, mudah dibaca manusia).
+ * - COMPACT_JSON: JSON tanpa spasi dan baris baru.
+ * - SMILE: JSON biner Jackson Smile; nama field dan String berulang dirujuk ulang.
+ * - CBOR: Concise Binary Object Representation (RFC 8949).
+ *
+ * Semua format menyimpan struktur yang sama ({"version": n, "data": [...]}) sehingga dapat
+ * saling dikonversi. Saat membaca, format dikenali dari byte awal file, bukan dari nama file,
+ * sehingga mengganti format cukup dengan mengubah konfigurasi: file lama tetap terbaca dan
+ * ditulis dalam format baru pada penulisan berikutnya.
+ */
+public enum StorageFormat {
+    JSON, COMPACT_JSON, SMILE, CBOR;
+
+    private static final byte[] SMILE_HEADER = {':', ')', '\n'};
+    private static final int CBOR_SELF_DESCRIBE = 0xD9;  // Byte pertama tag CBOR 55799 (0xD9D9F7)
+
+    /**
+     * Membuat ObjectMapper untuk format ini, dengan modul tambahan (misalnya JSR-310) terdaftar.
+     */
+    public ObjectMapper newMapper() {
+        ObjectMapper mapper = switch (this) {
+            case JSON, COMPACT_JSON -> new ObjectMapper();
+            case SMILE -> new ObjectMapper(new SmileFactory());
+            case CBOR -> new ObjectMapper(CBORFactory.builder().enable(CBORGenerator.Feature.WRITE_TYPE_HEADER).build());
+        };
+        mapper.findAndRegisterModules();
+        if (this == JSON) mapper.enable(SerializationFeature.INDENT_OUTPUT);
+        return mapper;
+    }
+
+    /**
+     * Apakah keluaran format ini ber-indentasi.
+     */
+    public boolean pretty() {
+        return this == JSON;
+    }
+
+    /**
+     * Mengenali format file dari byte awalnya. File JSON (pretty maupun compact) dikenali
+     * sebagai JSON karena keduanya dibaca dengan parser yang sama.
+     *
+     * @return Format file, atau null jika file tidak ada atau kosong
+     */
+    public static StorageFormat detect(File file) {
+        if (!file.exists() || file.length() == 0) return null;
+        byte[] head = new byte[3];
+        int n;
+        try (InputStream in = new FileInputStream(file)) {
+            n = in.readNBytes(head, 0, head.length);
+        } catch (IOException e) {
+            return null;
+        }
+        if (n == 3 && head[0] == SMILE_HEADER[0] && head[1] == SMILE_HEADER[1] && head[2] == SMILE_HEADER[2]) return SMILE;
+        int first = head[0] & 0xFF;
+        if (first == CBOR_SELF_DESCRIBE || (first >= 0xA0 && first <= 0xBF) || (first >= 0x80 && first <= 0x9F)) return CBOR;
+        return JSON;
+    }
+
+    /**
+     * Mengubah nilai properti konfigurasi (json, compact-json, smile, cbor) menjadi format.
+     *
+     * @throws IllegalArgumentException jika nama format tidak dikenal
+     */
+    public static StorageFormat parse(String name) {
+        return valueOf(name.trim().toUpperCase().replace('-', '_'));
+    }
+}
@@ -0,0 +1,397 @@
+package id.univ.uaspbo.repository;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
+
+/**
+ * Repository pembungkus (decorator) yang menunda penulisan ke repository di bawahnya
+ * (write-behind). Perubahan (put, putAll, delete) langsung tercatat di antrean memori dan
+ * method segera kembali; thread latar belakang menuliskannya dalam satu batch ke repository
+ * asli. Perubahan berulang pada entitas yang sama digabung (coalescing) sehingga hanya nilai
+ * terakhir yang ditulis.
+ *
+ * Batch ditulis paling lambat maxStalenessMs setelah perubahan pertama yang belum ditulis,
+ * atau lebih cepat jika antrean mencapai maxPending entitas. Jika antrean penuh, pemanggil
+ * menunggu sampai penulis menguras antrean (backpressure), sehingga memori tetap terbatas.
+ * flush() menulis antrean saat itu juga, dan close() menulis sisa antrean sebelum menutup
+ * repository asli.
+ *
+ * Pembacaan (get, scan, readAll) menggabungkan isi repository asli dengan antrean yang belum
+ * ditulis, sehingga pemanggil selalu melihat perubahannya sendiri.
+ *
+ * Jika repository asli append-only, delete dan saveAll langsung ditolak saat dipanggil, karena
+ * penghapusan yang sudah masuk antrean akan gagal pada setiap percobaan tulis berikutnya.
+ *
+ * Jika satu batch gagal ditulis, entitasnya ditulis ulang satu per satu sehingga satu entitas
+ * yang bermasalah tidak menahan entitas lain. Entitas yang gagal dikembalikan ke antrean dan
+ * dicoba lagi setelah batas umur berikutnya; setelah MAX_ATTEMPTS kali gagal, entitas itu
+ * disisihkan (dicatat di log dan dapat dibaca lewat getRejected()) agar antrean tetap berjalan.
+ * Entitas yang disisihkan tetap terlihat oleh pembacaan sampai diganti perubahan baru.
+ *
+ * @param <T> Tipe entitas yang disimpan
+ *
+ * Konsep OOP yang digunakan:
+ * - Komposisi: Penyimpanan sebenarnya didelegasikan ke Repository lain.
+ * - Implementasi Interface: Mengimplementasikan Repository sehingga dapat menggantikan repository asli.
+ */
+public class WriteBehindRepository<T> implements Repository<T> {
+    private static final int MAX_ATTEMPTS = 5;  // Percobaan tulis per entitas sebelum disisihkan
+
+    private final String name;                // Nama data, untuk thread penulis dan log
+    private final Repository<T> delegate;     // Repository asli tempat data ditulis
+    private final Function<T, String> idOf;   // Pengambil ID entitas
+    private final long maxStalenessNanos;     // Batas umur perubahan yang belum ditulis
+    private final int maxPending;             // Batas jumlah entitas di antrean
+
+    private final Object lock = new Object();                       // Penjaga antrean
+    private final Object flushLock = new Object();                  // Menjaga urutan batch yang ditulis
+    private LinkedHashMap<String, Pending<T>> pending = new LinkedHashMap<>();  // Perubahan yang belum ditulis
+    private Map<String, Pending<T>> inFlight = Map.of();            // Batch yang sedang ditulis
+    private final Map<String, Pending<T>> rejected = new LinkedHashMap<>();  // Perubahan yang disisihkan setelah gagal berulang
+    private long firstPendingAt;                                    // Waktu perubahan tertua di antrean
+    private volatile boolean running = true;
+    private final Thread writer;
+
+    /**
+     * Konstruktor WriteBehindRepository.
+     *
+     * @param name Nama data, dipakai untuk nama thread penulis
+     * @param delegate Repository asli
+     * @param idOf Fungsi untuk mengambil ID entitas
+     * @param maxStalenessMs Batas waktu (milidetik) sebuah perubahan boleh belum ditulis
+     * @param maxPending Batas jumlah entitas di antrean sebelum pemanggil harus menunggu
+     */
+    public WriteBehindRepository(String name, Repository<T> delegate, Function<T, String> idOf, long maxStalenessMs, int maxPending) {
+        this.name = name;
+        this.delegate = delegate;
+        this.idOf = idOf;
+        this.maxStalenessNanos = maxStalenessMs * 1_000_000L;
+        this.maxPending = Math.max(1, maxPending);
+        this.writer = new Thread(this::run, "write-behind-" + name);
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * Mendapatkan repository asli yang dibungkus.
+     */
+    public Repository<T> delegate() {
+        return delegate;
+    }
+
+    @Override
+    public T get(String id) {
+        Pending<T> p = lookup(id);
+        if (p != null) return p.value();
+        return delegate.get(id);
+    }
+
+    @Override
+    public List<T> scan(String fromId, String toId) {
+        Map<String, Pending<T>> overlay = overlay();
+        List<T> result = new ArrayList<>();
+        for (T entity : delegate.scan(fromId, toId)) {
+            if (!overlay.containsKey(idOf.apply(entity))) result.add(entity);
+        }
+        for (Map.Entry<String, Pending<T>> e : overlay.entrySet()) {
+            String id = e.getKey();
+            if (e.getValue().value() == null) continue;
+            if ((fromId == null || id.compareTo(fromId) >= 0) && (toId == null || id.compareTo(toId) < 0)) result.add(e.getValue().value());
+        }
+        result.sort(Comparator.comparing(idOf));
+        return result;
+    }
+
+    @Override
+    public List<T> readAll() {
+        Map<String, Pending<T>> overlay = overlay();
+        List<T> result = new ArrayList<>();
+        for (T entity : delegate.readAll()) {
+            Pending<T> p = overlay.remove(idOf.apply(entity));
+            if (p == null) result.add(entity);
+            else if (p.value() != null) result.add(p.value());
+        }
+        for (Pending<T> p : overlay.values()) {
+            if (p.value() != null) result.add(p.value());
+        }
+        return result;
+    }
+
+    @Override
+    public void put(T entity) {
+        enqueue(idOf.apply(entity), new Pending<>(entity));
+    }
+
+    @Override
+    public void putAll(List<T> entities) {
+        for (T entity : entities) put(entity);
+    }
+
+    @Override
+    public void delete(String id) {
+        requireMutable("delete");
+        enqueue(id, new Pending<>(null));
+    }
+
+    /**
+     * Menulis antrean lebih dulu, lalu memperbarui langsung di repository asli
+     * agar fungsi diterapkan pada nilai tersimpan terkini.
+     */
+    @Override
+    public List<T> updateAll(Collection<String> ids, UnaryOperator<T> fn) {
+        flush();
+        return delegate.updateAll(ids, fn);
+    }
+
+    /**
+     * Mengganti seluruh isi repository secara langsung; antrean yang belum ditulis dibuang
+     * karena akan tertimpa.
+     */
+    @Override
+    public void saveAll(List<T> entities) {
+        requireMutable("saveAll");
+        synchronized (flushLock) {
+            synchronized (lock) {
+                pending = new LinkedHashMap<>();
+                lock.notifyAll();
+            }
+            delegate.saveAll(entities);
+        }
+    }
+
+    @Override
+    public boolean isAppendOnly() {
+        return delegate.isAppendOnly();
+    }
+
+    @Override
+    public List<File> files() {
+        return delegate.files();
+    }
+
+    /**
+     * Meneruskan perubahan dari proses lain, kecuali entitas yang masih memiliki perubahan
+     * lokal yang belum ditulis (perubahan lokal itu akan menimpanya saat ditulis).
+     */
+    @Override
+    public Changes<T> pollChanges() {
+        Changes<T> changes = delegate.pollChanges();
+        if (changes == null) return null;
+        Map<String, Pending<T>> overlay = overlay();
+        if (overlay.isEmpty()) return changes;
+        List<T> changed = new ArrayList<>();
+        for (T entity : changes.changed()) {
+            if (!overlay.containsKey(idOf.apply(entity))) changed.add(entity);
+        }
+        List<String> removed = changes.removed().stream().filter(id -> !overlay.containsKey(id)).toList();
+        return changed.isEmpty() && removed.isEmpty() ? null : new Changes<>(changes.version(), changed, removed);
+    }
+
+    /**
+     * Menulis semua perubahan di antrean ke repository asli saat itu juga. Jika batch gagal,
+     * entitas ditulis satu per satu; yang tetap gagal dikembalikan ke antrean atau disisihkan.
+     *
+     * @throws IllegalStateException jika ada entitas yang gagal ditulis pada pemanggilan ini
+     */
+    @Override
+    public void flush() {
+        synchronized (flushLock) {
+            Map<String, Pending<T>> batch;
+            synchronized (lock) {
+                if (pending.isEmpty()) return;
+                batch = pending;
+                inFlight = batch;
+                pending = new LinkedHashMap<>();
+                lock.notifyAll();
+            }
+            Map<String, RuntimeException> failures = new LinkedHashMap<>();
+            try {
+                try {
+                    writeBatch(batch);
+                } catch (RuntimeException e) {
+                    for (Map.Entry<String, Pending<T>> entry : batch.entrySet()) {
+                        try {
+                            writeBatch(Map.of(entry.getKey(), entry.getValue()));
+                        } catch (RuntimeException single) {
+                            failures.put(entry.getKey(), single);
+                        }
+                    }
+                }
+                if (!failures.isEmpty()) requeue(batch, failures);
+            } finally {
+                synchronized (lock) {
+                    inFlight = Map.of();
+                }
+            }
+            if (!failures.isEmpty()) {
+                throw new IllegalStateException(failures.size() + " perubahan " + name + " gagal ditulis: "
+                        + String.join(", ", failures.keySet()), failures.values().iterator().next());
+            }
+        }
+    }
+
+    /**
+     * Menulis sekumpulan perubahan ke repository asli: semua nilai baru dalam satu putAll,
+     * lalu penghapusan satu per satu.
+     */
+    private void writeBatch(Map<String, Pending<T>> batch) {
+        List<T> puts = new ArrayList<>();
+        List<String> deletes = new ArrayList<>();
+        for (Map.Entry<String, Pending<T>> e : batch.entrySet()) {
+            if (e.getValue().value() != null) puts.add(e.getValue().value());
+            else deletes.add(e.getKey());
+        }
+        if (!puts.isEmpty()) delegate.putAll(puts);
+        for (String id : deletes) delegate.delete(id);
+    }
+
+    /**
+     * Mengembalikan perubahan yang gagal ke antrean tanpa menimpa perubahan yang lebih baru,
+     * atau menyisihkannya jika sudah gagal MAX_ATTEMPTS kali.
+     */
+    private void requeue(Map<String, Pending<T>> batch, Map<String, RuntimeException> failures) {
+        synchronized (lock) {
+            for (Map.Entry<String, RuntimeException> f : failures.entrySet()) {
+                Pending<T> failed = batch.get(f.getKey());
+                Pending<T> retry = new Pending<>(failed.value(), failed.attempts() + 1);
+                if (retry.attempts() >= MAX_ATTEMPTS) {
+                    if (!pending.containsKey(f.getKey())) rejected.put(f.getKey(), retry);
+                    System.out.println("Write-behind " + name + ": change to " + f.getKey() + " set aside after "
+                            + retry.attempts() + " failed attempts: " + f.getValue().getMessage());
+                } else if (pending.putIfAbsent(f.getKey(), retry) == null && pending.size() == 1) {
+                    firstPendingAt = System.nanoTime();  // dicoba lagi setelah batas umur berikutnya
+                }
+            }
+            lock.notifyAll();
+        }
+    }
+
+    /**
+     * Menghentikan thread penulis, menulis sisa antrean, lalu menutup repository asli.
+     */
+    @Override
+    public void close() {
+        running = false;
+        synchronized (lock) {
+            lock.notifyAll();
+        }
+        try {
+            writer.join(5_000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        try {
+            flush();
+        } finally {
+            delegate.close();
+        }
+    }
+
+    /**
+     * Mendapatkan jumlah entitas yang belum ditulis.
+     */
+    public int pendingCount() {
+        synchronized (lock) {
+            return pending.size() + inFlight.size();
+        }
+    }
+
+    /**
+     * Mendapatkan perubahan yang disisihkan karena gagal ditulis MAX_ATTEMPTS kali.
+     *
+     * @return Map ID entitas ke nilai yang gagal ditulis (null untuk penghapusan)
+     */
+    public Map<String, T> getRejected() {
+        synchronized (lock) {
+            Map<String, T> result = new LinkedHashMap<>();
+            rejected.forEach((id, p) -> result.put(id, p.value()));
+            return result;
+        }
+    }
+
+    /**
+     * Menolak operasi yang tidak didukung repository asli append-only sebelum antrean disentuh.
+     */
+    private void requireMutable(String operation) {
+        if (delegate.isAppendOnly()) {
+            throw new UnsupportedOperationException(operation + " tidak didukung: " + delegate.getClass().getSimpleName() + " hanya dapat ditambah");
+        }
+    }
+
+    private void enqueue(String id, Pending<T> change) {
+        synchronized (lock) {
+            while (running && pending.size() >= maxPending && !pending.containsKey(id)) {
+                try {
+                    lock.wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+            }
+            if (pending.isEmpty()) firstPendingAt = System.nanoTime();
+            pending.put(id, change);
+            rejected.remove(id);
+            lock.notifyAll();
+        }
+        if (!running) flush();
+    }
+
+    private Pending<T> lookup(String id) {
+        synchronized (lock) {
+            Pending<T> p = pending.get(id);
+            if (p == null) p = inFlight.get(id);
+            return p != null ? p : rejected.get(id);
+        }
+    }
+
+    private Map<String, Pending<T>> overlay() {
+        synchronized (lock) {
+            Map<String, Pending<T>> overlay = new HashMap<>(rejected);
+            overlay.putAll(inFlight);
+            overlay.putAll(pending);
+            return overlay;
+        }
+    }
+
+    /**
+     * Loop thread penulis: menunggu sampai ada perubahan, lalu sampai perubahan tertua
+     * mencapai batas umur atau antrean penuh, kemudian menulis satu batch.
+     */
+    private void run() {
+        while (running) {
+            try {
+                synchronized (lock) {
+                    while (running && pending.isEmpty()) lock.wait();
+                    long remaining;
+                    while (running && pending.size() < maxPending
+                            && (remaining = firstPendingAt + maxStalenessNanos - System.nanoTime()) > 0) {
+                        lock.wait(Math.max(1, remaining / 1_000_000L));
+                    }
+                }
+                flush();
+            } catch (InterruptedException e) {
+                return;
+            } catch (RuntimeException e) {
+                e.printStackTrace();
+            }
+        }
+    }
+
+    /**
+     * Satu perubahan di antrean: nilai baru entitas, atau null untuk penghapusan, beserta
+     * jumlah percobaan tulis yang sudah gagal.
+     */
+    private record Pending<T>(T value, int attempts) {
+        Pending(T value) {
+            this(value, 0);
+        }
+    }
+}
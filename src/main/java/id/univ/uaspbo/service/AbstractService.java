@@ -1,16 +1,60 @@
 package id.univ.uaspbo.service;
 
-import id.univ.uaspbo.repository.FileRepository;
+import id.univ.uaspbo.model.UpdateStats;
+import id.univ.uaspbo.monitoring.CacheStats;
+import id.univ.uaspbo.repository.DataWatcher;
+import id.univ.uaspbo.repository.Repository;
+import id.univ.uaspbo.repository.RepositoryFactory;
+import id.univ.uaspbo.repository.SnapshotCodec;
+import id.univ.uaspbo.repository.SnapshotFile;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 
 import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.UnaryOperator;
 
 /**
  * Kelas abstrak dasar yang menyediakan implementasi operasi CRUD (Create, Read, Update, Delete)
  * yang umum digunakan oleh berbagai service di aplikasi ini.
- * Kelas ini mengelola penyimpanan data melalui repository berbasis file JSON sebagai sumber data.
+ * Kelas ini mengelola penyimpanan data melalui Repository yang backend-nya (file JSON atau MVStore)
+ * dipilih per entitas lewat properti uas.storage.&lt;nama&gt; pada application.properties.
+ *
+ * Operasi yang mengubah data (add, update, delete, saveAll) disinkronkan pada instance service
+ * agar siklus baca-ubah-tulis file tidak saling menimpa ketika dipanggil bersamaan.
+ *
+ * Data dimuat sekali ke cache memori melalui load() (dipanggil DataLoader saat startup),
+ * dari snapshot biner jika masih valid atau dari repository jika tidak. Setiap perubahan
+ * membuat salinan baru daftar cache (copy-on-write) lalu menyimpannya ke repository, sehingga
+ * pembacaan tidak perlu mem-parsing file lagi dan tidak memerlukan penguncian.
+ * Pembacaan yang dilayani cache (hit) dan yang harus memuat data lebih dulu (miss) dihitung
+ * dan direkam berkala oleh Java Flight Recorder sebagai CacheStatisticsEvent.
+ * Perubahan satu entitas diteruskan ke repository sebagai put/delete satu entitas, sehingga
+ * backend MVStore hanya memperbarui entri yang berubah.
+ *
+ * Beberapa instance aplikasi dapat berbagi direktori data yang sama: file repository diamati
+ * oleh DataWatcher, dan ketika berubah hanya entitas yang berbeda (hasil pollChanges) yang
+ * dimasukkan ulang ke cache. Backend MVStore mengunci file secara eksklusif sehingga hanya
+ * backend JSON yang mendukung pemakaian bersama ini.
+ *
+ * Pembaruan memakai optimistic concurrency: update() hanya diterima jika versi entitas sama
+ * dengan versi di cache (compare-and-set), lalu versinya dinaikkan. Pemanggil yang bersaing
+ * pada entitas yang sering diubah dapat memakai updateWithRetry(), yang membaca ulang entitas
+ * terkini, menerapkan perubahan, dan mencoba lagi jika terjadi konflik. Jumlah pembaruan,
+ * konflik, dan percobaan ulang dicatat dan dapat dibaca lewat getUpdateStats().
+ * Penambahan dan penghapusan entitas dikirim sebagai event "counters" ke dashboard admin yang terbuka.
+ * findById(), getAll(), dan getFirst() mengembalikan salinan entitas sehingga perubahan pemanggil
+ * tidak menyentuh cache.
  *
  * AbstractService bertindak sebagai superclass yang dapat diturunkan oleh service spesifik
  * untuk menghindari pengulangan kode CRUD dasar dan mempermudah pemeliharaan.
@@ -23,8 +67,30 @@ import java.util.UUID;
  * - Polymorphism (Polimorfisme): Mendukung method overriding oleh subclass untuk implementasi spesifik.
  */
 public abstract class AbstractService<T> implements CrudService<T> {
-    protected FileRepository<T> repo;  // Repository penyimpanan data berbasis file
-    protected String dataPath;          // Path penyimpanan data
+    private static final int MAX_UPDATE_ATTEMPTS = 8;  // Batas percobaan updateWithRetry
+
+    protected Repository<T> repo;       // Repository penyimpanan data
+    protected String dataPath;          // Path penyimpanan data JSON
+    protected volatile List<T> cache;   // Data di memori, null sebelum dimuat
+    private SnapshotFile<T> snapshot;   // Snapshot biner data
+
+    @Value("${uas.data.snapshot-dir:data/snapshot}")
+    private String snapshotDir;         // Direktori file snapshot biner
+
+    @Autowired
+    private RepositoryFactory repositories;  // Pembuat repository sesuai backend yang dipilih
+
+    @Autowired
+    private DataWatcher watcher;             // Pengamat perubahan file data oleh proses lain
+
+    @Autowired
+    protected DashboardEvents events;        // Penyalur event ke dashboard admin yang terbuka
+
+    private String name;                                  // Nama data, misalnya "products"
+    private final LongAdder updates = new LongAdder();    // Pembaruan yang berhasil
+    private final LongAdder conflicts = new LongAdder();  // Pembaruan yang ditolak karena konflik versi
+    private final LongAdder retries = new LongAdder();    // Percobaan ulang updateWithRetry
+    private CacheStats cacheStats;                        // Hit dan miss cache untuk Java Flight Recorder
 
 
     //Abstraksi: Mendefinisikan method abstrak untuk operasi CRUD yang harus diimplementasikan oleh subclass.
@@ -38,6 +104,11 @@ public abstract class AbstractService<T> implements CrudService<T> {
      */
     protected abstract Class<T[]> getTypeClass();
 
+    /**
+     * Mendapatkan codec biner entitas untuk snapshot.
+     */
+    protected abstract SnapshotCodec<T> getSnapshotCodec();
+
     /**
      * Inisialisasi repository setelah konstruktor dipanggil.
      * Dilakukan secara otomatis lewat anotasi @PostConstruct.
@@ -45,26 +116,159 @@ public abstract class AbstractService<T> implements CrudService<T> {
     @PostConstruct
     private void init() {
         this.dataPath = getDataPath();
-        this.repo = new FileRepository<>(dataPath, getTypeClass());
+        this.name = new File(dataPath).getName().replaceFirst("\\.json$", "");
+        this.repo = repositories.open(name, dataPath, getTypeClass(), getSnapshotCodec(), this::getEntityId);
+        this.snapshot = new SnapshotFile<>(new File(snapshotDir, name + ".bin").getPath(), getSnapshotCodec());
+        this.cacheStats = new CacheStats(name);
+        for (File f : repo.files()) watcher.register(f, this::reloadChanges);
+    }
+
+    /**
+     * Menutup repository saat aplikasi dihentikan.
+     */
+    @PreDestroy
+    private void closeRepository() {
+        repo.close();
+    }
+
+    /**
+     * Memuat data ke cache memori, dari snapshot biner jika ukuran dan waktu modifikasi
+     * file sumber repository masih sama dengan saat snapshot ditulis, atau dari repository jika tidak.
+     * Repository tanpa file sumber (misalnya MVStore) selalu dibaca langsung.
+     * Titik awal pollChanges diambil sebelum data dibaca, sehingga perubahan dari proses lain
+     * di antara keduanya paling buruk diterapkan dua kali (penerapannya idempoten), tidak hilang.
+     */
+    public synchronized void load() {
+        repo.pollChanges();
+        List<File> sources = repo.files();
+        List<T> data = sources.isEmpty() ? null : snapshot.load(sources);
+        if (data == null) data = repo.readAll();
+        cache = data;
+        onLoaded(data);
+    }
+
+    /**
+     * Dipanggil setelah data dimuat ke cache; dapat di-override untuk membangun struktur turunan.
+     */
+    protected void onLoaded(List<T> data) {}
+
+    /**
+     * Memuat ulang entitas yang diubah proses lain ke cache. Dipanggil oleh DataWatcher
+     * ketika file repository berubah; perubahan oleh proses ini sendiri tidak dilaporkan repository.
+     */
+    protected synchronized void reloadChanges() {
+        Repository.Changes<T> changes = repo.pollChanges();
+        if (changes == null || cache == null) return;
+        applyToCache(changes.changed(), changes.removed());
+        onReloaded(changes);
+    }
+
+    /**
+     * Dipanggil setelah perubahan dari proses lain diterapkan ke cache.
+     */
+    protected void onReloaded(Repository.Changes<T> changes) {}
+
+    /**
+     * Mengganti atau menambahkan entitas tertentu dan membuang entitas yang dihapus pada cache
+     * (copy-on-write), tanpa menulis ke repository.
+     */
+    protected synchronized void applyToCache(Collection<T> changed, Collection<String> removed) {
+        Map<String, T> byId = new LinkedHashMap<>();
+        for (T entity : changed) byId.put(getEntityId(entity), entity);
+        Set<String> gone = new HashSet<>(removed);
+        List<T> all = new ArrayList<>(entities().size() + byId.size());
+        for (T entity : entities()) {
+            String id = getEntityId(entity);
+            if (gone.contains(id)) continue;
+            T replacement = byId.remove(id);
+            all.add(replacement != null ? replacement : entity);
+        }
+        all.addAll(byId.values());
+        cache = all;
+    }
+
+    /**
+     * Menulis isi cache ke snapshot biner beserta ukuran dan waktu modifikasi file sumber saat ini.
+     */
+    public synchronized void writeSnapshot() {
+        repo.flush();
+        List<File> sources = repo.files();
+        if (cache != null && !sources.isEmpty()) snapshot.save(sources, cache);
+    }
+
+    /**
+     * Menulis perubahan yang masih tertunda (write-behind) ke penyimpanan saat itu juga.
+     */
+    public void flush() {
+        repo.flush();
     }
 
     /**
-     * Mendapatkan semua entitas dari repository.
+     * Mendapatkan daftar di cache, memuatnya terlebih dahulu jika belum dimuat.
+     */
+    protected List<T> entities() {
+        List<T> data = cache;
+        if (data != null) {
+            cacheStats.hit();
+            return data;
+        }
+        synchronized (this) {
+            if (cache == null) {
+                cacheStats.miss();
+                load();
+            } else {
+                cacheStats.hit();
+            }
+            return cache;
+        }
+    }
+
+    /**
+     * Mendapatkan salinan semua entitas dari cache, sehingga perubahan pemanggil tidak menyentuh cache.
      */
     @Override
     public List<T> getAll() {
-        return repo.readAll();
+        List<T> data = entities();
+        List<T> all = new ArrayList<>(data.size());
+        for (T entity : data) all.add(copyOf(entity));
+        return all;
+    }
+
+    /**
+     * Mendapatkan jumlah entitas dari ukuran cache (O(1)), tanpa menyalin daftar.
+     */
+    public int count() {
+        return entities().size();
+    }
+
+    /**
+     * Mendapatkan salinan paling banyak limit entitas pertama dari cache, misalnya untuk ringkasan dashboard.
+     */
+    public List<T> getFirst(int limit) {
+        List<T> data = entities();
+        List<T> first = new ArrayList<>();
+        for (T entity : data.subList(0, Math.min(limit, data.size()))) first.add(copyOf(entity));
+        return first;
     }
 
     /**
      * Mencari entitas berdasarkan ID.
+     *
+     * @return Salinan entitas yang boleh diubah pemanggil, atau null jika tidak ditemukan
      */
     @Override
     public T findById(String id) {
-        return repo.readAll().stream()
-                .filter(entity -> getEntityId(entity).equals(id))
-                .findFirst()
-                .orElse(null);
+        for (T entity : entities()) {
+            if (getEntityId(entity).equals(id)) return copyOf(entity);
+        }
+        return null;
+    }
+
+    /**
+     * Membuat salinan entitas melalui codec snapshot.
+     */
+    protected T copyOf(T entity) {
+        return getSnapshotCodec().copy(entity);
     }
 
     /**
@@ -72,45 +276,88 @@ public abstract class AbstractService<T> implements CrudService<T> {
      * ID entitas akan di-generate secara otomatis.
      */
     @Override
-    public void add(T entity) {
-        List<T> all = repo.readAll();
+    public synchronized void add(T entity) {
+        List<T> all = new ArrayList<>(entities());
         setEntityId(entity, UUID.randomUUID().toString());
         all.add(entity);
-        repo.saveAll(all);
+        repo.put(entity);
+        cache = all;
+        events.publish("counters", Map.of(name, 1));
     }
 
     /**
-     * Memperbarui entitas yang sudah ada berdasarkan ID.
+     * Memperbarui entitas yang sudah ada berdasarkan ID dengan compare-and-set versi:
+     * pembaruan hanya diterima jika versi entitas sama dengan versi di cache, lalu versinya naik satu.
+     *
+     * @return true jika berhasil, false jika entitas tidak ditemukan atau versinya sudah berubah
      */
     @Override
-    public void update(T entity) {
-        List<T> all = repo.readAll();
+    public synchronized boolean update(T entity) {
+        List<T> all = new ArrayList<>(entities());
         String id = getEntityId(entity);
         for (int i = 0; i < all.size(); i++) {
-            if (getEntityId(all.get(i)).equals(id)) {
-                all.set(i, entity);
-                break;
+            if (!getEntityId(all.get(i)).equals(id)) continue;
+            if (getEntityVersion(all.get(i)) != getEntityVersion(entity)) {
+                conflicts.increment();
+                return false;
             }
+            setEntityVersion(entity, getEntityVersion(entity) + 1);
+            all.set(i, entity);
+            repo.put(entity);
+            cache = all;
+            updates.increment();
+            return true;
         }
-        repo.saveAll(all);
+        return false;
+    }
+
+    /**
+     * Memperbarui entitas dengan membaca versi terkini, menerapkan perubahan, lalu compare-and-set.
+     * Jika entitas diubah pihak lain di antaranya, perubahan diterapkan ulang pada versi yang
+     * lebih baru (retry-with-merge), sampai MAX_UPDATE_ATTEMPTS kali.
+     *
+     * @param id ID entitas
+     * @param change Fungsi yang menerima salinan entitas terkini dan mengembalikan entitas yang sudah diubah
+     * @return Entitas hasil pembaruan, atau null jika entitas tidak ditemukan atau konflik terus terjadi
+     */
+    public T updateWithRetry(String id, UnaryOperator<T> change) {
+        for (int attempt = 0; attempt < MAX_UPDATE_ATTEMPTS; attempt++) {
+            T current = findById(id);
+            if (current == null) return null;
+            T changed = change.apply(current);
+            if (update(changed)) return changed;
+            retries.increment();
+        }
+        return null;
+    }
+
+    /**
+     * Mendapatkan statistik pembaruan dan konflik versi sejak aplikasi dijalankan.
+     */
+    public UpdateStats getUpdateStats() {
+        return new UpdateStats(name, updates.sum(), conflicts.sum(), retries.sum());
     }
 
     /**
      * Menghapus entitas berdasarkan ID.
      */
     @Override
-    public void delete(String id) {
-        List<T> all = repo.readAll();
-        all.removeIf(entity -> getEntityId(entity).equals(id));
-        repo.saveAll(all);
+    public synchronized void delete(String id) {
+        List<T> all = new ArrayList<>(entities());
+        if (!all.removeIf(entity -> getEntityId(entity).equals(id))) return;
+        repo.delete(id);
+        cache = all;
+        events.publish("counters", Map.of(name, -1));
     }
 
     /**
      * Menyimpan semua entitas yang diberikan ke repository.
      */
     @Override
-    public void saveAll(List<T> entities) {
-        repo.saveAll(entities);
+    public synchronized void saveAll(List<T> entities) {
+        List<T> all = new ArrayList<>(entities);
+        repo.saveAll(all);
+        cache = all;
     }
 
     /**
@@ -125,4 +372,14 @@ public abstract class AbstractService<T> implements CrudService<T> {
      * @param id ID yang akan diset pada entitas
      */
     protected abstract void setEntityId(T entity, String id);
+
+    /**
+     * Mendapatkan versi entitas (diimplementasikan oleh kelas turunan).
+     */
+    protected abstract long getEntityVersion(T entity);
+
+    /**
+     * Mengatur versi entitas (diimplementasikan oleh kelas turunan).
+     */
+    protected abstract void setEntityVersion(T entity, long version);
 }
@@ -0,0 +1,156 @@
+package id.univ.uaspbo.service;
+
+import id.univ.uaspbo.model.AdmissionStats;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Service kontrol beban (admission control) di depan endpoint yang mahal seperti checkout,
+ * login, dan halaman laporan admin. Jumlah permintaan yang boleh diproses bersamaan dibatasi;
+ * permintaan yang melebihi batas langsung ditolak (load shedding) alih-alih mengantre di thread
+ * Tomcat, sehingga pemanggil segera menerima jawaban "sibuk, coba lagi".
+ *
+ * Batas konkurensi menyesuaikan diri dengan latensi yang teramati (AIMD):
+ * - Additive increase: setiap permintaan yang selesai di bawah targetLatencyMs saat batas
+ *   sedang terpakai minimal separuhnya menaikkan batas sebesar 1/limit (sekitar +1 per putaran).
+ * - Multiplicative decrease: permintaan yang melewati target menurunkan batas menjadi
+ *   backoffRatio kali semula, paling sering sekali setiap targetLatencyMs.
+ *
+ * Setiap prioritas hanya boleh memakai sebagian dari batas (lihat Priority), sehingga saat
+ * beban tinggi halaman admin ditolak lebih dulu sebelum login, dan login sebelum checkout.
+ *
+ * Konsep OOP yang digunakan:
+ * - Enkapsulasi: Batas, jumlah permintaan aktif, dan statistik hanya diubah melalui tryAcquire/Permit.
+ * - Inner Class: Permit mewakili satu permintaan yang diterima dan melepaskan slotnya saat ditutup.
+ */
+@Service
+public class AdmissionLimiter {
+
+    /**
+     * Prioritas permintaan beserta porsi batas konkurensi yang boleh dipakainya.
+     */
+    public enum Priority {
+        CHECKOUT(1.0), LOGIN(0.8), ADMIN(0.5);
+
+        private final double share;  // Porsi dari batas konkurensi
+
+        Priority(double share) {
+            this.share = share;
+        }
+    }
+
+    private static final double BACKOFF_RATIO = 0.9;   // Faktor penurunan batas saat latensi melewati target
+    private static final double LATENCY_SMOOTHING = 0.1;  // Bobot sampel baru pada rata-rata bergerak latensi
+
+    private final boolean enabled;
+    private final int minLimit;
+    private final int maxLimit;
+    private final long targetLatencyNanos;
+
+    private double limit;           // Batas konkurensi saat ini (dijaga oleh this)
+    private int inFlight;           // Permintaan yang sedang diproses (dijaga oleh this)
+    private long lastDecrease;      // Waktu penurunan batas terakhir (dijaga oleh this)
+    private double latencyNanos;    // Rata-rata bergerak latensi (dijaga oleh this)
+    private final Map<Priority, LongAdder> admitted = new EnumMap<>(Priority.class);
+    private final Map<Priority, LongAdder> rejected = new EnumMap<>(Priority.class);
+
+    /**
+     * Konstruktor AdmissionLimiter dengan nilai dari application.properties.
+     */
+    public AdmissionLimiter(@Value("${uas.admission.enabled:true}") boolean enabled,
+                            @Value("${uas.admission.initial-limit:20}") int initialLimit,
+                            @Value("${uas.admission.min-limit:2}") int minLimit,
+                            @Value("${uas.admission.max-limit:200}") int maxLimit,
+                            @Value("${uas.admission.target-latency-ms:200}") long targetLatencyMs) {
+        this.enabled = enabled;
+        this.minLimit = Math.max(1, minLimit);
+        this.maxLimit = Math.max(this.minLimit, maxLimit);
+        this.limit = Math.min(this.maxLimit, Math.max(this.minLimit, initialLimit));
+        this.targetLatencyNanos = targetLatencyMs * 1_000_000L;
+        for (Priority p : Priority.values()) {
+            admitted.put(p, new LongAdder());
+            rejected.put(p, new LongAdder());
+        }
+    }
+
+    /**
+     * Mencoba menerima satu permintaan dengan prioritas tertentu tanpa menunggu.
+     *
+     * @return Permit yang harus ditutup setelah permintaan selesai (cocok untuk try-with-resources),
+     *         atau null jika permintaan harus ditolak karena server sibuk
+     */
+    public Permit tryAcquire(Priority priority) {
+        synchronized (this) {
+            if (enabled && inFlight >= effectiveLimit(priority)) {
+                rejected.get(priority).increment();
+                return null;
+            }
+            inFlight++;
+        }
+        admitted.get(priority).increment();
+        return new Permit(System.nanoTime());
+    }
+
+    /**
+     * Mendapatkan statistik kontrol beban per prioritas.
+     */
+    public List<AdmissionStats> getStats() {
+        List<AdmissionStats> stats = new ArrayList<>();
+        synchronized (this) {
+            for (Priority p : Priority.values()) {
+                stats.add(new AdmissionStats(p.name(), effectiveLimit(p), inFlight,
+                        admitted.get(p).sum(), rejected.get(p).sum(), latencyNanos / 1e6));
+            }
+        }
+        return stats;
+    }
+
+    private int effectiveLimit(Priority priority) {
+        return Math.max(1, (int) (limit * priority.share));
+    }
+
+    /**
+     * Mencatat selesainya satu permintaan lalu menyesuaikan batas konkurensi (AIMD).
+     */
+    private synchronized void release(long startedAt) {
+        long now = System.nanoTime();
+        long latency = now - startedAt;
+        int active = inFlight;
+        inFlight--;
+        latencyNanos = latencyNanos == 0 ? latency : latencyNanos + LATENCY_SMOOTHING * (latency - latencyNanos);
+        if (latency > targetLatencyNanos) {
+            if (now - lastDecrease >= targetLatencyNanos) {
+                limit = Math.max(minLimit, limit * BACKOFF_RATIO);
+                lastDecrease = now;
+            }
+        } else if (active * 2 >= limit) {
+            limit = Math.min(maxLimit, limit + 1.0 / limit);
+        }
+    }
+
+    /**
+     * Izin untuk satu permintaan yang diterima. Menutup permit melepaskan slotnya dan
+     * mencatat latensi permintaan; menutup lebih dari sekali tidak berpengaruh.
+     */
+    public final class Permit implements AutoCloseable {
+        private final long startedAt;
+        private boolean released;
+
+        private Permit(long startedAt) {
+            this.startedAt = startedAt;
+        }
+
+        @Override
+        public void close() {
+            if (released) return;
+            released = true;
+            release(startedAt);
+        }
+    }
+}
@@ -38,11 +38,12 @@ public interface CrudService<T> {
     void add(T entity);
 
     /**
-     * Memperbarui entitas yang sudah ada.
+     * Memperbarui entitas yang sudah ada jika versinya sama dengan versi tersimpan.
      *
      * @param entity Entitas yang akan diperbarui.
+     * @return true jika berhasil, false jika entitas tidak ditemukan atau versinya sudah berubah (konflik).
      */
-    void update(T entity);
+    boolean update(T entity);
 
     /**
      * Menghapus entitas berdasarkan ID.
@@ -0,0 +1,194 @@
+package id.univ.uaspbo.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Service penyalur event langsung (Server-Sent Events) ke dashboard admin yang sedang terbuka.
+ * Service lain memanggil publish() untuk perubahan kecil (transaksi baru, perubahan stok, selisih
+ * penghitung); setiap event diserialisasi sekali lalu dimasukkan ke antrean setiap klien.
+ *
+ * Antrean per klien dibatasi uas.dashboard.events.buffer event. Klien yang terlalu lambat sehingga
+ * antreannya penuh diputus (slow-consumer eviction); browser akan menyambung ulang dan memuat ulang
+ * halaman. Pengiriman dilakukan oleh dua thread bersama, bukan satu thread per klien, dan hanya
+ * ketika ada event, sehingga dashboard yang menganggur hanya memakan satu koneksi terbuka dan
+ * satu komentar heartbeat setiap uas.dashboard.events.heartbeat-seconds.
+ *
+ * Konsep OOP yang digunakan:
+ * - Enkapsulasi: Daftar klien dan antreannya hanya diakses melalui subscribe dan publish.
+ * - Inner Class: Client mewakili satu koneksi SSE beserta antrean event-nya.
+ */
+@Service
+public class DashboardEvents {
+
+    @Value("${uas.dashboard.events.buffer:256}")
+    private int bufferSize;             // Batas antrean event per klien
+
+    @Value("${uas.dashboard.events.heartbeat-seconds:25}")
+    private long heartbeatSeconds;      // Jeda komentar heartbeat untuk mendeteksi koneksi putus
+
+    private static final long RECONNECT_MS = 5_000;  // Jeda sambung ulang yang disarankan ke browser
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final CopyOnWriteArrayList<Client> clients = new CopyOnWriteArrayList<>();
+    private final AtomicLong sequence = new AtomicLong();  // ID event berurutan
+    private final LongAdder published = new LongAdder();
+    private final LongAdder evicted = new LongAdder();
+    private ScheduledExecutorService sender;
+
+    /**
+     * Menjalankan thread pengirim event dan heartbeat.
+     */
+    @PostConstruct
+    private void init() {
+        sender = Executors.newScheduledThreadPool(2, r -> {
+            Thread t = new Thread(r, "dashboard-events");
+            t.setDaemon(true);
+            return t;
+        });
+        sender.scheduleWithFixedDelay(this::heartbeat, heartbeatSeconds, heartbeatSeconds, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Menutup semua koneksi dan menghentikan thread pengirim.
+     */
+    @PreDestroy
+    private void shutdown() {
+        for (Client c : clients) c.emitter.complete();
+        clients.clear();
+        sender.shutdownNow();
+    }
+
+    /**
+     * Mendaftarkan klien dashboard baru.
+     *
+     * @return SseEmitter tanpa batas waktu untuk dikembalikan controller
+     */
+    public SseEmitter subscribe() {
+        SseEmitter emitter = new SseEmitter(0L);
+        Client client = new Client(emitter, new ArrayBlockingQueue<>(Math.max(1, bufferSize)));
+        emitter.onCompletion(() -> clients.remove(client));
+        emitter.onTimeout(() -> clients.remove(client));
+        emitter.onError(e -> clients.remove(client));
+        clients.add(client);
+        enqueue(client, SseEmitter.event().reconnectTime(RECONNECT_MS).comment("connected"));
+        return emitter;
+    }
+
+    /**
+     * Mengecek apakah ada dashboard yang terhubung, agar pemanggil dapat melewati
+     * pembuatan payload event ketika tidak ada yang mendengarkan.
+     */
+    public boolean hasSubscribers() {
+        return !clients.isEmpty();
+    }
+
+    /**
+     * Mengirim event ke semua dashboard yang terhubung tanpa menunggu pengiriman.
+     *
+     * @param type Nama event, misalnya "transaction", "stock", atau "counters"
+     * @param data Payload event yang diserialisasi ke JSON
+     */
+    public void publish(String type, Object data) {
+        if (clients.isEmpty()) return;
+        String json;
+        try {
+            json = mapper.writeValueAsString(data);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Payload event tidak dapat diserialisasi: " + e.getMessage(), e);
+        }
+        published.increment();
+        String id = Long.toString(sequence.incrementAndGet());
+        for (Client c : clients) {
+            enqueue(c, SseEmitter.event().id(id).name(type).data(json, MediaType.APPLICATION_JSON));
+        }
+    }
+
+    /**
+     * Mendapatkan jumlah dashboard yang sedang terhubung.
+     */
+    public int getSubscriberCount() {
+        return clients.size();
+    }
+
+    /**
+     * Mendapatkan jumlah event yang sudah dikirim sejak aplikasi berjalan.
+     */
+    public long getPublishedCount() {
+        return published.sum();
+    }
+
+    /**
+     * Mendapatkan jumlah klien yang diputus karena terlalu lambat atau koneksinya gagal.
+     */
+    public long getEvictedCount() {
+        return evicted.sum();
+    }
+
+    private void heartbeat() {
+        for (Client c : clients) enqueue(c, SseEmitter.event().comment("ping"));
+    }
+
+    /**
+     * Memasukkan event ke antrean klien lalu menjadwalkan pengurasan antrean jika belum terjadwal.
+     * Klien yang antreannya penuh diputus.
+     */
+    private void enqueue(Client c, SseEmitter.SseEventBuilder event) {
+        if (!c.queue.offer(event)) {
+            evict(c);
+            return;
+        }
+        if (c.scheduled.compareAndSet(false, true)) sender.execute(() -> drain(c));
+    }
+
+    private void drain(Client c) {
+        try {
+            SseEmitter.SseEventBuilder event;
+            while ((event = c.queue.poll()) != null) c.emitter.send(event);
+        } catch (IOException | IllegalStateException e) {
+            evict(c);
+        } finally {
+            c.scheduled.set(false);
+            if (!c.queue.isEmpty() && clients.contains(c) && c.scheduled.compareAndSet(false, true)) sender.execute(() -> drain(c));
+        }
+    }
+
+    private void evict(Client c) {
+        if (!clients.remove(c)) return;
+        evicted.increment();
+        c.queue.clear();
+        c.emitter.complete();
+    }
+
+    /**
+     * Satu dashboard yang terhubung: emitter SSE, antrean event terbatas, dan penanda
+     * apakah pengurasan antreannya sedang terjadwal.
+     */
+    private static final class Client {
+        private final SseEmitter emitter;
+        private final BlockingQueue<SseEmitter.SseEventBuilder> queue;
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+
+        private Client(SseEmitter emitter, BlockingQueue<SseEmitter.SseEventBuilder> queue) {
+            this.emitter = emitter;
+            this.queue = queue;
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package id.univ.uaspbo.service;
+
+/**
+ * Satu outlet (gerai) beserta service-service datanya sendiri: produk dan stok, transaksi,
+ * penahanan stok keranjang, dan penyalur event dashboard. Setiap outlet menyimpan datanya di
+ * file dan direktori sendiri serta memiliki kunci checkout, antrean write-behind, dan thread
+ * latar belakang sendiri, sehingga checkout di outlet berbeda tidak saling menunggu.
+ * Data pengguna dipakai bersama oleh seluruh outlet.
+ *
+ * Konsep OOP yang digunakan:
+ * - Komposisi: Outlet tersusun dari service-service yang mengelola datanya.
+ * - Enkapsulasi: Atribut private final yang hanya dapat dibaca melalui getter.
+ */
+public class Outlet {
+    private final String id;                          // ID outlet, juga nama direktori datanya
+    private final String name;                        // Nama outlet yang ditampilkan
+    private final ProductService products;            // Produk dan stok outlet
+    private final TransactionService transactions;    // Transaksi outlet
+    private final ReservationService reservations;    // Penahanan stok keranjang di outlet
+    private final DashboardEvents events;             // Event dashboard admin outlet
+
+    /**
+     * Konstruktor dengan parameter lengkap.
+     */
+    public Outlet(String id, String name, ProductService products, TransactionService transactions,
+                  ReservationService reservations, DashboardEvents events) {
+        this.id = id;
+        this.name = name;
+        this.products = products;
+        this.transactions = transactions;
+        this.reservations = reservations;
+        this.events = events;
+    }
+
+    public String getId() { return id; }
+    public String getName() { return name; }
+    public ProductService getProducts() { return products; }
+    public TransactionService getTransactions() { return transactions; }
+    public ReservationService getReservations() { return reservations; }
+    public DashboardEvents getEvents() { return events; }
+}
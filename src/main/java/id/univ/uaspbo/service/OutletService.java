@@ -0,0 +1,251 @@
+package id.univ.uaspbo.service;
+
+import id.univ.uaspbo.model.OutletSummary;
+import id.univ.uaspbo.model.Product;
+import id.univ.uaspbo.model.ProductPopularity;
+import id.univ.uaspbo.model.Transaction;
+import id.univ.uaspbo.model.UserSpending;
+import id.univ.uaspbo.repository.RepositoryFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.core.env.Environment;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.stereotype.Service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.io.File;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Kelas service yang mengelola outlet-outlet (gerai) dalam satu deployment.
+ * Outlet utama memakai service produk, transaksi, dan penahanan stok aplikasi beserta file data
+ * pada uas.data.*. Setiap outlet tambahan yang terdaftar di uas.outlets mendapat application
+ * context anak sendiri berisi ProductService, TransactionService, ReservationService,
+ * DashboardEvents, dan RepositoryFactory, dengan properti uas.data.* dan uas.storage.mvstore-dir
+ * diarahkan ke direktori uas.outlets.dir/&lt;id outlet&gt;. Dengan begitu setiap outlet memiliki file,
+ * kunci file, kunci checkout, antrean write-behind, dan thread latar belakang sendiri, sementara
+ * data pengguna dan pengamat file tetap dipakai bersama dari context induk.
+ *
+ * Laporan kantor pusat (ringkasan, produk terlaris, dan belanja pengguna lintas outlet) dihitung
+ * per outlet secara paralel lalu digabungkan.
+ *
+ * Konsep OOP yang digunakan:
+ * - Komposisi: Menyimpan outlet-outlet beserta service datanya.
+ * - Enkapsulasi: Context anak hanya dibuat dan ditutup oleh kelas ini.
+ */
+@Service
+public class OutletService {
+    private static final int LOW_STOCK = 10;  // Batas stok menipis, sama dengan tampilan stok di halaman
+
+    private final ApplicationContext parent;  // Context aplikasi, induk context setiap outlet tambahan
+    private final Environment env;            // Sumber properti nama outlet
+    private final Outlet main;                // Outlet utama (data pada uas.data.*)
+    private final Map<String, Outlet> outlets = new LinkedHashMap<>();  // ID outlet -> outlet, outlet utama pertama
+    private final List<AnnotationConfigApplicationContext> contexts = new ArrayList<>();  // Context outlet tambahan
+
+    @Value("${uas.outlets:}")
+    private String[] outletIds;  // ID outlet tambahan
+
+    @Value("${uas.outlets.dir:data/outlets}")
+    private String outletsDir;   // Direktori induk data outlet tambahan
+
+    /**
+     * Konstruktor OutletService. Outlet utama dibentuk dari service-service aplikasi.
+     *
+     * @param parent Context aplikasi
+     * @param env Environment untuk membaca nama outlet
+     */
+    public OutletService(ApplicationContext parent, Environment env, ProductService products, TransactionService transactions,
+                         ReservationService reservations, DashboardEvents events,
+                         @Value("${uas.outlets.main-id:utama}") String mainId,
+                         @Value("${uas.outlets.main-name:Outlet Utama}") String mainName) {
+        this.parent = parent;
+        this.env = env;
+        this.main = new Outlet(mainId, mainName, products, transactions, reservations, events);
+        outlets.put(mainId, main);
+    }
+
+    /**
+     * Membuat context setiap outlet tambahan. Data outlet dimuat kemudian oleh DataLoader.
+     */
+    @PostConstruct
+    private void startOutlets() {
+        for (String id : outletIds) {
+            String outletId = id.trim();
+            if (outletId.isEmpty() || outlets.containsKey(outletId)) continue;
+            outlets.put(outletId, start(outletId));
+        }
+    }
+
+    /**
+     * Membuat context anak untuk satu outlet dengan properti data yang diarahkan ke direktorinya.
+     */
+    private Outlet start(String id) {
+        String dir = new File(outletsDir, id).getPath();
+        Map<String, Object> props = new HashMap<>();
+        props.put("uas.data.products", new File(dir, "products.json").getPath());
+        props.put("uas.data.transactions", new File(dir, "transactions.json").getPath());
+        props.put("uas.data.transactions-dir", new File(dir, "transactions").getPath());
+        props.put("uas.data.snapshot-dir", new File(dir, "snapshot").getPath());
+        props.put("uas.storage.mvstore-dir", new File(dir, "mvstore").getPath());
+
+        AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext();
+        context.setDisplayName("outlet-" + id);
+        context.setParent(parent);
+        context.getEnvironment().getPropertySources().addFirst(new MapPropertySource("outlet-" + id, props));
+        context.register(RepositoryFactory.class, DashboardEvents.class, ProductService.class,
+                ReservationService.class, TransactionService.class);
+        context.refresh();
+        contexts.add(context);
+        return new Outlet(id, env.getProperty("uas.outlets." + id + ".name", id), context.getBean(ProductService.class),
+                context.getBean(TransactionService.class), context.getBean(ReservationService.class),
+                context.getBean(DashboardEvents.class));
+    }
+
+    /**
+     * Menutup context outlet tambahan, sehingga perubahan stok dan antrean write-behind-nya ditulis.
+     */
+    @PreDestroy
+    private void stopOutlets() {
+        contexts.forEach(AnnotationConfigApplicationContext::close);
+    }
+
+    /**
+     * Mendapatkan semua outlet, dimulai dari outlet utama.
+     */
+    public Collection<Outlet> getAll() {
+        return outlets.values();
+    }
+
+    /**
+     * Mendapatkan outlet berdasarkan ID.
+     *
+     * @param id ID outlet, boleh null
+     * @return Outlet dengan ID tersebut, atau outlet utama jika ID null atau tidak dikenal
+     */
+    public Outlet get(String id) {
+        Outlet o = id != null ? outlets.get(id) : null;
+        return o != null ? o : main;
+    }
+
+    /**
+     * Mengecek apakah ada outlet dengan ID tertentu.
+     */
+    public boolean exists(String id) {
+        return id != null && outlets.containsKey(id);
+    }
+
+    /**
+     * Mengecek apakah deployment memiliki lebih dari satu outlet.
+     */
+    public boolean isMultiOutlet() {
+        return outlets.size() > 1;
+    }
+
+    /**
+     * Menghitung ringkasan setiap outlet secara paralel, ditambah ringkasan gabungan seluruh outlet
+     * sebagai elemen terakhir.
+     *
+     * @param from Batas bawah periode laporan (inklusif), null berarti tanpa batas
+     * @param to Batas atas periode laporan (eksklusif), null berarti tanpa batas
+     * @return Ringkasan per outlet diikuti ringkasan gabungan
+     */
+    public List<OutletSummary> getSummaries(LocalDateTime from, LocalDateTime to) {
+        List<CompletableFuture<OutletSummary>> parts = new ArrayList<>();
+        for (Outlet o : outlets.values()) parts.add(CompletableFuture.supplyAsync(() -> summarize(o, from, to)));
+        List<OutletSummary> result = new ArrayList<>(parts.stream().map(CompletableFuture::join).toList());
+        OutletSummary total = new OutletSummary(null, "Semua Outlet", 0, 0, 0, 0, 0, 0, 0);
+        for (OutletSummary s : result) total = total.plus(s, total.getOutletName());
+        result.add(total);
+        return result;
+    }
+
+    private OutletSummary summarize(Outlet o, LocalDateTime from, LocalDateTime to) {
+        ProductService products = o.getProducts();
+        TransactionService transactions = o.getTransactions();
+        List<Product> all = products.getAll();
+        long units = 0;
+        int low = 0;
+        for (Product p : all) {
+            int stock = products.getStock(p.getId());
+            units += stock;
+            if (stock <= LOW_STOCK) low++;
+        }
+        long orders = transactions.getOrderCount();
+        long revenue = transactions.getRevenueTotal();
+        boolean period = from != null || to != null;
+        return new OutletSummary(o.getId(), o.getName(), all.size(), units, low, orders, revenue,
+                period ? transactions.getOrdersBetween(from, to) : orders,
+                period ? transactions.getRevenueBetween(from, to) : revenue);
+    }
+
+    /**
+     * Mendapatkan produk terlaris gabungan seluruh outlet. Produk di outlet berbeda memiliki ID
+     * berbeda, sehingga penjualan digabungkan berdasarkan nama produk.
+     *
+     * @param from Batas bawah inklusif, null berarti tanpa batas
+     * @param to Batas atas eksklusif, null berarti tanpa batas
+     * @param limit Jumlah produk yang diambil, 0 berarti semua
+     * @param sortBy Kriteria urutan ("quantity", "revenue", atau "orders")
+     * @return Daftar produk terurut dari yang paling laris
+     */
+    public List<ProductPopularity> getBestSellers(LocalDateTime from, LocalDateTime to, int limit, String sortBy) {
+        List<CompletableFuture<List<ProductPopularity>>> parts = new ArrayList<>();
+        for (Outlet o : outlets.values()) {
+            parts.add(CompletableFuture.supplyAsync(() -> o.getTransactions().getBestSellers(from, to, 0, sortBy)));
+        }
+        Map<String, ProductPopularity> merged = new LinkedHashMap<>();
+        for (CompletableFuture<List<ProductPopularity>> part : parts) {
+            for (ProductPopularity p : part.join()) {
+                merged.merge(p.getProductName(), p, (a, b) -> new ProductPopularity(a.getProductId(), a.getProductName(),
+                        a.getQuantity() + b.getQuantity(), a.getRevenue() + b.getRevenue(), a.getOrders() + b.getOrders()));
+            }
+        }
+        Comparator<ProductPopularity> order = switch (sortBy) {
+            case "revenue" -> Comparator.comparingLong(ProductPopularity::getRevenue);
+            case "orders" -> Comparator.comparingInt(ProductPopularity::getOrders);
+            default -> Comparator.comparingLong(ProductPopularity::getQuantity);
+        };
+        List<ProductPopularity> result = new ArrayList<>(merged.values());
+        result.sort(order.reversed());
+        return limit > 0 && result.size() > limit ? result.subList(0, limit) : result;
+    }
+
+    /**
+     * Mendapatkan ringkasan belanja setiap pengguna yang digabungkan dari seluruh outlet.
+     *
+     * @return Map dari ID pengguna ke ringkasan belanjanya
+     */
+    public Map<String, UserSpending> getUserSpending() {
+        if (!isMultiOutlet()) return main.getTransactions().getUserSpending();
+        Map<String, UserSpending> result = new HashMap<>();
+        for (Outlet o : outlets.values()) {
+            o.getTransactions().getUserSpending().forEach((user, s) -> result.merge(user, s, UserSpending::plus));
+        }
+        return result;
+    }
+
+    /**
+     * Mendapatkan transaksi satu pengguna di seluruh outlet, terurut dari yang paling awal.
+     *
+     * @param userId ID pengguna
+     * @return Daftar transaksi pengguna dari semua outlet
+     */
+    public List<Transaction> getByUserId(String userId) {
+        if (!isMultiOutlet()) return main.getTransactions().getByUserId(userId);
+        List<Transaction> result = new ArrayList<>();
+        for (Outlet o : outlets.values()) result.addAll(o.getTransactions().getByUserId(userId));
+        result.sort(Comparator.comparing(Transaction::getTimestamp, Comparator.nullsFirst(Comparator.naturalOrder())));
+        return result;
+    }
+}
@@ -1,10 +1,32 @@
 package id.univ.uaspbo.service;
 
+import id.univ.uaspbo.index.StockTable;
+import id.univ.uaspbo.model.BulkResult;
 import id.univ.uaspbo.model.Product;
+import id.univ.uaspbo.model.ProductEdit;
+import id.univ.uaspbo.repository.Repository;
+import id.univ.uaspbo.repository.SnapshotCodec;
+import id.univ.uaspbo.repository.SnapshotCodecs;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 /**
  * Kelas service yang bertanggung jawab mengelola semua operasi yang berhubungan dengan entitas Product.
@@ -14,6 +36,29 @@ import java.util.List;
  * Kelas ini mengatur pengambilan data produk dari file JSON yang path-nya dikonfigurasi
  * melalui properti aplikasi, memastikan konsistensi penyimpanan dan pengambilan data.
  *
+ * Stok produk dikelola oleh tabel stok primitif (StockTable) yang menjadi sumber kebenaran
+ * untuk pembacaan stok. Pengurangan stok saat checkout dilakukan tanpa penguncian, lalu
+ * perubahan stok ditulis kembali ke file produk secara asinkron oleh thread latar belakang.
+ *
+ * Yang ditulis ke file adalah selisih (delta) stok, bukan nilai absolut, dan diterapkan pada
+ * isi file terkini di bawah kunci file. Dengan begitu beberapa instance yang berbagi file produk
+ * tidak saling menimpa pengurangan stok. Perubahan stok oleh instance lain dikenali dengan
+ * membandingkan stok di file terhadap nilai file terakhir yang sudah diterapkan ke tabel stok.
+ *
+ * Stok yang ditahan (reserveStock) hanya dikurangi dari tabel stok dan tidak ditulis ke file,
+ * sehingga penahanan yang hilang karena aplikasi berhenti tidak mengurangi stok tersimpan.
+ * Penahanan menjadi pengurangan stok permanen saat checkout (commitReservedStock).
+ * Setiap perubahan stok dikirim sebagai event "stock" ke dashboard admin yang terbuka.
+ *
+ * Operasi massal admin (applyBulk, changePrices, restockFromList) memeriksa semua perubahan
+ * dalam satu lintasan atas cache produk lalu menulisnya ke repository dalam satu operasi
+ * baca-ubah-tulis, dan melaporkan hasil per item.
+ *
+ * Setiap perubahan produk atau stoknya dilaporkan ke pendengar yang didaftarkan lewat onChange()
+ * berupa ID produk (misalnya untuk replikasi ke instance follower). Instance follower menerapkan
+ * keadaan produk dari primary lewat method replicate*, yang hanya mengubah cache dan tabel stok
+ * tanpa menulis ke repository.
+ *
  * Konsep Object Oriented Programming (OOP) yang dipakai:
  * - Inheritance (Pewarisan): Memanfaatkan implementasi CRUD dasar dari AbstractService.
  * - Encapsulation (Enkapsulasi): Variabel productsPath bersifat private dan diakses lewat method.
@@ -21,10 +66,89 @@ import java.util.List;
  */
 @Service
 public class ProductService extends AbstractService<Product> {
+    private static final Pattern RESTOCK_LINE = Pattern.compile("^(.+?)[\\s,;=]+(-?\\d+)$");  // "Nama Produk, jumlah"
 
     @Value("${uas.data.products}")
     private String productsPath;  // Path file data produk
 
+    @Value("${uas.inventory.flush-interval-ms:1000}")
+    private long flushIntervalMs;  // Jeda penulisan stok ke file produk
+
+    private final StockTable stock = new StockTable();                                   // Tabel stok sumber kebenaran
+    private final Map<String, Integer> pendingStock = new ConcurrentHashMap<>();  // Delta stok yang belum ditulis ke file
+    private final Map<String, Integer> knownStock = new ConcurrentHashMap<>();    // Stok di file yang sudah tercermin di tabel stok
+    private final Map<String, Integer> reservedStock = new ConcurrentHashMap<>(); // Stok yang sedang ditahan (hanya di tabel stok, tidak ke file)
+    private ScheduledExecutorService stockWriter;                                        // Thread penulis stok asinkron
+    private final List<Consumer<String>> changeListeners = new CopyOnWriteArrayList<>();  // Pendengar perubahan produk
+
+    /**
+     * Menjalankan penulis stok asinkron. Tabel stok diisi saat data produk dimuat (onLoaded).
+     */
+    @PostConstruct
+    private void initInventory() {
+        stockWriter = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "stock-writer");
+            t.setDaemon(true);
+            return t;
+        });
+        stockWriter.scheduleWithFixedDelay(this::flushStock, flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Menghentikan penulis stok dan menulis perubahan stok terakhir ke file.
+     */
+    @PreDestroy
+    private void shutdownInventory() {
+        stockWriter.shutdown();
+        flushStock();
+    }
+
+    /**
+     * Memuat stok semua produk ke tabel stok setelah data produk dimuat.
+     */
+    @Override
+    protected void onLoaded(List<Product> data) {
+        for (Product p : data) {
+            stock.set(p.getId(), p.getStock());
+            knownStock.put(p.getId(), p.getStock());
+        }
+    }
+
+    /**
+     * Menerapkan perubahan produk dari instance lain ke tabel stok. Untuk produk yang sudah
+     * dikenal, hanya selisih stok di file terhadap nilai file terakhir yang ditambahkan, sehingga
+     * pengurangan stok lokal yang belum ditulis tidak hilang.
+     */
+    @Override
+    protected void onReloaded(Repository.Changes<Product> changes) {
+        for (Product p : changes.changed()) {
+            Integer known = knownStock.put(p.getId(), p.getStock());
+            if (known == null || !stock.contains(p.getId())) stock.set(p.getId(), p.getStock());
+            else if (known != p.getStock()) stock.add(p.getId(), p.getStock() - known);
+            stockChanged(p.getId());
+        }
+        for (String id : changes.removed()) forgetStock(id);
+    }
+
+    /**
+     * Menulis perubahan stok yang tertunda ke file produk sebelum snapshot ditulis,
+     * agar snapshot tetap valid terhadap isi file produk.
+     */
+    @Override
+    public synchronized void writeSnapshot() {
+        flushStock();
+        super.writeSnapshot();
+    }
+
+    /**
+     * Menulis delta stok yang tertunda lalu perubahan produk yang tertunda ke penyimpanan.
+     */
+    @Override
+    public void flush() {
+        flushStock();
+        super.flush();
+    }
+
     /**
      * Mendapatkan path data produk untuk repository file.
      */
@@ -41,6 +165,14 @@ public class ProductService extends AbstractService<Product> {
         return Product[].class;
     }
 
+    /**
+     * Mendapatkan codec biner produk untuk snapshot.
+     */
+    @Override
+    protected SnapshotCodec<Product> getSnapshotCodec() {
+        return SnapshotCodecs.PRODUCT;
+    }
+
     /**
      * Mendapatkan ID dari objek produk.
      */
@@ -57,6 +189,441 @@ public class ProductService extends AbstractService<Product> {
         product.setId(id);
     }
 
+    /**
+     * Mendapatkan versi dari objek produk.
+     */
+    @Override
+    protected long getEntityVersion(Product product) {
+        return product.getVersion();
+    }
+
+    /**
+     * Mengatur versi pada objek produk.
+     */
+    @Override
+    protected void setEntityVersion(Product product, long version) {
+        product.setVersion(version);
+    }
+
+    /**
+     * Mendapatkan salinan semua produk dengan stok yang diambil dari tabel stok.
+     */
+    @Override
+    public List<Product> getAll() {
+        List<Product> all = new ArrayList<>();
+        for (Product p : entities()) {
+            Product copy = copyOf(p);
+            if (stock.contains(p.getId())) copy.setStock(stock.get(p.getId()));
+            all.add(copy);
+        }
+        return all;
+    }
+
+    /**
+     * Mencari produk berdasarkan ID dengan stok yang diambil dari tabel stok.
+     */
+    @Override
+    public Product findById(String id) {
+        Product p = super.findById(id);
+        if (p != null && stock.contains(id)) p.setStock(stock.get(id));
+        return p;
+    }
+
+    /**
+     * Menambahkan produk baru dan mendaftarkan stoknya ke tabel stok.
+     */
+    @Override
+    public synchronized void add(Product product) {
+        super.add(product);
+        stock.set(product.getId(), product.getStock());
+        knownStock.put(product.getId(), product.getStock());
+        notifyChanged(product.getId());
+    }
+
+    /**
+     * Memperbarui data produk (nama, harga) dengan compare-and-set versi.
+     * Stok tidak diubah lewat update karena stok dikelola tabel stok sebagai delta yang dapat
+     * digabung dengan checkout bersamaan; gunakan addStock atau restock untuk mengubahnya.
+     * Stok yang ditulis ke file adalah stok file terakhir yang diketahui, agar delta yang
+     * belum ditulis tidak terhitung dua kali.
+     *
+     * @return true jika berhasil, false jika produk tidak ditemukan atau versinya sudah berubah
+     */
+    @Override
+    public synchronized boolean update(Product product) {
+        product.setStock(knownStock.getOrDefault(product.getId(), product.getStock()));
+        if (!super.update(product)) return false;
+        notifyChanged(product.getId());
+        return true;
+    }
+
+    /**
+     * Menyimpan seluruh produk dan menyamakan tabel stok dengan stok pada daftar tersebut.
+     */
+    @Override
+    public synchronized void saveAll(List<Product> products) {
+        pendingStock.clear();
+        super.saveAll(products);
+        for (Product p : products) {
+            stock.set(p.getId(), p.getStock() - reservedStock.getOrDefault(p.getId(), 0));
+            knownStock.put(p.getId(), p.getStock());
+            notifyChanged(p.getId());
+        }
+    }
+
+    /**
+     * Menghapus produk dan mengosongkan stoknya di tabel stok.
+     */
+    @Override
+    public synchronized void delete(String id) {
+        super.delete(id);
+        forgetStock(id);
+    }
+
+    private void forgetStock(String id) {
+        stock.set(id, 0);
+        knownStock.remove(id);
+        pendingStock.remove(id);
+        reservedStock.remove(id);
+        notifyChanged(id);
+    }
+
+    /**
+     * Melaporkan perubahan stok ke pendengar dan mengirim stok terkini satu produk ke dashboard admin yang terbuka.
+     */
+    private void stockChanged(String id) {
+        notifyChanged(id);
+        if (events.hasSubscribers()) events.publish("stock", Map.of("productId", id, "stock", stock.get(id)));
+    }
+
+    /**
+     * Mendaftarkan pendengar yang dipanggil dengan ID produk setiap kali produk ditambah, diubah,
+     * dihapus, atau stoknya berubah. Pendengar dipanggil pada thread yang melakukan perubahan
+     * dan dapat membaca keadaan terkini produk lewat findById (null jika produk sudah dihapus).
+     */
+    public void onChange(Consumer<String> listener) {
+        changeListeners.add(listener);
+    }
+
+    private void notifyChanged(String id) {
+        for (Consumer<String> listener : changeListeners) listener.accept(id);
+    }
+
+    /**
+     * Menerapkan keadaan satu produk dari instance primary (ditambah atau diganti) ke cache dan
+     * tabel stok, tanpa menulis ke repository.
+     */
+    public synchronized void replicate(Product product) {
+        applyToCache(List.of(product), List.of());
+        stock.set(product.getId(), product.getStock());
+        knownStock.put(product.getId(), product.getStock());
+        stockChanged(product.getId());
+    }
+
+    /**
+     * Membuang produk yang dihapus di instance primary dari cache dan tabel stok.
+     */
+    public synchronized void replicateDelete(String id) {
+        applyToCache(List.of(), List.of(id));
+        forgetStock(id);
+    }
+
+    /**
+     * Mengganti seluruh produk di cache dan tabel stok dengan keadaan dari snapshot instance primary;
+     * produk yang tidak ada di snapshot dibuang. Tidak menulis ke repository.
+     */
+    public synchronized void replicateAll(List<Product> products) {
+        Set<String> keep = new HashSet<>();
+        for (Product p : products) keep.add(p.getId());
+        List<String> removed = new ArrayList<>();
+        for (Product p : entities()) {
+            if (!keep.contains(p.getId())) removed.add(p.getId());
+        }
+        applyToCache(products, removed);
+        for (String id : removed) forgetStock(id);
+        for (Product p : products) {
+            stock.set(p.getId(), p.getStock());
+            knownStock.put(p.getId(), p.getStock());
+            stockChanged(p.getId());
+        }
+    }
+
+    /**
+     * Mendapatkan stok produk saat ini dari tabel stok.
+     *
+     * @param id ID produk
+     * @return Stok produk, 0 jika produk tidak dikenal
+     */
+    public int getStock(String id) {
+        return stock.get(id);
+    }
+
+    /**
+     * Mengurangi stok produk hanya jika stok mencukupi, tanpa penguncian.
+     * Perubahan ditulis ke file produk secara asinkron.
+     *
+     * @param id ID produk
+     * @param qty Jumlah yang dikurangi
+     * @return true jika berhasil, false jika stok tidak mencukupi atau produk tidak ada
+     */
+    public boolean tryDecrementStock(String id, int qty) {
+        if (!stock.tryDecrement(id, qty)) return false;
+        pendingStock.merge(id, -qty, Integer::sum);
+        stockChanged(id);
+        return true;
+    }
+
+    /**
+     * Menambahkan stok satu produk, misalnya untuk mengembalikan stok yang batal dipakai.
+     * Jumlah negatif mengurangi stok hanya jika stok mencukupi, seperti pada applyBulk,
+     * sehingga stok tidak pernah menjadi negatif karena checkout yang terjadi bersamaan.
+     *
+     * @param id ID produk
+     * @param qty Jumlah yang ditambahkan, negatif untuk mengurangi
+     * @return true jika berhasil, false jika produk tidak ada atau stok tidak mencukupi
+     */
+    public boolean addStock(String id, int qty) {
+        if (!stock.contains(id)) return false;
+        if (qty < 0) {
+            if (!stock.tryDecrement(id, -qty)) return false;
+        } else {
+            stock.add(id, qty);
+        }
+        pendingStock.merge(id, qty, Integer::sum);
+        stockChanged(id);
+        return true;
+    }
+
+    /**
+     * Menahan stok produk untuk sementara, hanya jika stok mencukupi. Stok yang ditahan tidak
+     * tersedia bagi pembeli lain tetapi tidak ditulis ke file produk.
+     *
+     * @param id ID produk
+     * @param qty Jumlah yang ditahan
+     * @return true jika berhasil, false jika stok tidak mencukupi atau produk tidak ada
+     */
+    public boolean reserveStock(String id, int qty) {
+        if (!stock.tryDecrement(id, qty)) return false;
+        reservedStock.merge(id, qty, Integer::sum);
+        stockChanged(id);
+        return true;
+    }
+
+    /**
+     * Mengembalikan stok yang ditahan ke stok tersedia (penahanan batal atau kedaluwarsa).
+     *
+     * @param id ID produk
+     * @param qty Jumlah yang dikembalikan
+     */
+    public void releaseStock(String id, int qty) {
+        reservedStock.computeIfPresent(id, (k, v) -> v - qty <= 0 ? null : v - qty);
+        if (!stock.contains(id)) return;
+        stock.add(id, qty);
+        stockChanged(id);
+    }
+
+    /**
+     * Menjadikan stok yang ditahan sebagai pengurangan stok permanen (saat checkout).
+     * Tabel stok sudah berkurang sejak stok ditahan; yang ditambahkan hanya delta ke file produk.
+     *
+     * @param id ID produk
+     * @param qty Jumlah yang dibeli dari stok yang ditahan
+     */
+    public void commitReservedStock(String id, int qty) {
+        reservedStock.computeIfPresent(id, (k, v) -> v - qty <= 0 ? null : v - qty);
+        pendingStock.merge(id, -qty, Integer::sum);
+    }
+
+    /**
+     * Mendapatkan jumlah stok produk yang sedang ditahan.
+     */
+    public int getReservedStock(String id) {
+        return reservedStock.getOrDefault(id, 0);
+    }
+
+    /**
+     * Menambahkan stok banyak produk sekaligus.
+     *
+     * @param deltas Map ID produk ke jumlah tambahan stok
+     * @return Jumlah produk yang berhasil di-restock
+     */
+    public int restock(Map<String, Integer> deltas) {
+        int updated = 0;
+        for (Map.Entry<String, Integer> e : deltas.entrySet()) {
+            if (stock.add(e.getKey(), e.getValue()) < 0) continue;
+            pendingStock.merge(e.getKey(), e.getValue(), Integer::sum);
+            stockChanged(e.getKey());
+            updated++;
+        }
+        return updated;
+    }
+
+    /**
+     * Menulis delta stok yang tertunda ke repository produk dalam satu operasi baca-ubah-tulis.
+     * Delta ditambahkan ke stok di file terkini, sehingga perubahan stok oleh instance lain
+     * yang sudah tertulis ikut dipertahankan dan selisihnya diterapkan ke tabel stok.
+     */
+    public synchronized void flushStock() {
+        if (pendingStock.isEmpty()) return;
+        writeProducts(Map.of());
+    }
+
+    /**
+     * Menulis delta stok yang tertunda beserta harga baru (jika ada) ke repository produk dalam
+     * satu operasi baca-ubah-tulis. Produk yang harganya diubah dinaikkan versinya.
+     *
+     * @param prices Map ID produk ke harga baru, boleh kosong
+     */
+    private void writeProducts(Map<String, Integer> prices) {
+        Map<String, Integer> deltas = new HashMap<>();
+        for (String id : new ArrayList<>(pendingStock.keySet())) {
+            Integer delta = pendingStock.remove(id);
+            if (delta != null && delta != 0) deltas.put(id, delta);
+        }
+        if (deltas.isEmpty() && prices.isEmpty()) return;
+        Set<String> ids = new HashSet<>(deltas.keySet());
+        ids.addAll(prices.keySet());
+        List<Product> written = repo.updateAll(ids, p -> {
+            p.setStock(p.getStock() + deltas.getOrDefault(p.getId(), 0));
+            Integer price = prices.get(p.getId());
+            if (price != null) {
+                p.setPrice(price);
+                p.setVersion(p.getVersion() + 1);
+            }
+            return p;
+        });
+        for (Product p : written) {
+            int before = p.getStock() - deltas.getOrDefault(p.getId(), 0);
+            Integer known = knownStock.put(p.getId(), p.getStock());
+            if (known != null && known != before) {
+                stock.add(p.getId(), before - known);
+                stockChanged(p.getId());
+            }
+        }
+        applyToCache(written, List.of());
+        prices.keySet().forEach(this::notifyChanged);
+    }
+
+    /**
+     * Menerapkan banyak perubahan produk sebagai satu batch. Semua perubahan diperiksa dalam satu
+     * lintasan atas cache produk; perubahan stok yang lolos langsung diterapkan ke tabel stok, lalu
+     * harga baru dan delta stok ditulis ke repository dalam satu operasi baca-ubah-tulis.
+     * Perubahan yang ditolak (produk tidak ada, versi sudah berubah, harga negatif, atau stok
+     * tidak mencukupi) tidak menghalangi perubahan lain dalam batch.
+     *
+     * @param edits Daftar perubahan, paling banyak satu perubahan per produk
+     * @return Hasil per perubahan sesuai urutan edits
+     */
+    public synchronized List<BulkResult> applyBulk(List<ProductEdit> edits) {
+        BulkResult[] results = new BulkResult[edits.size()];
+        Map<String, Integer> positions = new HashMap<>();  // ID produk -> posisi perubahan pada edits
+        for (int i = 0; i < edits.size(); i++) {
+            String id = edits.get(i).getProductId();
+            if (positions.putIfAbsent(id, i) != null) results[i] = new BulkResult(id, false, "Produk muncul lebih dari sekali dalam batch");
+        }
+        Map<String, Integer> prices = new HashMap<>();
+        for (Product p : entities()) {
+            Integer i = positions.remove(p.getId());
+            if (i == null) continue;
+            ProductEdit e = edits.get(i);
+            int price = e.newPrice(p.getPrice());
+            int delta = e.getStockDelta();
+            if (e.getVersion() != null && e.getVersion() != p.getVersion()) {
+                results[i] = new BulkResult(p.getName(), false, "Produk telah diubah admin lain");
+            } else if (price < 0) {
+                results[i] = new BulkResult(p.getName(), false, "Harga tidak boleh negatif");
+            } else if (delta < 0 && !stock.tryDecrement(p.getId(), -delta)) {
+                results[i] = new BulkResult(p.getName(), false, "Stok tidak mencukupi untuk dikurangi " + (-delta));
+            } else if (price == p.getPrice() && delta == 0) {
+                results[i] = new BulkResult(p.getName(), true, "Tidak berubah");
+            } else {
+                List<String> changes = new ArrayList<>();
+                if (price != p.getPrice()) {
+                    prices.put(p.getId(), price);
+                    changes.add(String.format("harga Rp %,d -> Rp %,d", p.getPrice(), price));
+                }
+                if (delta != 0) {
+                    if (delta > 0) stock.add(p.getId(), delta);
+                    pendingStock.merge(p.getId(), delta, Integer::sum);
+                    changes.add(String.format("stok %+d menjadi %d", delta, stock.get(p.getId())));
+                    stockChanged(p.getId());
+                }
+                results[i] = new BulkResult(p.getName(), true, String.join(", ", changes));
+            }
+        }
+        for (Map.Entry<String, Integer> missing : positions.entrySet()) {
+            results[missing.getValue()] = new BulkResult(missing.getKey(), false, "Produk tidak ditemukan");
+        }
+        writeProducts(prices);
+        return List.of(results);
+    }
+
+    /**
+     * Mengubah harga banyak produk sebesar persentase tertentu dalam satu batch.
+     * Harga baru dibulatkan ke rupiah terdekat.
+     *
+     * @param ids ID produk yang diubah; kosong atau null berarti semua produk
+     * @param percent Perubahan harga dalam persen, misalnya 10 atau -5
+     * @return Hasil per produk
+     */
+    public List<BulkResult> changePrices(Collection<String> ids, double percent) {
+        Collection<String> targets = ids;
+        if (targets == null || targets.isEmpty()) targets = entities().stream().map(Product::getId).toList();
+        List<ProductEdit> edits = new ArrayList<>();
+        for (String id : targets) edits.add(ProductEdit.percent(id, percent));
+        return applyBulk(edits);
+    }
+
+    /**
+     * Menambahkan stok dari daftar teks, satu produk per baris dengan format "nama atau ID, jumlah"
+     * (pemisah boleh koma, titik koma, sama dengan, atau spasi). Baris kosong dilewati; baris yang
+     * tidak dapat dibaca, produk yang tidak dikenali, dan jumlah yang tidak positif dilaporkan
+     * sebagai hasil gagal. Semua baris yang valid diterapkan sebagai satu batch.
+     *
+     * @param text Isi daftar restock
+     * @return Hasil per baris yang tidak kosong, sesuai urutan baris
+     */
+    public List<BulkResult> restockFromList(String text) {
+        Map<String, String> byName = new HashMap<>();
+        Set<String> ids = new HashSet<>();
+        for (Product p : entities()) {
+            byName.putIfAbsent(p.getName().trim().toLowerCase(), p.getId());
+            ids.add(p.getId());
+        }
+        List<BulkResult> results = new ArrayList<>();  // null sebagai tempat hasil batch
+        List<ProductEdit> edits = new ArrayList<>();
+        for (String raw : text == null ? new String[0] : text.split("\\R")) {
+            String line = raw.trim();
+            if (line.isEmpty()) continue;
+            Matcher matcher = RESTOCK_LINE.matcher(line);
+            if (!matcher.matches()) {
+                results.add(new BulkResult(line, false, "Format baris harus \"nama produk, jumlah\""));
+                continue;
+            }
+            String key = matcher.group(1).trim();
+            String id = ids.contains(key) ? key : byName.get(key.toLowerCase());
+            int qty;
+            try {
+                qty = Integer.parseInt(matcher.group(2));
+            } catch (NumberFormatException e) {
+                qty = 0;
+            }
+            if (id == null) {
+                results.add(new BulkResult(key, false, "Produk tidak ditemukan"));
+            } else if (qty <= 0) {
+                results.add(new BulkResult(key, false, "Jumlah restock harus positif"));
+            } else {
+                results.add(null);
+                edits.add(ProductEdit.restock(id, qty));
+            }
+        }
+        List<BulkResult> applied = applyBulk(edits);
+        for (int i = 0, next = 0; i < results.size(); i++) {
+            if (results.get(i) == null) results.set(i, applied.get(next++));
+        }
+        return results;
+    }
+
     /**
      * Melakukan pencarian produk berdasarkan nama produk (case-insensitive).
      *
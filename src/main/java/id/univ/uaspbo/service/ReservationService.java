@@ -0,0 +1,224 @@
+package id.univ.uaspbo.service;
+
+import id.univ.uaspbo.index.TimingWheel;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Service penahanan stok (reservasi) sementara per pemegang, biasanya ID sesi pengguna.
+ * Saat pengguna menyimpan keranjang, stok setiap item ditahan sehingga tidak dapat dibeli
+ * pengguna lain; penahanan dilepas otomatis setelah uas.reservation.hold-seconds jika tidak
+ * dipakai untuk checkout. Saat checkout, TransactionService mengambil (take) penahanan lalu
+ * menjadikannya pengurangan stok permanen.
+ *
+ * Kedaluwarsa digerakkan oleh satu TimingWheel yang dimajukan oleh satu thread setiap
+ * uas.reservation.tick-ms, sehingga ratusan ribu penahanan tidak memerlukan thread atau tugas
+ * terjadwal masing-masing. Penahanan hanya ada di memori; stoknya dikurangi dari tabel stok
+ * ProductService tetapi tidak ditulis ke file produk.
+ *
+ * Konsep OOP yang digunakan:
+ * - Enkapsulasi: Daftar penahanan dan roda waktu hanya diubah melalui method publik yang tersinkronisasi.
+ * - Komposisi: Memakai ProductService untuk menahan dan melepas stok, serta TimingWheel untuk kedaluwarsa.
+ * - Inner Class: Hold mewakili satu penahanan stok satu produk.
+ */
+@Service
+public class ReservationService {
+
+    @Value("${uas.reservation.hold-seconds:600}")
+    private long holdSeconds;   // Lama penahanan stok sebelum dilepas otomatis
+
+    @Value("${uas.reservation.tick-ms:250}")
+    private long tickMs;        // Resolusi roda waktu kedaluwarsa
+
+    private final ProductService productService;
+    private final Map<String, Map<String, Hold>> holds = new HashMap<>();  // Pemegang -> ID produk -> penahanan
+    private final LongAdder expired = new LongAdder();                     // Jumlah penahanan yang kedaluwarsa
+    private TimingWheel<Hold> wheel;
+    private ScheduledExecutorService ticker;
+
+    /**
+     * Konstruktor ReservationService.
+     *
+     * @param productService Service produk tempat stok ditahan
+     */
+    public ReservationService(ProductService productService) {
+        this.productService = productService;
+    }
+
+    /**
+     * Membuat roda waktu dan menjalankan thread yang memajukannya secara berkala.
+     */
+    @PostConstruct
+    private void init() {
+        wheel = new TimingWheel<>(tickMs, System.currentTimeMillis());
+        ticker = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "reservation-expiry");
+            t.setDaemon(true);
+            return t;
+        });
+        ticker.scheduleWithFixedDelay(this::expire, tickMs, tickMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Menghentikan thread kedaluwarsa. Penahanan tidak perlu dilepas karena tidak pernah ditulis ke file.
+     */
+    @PreDestroy
+    private void shutdown() {
+        ticker.shutdown();
+    }
+
+    /**
+     * Mengatur jumlah stok yang ditahan pemegang untuk satu produk. Jumlah 0 melepas penahanan.
+     * Hanya selisih terhadap penahanan sebelumnya yang ditahan atau dilepas, dan masa berlaku
+     * penahanan dimulai ulang.
+     *
+     * @param holder ID pemegang, misalnya ID sesi
+     * @param productId ID produk
+     * @param qty Jumlah yang ingin ditahan
+     * @return true jika berhasil, false jika stok tersedia tidak mencukupi (penahanan lama tetap berlaku)
+     */
+    public synchronized boolean hold(String holder, String productId, int qty) {
+        Map<String, Hold> own = holds.get(holder);
+        Hold current = own != null ? own.get(productId) : null;
+        int held = current != null ? current.qty : 0;
+        if (qty > held && !productService.reserveStock(productId, qty - held)) return false;
+        if (qty < held) productService.releaseStock(productId, held - qty);
+        if (current != null) {
+            current.timeout.cancel();
+            own.remove(productId);
+        }
+        if (qty > 0) put(holder, productId, qty);
+        else if (own != null && own.isEmpty()) holds.remove(holder);
+        return true;
+    }
+
+    /**
+     * Mengambil penahanan untuk checkout: paling banyak max unit dari penahanan produk dilepas dari
+     * daftar penahanan tanpa mengembalikan stoknya. Pemanggil wajib meneruskan jumlah yang diambil ke
+     * ProductService.commitReservedStock, atau mengembalikannya dengan restore jika checkout batal.
+     *
+     * @return Jumlah unit yang diambil dari penahanan (0 jika tidak ada)
+     */
+    public synchronized int take(String holder, String productId, int max) {
+        Map<String, Hold> own = holds.get(holder);
+        Hold current = own != null ? own.get(productId) : null;
+        if (current == null || max <= 0) return 0;
+        int taken = Math.min(max, current.qty);
+        current.timeout.cancel();
+        own.remove(productId);
+        if (current.qty > taken) put(holder, productId, current.qty - taken);
+        else if (own.isEmpty()) holds.remove(holder);
+        return taken;
+    }
+
+    /**
+     * Mengembalikan unit yang sudah diambil dengan take ke daftar penahanan (checkout batal).
+     */
+    public synchronized void restore(String holder, String productId, int qty) {
+        if (qty <= 0) return;
+        Map<String, Hold> own = holds.get(holder);
+        Hold current = own != null ? own.remove(productId) : null;
+        if (current != null) current.timeout.cancel();
+        put(holder, productId, qty + (current != null ? current.qty : 0));
+    }
+
+    /**
+     * Melepas semua penahanan milik pemegang dan mengembalikan stoknya.
+     *
+     * @return Jumlah penahanan yang dilepas
+     */
+    public synchronized int releaseAll(String holder) {
+        Map<String, Hold> own = holds.remove(holder);
+        if (own == null) return 0;
+        for (Hold h : own.values()) {
+            h.timeout.cancel();
+            productService.releaseStock(h.productId, h.qty);
+        }
+        return own.size();
+    }
+
+    /**
+     * Mendapatkan penahanan milik pemegang.
+     *
+     * @return Map tidak dapat diubah dari ID produk ke jumlah yang ditahan
+     */
+    public synchronized Map<String, Integer> getHolds(String holder) {
+        Map<String, Hold> own = holds.get(holder);
+        if (own == null) return Map.of();
+        Map<String, Integer> result = new LinkedHashMap<>();
+        for (Hold h : own.values()) result.put(h.productId, h.qty);
+        return Collections.unmodifiableMap(result);
+    }
+
+    /**
+     * Mendapatkan waktu kedaluwarsa paling awal dari penahanan milik pemegang.
+     *
+     * @return Waktu kedaluwarsa (milidetik epoch), atau 0 jika tidak ada penahanan
+     */
+    public synchronized long getEarliestExpiry(String holder) {
+        Map<String, Hold> own = holds.get(holder);
+        if (own == null) return 0;
+        return own.values().stream().mapToLong(h -> h.timeout.getDeadlineMs()).min().orElse(0);
+    }
+
+    /**
+     * Mendapatkan jumlah penahanan yang sedang aktif.
+     */
+    public int getActiveCount() {
+        return wheel.size();
+    }
+
+    /**
+     * Mendapatkan jumlah penahanan yang sudah kedaluwarsa sejak aplikasi berjalan.
+     */
+    public long getExpiredCount() {
+        return expired.sum();
+    }
+
+    /**
+     * Memajukan roda waktu lalu melepas penahanan yang kedaluwarsa dan mengembalikan stoknya.
+     */
+    synchronized void expire() {
+        for (Hold h : wheel.advance(System.currentTimeMillis())) {
+            Map<String, Hold> own = holds.get(h.holder);
+            if (own == null || own.get(h.productId) != h) continue;
+            own.remove(h.productId);
+            if (own.isEmpty()) holds.remove(h.holder);
+            productService.releaseStock(h.productId, h.qty);
+            expired.increment();
+        }
+    }
+
+    private void put(String holder, String productId, int qty) {
+        Hold h = new Hold(holder, productId, qty);
+        h.timeout = wheel.schedule(h, System.currentTimeMillis() + holdSeconds * 1000);
+        holds.computeIfAbsent(holder, k -> new HashMap<>()).put(productId, h);
+    }
+
+    /**
+     * Satu penahanan stok: pemegang, produk, jumlah, dan jadwal kedaluwarsanya.
+     */
+    private static final class Hold {
+        private final String holder;
+        private final String productId;
+        private final int qty;
+        private TimingWheel.Timeout<Hold> timeout;
+
+        private Hold(String holder, String productId, int qty) {
+            this.holder = holder;
+            this.productId = productId;
+            this.qty = qty;
+        }
+    }
+}
@@ -1,15 +1,58 @@
 package id.univ.uaspbo.service;
 
-import id.univ.uaspbo.model.Transaction;
+import id.univ.uaspbo.index.CompactTransaction;
+import id.univ.uaspbo.index.OffHeapTransactionStore;
+import id.univ.uaspbo.index.OrdinalDictionary;
+import id.univ.uaspbo.index.PostingIndex;
+import id.univ.uaspbo.index.ProductPopularityIndex;
+import id.univ.uaspbo.index.RecentBuffer;
+import id.univ.uaspbo.index.SalesCounters;
+import id.univ.uaspbo.index.TimestampIndex;
+import id.univ.uaspbo.index.TransactionDictionaries;
+import id.univ.uaspbo.index.TransactionIndex;
 import id.univ.uaspbo.model.Product;
-import id.univ.uaspbo.repository.FileRepository;
+import id.univ.uaspbo.model.ProductSalesHistory;
+import id.univ.uaspbo.model.Transaction;
+import id.univ.uaspbo.model.ProductPopularity;
+import id.univ.uaspbo.model.RecoveryReport;
+import id.univ.uaspbo.model.UserSpending;
+import id.univ.uaspbo.monitoring.CheckoutEvent;
+import id.univ.uaspbo.monitoring.CheckoutPhaseEvent;
+import id.univ.uaspbo.query.TransactionQuery;
+import id.univ.uaspbo.query.TransactionQueryEngine;
+import id.univ.uaspbo.repository.DataWatcher;
+import id.univ.uaspbo.repository.PartitionedTransactionRepository;
+import id.univ.uaspbo.repository.RecoveryEngine;
+import id.univ.uaspbo.repository.Repository;
+import id.univ.uaspbo.repository.RepositoryFactory;
+import id.univ.uaspbo.repository.SnapshotCodecs;
+import id.univ.uaspbo.repository.SnapshotFile;
+import id.univ.uaspbo.repository.WriteBehindRepository;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.io.File;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 /**
  * Kelas service yang bertanggung jawab mengelola seluruh operasi yang berkaitan dengan entitas Transaction.
@@ -19,43 +62,314 @@ import java.util.UUID;
  * Kelas ini menggunakan pendekatan komposisi dengan menyertakan service produk (ProductService) sebagai salah satu dependensi
  * untuk mengatur stok produk, sehingga memastikan integritas data terkait stok produk saat transaksi dibuat.
  *
+ * Pencarian transaksi dengan kombinasi filter (pengguna, rentang waktu, produk, total minimum) dilayani
+ * TransactionQueryEngine, yang memilih jalur akses paling selektif dari indeks timestamp, indeks pengguna,
+ * dan indeks produk. Indeks produk (produk -> transaksi beserta qty) juga dipakai untuk riwayat penjualan
+ * per produk, sehingga laporan tingkat item tidak perlu membaca item seluruh transaksi.
+ *
+ * Setiap transaksi yang tercatat (checkout atau dari instance lain yang berbagi direktori data)
+ * diteruskan ke pendengar yang didaftarkan lewat onCommit(), misalnya untuk replikasi. Instance
+ * follower memasukkan transaksi dari primary lewat replicate(), yang hanya memperbarui indeks dan
+ * agregat di memori tanpa menulis ke repository.
+ *
  * Konsep OOP yang digunakan:
  * - Enkapsulasi: Menyimpan dependensi ProductService sebagai atribut private dan mengontrol akses terhadapnya melalui konstruktor.
  * - Komposisi: Menggabungkan layanan produk untuk mengelola hubungan antar domain bisnis yang terkait.
  */
 @Service
 public class TransactionService {
-    private FileRepository<Transaction> repo;
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+    private static final DateTimeFormatter TIME_FORMAT = DateTimeFormatter.ofPattern("HH:mm:ss");
+
+    private Repository<Transaction> repo;  // Repository transaksi sesuai backend uas.storage.transactions
+    private PartitionedTransactionRepository segments;  // Repository segmen bulanan untuk pemulihan dan manifest, null jika backend bukan json
+    private SnapshotFile<Transaction> snapshot;  // Snapshot biner seluruh transaksi
+    private final OrdinalDictionary productOrdinals = new OrdinalDictionary();  // Kamus ordinal produk
+    private final TransactionDictionaries dictionaries = new TransactionDictionaries(productOrdinals);  // Kamus representasi ringkas
+    private TransactionIndex timeIndex;  // Indeks transaksi terurut waktu (di heap atau off-heap)
+    private PostingIndex userPostings;   // Indeks pengguna ke transaksinya, null pada mode off-heap
+    private PostingIndex productPostings;  // Indeks produk ke transaksi beserta qty, null pada mode off-heap
+    private TransactionQueryEngine queries;  // Mesin query transaksi di atas indeks-indeks ini
+    private volatile boolean loaded;     // true setelah load() selesai
+    private final ProductPopularityIndex popularity = new ProductPopularityIndex(dictionaries);  // Agregat produk terlaris
+    private final Map<String, UserSpending> userSpending = new ConcurrentHashMap<>();  // Ringkasan belanja per pengguna
+    private final LongAdder orderCount = new LongAdder();    // Jumlah seluruh transaksi di indeks
+    private final LongAdder revenueTotal = new LongAdder();  // Total nilai seluruh transaksi di indeks
+    private RecentBuffer<Transaction> recent;                // Transaksi terbaru untuk dashboard
+    private volatile RecoveryReport recoveryReport;          // Laporan pemulihan saat load()
+    private final List<Consumer<Transaction>> commitListeners = new CopyOnWriteArrayList<>();  // Pendengar transaksi tercatat
 
     @Value("${uas.data.transactions}")
-    private String transactionsPath;  // Path file data transaksi
+    private String transactionsPath;  // Path file data transaksi lama (sumber migrasi)
+
+    @Value("${uas.data.transactions-dir}")
+    private String transactionsDir;   // Direktori segmen transaksi bulanan
+
+    @Value("${uas.data.snapshot-dir:data/snapshot}")
+    private String snapshotDir;       // Direktori file snapshot biner
+
+    @Value("${uas.cache.offheap:false}")
+    private boolean offHeap;          // true untuk menyimpan riwayat transaksi di luar heap
+
+    @Value("${uas.recovery.parallelism:0}")
+    private int recoveryParallelism;  // Jumlah thread pemulihan saat startup, 0 berarti jumlah prosesor
+
+    @Value("${uas.dashboard.recent-size:16}")
+    private int recentSize;           // Jumlah transaksi terbaru yang disimpan untuk dashboard
 
     private final ProductService productService;  // Service produk untuk update stok
+    private final RepositoryFactory repositories;  // Pembuat repository sesuai backend yang dipilih
+    private final DataWatcher watcher;             // Pengamat manifest untuk transaksi dari instance lain
+    private final ReservationService reservations; // Penahanan stok yang dipakai saat checkout
+    private final DashboardEvents events;          // Penyalur transaksi baru ke dashboard admin
 
     /**
      * Konstruktor TransactionService, menerima service produk sebagai dependensi.
      *
      * @param productService Service untuk operasi produk terkait transaksi
+     * @param repositories Pembuat repository transaksi
+     * @param watcher Pengamat perubahan file data
+     * @param reservations Service penahanan stok
+     * @param events Penyalur event ke dashboard admin
      */
-    public TransactionService(ProductService productService) {
+    public TransactionService(ProductService productService, RepositoryFactory repositories, DataWatcher watcher,
+                              ReservationService reservations, DashboardEvents events) {
         this.productService = productService;
+        this.repositories = repositories;
+        this.watcher = watcher;
+        this.reservations = reservations;
+        this.events = events;
     }
 
     /**
-     * Inisialisasi repository file setelah konstruktor.
-     * Dilakukan otomatis setelah injeksi dependensi selesai.
+     * Inisialisasi repository transaksi dan indeks transaksi setelah konstruktor.
+     * Backend json memakai segmen bulanan; backend mvstore memakai MVStoreRepository.
+     * Jika uas.cache.offheap aktif, indeks memakai OffHeapTransactionStore dan indeks pengguna
+     * tidak dibangun, karena posting list-nya menyimpan transaksi ringkas di heap.
+     * Dilakukan otomatis setelah injeksi dependensi selesai; isi indeks dimuat oleh load().
      */
     @PostConstruct
     private void init() {
-        repo = new FileRepository<>(transactionsPath, Transaction[].class);
+        repo = repositories.openTransactions(transactionsDir, transactionsPath);
+        segments = repo instanceof PartitionedTransactionRepository p ? p
+                : repo instanceof WriteBehindRepository<Transaction> w && w.delegate() instanceof PartitionedTransactionRepository p ? p : null;
+        timeIndex = offHeap ? new OffHeapTransactionStore(dictionaries) : new TimestampIndex(dictionaries);
+        userPostings = offHeap ? null : new PostingIndex();
+        productPostings = offHeap ? null : new PostingIndex();
+        queries = new TransactionQueryEngine(timeIndex, dictionaries, userPostings, productPostings);
+        snapshot = new SnapshotFile<>(new File(snapshotDir, "transactions.bin").getPath(), SnapshotCodecs.TRANSACTION);
+        recent = new RecentBuffer<>(recentSize);
+        List<File> sources = repo.files();
+        if (!sources.isEmpty()) watcher.register(sources.get(0), this::reloadChanges);
+    }
+
+    /**
+     * Membangun indeks timestamp dan semua agregat turunan dari seluruh transaksi yang tersimpan.
+     * Transaksi dibaca dari snapshot biner jika manifest dan semua segmen belum berubah sejak
+     * snapshot ditulis; jika tidak, RecoveryEngine membaca dan memeriksa segmen-segmen secara
+     * paralel, melewati record yang rusak dan melaporkannya beserta posisinya di file.
+     * Ringkasan belanja per pengguna, penghitung penjualan per produk, serta jumlah dan total
+     * transaksi dihitung dalam lintasan paralel yang sama. Transaksi kemudian diurutkan agar
+     * record off-heap tersimpan berurutan waktu, lalu dimasukkan ke indeks secara paralel.
+     * Hanya dijalankan sekali.
+     */
+    public synchronized void load() {
+        if (loaded) return;
+        ForkJoinPool pool = new ForkJoinPool(recoveryParallelism > 0 ? recoveryParallelism : Runtime.getRuntime().availableProcessors());
+        RecoveryEngine.Result<LoadAggregate> result;
+        try {
+            RecoveryEngine<LoadAggregate> engine = new RecoveryEngine<>(pool, LoadAggregate::new, LoadAggregate::add, LoadAggregate::merge);
+            List<File> sources = repo.files();
+            List<Transaction> fromSnapshot = sources.isEmpty() ? null : snapshot.load(sources);
+            if (fromSnapshot != null) result = engine.aggregate(fromSnapshot, "snapshot");
+            else if (segments != null) result = engine.recover(segments);
+            else result = engine.aggregate(repo.readAll(), "repository");
+        } finally {
+            pool.shutdown();
+        }
+        LoadAggregate all = result.value();
+        all.transactions.sort(Comparator.comparing(Transaction::getTimestamp, Comparator.nullsFirst(Comparator.naturalOrder()))
+                .thenComparing(Transaction::getId, Comparator.nullsFirst(Comparator.naturalOrder())));
+        timeIndex.addAll(all.transactions);
+        if (userPostings != null) timeIndex.compactStream(null, null, false).forEach(this::indexPostings);
+        userSpending.putAll(all.spending);
+        popularity.seed(all.sales);
+        orderCount.add(all.transactions.size());
+        revenueTotal.add(all.revenue);
+        for (Transaction t : all.transactions.subList(Math.max(0, all.transactions.size() - recent.capacity()), all.transactions.size())) recent.add(t);
+        recoveryReport = result.report();
+        RecoveryReport r = recoveryReport;
+        System.out.println("Recovered " + r.getRecords() + " transactions from " + r.getSource() + " (" + r.getRanges() + " ranges, "
+                + r.getParallelism() + " threads) in " + r.getElapsedMs() + " ms, " + r.getCorruptCount() + " corrupt records");
+        r.getCorrupt().forEach(c -> System.out.println("  " + c));
+        loaded = true;
+    }
+
+    /**
+     * Mendapatkan laporan pemulihan data transaksi saat startup.
+     *
+     * @return Laporan pemulihan, atau null jika load() belum dijalankan
+     */
+    public RecoveryReport getRecoveryReport() {
+        return recoveryReport;
+    }
+
+    /**
+     * Akumulator pemulihan untuk satu potongan data: transaksi, ringkasan belanja per pengguna,
+     * penghitung penjualan per produk, dan total pendapatan. Potongan digabung dengan merge().
+     */
+    private final class LoadAggregate {
+        private final List<Transaction> transactions = new ArrayList<>();
+        private final Map<String, UserSpending> spending = new HashMap<>();
+        private final SalesCounters sales = new SalesCounters();
+        private long revenue;
+
+        private void add(Transaction t) {
+            transactions.add(t);
+            if (t.getUserId() != null) spending.merge(t.getUserId(), UserSpending.of(t), UserSpending::plus);
+            sales.add(CompactTransaction.of(t, dictionaries), dictionaries);
+            revenue += t.getTotal();
+        }
+
+        private LoadAggregate merge(LoadAggregate other) {
+            transactions.addAll(other.transactions);
+            other.spending.forEach((user, s) -> spending.merge(user, s, UserSpending::plus));
+            sales.merge(other.sales);
+            revenue += other.revenue;
+            return this;
+        }
+    }
+
+    /**
+     * Memasukkan transaksi yang ditambahkan instance lain ke indeks, agregat produk terlaris,
+     * dan ringkasan belanja. Dipanggil oleh DataWatcher ketika manifest segmen berubah.
+     */
+    private synchronized void reloadChanges() {
+        if (!loaded) return;
+        Repository.Changes<Transaction> changes = repo.pollChanges();
+        if (changes == null) return;
+        for (Transaction t : changes.changed()) {
+            index(t);
+            publish(t);
+            notifyCommitted(t);
+        }
+    }
+
+    /**
+     * Memasukkan transaksi yang sudah tercatat di instance primary ke indeks dan agregat di memori
+     * tanpa menulis ke repository, lalu mengirimnya ke dashboard admin yang terbuka.
+     * Dipanggil oleh replikasi pada instance follower; pemanggil memastikan setiap transaksi
+     * hanya dimasukkan sekali.
+     */
+    public synchronized void replicate(Transaction t) {
+        index(t);
+        publish(t);
+    }
+
+    /**
+     * Mendaftarkan pendengar yang dipanggil untuk setiap transaksi yang tercatat, setelah transaksi
+     * masuk ke indeks. Pendengar dipanggil di bawah kunci service sehingga urutan panggilannya
+     * sama dengan urutan pencatatan.
+     */
+    public void onCommit(Consumer<Transaction> listener) {
+        commitListeners.add(listener);
+    }
+
+    private void notifyCommitted(Transaction t) {
+        for (Consumer<Transaction> listener : commitListeners) listener.accept(t);
+    }
+
+    /**
+     * Memasukkan satu transaksi ke indeks timestamp, indeks posting, agregat produk terlaris,
+     * ringkasan belanja, penghitung, dan buffer transaksi terbaru.
+     */
+    private void index(Transaction t) {
+        CompactTransaction c = timeIndex.add(t);
+        popularity.record(c);
+        indexPostings(c);
+        recordUserSpending(t);
+        countOrder(t);
+        recent.add(t);
     }
 
     /**
-     * Mendapatkan semua transaksi yang tersimpan.
+     * Menambahkan transaksi ringkas yang sudah ada di indeks timestamp ke indeks pengguna dan
+     * indeks produk. Setiap produk diposting sekali per transaksi dengan qty gabungan seluruh
+     * item produk itu.
+     */
+    private void indexPostings(CompactTransaction c) {
+        if (userPostings != null) userPostings.add(c.userOrdinal(), c);
+        if (productPostings == null) return;
+        items:
+        for (int i = 0; i < c.itemCount(); i++) {
+            int product = c.productOrdinal(i);
+            for (int j = 0; j < i; j++) {
+                if (c.productOrdinal(j) == product) continue items;
+            }
+            productPostings.add(product, c, c.quantityOf(product));
+        }
+    }
+
+    /**
+     * Menambahkan satu transaksi ke penghitung jumlah dan total transaksi.
+     */
+    private void countOrder(Transaction t) {
+        orderCount.increment();
+        revenueTotal.add(t.getTotal());
+    }
+
+    /**
+     * Mengirim transaksi baru beserta selisih penghitung (jumlah transaksi dan pendapatan)
+     * ke dashboard admin yang terbuka. Tanggal dan jam sudah diformat seperti pada halaman.
+     */
+    private void publish(Transaction t) {
+        if (!events.hasSubscribers()) return;
+        List<Map<String, Object>> items = new ArrayList<>();
+        for (Transaction.TransactionItem it : t.getItems()) {
+            items.add(Map.of("productName", it.getProductName(), "qty", it.getQty(), "price", it.getPrice()));
+        }
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("id", t.getId());
+        payload.put("userId", t.getUserId());
+        payload.put("date", t.getTimestamp().format(DATE_FORMAT));
+        payload.put("time", t.getTimestamp().format(TIME_FORMAT));
+        payload.put("total", t.getTotal());
+        payload.put("items", items);
+        events.publish("transaction", payload);
+        events.publish("counters", Map.of("transactions", 1, "revenue", t.getTotal()));
+    }
+
+    /**
+     * Menulis seluruh transaksi di indeks ke snapshot biner beserta ukuran dan waktu
+     * modifikasi manifest dan segmen saat ini.
+     */
+    public synchronized void writeSnapshot() {
+        repo.flush();
+        List<File> sources = repo.files();
+        if (!sources.isEmpty()) snapshot.save(sources, timeIndex.all());
+    }
+
+    /**
+     * Menulis transaksi yang masih tertunda (write-behind) ke penyimpanan saat itu juga.
+     */
+    public void flush() {
+        repo.flush();
+    }
+
+    /**
+     * Menutup repository transaksi saat aplikasi dihentikan.
+     */
+    @PreDestroy
+    private void closeRepository() {
+        repo.close();
+    }
+
+    /**
+     * Mendapatkan semua transaksi yang tersimpan, terurut dari yang paling awal.
      *
      * @return Daftar semua transaksi
      */
-    public List<Transaction> getAll() { return repo.readAll(); }
+    public List<Transaction> getAll() { return timeIndex.all(); }
 
     /**
      * Mendapatkan transaksi yang dilakukan oleh pengguna tertentu.
@@ -64,37 +378,371 @@ public class TransactionService {
      * @return Daftar transaksi milik pengguna dengan ID tersebut
      */
     public List<Transaction> getByUserId(String userId) {
-        return repo.readAll().stream().filter(t -> t.getUserId().equals(userId)).toList();
+        return query(TransactionQuery.all().user(userId)).transactions();
+    }
+
+    /**
+     * Menjalankan query transaksi melalui jalur akses yang paling selektif
+     * (indeks pengguna, rentang waktu, atau pemindaian penuh).
+     *
+     * @param q Query berisi predikat, urutan, dan batas hasil
+     * @return Hasil query beserta rencana eksekusinya (explain)
+     */
+    public TransactionQueryEngine.Result query(TransactionQuery q) {
+        return queries.execute(q);
+    }
+
+    /**
+     * Mengalirkan hasil query transaksi; transaksi dibaca dari indeks hanya ketika diminta,
+     * misalnya untuk laporan yang berhenti setelah beberapa hasil pertama.
+     */
+    public Stream<Transaction> stream(TransactionQuery q) {
+        return queries.stream(queries.plan(q));
     }
 
     /**
      * Membuat transaksi baru dan mengurangi stok produk terkait.
+     * Stok setiap item dikurangi hanya jika mencukupi; jika salah satu item gagal,
+     * stok item yang sudah dikurangi dikembalikan dan transaksi tidak dicatat.
      *
      * @param t Objek transaksi yang akan dibuat
+     * @return true jika transaksi tercatat, false jika stok tidak mencukupi
      */
-    public void createTransaction(Transaction t) {
-        // mengurangi stok produk sesuai jumlah yang dibeli
-        for (Transaction.TransactionItem it : t.getItems()) {
-            Product p = productService.findById(it.getProductId());
-            if (p != null) {
-                p.setStock(Math.max(0, p.getStock() - it.getQty()));
-                productService.update(p);
+    public boolean createTransaction(Transaction t) {
+        return createTransaction(t, null);
+    }
+
+    /**
+     * Membuat transaksi baru dengan memakai stok yang ditahan pemegang (misalnya sesi pengguna)
+     * lebih dulu. Untuk setiap item, unit yang ditahan diambil dari penahanan; sisanya dikurangi
+     * dari stok tersedia. Jika salah satu item gagal, stok yang sudah dikurangi dikembalikan dan
+     * unit yang diambil dari penahanan dikembalikan ke penahanan; hal yang sama dilakukan jika
+     * penulisan transaksi ke repository gagal, lalu kesalahannya diteruskan ke pemanggil.
+     * Jika berhasil, unit yang ditahan menjadi pengurangan stok permanen.
+     *
+     * @param t Objek transaksi yang akan dibuat
+     * @param holder ID pemegang penahanan, atau null untuk tidak memakai penahanan
+     * @return true jika transaksi tercatat, false jika stok tidak mencukupi
+     */
+    public boolean createTransaction(Transaction t, String holder) {
+        CheckoutEvent event = new CheckoutEvent();
+        event.begin();
+        boolean created = checkout(t, holder);
+        event.end();
+        if (event.shouldCommit()) {
+            event.transactionId = t.getId();
+            event.items = t.getItems().size();
+            event.total = t.getTotal();
+            event.fromHold = holder != null;
+            event.success = created;
+            event.commit();
+        }
+        return created;
+    }
+
+    /**
+     * Menjalankan pembuatan transaksi di bawah kunci service. Setiap fase (stok, tulis repository,
+     * indeks, serta event dashboard dan pendengar onCommit) direkam sebagai CheckoutPhaseEvent.
+     */
+    private synchronized boolean checkout(Transaction t, String holder) {
+        // mengurangi stok produk sesuai jumlah yang dibeli, dimulai dari stok yang ditahan
+        List<Transaction.TransactionItem> items = t.getItems();
+        CheckoutPhaseEvent phase = beginPhase();
+        int[] fromHold = new int[items.size()];
+        for (int i = 0; i < items.size(); i++) {
+            Transaction.TransactionItem it = items.get(i);
+            fromHold[i] = holder != null ? reservations.take(holder, it.getProductId(), it.getQty()) : 0;
+            int rest = it.getQty() - fromHold[i];
+            if (rest > 0 && !productService.tryDecrementStock(it.getProductId(), rest)) {
+                rollbackStock(items, fromHold, i, i + 1, holder);
+                commitPhase(phase, "stock", items.size(), false);
+                return false;
             }
         }
+        commitPhase(phase, "stock", items.size(), true);
+
+        // menulis transaksi; jika gagal (misalnya segmen bulan ini sudah ditutup instance lain),
+        // stok dan penahanan dikembalikan seperti saat stok tidak mencukupi
+        phase = beginPhase();
         t.setId(UUID.randomUUID().toString());
         t.setTimestamp(LocalDateTime.now());
-        var all = repo.readAll();
-        all.add(t);
-        repo.saveAll(all);
+        try {
+            repo.put(t);
+        } catch (RuntimeException e) {
+            rollbackStock(items, fromHold, items.size(), items.size(), holder);
+            commitPhase(phase, "write", items.size(), false);
+            throw e;
+        }
+        for (int i = 0; i < items.size(); i++) {
+            if (fromHold[i] > 0) productService.commitReservedStock(items.get(i).getProductId(), fromHold[i]);
+        }
+        commitPhase(phase, "write", items.size(), true);
+
+        phase = beginPhase();
+        index(t);
+        commitPhase(phase, "index", items.size(), true);
+
+        phase = beginPhase();
+        publish(t);
+        notifyCommitted(t);
+        commitPhase(phase, "publish", items.size(), true);
+        return true;
+    }
+
+    /**
+     * Membatalkan pengurangan stok checkout yang gagal: stok item [0, decremented) yang dikurangi
+     * dari stok tersedia dikembalikan, dan unit item [0, taken) yang diambil dari penahanan
+     * dikembalikan ke penahanan pemegangnya.
+     */
+    private void rollbackStock(List<Transaction.TransactionItem> items, int[] fromHold, int decremented, int taken, String holder) {
+        for (int j = 0; j < taken; j++) {
+            Transaction.TransactionItem back = items.get(j);
+            int qty = back.getQty() - fromHold[j];
+            if (j < decremented && qty > 0) productService.addStock(back.getProductId(), qty);
+            reservations.restore(holder, back.getProductId(), fromHold[j]);
+        }
+    }
+
+    private static CheckoutPhaseEvent beginPhase() {
+        CheckoutPhaseEvent e = new CheckoutPhaseEvent();
+        e.begin();
+        return e;
+    }
+
+    private static void commitPhase(CheckoutPhaseEvent e, String phase, int items, boolean success) {
+        e.end();
+        if (!e.shouldCommit()) return;
+        e.phase = phase;
+        e.items = items;
+        e.success = success;
+        e.commit();
+    }
+
+    /**
+     * Mendapatkan ringkasan belanja seluruh pengguna yang pernah bertransaksi,
+     * dengan ID pengguna sebagai kunci. Ringkasan diperbarui setiap transaksi dibuat.
+     *
+     * @return Map tidak dapat diubah dari ID pengguna ke ringkasan belanjanya
+     */
+    public Map<String, UserSpending> getUserSpending() {
+        return Collections.unmodifiableMap(userSpending);
+    }
+
+    /**
+     * Mendapatkan ringkasan belanja satu pengguna.
+     *
+     * @param userId ID pengguna
+     * @return Ringkasan belanja, atau null jika pengguna belum pernah bertransaksi
+     */
+    public UserSpending getUserSpending(String userId) {
+        return userSpending.get(userId);
+    }
+
+    /**
+     * Memperbarui ringkasan belanja pengguna dengan satu transaksi.
+     */
+    private void recordUserSpending(Transaction t) {
+        if (t.getUserId() == null) return;
+        userSpending.merge(t.getUserId(), UserSpending.of(t), UserSpending::plus);
+    }
+
+    /**
+     * Mendapatkan daftar produk terlaris beserta jumlah unit, pendapatan, dan jumlah pesanannya.
+     * Tanpa batas waktu, hasil diambil dari agregat sepanjang waktu yang diperbarui secara inkremental;
+     * dengan batas waktu, agregat dihitung paralel dari transaksi dalam rentang tersebut.
+     *
+     * @param from Batas bawah inklusif, null berarti tanpa batas
+     * @param to Batas atas eksklusif, null berarti tanpa batas
+     * @param limit Jumlah produk yang diambil, 0 berarti semua
+     * @param sortBy Kriteria urutan ("quantity", "revenue", atau "orders")
+     * @return Daftar produk terurut dari yang paling laris
+     */
+    public List<ProductPopularity> getBestSellers(LocalDateTime from, LocalDateTime to, int limit, String sortBy) {
+        if (from == null && to == null) return popularity.topAllTime(() -> timeIndex.compactRange(null, null), limit, sortBy);
+        return popularity.top(timeIndex.compactRange(from, to), limit, sortBy);
+    }
+
+    /**
+     * Mendapatkan riwayat penjualan satu produk: total dan rincian harian pesanan, unit, dan
+     * pendapatan, produk yang paling sering dibeli bersamanya, serta pesanan terbaru yang memuatnya.
+     * Transaksi dibaca dari posting list produk, sehingga biayanya sebanding dengan jumlah
+     * penjualan produk itu pada rentang waktu, bukan jumlah seluruh transaksi. Pada mode off-heap
+     * (tanpa indeks produk) transaksi pada rentang waktu dipindai dan disaring.
+     *
+     * @param productId ID produk
+     * @param from Batas bawah inklusif, null berarti tanpa batas
+     * @param to Batas atas eksklusif, null berarti tanpa batas
+     * @param recentLimit Jumlah pesanan terbaru yang disertakan
+     * @param boughtWithLimit Jumlah produk pendamping yang disertakan
+     * @return Riwayat penjualan produk pada rentang waktu
+     */
+    public ProductSalesHistory getProductSales(String productId, LocalDateTime from, LocalDateTime to, int recentLimit, int boughtWithLimit) {
+        int product = dictionaries.products().find(productId);
+        ProductSales sales = new ProductSales(product, recentLimit);
+        if (product >= 0) {
+            if (productPostings != null) {
+                long fromNanos = from != null ? CompactTransaction.toNanos(from) : Long.MIN_VALUE;
+                long toNanos = to != null ? CompactTransaction.toNanos(to) : Long.MAX_VALUE;
+                productPostings.forEach(product, fromNanos, toNanos, sales::add);
+            } else {
+                timeIndex.compactStream(from, to, false).forEachOrdered(c -> {
+                    sales.examined++;
+                    int qty = c.quantityOf(product);
+                    if (qty > 0) sales.add(c, qty);
+                });
+            }
+        }
+        Product p = productService.findById(productId);
+        String name = p != null ? p.getName() : sales.name != null ? sales.name : productId;
+        return sales.toHistory(productId, name, productPostings != null, boughtWithLimit);
+    }
+
+    /**
+     * Akumulator riwayat penjualan satu produk yang diisi posting demi posting, terurut waktu.
+     */
+    private final class ProductSales {
+        private final int product;
+        private final int recentLimit;
+        private int orders;
+        private long quantity;
+        private long revenue;
+        private long examined;
+        private String name;                                                     // Nama produk pada transaksi terakhir
+        private final Map<LocalDate, long[]> daily = new TreeMap<>();            // Tanggal -> {pesanan, unit, pendapatan}
+        private final Map<Integer, long[]> boughtWith = new HashMap<>();         // Ordinal produk -> {pesanan, unit, pendapatan, ordinal nama}
+        private final ArrayDeque<CompactTransaction> recent = new ArrayDeque<>();  // Pesanan terakhir, paling baru di ujung
+
+        private ProductSales(int product, int recentLimit) {
+            this.product = product;
+            this.recentLimit = recentLimit;
+        }
+
+        private void add(CompactTransaction c, int qty) {
+            if (productPostings != null) examined++;
+            long amount = c.amountOf(product);
+            orders++;
+            quantity += qty;
+            revenue += amount;
+            LocalDateTime ts = c.timestamp();
+            if (ts != null) {
+                long[] day = daily.computeIfAbsent(ts.toLocalDate(), d -> new long[3]);
+                day[0]++;
+                day[1] += qty;
+                day[2] += amount;
+            }
+            items:
+            for (int i = 0; i < c.itemCount(); i++) {
+                int other = c.productOrdinal(i);
+                if (other == product) {
+                    name = dictionaries.names().key(c.nameOrdinal(i));
+                    continue;
+                }
+                long[] w = boughtWith.computeIfAbsent(other, o -> new long[4]);
+                w[1] += c.qty(i);
+                w[2] += (long) c.qty(i) * c.price(i);
+                w[3] = c.nameOrdinal(i);
+                for (int j = 0; j < i; j++) {
+                    if (c.productOrdinal(j) == other) continue items;  // satu pesanan dihitung sekali per produk
+                }
+                w[0]++;
+            }
+            if (recentLimit > 0) {
+                if (recent.size() == recentLimit) recent.pollFirst();
+                recent.addLast(c);
+            }
+        }
+
+        private ProductSalesHistory toHistory(String productId, String productName, boolean indexed, int boughtWithLimit) {
+            List<ProductSalesHistory.DailySales> days = new ArrayList<>(daily.size());
+            daily.forEach((d, v) -> days.add(new ProductSalesHistory.DailySales(d, (int) v[0], v[1], v[2])));
+            List<ProductPopularity> with = new ArrayList<>(boughtWith.size());
+            boughtWith.forEach((o, w) -> with.add(new ProductPopularity(dictionaries.products().key(o),
+                    dictionaries.names().key((int) w[3]), w[1], w[2], (int) w[0])));
+            with.sort(Comparator.comparingInt(ProductPopularity::getOrders).thenComparingLong(ProductPopularity::getQuantity).reversed());
+            List<Transaction> latest = new ArrayList<>(recent.size());
+            recent.descendingIterator().forEachRemaining(c -> latest.add(c.view(dictionaries)));
+            return new ProductSalesHistory(productId, productName, orders, quantity, revenue, days,
+                    with.subList(0, Math.min(boughtWithLimit, with.size())), latest, indexed, examined);
+        }
+    }
+
+    /**
+     * Mendapatkan transaksi dengan timestamp pada rentang [from, to) melalui indeks timestamp,
+     * misalnya untuk mencari pesanan antara pukul 11:00 dan 14:00 hari ini.
+     *
+     * @param from Batas bawah inklusif, null berarti tanpa batas
+     * @param to Batas atas eksklusif, null berarti tanpa batas
+     * @param limit Jumlah maksimum hasil, 0 berarti tanpa batas
+     * @param descending true untuk mengurutkan dari transaksi terbaru
+     * @return Daftar transaksi dalam rentang sesuai urutan yang diminta
+     */
+    public List<Transaction> findByTimeRange(LocalDateTime from, LocalDateTime to, int limit, boolean descending) {
+        return timeIndex.range(from, to, limit, descending);
+    }
+
+    /**
+     * Mendapatkan N transaksi terbaru. Jika limit tidak melebihi uas.dashboard.recent-size,
+     * transaksi diambil dari buffer transaksi terbaru tanpa menyentuh indeks; selain itu dari indeks timestamp.
+     *
+     * @param limit Jumlah transaksi yang diambil
+     * @return Daftar transaksi terbaru, dimulai dari yang paling akhir
+     */
+    public List<Transaction> getLatest(int limit) {
+        if (loaded && limit <= recent.capacity()) return recent.latest(limit);
+        return timeIndex.range(null, null, limit, true);
+    }
+
+    /**
+     * Mendapatkan transaksi dengan timestamp pada rentang [from, to) dari indeks timestamp.
+     * Indeks memuat transaksi yang masih di antrean write-behind dan transaksi hasil replikasi,
+     * yang belum (atau tidak pernah) ada di file segmen lokal.
+     *
+     * @param from Batas bawah inklusif, null berarti tanpa batas
+     * @param to Batas atas eksklusif, null berarti tanpa batas
+     * @return Daftar transaksi dalam rentang
+     */
+    public List<Transaction> getBetween(LocalDateTime from, LocalDateTime to) {
+        return timeIndex.range(from, to, 0, false);
+    }
+
+    /**
+     * Menghitung total pendapatan pada rentang [from, to) dari indeks timestamp;
+     * tanpa batas sama sekali, diambil dari penghitung di memori (O(1)).
+     *
+     * @return Total pendapatan dalam rentang
+     */
+    public long getRevenueBetween(LocalDateTime from, LocalDateTime to) {
+        if (from == null && to == null) return revenueTotal.sum();
+        return timeIndex.totals(from, to).getSum();
+    }
+
+    /**
+     * Menghitung jumlah transaksi pada rentang [from, to) dari indeks timestamp;
+     * tanpa batas sama sekali, diambil dari penghitung di memori (O(1)).
+     *
+     * @return Jumlah transaksi dalam rentang
+     */
+    public int getOrdersBetween(LocalDateTime from, LocalDateTime to) {
+        if (from == null && to == null) return (int) orderCount.sum();
+        return (int) timeIndex.totals(from, to).getCount();
+    }
+
+    /**
+     * Mendapatkan daftar segmen bulanan beserta statistiknya dari manifest.
+     *
+     * @return Daftar segmen terurut dari bulan terlama, kosong jika backend bukan segmen JSON
+     */
+    public List<PartitionedTransactionRepository.SegmentInfo> getSegments() {
+        return segments != null ? segments.getSegments() : List.of();
     }
 
     /**
      * Menghitung total pendapatan berdasarkan semua transaksi.
      *
-     * @return Total pendapatan dalam bentuk integer
+     * @return Total pendapatan dalam rupiah
      */
-    public int getTotalRevenue() {
-        return repo.readAll().stream().mapToInt(Transaction::getTotal).sum();
+    public long getTotalRevenue() {
+        return getRevenueBetween(null, null);
     }
 
     /**
@@ -103,7 +751,7 @@ public class TransactionService {
      * @return Jumlah total transaksi
      */
     public int getTotalOrders() {
-        return repo.readAll().size();
+        return getOrdersBetween(null, null);
     }
 
     /**
@@ -112,21 +760,34 @@ public class TransactionService {
      * @return Rata-rata nilai transaksi, 0 jika tidak ada transaksi
      */
     public double getAverageOrder() {
-        var transactions = repo.readAll();
-        if (transactions.isEmpty()) return 0;
-        return transactions.stream().mapToInt(Transaction::getTotal).average().orElse(0);
+        int orders = getTotalOrders();
+        if (orders == 0) return 0;
+        return (double) getRevenueBetween(null, null) / orders;
+    }
+
+    /**
+     * Mendapatkan jumlah seluruh transaksi dari penghitung di memori (O(1)).
+     */
+    public long getOrderCount() {
+        return orderCount.sum();
+    }
+
+    /**
+     * Mendapatkan total nilai seluruh transaksi dari penghitung di memori (O(1)).
+     */
+    public long getRevenueTotal() {
+        return revenueTotal.sum();
     }
 
     /**
      * Mendapatkan nilai transaksi tertinggi dari semua transaksi.
      *
+     * Dihitung dari indeks di memori tanpa membaca ulang segmen dari disk.
+     *
      * @return Nilai transaksi tertinggi, 0 jika tidak ada transaksi
      */
     public int getHighestOrder() {
-        var transactions = repo.readAll();
-        return transactions.stream()
-                .mapToInt(Transaction::getTotal)
-                .max()
-                .orElse(0);
+        var stats = timeIndex.totals(null, null);
+        return stats.getCount() == 0 ? 0 : stats.getMax();
     }
 }
@@ -1,6 +1,8 @@
 package id.univ.uaspbo.service;
 
 import id.univ.uaspbo.model.User;
+import id.univ.uaspbo.repository.SnapshotCodec;
+import id.univ.uaspbo.repository.SnapshotCodecs;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
@@ -44,6 +46,16 @@ public class UserService extends AbstractService<User> {
         return User[].class;
     }
 
+    /**
+     * Mendapatkan codec biner pengguna untuk snapshot.
+     *
+     * @return Codec pengguna
+     */
+    @Override
+    protected SnapshotCodec<User> getSnapshotCodec() {
+        return SnapshotCodecs.USER;
+    }
+
     /**
      * Mendapatkan ID dari objek pengguna.
      *
@@ -66,16 +78,32 @@ public class UserService extends AbstractService<User> {
         user.setId(id);
     }
 
+    /**
+     * Mendapatkan versi dari objek pengguna.
+     */
+    @Override
+    protected long getEntityVersion(User user) {
+        return user.getVersion();
+    }
+
+    /**
+     * Mengatur versi pada objek pengguna.
+     */
+    @Override
+    protected void setEntityVersion(User user, long version) {
+        user.setVersion(version);
+    }
+
     /**
      * Melakukan autentikasi pengguna berdasarkan email dan password.
      *
      * @param email Email pengguna
      * @param password Password pengguna
-     * @return Objek User jika autentikasi berhasil, atau null jika gagal
+     * @return Salinan objek User jika autentikasi berhasil, atau null jika gagal
      */
     public User authenticate(String email, String password) {
-        for (User u : getAll()) {
-            if (u.getEmail().equalsIgnoreCase(email) && u.getPassword().equals(password)) return u;
+        for (User u : entities()) {
+            if (u.getEmail().equalsIgnoreCase(email) && u.getPassword().equals(password)) return copyOf(u);
         }
         return null;
     }
@@ -84,11 +112,11 @@ public class UserService extends AbstractService<User> {
      * Mencari pengguna berdasarkan email.
      *
      * @param email Email pengguna
-     * @return Objek User jika ditemukan, atau null jika tidak ada
+     * @return Salinan objek User jika ditemukan, atau null jika tidak ada
      */
     public User findByEmail(String email) {
-        for (User u : getAll()) {
-            if (u.getEmail().equalsIgnoreCase(email)) return u;
+        for (User u : entities()) {
+            if (u.getEmail().equalsIgnoreCase(email)) return copyOf(u);
         }
         return null;
     }
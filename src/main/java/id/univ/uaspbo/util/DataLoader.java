@@ -2,59 +2,122 @@ package id.univ.uaspbo.util;
 
 import id.univ.uaspbo.model.Product;
 import id.univ.uaspbo.model.User;
-import id.univ.uaspbo.repository.FileRepository;
-import org.springframework.beans.factory.annotation.Value;
+import id.univ.uaspbo.replication.ReplicationService;
+import id.univ.uaspbo.service.Outlet;
+import id.univ.uaspbo.service.OutletService;
+import id.univ.uaspbo.service.ProductService;
+import id.univ.uaspbo.service.UserService;
 import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Component;
 
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
 /**
- * Komponen utilitas yang bertanggung jawab memuat data default
- * ke dalam aplikasi saat startup. Mengimplementasikan CommandLineRunner
- * sehingga proses inisialisasi data akan dijalankan otomatis ketika aplikasi dijalankan.
+ * Komponen utilitas yang bertanggung jawab memuat data ke dalam aplikasi saat startup.
+ * Data pengguna serta produk dan transaksi setiap outlet dimuat secara paralel satu kali ke cache
+ * masing-masing service sebelum server mulai menerima request. Setiap service membaca snapshot biner jika
+ * masih valid, sehingga restart tidak perlu mem-parsing ulang file JSON yang besar.
+ * Saat aplikasi dihentikan, snapshot biner ditulis ulang dari isi cache. Pada follower replikasi,
+ * produk dan transaksi di memori berasal dari primary dan tidak mencerminkan file data lokal,
+ * sehingga snapshot biner produk dan transaksi tidak ditulis dan produk default tidak dibuat.
+ * Waktu sampai aplikasi siap menerima request (time-to-ready) dicetak ke log sejak JVM dimulai.
  *
- * Fungsi utama adalah memastikan bahwa data pengguna dan produk default
- * sudah tersedia di lingkungan aplikasi, membuat entri default jika belum ada.
+ * Mengimplementasikan CommandLineRunner untuk memastikan data pengguna dan produk default
+ * sudah tersedia di lingkungan aplikasi, membuat entri default jika belum ada (produk per outlet).
  *
  * Konsep OOP yang digunakan:
  * - Implementasi Interface: Mengimplementasikan CommandLineRunner untuk mengatur proses inisialisasi saat runtime.
- * - Enkapsulasi: Menyimpan path file data sebagai atribut private dengan akses terkontrol melalui anotasi Spring.
+ * - Komposisi: Menggunakan service-service aplikasi untuk memuat dan menyimpan data.
  */
 @Component
 public class DataLoader implements CommandLineRunner {
+    private final UserService userService;      // Service data pengguna
+    private final OutletService outletService;  // Outlet-outlet beserta service produk dan transaksinya
+    private final ReplicationService replication;  // Peran replikasi instance ini
 
-    @Value("${uas.data.users}")
-    private String usersPath; // Path ke file data pengguna (JSON)
+    /**
+     * Konstruktor DataLoader, menerima service-service yang datanya dimuat saat startup.
+     */
+    public DataLoader(UserService userService, OutletService outletService, ReplicationService replication) {
+        this.userService = userService;
+        this.outletService = outletService;
+        this.replication = replication;
+    }
 
-    @Value("${uas.data.products}")
-    private String productsPath; // Path ke file data produk (JSON)
+    /**
+     * Memuat data pengguna serta produk dan transaksi setiap outlet secara paralel.
+     * Dijalankan sebelum server web mulai menerima koneksi.
+     */
+    @PostConstruct
+    private void loadAll() {
+        long start = System.nanoTime();
+        List<CompletableFuture<Void>> tasks = new ArrayList<>();
+        tasks.add(CompletableFuture.runAsync(userService::load));
+        for (Outlet o : outletService.getAll()) {
+            tasks.add(CompletableFuture.runAsync(o.getProducts()::load));
+            tasks.add(CompletableFuture.runAsync(o.getTransactions()::load));
+        }
+        CompletableFuture.allOf(tasks.toArray(CompletableFuture[]::new)).join();
+        System.out.println("Loaded users, products and transactions of " + outletService.getAll().size() + " outlet(s) in "
+                + (System.nanoTime() - start) / 1_000_000 + " ms");
+    }
+
+    /**
+     * Mencetak waktu sejak JVM dimulai sampai aplikasi siap menerima request.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void logReady() {
+        long ready = System.currentTimeMillis() - ManagementFactory.getRuntimeMXBean().getStartTime();
+        System.out.println("Ready to serve requests " + ready + " ms after JVM start");
+    }
+
+    /**
+     * Menulis snapshot biner semua data saat aplikasi dihentikan.
+     */
+    @PreDestroy
+    private void writeSnapshots() {
+        List<CompletableFuture<Void>> tasks = new ArrayList<>();
+        tasks.add(CompletableFuture.runAsync(userService::writeSnapshot));
+        for (Outlet o : replication.isFollower() ? List.<Outlet>of() : outletService.getAll()) {
+            tasks.add(CompletableFuture.runAsync(o.getProducts()::writeSnapshot));
+            tasks.add(CompletableFuture.runAsync(o.getTransactions()::writeSnapshot));
+        }
+        CompletableFuture.allOf(tasks.toArray(CompletableFuture[]::new)).join();
+    }
 
     /**
      * Metode yang dijalankan pada saat aplikasi mulai berjalan,
-     * bertugas untuk mengecek dan memuat data default jika belum tersedia.
+     * bertugas untuk mengecek dan membuat data default jika belum tersedia.
      */
     @Override
     public void run(String... args) throws Exception {
-        var userRepo = new FileRepository<User>(usersPath, User[].class);
-        var prodRepo = new FileRepository<Product>(productsPath, Product[].class);
-
         // Membuat data pengguna default jika belum ada
-        if (userRepo.readAll().isEmpty()) {
+        if (userService.count() == 0) {
             User admin = new User(UUID.randomUUID().toString(), "admin@uas", "admin123", "ADMIN");
             User user = new User(UUID.randomUUID().toString(), "user@uas", "user123", "USER");
-            userRepo.saveAll(List.of(admin, user).stream().toList());
+            userService.saveAll(List.of(admin, user));
             System.out.println("Created default users");
         }
 
-        // Membuat data produk default jika belum ada
-        if (prodRepo.readAll().isEmpty()) {
-            Product p1 = new Product(UUID.randomUUID().toString(), "Nasi Goreng", 15000, 10);
-            Product p2 = new Product(UUID.randomUUID().toString(), "Mie Goreng", 12000, 15);
-            Product p3 = new Product(UUID.randomUUID().toString(), "Es Teh", 5000, 30);
-            prodRepo.saveAll(List.of(p1,p2,p3).stream().toList());
-            System.out.println("Created default products");
+        // Membuat data produk default di setiap outlet yang belum memiliki produk (produk follower berasal dari primary)
+        if (replication.isFollower()) return;
+        for (Outlet o : outletService.getAll()) {
+            ProductService productService = o.getProducts();
+            if (productService.count() == 0) {
+                Product p1 = new Product(UUID.randomUUID().toString(), "Nasi Goreng", 15000, 10);
+                Product p2 = new Product(UUID.randomUUID().toString(), "Mie Goreng", 12000, 15);
+                Product p3 = new Product(UUID.randomUUID().toString(), "Es Teh", 5000, 30);
+                productService.saveAll(List.of(p1, p2, p3));
+                System.out.println("Created default products for outlet " + o.getId());
+            }
         }
     }
 }
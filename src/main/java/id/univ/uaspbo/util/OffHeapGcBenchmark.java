@@ -0,0 +1,134 @@
+package id.univ.uaspbo.util;
+
+import id.univ.uaspbo.index.OffHeapTransactionStore;
+import id.univ.uaspbo.index.OrdinalDictionary;
+import id.univ.uaspbo.index.TimestampIndex;
+import id.univ.uaspbo.index.TransactionDictionaries;
+import id.univ.uaspbo.index.TransactionIndex;
+import id.univ.uaspbo.model.Transaction;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.ref.Reference;
+import java.lang.management.ManagementFactory;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+/**
+ * Program benchmark untuk membandingkan jeda GC ketika riwayat transaksi disimpan di heap
+ * (List<Transaction> biasa dan TimestampIndex) dengan OffHeapTransactionStore.
+ * Setelah data dimuat, program membuat sampah berumur pendek seperti beban request web
+ * dan memicu beberapa full GC, lalu mencatat jumlah dan total waktu GC dari GarbageCollectorMXBean.
+ *
+ * Setiap mode sebaiknya dijalankan di JVM terpisah agar hasilnya tidak saling memengaruhi:
+ *   java -Xmx2g -cp target/classes:<classpath> id.univ.uaspbo.util.OffHeapGcBenchmark list 1000000
+ *   java -Xmx2g -cp target/classes:<classpath> id.univ.uaspbo.util.OffHeapGcBenchmark heap 1000000
+ *   java -Xmx2g -cp target/classes:<classpath> id.univ.uaspbo.util.OffHeapGcBenchmark offheap 1000000
+ *
+ * Argumen pertama adalah mode (list, heap, atau offheap), argumen kedua jumlah transaksi.
+ */
+public class OffHeapGcBenchmark {
+    private static final int CHURN_ROUNDS = 20;         // Jumlah putaran pembuatan sampah
+    private static final int CHURN_PER_ROUND = 500_000; // Objek sementara per putaran
+    private static final int FULL_GCS = 5;              // Jumlah full GC yang dipicu
+    private static volatile long blackhole;             // Mencegah JIT membuang loop pembuat sampah
+
+    public static void main(String[] args) {
+        String mode = args.length > 0 ? args[0] : "offheap";
+        int n = args.length > 1 ? Integer.parseInt(args[1]) : 1_000_000;
+
+        TransactionDictionaries dict = new TransactionDictionaries(new OrdinalDictionary());
+        Object retained;
+        long loadStart = System.nanoTime();
+        switch (mode) {
+            case "list" -> retained = generate(n);
+            case "heap" -> retained = load(new TimestampIndex(dict), n);
+            case "offheap" -> retained = load(new OffHeapTransactionStore(dict), n);
+            default -> throw new IllegalArgumentException("Mode tidak dikenal: " + mode);
+        }
+        long loadMs = (System.nanoTime() - loadStart) / 1_000_000;
+
+        long[] before = gcStats();
+        long sink = 0;
+        for (int round = 0; round < CHURN_ROUNDS; round++) {
+            List<int[]> garbage = new ArrayList<>(1024);
+            for (int i = 0; i < CHURN_PER_ROUND; i++) {
+                int[] tmp = new int[8];
+                tmp[0] = i;
+                if (garbage.size() < 1024) garbage.add(tmp);
+                sink += tmp[0];
+            }
+            sink += garbage.size();
+        }
+        long[] afterYoung = gcStats();
+        for (int i = 0; i < FULL_GCS; i++) System.gc();
+        long[] afterFull = gcStats();
+
+        System.out.printf("Mode                 : %s (%,d transaksi, dimuat dalam %,d ms)%n", mode, n, loadMs);
+        System.out.printf("Heap terpakai        : %,d byte%n", usedHeap());
+        if (retained instanceof OffHeapTransactionStore s) {
+            System.out.printf("Off-heap dialokasikan: %,d byte%n", s.allocatedBytes());
+        }
+        System.out.printf("GC beban request     : %d kali, %,d ms%n", afterYoung[0] - before[0], afterYoung[1] - before[1]);
+        System.out.printf("Full GC (%d kali)     : %,d ms (rata-rata %.1f ms)%n", FULL_GCS,
+                afterFull[1] - afterYoung[1], (double) (afterFull[1] - afterYoung[1]) / FULL_GCS);
+        blackhole = sink;
+        Reference.reachabilityFence(retained);
+    }
+
+    private static TransactionIndex load(TransactionIndex index, int n) {
+        for (Transaction t : generate(n)) index.add(t);
+        return index;
+    }
+
+    /**
+     * Membuat transaksi acak berurutan waktu dengan salinan String baru untuk setiap field.
+     */
+    private static List<Transaction> generate(int n) {
+        String[] users = ids(1_000);
+        String[] products = ids(50);
+        Random rnd = new Random(42);
+        LocalDateTime start = LocalDateTime.of(2024, 1, 1, 8, 0);
+        List<Transaction> list = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            int itemCount = 1 + rnd.nextInt(4);
+            List<Transaction.TransactionItem> items = new ArrayList<>(itemCount);
+            int total = 0;
+            for (int j = 0; j < itemCount; j++) {
+                int p = rnd.nextInt(products.length);
+                int qty = 1 + rnd.nextInt(3);
+                int price = 5_000 + p * 1_000;
+                items.add(new Transaction.TransactionItem(new String(products[p]), new String("Produk " + p), qty, price));
+                total += qty * price;
+            }
+            list.add(new Transaction(UUID.randomUUID().toString(), new String(users[rnd.nextInt(users.length)]),
+                    items, start.plusSeconds(i * 30L), total));
+        }
+        return list;
+    }
+
+    /**
+     * Mengembalikan {jumlah GC, total waktu GC dalam ms} dari semua kolektor.
+     */
+    private static long[] gcStats() {
+        long count = 0, time = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            count += Math.max(0, gc.getCollectionCount());
+            time += Math.max(0, gc.getCollectionTime());
+        }
+        return new long[] {count, time};
+    }
+
+    private static String[] ids(int n) {
+        String[] ids = new String[n];
+        for (int i = 0; i < n; i++) ids[i] = UUID.randomUUID().toString();
+        return ids;
+    }
+
+    private static long usedHeap() {
+        Runtime rt = Runtime.getRuntime();
+        return rt.totalMemory() - rt.freeMemory();
+    }
+}
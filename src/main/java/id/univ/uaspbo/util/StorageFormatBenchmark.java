@@ -0,0 +1,60 @@
+package id.univ.uaspbo.util;
+
+import id.univ.uaspbo.model.Transaction;
+import id.univ.uaspbo.repository.FileRepository;
+import id.univ.uaspbo.repository.StorageFormat;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.List;
+
+/**
+ * Program benchmark sederhana untuk membandingkan format penyimpanan FileRepository
+ * (JSON ber-indentasi, JSON ringkas, Smile, CBOR) pada data transaksi: ukuran file,
+ * waktu menulis (serialisasi), dan waktu membaca (parse) seluruh file.
+ * Setiap format ditulis dan dibaca beberapa kali; yang dilaporkan adalah waktu terbaik.
+ *
+ * Cara menjalankan (setelah mvn compile):
+ *   java -Xmx4g -cp target/classes:$(mvn -q dependency:build-classpath -Dmdep.outputFile=/dev/stdout) \
+ *        id.univ.uaspbo.util.StorageFormatBenchmark 1000000
+ *
+ * Argumen pertama adalah jumlah transaksi (default 200000), argumen kedua jumlah ulangan (default 3).
+ */
+public class StorageFormatBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 200_000;
+        int rounds = args.length > 1 ? Integer.parseInt(args[1]) : 3;
+        List<Transaction> data = TransactionFootprintBenchmark.generate(n,
+                TransactionFootprintBenchmark.ids(1_000), TransactionFootprintBenchmark.ids(50));
+        File dir = Files.createTempDirectory("storage-format").toFile();
+
+        System.out.printf("%-13s %14s %10s %10s %12s%n", "Format", "Ukuran (byte)", "Tulis ms", "Baca ms", "Baca MB/s");
+        long baseSize = 0;
+        for (StorageFormat format : StorageFormat.values()) {
+            File file = new File(dir, "transactions-" + format.name().toLowerCase());
+            FileRepository<Transaction> repo = new FileRepository<>(file.getPath(), Transaction[].class, Transaction::getId, format);
+            long bestWrite = Long.MAX_VALUE;
+            long bestRead = Long.MAX_VALUE;
+            int read = 0;
+            for (int r = 0; r < rounds; r++) {
+                file.delete();
+                long t0 = System.nanoTime();
+                repo.saveAll(data);
+                bestWrite = Math.min(bestWrite, System.nanoTime() - t0);
+                t0 = System.nanoTime();
+                read = repo.readAll().size();
+                bestRead = Math.min(bestRead, System.nanoTime() - t0);
+            }
+            if (read != n) throw new IllegalStateException(format + " membaca " + read + " dari " + n + " transaksi");
+            long size = file.length();
+            if (baseSize == 0) baseSize = size;
+            System.out.printf("%-13s %,14d %10d %10d %12.1f   (%.0f%% dari JSON)%n", format, size,
+                    bestWrite / 1_000_000, bestRead / 1_000_000, size / (bestRead / 1e9) / 1e6, 100.0 * size / baseSize);
+            file.delete();
+            new File(file.getPath() + ".lock").delete();
+        }
+        dir.delete();
+        System.out.println("Transaksi: " + n + ", ulangan: " + rounds);
+    }
+}
@@ -0,0 +1,83 @@
+package id.univ.uaspbo.util;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import id.univ.uaspbo.repository.FileLocks;
+import id.univ.uaspbo.repository.StorageFormat;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Program baris perintah untuk mengonversi file data ke format penyimpanan lain
+ * (json, compact-json, smile, atau cbor). Isi file dibaca sebagai pohon JSON dengan format
+ * yang terdeteksi lalu ditulis ulang apa adanya, termasuk version file, sehingga tidak
+ * bergantung pada tipe entitas. Penulisan dilakukan di bawah kunci FileLocks yang sama
+ * dengan FileRepository.
+ *
+ * Cara menjalankan (setelah mvn compile, sebaiknya saat aplikasi berhenti):
+ *   java -cp target/classes:$(mvn -q dependency:build-classpath -Dmdep.outputFile=/dev/stdout) \
+ *        id.univ.uaspbo.util.StorageMigrator smile data/users.json data/products.json data/transactions
+ *
+ * Argumen pertama adalah format tujuan; argumen berikutnya berupa file atau direktori.
+ * Untuk direktori, semua file .json di dalamnya dikonversi kecuali manifest.json yang selalu JSON.
+ * Setelah konversi, atur juga uas.storage.format.&lt;nama&gt; agar penulisan berikutnya memakai format yang sama.
+ */
+public class StorageMigrator {
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Penggunaan: StorageMigrator <json|compact-json|smile|cbor> <file atau direktori>...");
+            System.exit(1);
+        }
+        StorageFormat target = StorageFormat.parse(args[0]);
+        List<File> files = new ArrayList<>();
+        for (int i = 1; i < args.length; i++) collect(new File(args[i]), files);
+        for (File f : files) {
+            long before = f.length();
+            StorageFormat from = migrate(f, target);
+            System.out.printf("%-50s %-12s -> %-12s %,12d -> %,12d byte%n", f.getPath(), from, target, before, f.length());
+        }
+    }
+
+    /**
+     * Mengonversi satu file ke format tujuan.
+     *
+     * @return Format file sebelum dikonversi
+     */
+    public static StorageFormat migrate(File file, StorageFormat target) {
+        return FileLocks.withLock(file, () -> {
+            StorageFormat from = StorageFormat.detect(file);
+            if (from == null) return null;
+            try {
+                JsonNode tree = from.newMapper().readTree(file);
+                ObjectMapper writer = target.newMapper();
+                File tmp = new File(file.getPath() + ".tmp");
+                try (JsonGenerator g = writer.getFactory().createGenerator(tmp, JsonEncoding.UTF8)) {
+                    if (target.pretty()) g.useDefaultPrettyPrinter();
+                    writer.writeTree(g, tree);
+                }
+                Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                return from;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    private static void collect(File f, List<File> out) {
+        if (f.isDirectory()) {
+            File[] children = f.listFiles((dir, name) -> name.endsWith(".json") && !name.equals("manifest.json"));
+            if (children != null) for (File c : children) out.add(c);
+        } else if (f.exists()) {
+            out.add(f);
+        }
+    }
+}
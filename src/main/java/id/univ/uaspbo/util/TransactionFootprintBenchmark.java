@@ -0,0 +1,101 @@
+package id.univ.uaspbo.util;
+
+import id.univ.uaspbo.index.CompactTransaction;
+import id.univ.uaspbo.index.OrdinalDictionary;
+import id.univ.uaspbo.index.TransactionDictionaries;
+import id.univ.uaspbo.model.Transaction;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+/**
+ * Program benchmark sederhana untuk membandingkan pemakaian heap antara daftar
+ * Transaction biasa (seperti hasil deserialisasi JSON, setiap String disalin)
+ * dan representasi ringkas CompactTransaction dengan kamus ordinal bersama.
+ *
+ * Cara menjalankan (setelah mvn compile):
+ *   java -cp target/classes:$(mvn -q dependency:build-classpath -Dmdep.outputFile=/dev/stdout) \
+ *        id.univ.uaspbo.util.TransactionFootprintBenchmark 200000
+ *
+ * Argumen pertama adalah jumlah transaksi yang dibuat (default 200000).
+ */
+public class TransactionFootprintBenchmark {
+
+    public static void main(String[] args) {
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 200_000;
+        String[] users = ids(1_000);
+        String[] products = ids(50);
+
+        long base = usedHeap();
+        List<Transaction> plain = generate(n, users, products);
+        long plainBytes = usedHeap() - base;
+        int plainSize = plain.size();
+        plain = null;
+
+        base = usedHeap();
+        List<CompactTransaction> compact = compact(generate(n, users, products));
+        long compactBytes = usedHeap() - base;
+
+        System.out.printf("Transaksi                : %,d / %,d%n", plainSize, compact.size());
+        System.out.printf("List<Transaction>        : %,d byte (%.1f byte/transaksi)%n", plainBytes, (double) plainBytes / n);
+        System.out.printf("List<CompactTransaction> : %,d byte (%.1f byte/transaksi)%n", compactBytes, (double) compactBytes / n);
+        System.out.printf("Rasio                    : %.2fx lebih kecil%n", (double) plainBytes / Math.max(1, compactBytes));
+    }
+
+    /**
+     * Membuat transaksi acak dengan salinan String baru untuk setiap field,
+     * meniru objek hasil deserialisasi Jackson.
+     */
+    static List<Transaction> generate(int n, String[] users, String[] products) {
+        Random rnd = new Random(42);
+        LocalDateTime start = LocalDateTime.of(2024, 1, 1, 8, 0);
+        List<Transaction> list = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            int itemCount = 1 + rnd.nextInt(4);
+            List<Transaction.TransactionItem> items = new ArrayList<>(itemCount);
+            int total = 0;
+            for (int j = 0; j < itemCount; j++) {
+                int p = rnd.nextInt(products.length);
+                int qty = 1 + rnd.nextInt(3);
+                int price = 5_000 + p * 1_000;
+                items.add(new Transaction.TransactionItem(new String(products[p]), new String("Produk " + p), qty, price));
+                total += qty * price;
+            }
+            list.add(new Transaction(UUID.randomUUID().toString(), new String(users[rnd.nextInt(users.length)]),
+                    items, start.plusSeconds(i * 30L), total));
+        }
+        return list;
+    }
+
+    /**
+     * Mengubah daftar transaksi ke bentuk ringkas; daftar asli tidak disimpan setelah method selesai.
+     */
+    private static List<CompactTransaction> compact(List<Transaction> source) {
+        TransactionDictionaries dict = new TransactionDictionaries(new OrdinalDictionary());
+        List<CompactTransaction> result = new ArrayList<>(source.size());
+        for (Transaction t : source) result.add(CompactTransaction.of(t, dict));
+        return result;
+    }
+
+    static String[] ids(int n) {
+        String[] ids = new String[n];
+        for (int i = 0; i < n; i++) ids[i] = UUID.randomUUID().toString();
+        return ids;
+    }
+
+    private static long usedHeap() {
+        Runtime rt = Runtime.getRuntime();
+        for (int i = 0; i < 5; i++) {
+            System.gc();
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        return rt.totalMemory() - rt.freeMemory();
+    }
+}
@@ -0,0 +1,125 @@
+/*
+  Pembaruan langsung untuk halaman admin (dashboard dan riwayat transaksi).
+  Berlangganan /admin/events (Server-Sent Events) lalu menerapkan event ke elemen halaman:
+  - counters: selisih penghitung ditambahkan ke elemen [data-counter="nama"]
+  - stock: stok terkini ditulis ke elemen [data-stock-product="id produk"]
+  - transaction: baris baru disisipkan ke tbody [data-live-transactions]
+  Jika koneksi putus lalu tersambung kembali (misalnya karena klien terlalu lambat dan diputus
+  server), halaman dimuat ulang sekali agar tidak ada event yang terlewat.
+*/
+(function () {
+  if (!window.EventSource) return;
+
+  var source = new EventSource('/admin/events');
+  var disconnected = false;
+
+  function parse(text) {
+    return parseInt(String(text).replace(/[^0-9-]/g, ''), 10) || 0;
+  }
+
+  function format(n) {
+    return Number(n).toLocaleString('en-US');
+  }
+
+  function text(tag, value, className) {
+    var el = document.createElement(tag);
+    if (className) el.className = className;
+    el.textContent = value;
+    return el;
+  }
+
+  function compactRow(t) {
+    var tr = document.createElement('tr');
+    var id = document.createElement('td');
+    id.appendChild(text('code', t.id));
+    tr.appendChild(id);
+    tr.appendChild(text('td', t.userId));
+    tr.appendChild(text('td', 'Rp ' + format(t.total)));
+    tr.appendChild(text('td', t.date + ' ' + t.time.substring(0, 5)));
+    return tr;
+  }
+
+  function fullRow(t) {
+    var tr = document.createElement('tr');
+    var id = document.createElement('td');
+    id.appendChild(text('code', t.id, 'transaction-id'));
+    tr.appendChild(id);
+    var user = document.createElement('td');
+    user.appendChild(text('span', t.userId, 'fw-bold'));
+    tr.appendChild(user);
+    var when = document.createElement('td');
+    when.appendChild(text('span', t.date));
+    when.appendChild(document.createElement('br'));
+    when.appendChild(text('small', t.time, 'text-muted'));
+    tr.appendChild(when);
+    var items = document.createElement('td');
+    var list = document.createElement('div');
+    list.className = 'transaction-items';
+    t.items.forEach(function (it) {
+      var item = document.createElement('div');
+      item.className = 'transaction-item';
+      var line = document.createElement('div');
+      line.className = 'd-flex justify-content-between align-items-center';
+      var name = document.createElement('span');
+      name.appendChild(text('span', it.productName, 'fw-bold'));
+      name.appendChild(text('span', ' x ', 'text-muted'));
+      name.appendChild(text('span', it.qty, 'fw-bold'));
+      line.appendChild(name);
+      line.appendChild(text('span', '@ Rp ' + format(it.price), 'text-muted'));
+      item.appendChild(line);
+      list.appendChild(item);
+    });
+    items.appendChild(list);
+    tr.appendChild(items);
+    var total = document.createElement('td');
+    total.appendChild(text('span', 'Rp ' + format(t.total), 'transaction-total'));
+    tr.appendChild(total);
+    return tr;
+  }
+
+  source.addEventListener('counters', function (e) {
+    var deltas = JSON.parse(e.data);
+    Object.keys(deltas).forEach(function (name) {
+      document.querySelectorAll('[data-counter="' + name + '"]').forEach(function (el) {
+        el.textContent = format(parse(el.textContent) + deltas[name]);
+      });
+    });
+    var orders = document.querySelector('[data-counter="transactions"]');
+    var revenue = document.querySelector('[data-counter="revenue"]');
+    document.querySelectorAll('[data-average]').forEach(function (el) {
+      var n = orders ? parse(orders.textContent) : 0;
+      el.textContent = n > 0 ? format(Math.round(parse(revenue.textContent) / n)) : '0';
+    });
+  });
+
+  source.addEventListener('stock', function (e) {
+    var s = JSON.parse(e.data);
+    document.querySelectorAll('[data-stock-product="' + s.productId + '"]').forEach(function (el) {
+      el.textContent = 'Stok: ' + s.stock;
+      el.className = 'product-stock ' + (s.stock > 10 ? 'available' : (s.stock > 0 ? 'low' : 'out'));
+    });
+  });
+
+  source.addEventListener('transaction', function (e) {
+    var t = JSON.parse(e.data);
+    document.querySelectorAll('[data-live-transactions]').forEach(function (body) {
+      var row = body.getAttribute('data-live-transactions') === 'full' ? fullRow(t) : compactRow(t);
+      var newestFirst = body.getAttribute('data-order') === 'desc';
+      var limit = parseInt(body.getAttribute('data-limit'), 10) || 0;
+      if (newestFirst) {
+        body.insertBefore(row, body.firstChild);
+        if (limit > 0 && body.rows.length > limit) body.deleteRow(body.rows.length - 1);
+      } else if (limit === 0 || body.rows.length < limit) {
+        body.appendChild(row);
+      }
+    });
+  });
+
+  source.addEventListener('error', function () {
+    disconnected = true;
+  });
+
+  source.addEventListener('open', function () {
+    if (disconnected) window.location.reload();
+  });
+})();
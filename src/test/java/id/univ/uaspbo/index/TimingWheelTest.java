@@ -0,0 +1,160 @@
+package id.univ.uaspbo.index;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Unit test TimingWheel: kedaluwarsa tepat pada deadline, penurunan (cascade) antar-level,
+ * pembatalan setelah cascade, dan tick yang melewati batas 64^L.
+ */
+class TimingWheelTest {
+    private static final long L1 = 64;            // Tick yang dicakup satu slot level 1
+    private static final long L2 = 64 * 64;       // Tick yang dicakup satu slot level 2
+    private static final long L3 = 64 * 64 * 64;  // Tick yang dicakup satu slot level 3
+
+    @Test
+    void expiresExactlyAtDeadlineTick() {
+        TimingWheel<String> wheel = new TimingWheel<>(10, 0);
+        wheel.schedule("a", 100);
+        assertEquals(List.of(), wheel.advance(99));
+        assertEquals(List.of("a"), wheel.advance(100));
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void deadlineBetweenTicksIsRoundedUp() {
+        TimingWheel<String> wheel = new TimingWheel<>(10, 0);
+        wheel.schedule("a", 105);
+        assertEquals(List.of(), wheel.advance(105));
+        assertEquals(List.of(), wheel.advance(109));
+        assertEquals(List.of("a"), wheel.advance(110));
+    }
+
+    @Test
+    void pastOrCurrentDeadlineExpiresOnNextAdvance() {
+        TimingWheel<String> wheel = new TimingWheel<>(10, 1_000);
+        wheel.schedule("past", 500);
+        wheel.schedule("now", 1_000);
+        List<String> expired = wheel.advance(1_000);
+        assertEquals(2, expired.size());
+        assertTrue(expired.containsAll(List.of("past", "now")));
+    }
+
+    @Test
+    void cascadesFromHigherLevelsAtExactTick() {
+        TimingWheel<String> wheel = new TimingWheel<>(1, 0);
+        long level1 = L1 + 5;
+        long level2 = L2 + L1 + 5;
+        long level3 = L3 + L2 + 7;
+        wheel.schedule("l1", level1);
+        wheel.schedule("l2", level2);
+        wheel.schedule("l3", level3);
+        assertEquals(List.of(), wheel.advance(level1 - 1));
+        assertEquals(List.of("l1"), wheel.advance(level1));
+        assertEquals(List.of(), wheel.advance(level2 - 1));
+        assertEquals(List.of("l2"), wheel.advance(level2));
+        assertEquals(List.of(), wheel.advance(level3 - 1));
+        assertEquals(List.of("l3"), wheel.advance(level3));
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void cancelAfterCascade() {
+        TimingWheel<String> wheel = new TimingWheel<>(1, 0);
+        TimingWheel.Timeout<String> cancelled = wheel.schedule("cancelled", L2 + 5);
+        wheel.schedule("kept", L2 + 7);
+        // pada tick L2 isi slot level 2 diturunkan ke level 0
+        assertEquals(List.of(), wheel.advance(L2));
+        assertTrue(cancelled.cancel());
+        assertFalse(cancelled.cancel());
+        assertEquals(1, wheel.size());
+        assertEquals(List.of("kept"), wheel.advance(L2 + 10));
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void cancelAfterExpiryReturnsFalse() {
+        TimingWheel<String> wheel = new TimingWheel<>(1, 0);
+        TimingWheel.Timeout<String> t = wheel.schedule("a", 3);
+        assertEquals(List.of("a"), wheel.advance(3));
+        assertFalse(t.cancel());
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void wrapsPastLevelBoundariesFromUnalignedStart() {
+        // roda dimulai tepat sebelum batas 64^3, sehingga satu langkah memutar level 1, 2, dan 3 sekaligus
+        long start = 5 * L3 - 3;
+        TimingWheel<String> wheel = new TimingWheel<>(1, start);
+        wheel.schedule("before", start + 2);
+        wheel.schedule("boundary", 5 * L3);
+        wheel.schedule("after", 5 * L3 + 2);
+        wheel.schedule("farther", 5 * L3 + L2 + 1);
+        assertEquals(List.of("before"), wheel.advance(start + 2));
+        assertEquals(List.of("boundary"), wheel.advance(5 * L3));
+        assertEquals(List.of(), wheel.advance(5 * L3 + 1));
+        assertEquals(List.of("after"), wheel.advance(5 * L3 + 2));
+        assertEquals(List.of("farther"), wheel.advance(5 * L3 + L2 + 1));
+    }
+
+    @Test
+    void realisticEpochTimes() {
+        long now = 1_760_000_000_123L;
+        TimingWheel<String> wheel = new TimingWheel<>(1_000, now);
+        long deadline = now + 600_000;  // batas waktu penahanan bawaan 10 menit
+        wheel.schedule("hold", deadline);
+        assertEquals(List.of(), wheel.advance(deadline - 1));
+        List<String> expired = wheel.advance(deadline + 999);
+        assertEquals(List.of("hold"), expired);
+    }
+
+    @Test
+    void randomDeadlinesNeverExpireEarlyOrLate() {
+        Random random = new Random(42);
+        long start = 123_456;
+        TimingWheel<Integer> wheel = new TimingWheel<>(1, start);
+        Map<Integer, Long> deadlines = new HashMap<>();
+        Map<Integer, TimingWheel.Timeout<Integer>> timeouts = new HashMap<>();
+        for (int i = 0; i < 2_000; i++) {
+            // deadline selalu setelah tick awal; deadline yang sudah lewat diuji terpisah
+            long deadline = start + 1 + switch (i % 4) {
+                case 0 -> random.nextInt((int) L1);
+                case 1 -> random.nextInt((int) L2);
+                case 2 -> random.nextInt((int) L3);
+                default -> L3 + random.nextInt((int) L2);
+            };
+            deadlines.put(i, deadline);
+            timeouts.put(i, wheel.schedule(i, deadline));
+        }
+        List<Integer> cancelled = new ArrayList<>();
+        long now = start;
+        long previous = start;
+        while (!deadlines.isEmpty()) {
+            now += 1 + random.nextInt(300);
+            for (int id : wheel.advance(now)) {
+                long deadline = deadlines.remove(id);
+                assertTrue(deadline <= now, "item " + id + " expired before its deadline");
+                assertTrue(deadline > previous, "item " + id + " expired later than the first advance past its deadline");
+            }
+            previous = now;
+            // sesekali batalkan jadwal yang masih aktif, termasuk yang sudah diturunkan
+            if (random.nextInt(4) == 0 && !deadlines.isEmpty()) {
+                int id = deadlines.keySet().iterator().next();
+                assertTrue(timeouts.get(id).cancel());
+                deadlines.remove(id);
+                cancelled.add(id);
+            }
+            assertEquals(deadlines.size(), wheel.size());
+        }
+        assertFalse(cancelled.isEmpty());
+    }
+}
@@ -0,0 +1,111 @@
+package id.univ.uaspbo.replication;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Unit test ReplicationLog: penomoran LSN, penggusuran entri pada batas kapasitas ring buffer,
+ * serta jendela covers dan read yang menentukan apakah follower dilayani dari ekor log atau snapshot.
+ */
+class ReplicationLogTest {
+
+    private static long append(ReplicationLog log) {
+        return log.append(ReplicationMessage::heartbeat);
+    }
+
+    private static List<Long> lsns(List<ReplicationMessage> entries) {
+        return entries.stream().map(ReplicationMessage::lsn).toList();
+    }
+
+    @Test
+    void emptyLogCoversOnlyLsnZero() throws InterruptedException {
+        ReplicationLog log = new ReplicationLog(3);
+        assertEquals(1, log.firstLsn());
+        assertEquals(0, log.lastLsn());
+        assertTrue(log.covers(0));
+        assertFalse(log.covers(1));
+        assertEquals(List.of(), log.read(0, 10, 0));
+        assertNull(log.read(1, 10, 0));
+    }
+
+    @Test
+    void lsnsAreSequentialFromOne() {
+        ReplicationLog log = new ReplicationLog(3);
+        assertEquals(1, append(log));
+        assertEquals(2, append(log));
+        assertEquals(3, append(log));
+    }
+
+    @Test
+    void fullLogStillCoversFromStart() throws InterruptedException {
+        ReplicationLog log = new ReplicationLog(3);
+        for (int i = 0; i < 3; i++) append(log);
+        assertEquals(1, log.firstLsn());
+        assertTrue(log.covers(0));
+        assertEquals(List.of(1L, 2L, 3L), lsns(log.read(0, 10, 0)));
+    }
+
+    @Test
+    void appendPastCapacityEvictsOldestEntry() throws InterruptedException {
+        ReplicationLog log = new ReplicationLog(3);
+        for (int i = 0; i < 4; i++) append(log);
+        assertEquals(2, log.firstLsn());
+        assertEquals(4, log.lastLsn());
+        assertFalse(log.covers(0));
+        assertNull(log.read(0, 10, 0));
+        assertTrue(log.covers(1));
+        assertEquals(List.of(2L, 3L, 4L), lsns(log.read(1, 10, 0)));
+        assertTrue(log.covers(4));
+        assertEquals(List.of(), log.read(4, 10, 0));
+        assertFalse(log.covers(5));
+        assertNull(log.read(5, 10, 0));
+    }
+
+    @Test
+    void readReturnsCorrectEntriesAfterManyWraps() throws InterruptedException {
+        ReplicationLog log = new ReplicationLog(5);
+        for (int i = 0; i < 17; i++) append(log);
+        assertEquals(13, log.firstLsn());
+        assertFalse(log.covers(11));
+        assertTrue(log.covers(12));
+        assertEquals(List.of(13L, 14L, 15L, 16L, 17L), lsns(log.read(12, 10, 0)));
+        assertEquals(List.of(15L, 16L), lsns(log.read(14, 2, 0)));
+    }
+
+    @Test
+    void capacityOfOneKeepsOnlyLatestEntry() throws InterruptedException {
+        ReplicationLog log = new ReplicationLog(1);
+        append(log);
+        append(log);
+        assertEquals(2, log.firstLsn());
+        assertFalse(log.covers(0));
+        assertTrue(log.covers(1));
+        assertEquals(List.of(2L), lsns(log.read(1, 10, 0)));
+    }
+
+    @Test
+    void readWaitsForNewEntry() throws InterruptedException {
+        ReplicationLog log = new ReplicationLog(3);
+        append(log);
+        Thread writer = new Thread(() -> {
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException ignored) {
+            }
+            append(log);
+        });
+        writer.start();
+        long started = System.nanoTime();
+        List<ReplicationMessage> entries = log.read(1, 10, 5_000);
+        long elapsedMs = (System.nanoTime() - started) / 1_000_000;
+        writer.join();
+        assertEquals(List.of(2L), lsns(entries));
+        assertTrue(elapsedMs < 4_000, "read should wake up on append, waited " + elapsedMs + " ms");
+    }
+}